@@ -0,0 +1,258 @@
+package io.netnotes.engine.crypto;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ove.crypto.digest.Blake2b;
+
+/**
+ * Blake2bTreeHasher - parallel Blake2b tree-mode file digests
+ *
+ * TREE:
+ * Blake2b tree mode, depth 2, unlimited fanout:
+ *   leaf i = Blake2b-512(file[i * leafLength ...], node depth 0, offset i)
+ *   root   = Blake2b(leaf 0 | leaf 1 | ..., node depth 1, offset 0)
+ * The last leaf and the root carry the last_node flag; an empty file is one
+ * empty leaf. Every node also binds fanout, depth, leaf and inner length,
+ * so the digest is a different function from a sequential Blake2b of the
+ * same bytes (HashServices.digestFileBlake2b) and from a tree with another
+ * leaf length - the two are not interchangeable.
+ *
+ * PARALLELISM:
+ * Workers on the given executor claim regions of REGION_BYTES, memory-map
+ * them read-only and hash their leaves; leaf digests land in one array by
+ * index, so only the small root pass is sequential.
+ *
+ * INCREMENTAL:
+ * newIncremental(file) keeps the digests of every leaf that is complete and
+ * not last. For a file that only grows, each update() hashes the leaves
+ * appended since the previous call plus the new last leaf, then the root.
+ */
+public final class Blake2bTreeHasher {
+
+    public static final int DEFAULT_LEAF_LENGTH = 1024 * 1024;
+    public static final int DEFAULT_DIGEST_LENGTH = 32;
+
+    private static final int DEPTH = 2;
+    private static final int FANOUT_UNLIMITED = 0;
+    private static final int INNER_LENGTH = Blake2b.Spec.max_digest_bytes;
+
+    private static final long REGION_BYTES = 64L * 1024 * 1024;
+    private static final int COPY_SIZE = 64 * 1024;
+
+    private final Blake2b.Tree m_tree;
+    private final int m_leafLength;
+    private final int m_digestLength;
+
+    public Blake2bTreeHasher() {
+        this(DEFAULT_LEAF_LENGTH, DEFAULT_DIGEST_LENGTH);
+    }
+
+    /**
+     * @param leafLength bytes per leaf, a multiple of the 128 byte block
+     * @param digestLength root digest length, 1..64
+     */
+    public Blake2bTreeHasher(int leafLength, int digestLength) {
+        if (leafLength <= 0 || leafLength % Blake2b.Spec.block_bytes != 0) {
+            throw new IllegalArgumentException("Leaf length must be a positive multiple of "
+                + Blake2b.Spec.block_bytes + ": " + leafLength);
+        }
+        if (digestLength < 1 || digestLength > Blake2b.Spec.max_digest_bytes) {
+            throw new IllegalArgumentException("Digest length out of range: " + digestLength);
+        }
+        m_leafLength = leafLength;
+        m_digestLength = digestLength;
+        m_tree = new Blake2b.Tree(DEPTH, FANOUT_UNLIMITED, leafLength, INNER_LENGTH, digestLength);
+    }
+
+    public int getLeafLength() {
+        return m_leafLength;
+    }
+
+    public int getDigestLength() {
+        return m_digestLength;
+    }
+
+    public long leafCount(long length) {
+        return length == 0 ? 1 : (length + m_leafLength - 1) / m_leafLength;
+    }
+
+    /**
+     * Tree digest of a whole file
+     *
+     * @param execService runs the leaf workers; null hashes on the calling thread
+     */
+    public byte[] digest(File file, ExecutorService execService) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            long leaves = leafCount(length);
+            byte[] leafDigests = newLeafDigests(leaves);
+            hashLeaves(channel, length, 0, leaves, leafDigests, execService);
+            return root(leafDigests, leafDigests.length);
+        }
+    }
+
+    /** Tree digest of an in-memory input, on the calling thread */
+    public byte[] digest(byte[] input) {
+        long leaves = leafCount(input.length);
+        byte[] leafDigests = newLeafDigests(leaves);
+        for (int i = 0; i < leaves; i++) {
+            int offset = i * m_leafLength;
+            int length = Math.min(m_leafLength, input.length - offset);
+            Blake2b leaf = m_tree.getNode(0, i, i == leaves - 1);
+            leaf.update(input, offset, length);
+            leaf.digest(leafDigests, i * INNER_LENGTH, INNER_LENGTH);
+        }
+        return root(leafDigests, leafDigests.length);
+    }
+
+    public Incremental newIncremental(File file) {
+        return new Incremental(file);
+    }
+
+    private byte[] newLeafDigests(long leaves) {
+        return new byte[leafDigestsLength(leaves)];
+    }
+
+    private int leafDigestsLength(long leaves) {
+        if (leaves > Integer.MAX_VALUE / INNER_LENGTH) {
+            throw new IllegalArgumentException("Too many leaves for leaf length " + m_leafLength + ": " + leaves);
+        }
+        return (int) leaves * INNER_LENGTH;
+    }
+
+    private byte[] root(byte[] leafDigests, int length) {
+        Blake2b root = m_tree.getRoot();
+        root.update(leafDigests, 0, length);
+        return root.digest();
+    }
+
+    /**
+     * Hash leaves [from, to) of the first fileLength bytes of channel into
+     * out, by leaf index; leaf to - 1 is last only if it ends the file.
+     */
+    private void hashLeaves(FileChannel channel, long fileLength, long from, long to, byte[] out,
+        ExecutorService execService
+    ) throws IOException {
+        long lastLeaf = leafCount(fileLength) - 1;
+        long regionLeaves = Math.max(1, REGION_BYTES / m_leafLength);
+        long regions = (to - from + regionLeaves - 1) / regionLeaves;
+        int workers = (int) Math.min(regions, Runtime.getRuntime().availableProcessors());
+        AtomicLong nextRegion = new AtomicLong();
+
+        Runnable worker = () -> {
+            byte[] scratch = new byte[COPY_SIZE];
+            long region;
+            try {
+                while ((region = nextRegion.getAndIncrement()) < regions) {
+                    long first = from + region * regionLeaves;
+                    long end = Math.min(to, first + regionLeaves);
+                    long position = first * m_leafLength;
+                    long size = Math.min(end * m_leafLength, fileLength) - position;
+
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                    for (long leaf = first; leaf < end; leaf++) {
+                        int offset = (int) ((leaf - first) * m_leafLength);
+                        int length = (int) Math.min(m_leafLength, size - offset);
+                        Blake2b digest = m_tree.getNode(0, leaf, leaf == lastLeaf);
+                        for (int done = 0; done < length; ) {
+                            int n = Math.min(COPY_SIZE, length - done);
+                            mapped.get(offset + done, scratch, 0, n);
+                            digest.update(scratch, 0, n);
+                            done += n;
+                        }
+                        digest.digest(out, (int) leaf * INNER_LENGTH, INNER_LENGTH);
+                    }
+                }
+            } catch (IOException e) {
+                nextRegion.set(regions);
+                throw new CompletionException(e);
+            }
+        };
+
+        if (execService == null || workers <= 1) {
+            try {
+                worker.run();
+            } catch (CompletionException e) {
+                throw (IOException) e.getCause();
+            }
+            return;
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            futures[i] = CompletableFuture.runAsync(worker, execService);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Tree digest of a file that is only appended to
+     *
+     * Assumes bytes already hashed never change; only a shrinking file is
+     * detected, and it is rehashed from the start. Not thread-safe.
+     */
+    public final class Incremental {
+        private final File m_file;
+        private byte[] m_leafDigests = new byte[0];
+        // Complete, non-last leaves in m_leafDigests
+        private long m_cachedLeaves = 0;
+        private long m_length = 0;
+
+        private Incremental(File file) {
+            m_file = file;
+        }
+
+        /**
+         * Hash what was appended since the last call
+         *
+         * @param execService runs the leaf workers; null hashes on the calling thread
+         * @return tree digest of the whole file as it is now
+         */
+        public byte[] update(ExecutorService execService) throws IOException {
+            try (FileChannel channel = FileChannel.open(m_file.toPath(), StandardOpenOption.READ)) {
+                long length = channel.size();
+                if (length < m_length) {
+                    m_cachedLeaves = 0;
+                }
+                long leaves = leafCount(length);
+                if (m_leafDigests.length < leaves * INNER_LENGTH) {
+                    long capacity = Math.max(leaves, Math.min(2L * m_leafDigests.length, Integer.MAX_VALUE) / INNER_LENGTH);
+                    m_leafDigests = Arrays.copyOf(m_leafDigests, leafDigestsLength(capacity));
+                }
+
+                // The last leaf is always rehashed: it gains bytes or loses its last_node flag
+                hashLeaves(channel, length, m_cachedLeaves, leaves, m_leafDigests, execService);
+                m_cachedLeaves = leaves - 1;
+                m_length = length;
+
+                return root(m_leafDigests, (int) leaves * INNER_LENGTH);
+            }
+        }
+
+        /** File length covered by the last update() */
+        public long getLength() {
+            return m_length;
+        }
+
+        /** Leaves whose digests are reused by the next update() */
+        public long getCachedLeaves() {
+            return m_cachedLeaves;
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package io.netnotes.engine.crypto;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 import io.netnotes.noteBytes.processing.RandomService;
 
 /**
  * AES-GCM encryption session
+ * 
+ * One Cipher per direction is created on first use and re-initialized with
+ * the counter IV for every packet (Cipher.getInstance is the expensive part).
+ * Not thread safe: one reader / one writer per session.
  */
 public class EncryptedSession {
     private SecretKey secretKey;
     private byte[] iv;
+
+    private Cipher decryptCipher = null;
+    private Cipher encryptCipher = null;
     
     /**
      * Initialize with shared secret
@@ -58,7 +67,7 @@ public class EncryptedSession {
             throw new IllegalArgumentException("Ciphertext too short (needs at least 16 bytes for tag)");
         }
         
-        Cipher cipher = CryptoService.getAESDecryptCipher(iv, secretKey);
+        Cipher cipher = initCipher(Cipher.DECRYPT_MODE);
         byte[] plaintext = cipher.doFinal(ciphertext);
         
         // Increment IV counter
@@ -66,13 +75,34 @@ public class EncryptedSession {
         
         return plaintext;
     }
+
+    /**
+     * Decrypt a packet from daemon without allocating the plaintext
+     * Input: ciphertext.remaining() bytes of ciphertext + 16-byte tag
+     * Output: plaintext written at plaintext.position()
+     * 
+     * @return plaintext length
+     */
+    public int decrypt(ByteBuffer ciphertext, ByteBuffer plaintext) throws Exception {
+        if (ciphertext.remaining() < 16) {
+            throw new IllegalArgumentException("Ciphertext too short (needs at least 16 bytes for tag)");
+        }
+
+        Cipher cipher = initCipher(Cipher.DECRYPT_MODE);
+        int length = cipher.doFinal(ciphertext, plaintext);
+
+        // Increment IV counter
+        incrementIV();
+
+        return length;
+    }
     
     /**
      * Encrypt a packet to send to daemon
      * Output: ciphertext + 16-byte authentication tag
      */
     public byte[] encrypt(byte[] plaintext) throws Exception {
-        Cipher cipher = CryptoService.getAESEncryptCipher(iv, secretKey);
+        Cipher cipher = initCipher(Cipher.ENCRYPT_MODE);
         
         byte[] ciphertext = cipher.doFinal(plaintext);
         
@@ -82,6 +112,26 @@ public class EncryptedSession {
         return ciphertext;
     }
     
+    /**
+     * Re-init the cached cipher for this direction with the current IV
+     */
+    private Cipher initCipher(int mode) throws Exception {
+        if (secretKey == null) {
+            throw new IllegalStateException("Session not initialized");
+        }
+        Cipher cipher = mode == Cipher.DECRYPT_MODE ? decryptCipher : encryptCipher;
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CryptoService.AES_GCM_NO_PADDING);
+            if (mode == Cipher.DECRYPT_MODE) {
+                decryptCipher = cipher;
+            } else {
+                encryptCipher = cipher;
+            }
+        }
+        cipher.init(mode, secretKey, new GCMParameterSpec(CryptoService.GCM_TAG_LENGTH, iv));
+        return cipher;
+    }
+
     /**
      * Increment IV as a counter (matches C++ implementation)
      */
@@ -101,5 +151,7 @@ public class EncryptedSession {
             iv = null;
         }
         secretKey = null;
+        decryptCipher = null;
+        encryptCipher = null;
     }
 }
\ No newline at end of file
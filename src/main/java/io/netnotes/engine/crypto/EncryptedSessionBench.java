@@ -0,0 +1,134 @@
+package io.netnotes.engine.crypto;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * EncryptedSessionBench - per-event device decryption, before / after
+ *
+ * - before: Cipher.getInstance + init per event, doFinal(byte[]) into a
+ *           fresh plaintext array (the old EncryptedSession.decrypt)
+ * - after:  cached Cipher re-inited with the counter IV, doFinal(ByteBuffer)
+ *           into a reused plaintext buffer wiped after each event
+ *           (EncryptedSession.decrypt(ByteBuffer, ByteBuffer) as used by
+ *           DeviceEncryptionSession.decryptInto)
+ *
+ * Events are keyboard/mouse sized payloads encrypted with a matching
+ * counter-IV session.
+ *
+ * usage: java -cp .. io.netnotes.engine.crypto.EncryptedSessionBench [events]
+ */
+public class EncryptedSessionBench {
+
+    private static final int[] PAYLOAD_SIZES = { 48, 96, 256 };
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String... args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        byte[] secret = new byte[32];
+        new Random(7).nextBytes(secret);
+        byte[] iv = new byte[CryptoService.AES_IV_SIZE];
+        new Random(11).nextBytes(iv);
+
+        System.out.format("payload | before (ev/s) | B/ev   | after (ev/s) | B/ev   | speedup%n");
+        for (int size : PAYLOAD_SIZES) {
+            byte[][] packets = encryptStream(secret, iv, size, events);
+
+            double[] before = null;
+            double[] after = null;
+            for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                before = runBefore(secret, iv, packets);
+                after = runAfter(secret, iv, packets);
+            }
+            System.out.format("%7d | %13.0f | %6.1f | %12.0f | %6.1f | %6.1fx%n",
+                size, before[0], before[1], after[0], after[1],
+                before[0] > 0 ? after[0] / before[0] : 0.0);
+        }
+    }
+
+    private static byte[][] encryptStream(byte[] secret, byte[] iv, int size, int events) throws Exception {
+        EncryptedSession sender = new EncryptedSession();
+        sender.init(secret);
+        sender.setIV(iv);
+
+        Random rnd = new Random(size);
+        byte[][] packets = new byte[events][];
+        byte[] plain = new byte[size];
+        for (int i = 0; i < events; i++) {
+            rnd.nextBytes(plain);
+            packets[i] = sender.encrypt(plain);
+        }
+        return packets;
+    }
+
+    /** Old path: fresh Cipher and plaintext per event */
+    private static double[] runBefore(byte[] secret, byte[] initialIv, byte[][] packets) throws Exception {
+        SecretKey key = new SecretKeySpec(secret, CryptoService.AES_ALGORITHM);
+        byte[] iv = initialIv.clone();
+        long sink = 0;
+
+        long alloc = allocatedBytes();
+        long start = System.nanoTime();
+        for (byte[] packet : packets) {
+            Cipher cipher = CryptoService.getAESDecryptCipher(iv, key);
+            byte[] plaintext = cipher.doFinal(packet);
+            sink += plaintext[0];
+            incrementIV(iv);
+        }
+        long delta = System.nanoTime() - start;
+        long bytes = allocatedBytes() - alloc;
+
+        if (sink == Long.MIN_VALUE) System.out.print("");
+        return new double[] { packets.length / (delta / 1e9), bytes / (double) packets.length };
+    }
+
+    /** New path: cached cipher, reused wiped buffer */
+    private static double[] runAfter(byte[] secret, byte[] iv, byte[][] packets) throws Exception {
+        EncryptedSession session = new EncryptedSession();
+        session.init(secret);
+        session.setIV(iv);
+
+        ByteBuffer plaintext = ByteBuffer.allocate(packets[0].length - 16);
+        ByteBuffer[] inputs = new ByteBuffer[packets.length];
+        for (int i = 0; i < packets.length; i++) {
+            inputs[i] = ByteBuffer.wrap(packets[i]);
+        }
+        long sink = 0;
+
+        long alloc = allocatedBytes();
+        long start = System.nanoTime();
+        for (ByteBuffer in : inputs) {
+            plaintext.clear();
+            session.decrypt(in, plaintext);
+            sink += plaintext.get(0);
+            Arrays.fill(plaintext.array(), (byte) 0);
+        }
+        long delta = System.nanoTime() - start;
+        long bytes = allocatedBytes() - alloc;
+
+        if (sink == Long.MIN_VALUE) System.out.print("");
+        return new double[] { packets.length / (delta / 1e9), bytes / (double) packets.length };
+    }
+
+    private static void incrementIV(byte[] iv) {
+        for (int i = iv.length - 1; i >= 0; i--) {
+            iv[i]++;
+            if (iv[i] != 0) break;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -56,6 +56,15 @@ public class HashServices {
         }
     }
 
+    /**
+     * Blake2b tree digest, leaves hashed in parallel from memory-mapped
+     * regions (see Blake2bTreeHasher). Not the same value as
+     * digestFileBlake2b for the same file.
+     */
+    public static byte[] digestFileBlake2bTree(File file, int digestLength, ExecutorService execService) throws IOException {
+        return new Blake2bTreeHasher(Blake2bTreeHasher.DEFAULT_LEAF_LENGTH, digestLength).digest(file, execService);
+    }
+
     public static boolean verifyBCryptPassword(NoteBytesEphemeral ephemeralPassword, NoteBytes hash) {
         try(NoteBytesEphemeral password = ephemeralPassword.copy()){
             BCrypt.Result result = BCrypt.verifyer(BCrypt.Version.VERSION_2A, LongPasswordStrategies.hashSha512(BCrypt.Version.VERSION_2A)).verify(password.get(), hash.getBytes());
@@ -1,6 +1,7 @@
 package io.netnotes.engine.io;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import io.netnotes.noteBytes.NoteBytes;
@@ -19,6 +20,17 @@ import io.netnotes.noteBytes.processing.NoteBytesMetaData;
  *   - String form: "/"
  *   - isEmpty() returns true
  *   - isAbsolute() returns true
+ * 
+ * Comparison:
+ *   - intern() registers the path's segments as global ids
+ *     (PathSegmentTable); other paths only look their segments up, so
+ *     they never grow the table
+ *   - equals/startsWith/commonAncestor compare int arrays when every
+ *     segment of both paths has an id, the segments otherwise
+ *   - hashCode is cached
+ *   - intern() returns a shared canonical instance (weakly held) for paths
+ *     used as long-lived keys
+ *   - matches() runs a compiled PathPattern, cached on the pattern path
  */
 public final class ContextPath {
     public final static String DELIMITER = "/";
@@ -31,6 +43,12 @@ public final class ContextPath {
     private final NoteStringArrayReadOnly segments;
     private final String pathString;
 
+    // Lazily computed, see segmentIds() / hashCode() / asPattern()
+    private volatile int[] segmentIds;
+    private volatile SegmentLookup segmentLookup;
+    private int hash;
+    private volatile PathPattern compiledPattern;
+
     public static final ContextPath ROOT = new ContextPath(NoteStringArrayReadOnly.EMPTY);
     
 
@@ -304,7 +322,12 @@ public final class ContextPath {
     }
 
     public boolean startsWith(ContextPath prefix) {
-        return segments.startsWith(prefix.segments);
+        if (prefix == this) return true;
+        int[] ids = knownSegmentIds();
+        int[] prefixIds = ids != null ? prefix.knownSegmentIds() : null;
+        if (prefixIds == null) return segments.startsWith(prefix.segments);
+        if (prefixIds.length > ids.length) return false;
+        return Arrays.equals(ids, 0, prefixIds.length, prefixIds, 0, prefixIds.length);
     }
 
     public boolean startsWith(String prefix) {
@@ -377,11 +400,19 @@ public final class ContextPath {
     }
 
     public ContextPath commonAncestor(ContextPath other) {
-        int min = Math.min(segments.size(), other.segments.size());
-        int common = 0;
-        for (int i = 0; i < min; i++) {
-            if (segments.get(i).equals(other.segments.get(i))) common++;
-            else break;
+        int[] ids = knownSegmentIds();
+        int[] otherIds = ids != null ? other.knownSegmentIds() : null;
+        int common;
+        if (otherIds != null) {
+            common = Arrays.mismatch(ids, otherIds);
+            if (common == -1) return this;
+        } else {
+            int min = Math.min(segments.size(), other.segments.size());
+            common = 0;
+            for (int i = 0; i < min; i++) {
+                if (segments.get(i).equals(other.segments.get(i))) common++;
+                else break;
+            }
         }
         if (common == 0) return ROOT;
         
@@ -649,34 +680,103 @@ public final class ContextPath {
     }
 
     public boolean matches(ContextPath pattern) {
-        return matchesRecursive(0, pattern, 0);
+        return pattern.asPattern().matches(this);
     }
 
-    private boolean matchesRecursive(int pathIdx, ContextPath pattern, int patternIdx) {
-        if (pathIdx >= segments.size() && patternIdx >= pattern.segments.size()) return true;
-        if (patternIdx >= pattern.segments.size()) return false;
+    /**
+     * This path compiled as a "*" / "**" pattern (cached)
+     */
+    public PathPattern asPattern() {
+        PathPattern pattern = compiledPattern;
+        if (pattern == null) {
+            pattern = PathPattern.compile(this);
+            compiledPattern = pattern;
+        }
+        return pattern;
+    }
 
-        String patternSeg = pattern.segments.getString(patternIdx);
-        if ("**".equals(patternSeg)) {
-            for (int i = pathIdx; i <= segments.size(); i++) {
-                if (matchesRecursive(i, pattern, patternIdx + 1)) return true;
-            }
-            return false;
+    /**
+     * Segment ids (PathSegmentTable), UNKNOWN for segments without an id
+     * 
+     * A complete lookup is cached for good; an incomplete one until the
+     * table gains a segment. Never registers segments.
+     */
+    int[] segmentIds() {
+        int[] ids = segmentIds;
+        if (ids != null) {
+            return ids;
+        }
+        int generation = PathSegmentTable.generation();
+        SegmentLookup last = segmentLookup;
+        if (last != null && last.generation == generation) {
+            return last.ids;
+        }
+        ids = segments.isEmpty() ? new int[0] : PathSegmentTable.lookupAll(segments.getAsStringArray());
+        if (PathSegmentTable.isComplete(ids)) {
+            segmentIds = ids;
+            segmentLookup = null;
+        } else {
+            segmentLookup = new SegmentLookup(ids, generation);
+        }
+        return ids;
+    }
+
+    /**
+     * Segment ids if every segment has one, otherwise null
+     */
+    int[] knownSegmentIds() {
+        int[] ids = segmentIds();
+        return ids == segmentIds ? ids : null;
+    }
+
+    /**
+     * Register this path's segments and cache their ids (ContextPathInterner)
+     */
+    int[] registerSegmentIds() {
+        int[] ids = segmentIds;
+        if (ids == null) {
+            ids = segments.isEmpty() ? new int[0] : PathSegmentTable.idsOf(segments.getAsStringArray());
+            segmentIds = ids;
+            segmentLookup = null;
         }
+        return ids;
+    }
 
-        if (pathIdx >= segments.size()) return false;
-        String pathSeg = segments.getString(pathIdx);
+    /** An incomplete lookup and the table generation it was made at */
+    private static final class SegmentLookup {
+        final int[] ids;
+        final int generation;
 
-        if ("*".equals(patternSeg) || pathSeg.equals(patternSeg)) {
-            return matchesRecursive(pathIdx + 1, pattern, patternIdx + 1);
+        SegmentLookup(int[] ids, int generation) {
+            this.ids = ids;
+            this.generation = generation;
         }
-        return false;
+    }
+
+    /**
+     * Canonical instance for this path
+     * 
+     * Interned paths compare by identity and share cached ids/hash/pattern.
+     * Use for long-lived keys (registry paths, routes), not per-packet paths.
+     */
+    public ContextPath intern() {
+        return ContextPathInterner.intern(this);
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o instanceof ContextPath other ){
+            int h = hash;
+            int otherHash = other.hash;
+            if (h != 0 && otherHash != 0 && h != otherHash) {
+                return false;
+            }
+            int[] ids = knownSegmentIds();
+            int[] otherIds = ids != null ? other.knownSegmentIds() : null;
+            if (otherIds != null) {
+                return Arrays.equals(ids, otherIds);
+            }
             return segments.equals(other.segments);
         }else if(o instanceof NoteBytes noteBytes){
             return segments.equals(noteBytes);
@@ -686,7 +786,12 @@ public final class ContextPath {
 
     @Override
     public int hashCode() {
-        return segments.hashCode();
+        int h = hash;
+        if (h == 0) {
+            h = segments.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
     @Override
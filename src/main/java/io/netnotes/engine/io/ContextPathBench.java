@@ -0,0 +1,133 @@
+package io.netnotes.engine.io;
+
+import java.util.Random;
+
+/**
+ * ContextPathBench - ContextPath comparison, NoteBytes-delegated vs segment ids
+ *
+ * - legacy: equals/hashCode/startsWith on the NoteStringArrayReadOnly
+ *           segments, matches via the old recursive String matcher
+ * - ids:    ContextPath.equals/hashCode/startsWith (cached segment ids and
+ *           hash), matches via the cached compiled PathPattern
+ * - interned: equals between intern()ed instances (identity)
+ *
+ * Paths look like IODaemon sessions: /system/io/session-S/device-D.
+ * Plain timing loop with warmup rounds (the project has no JMH dependency).
+ *
+ * usage: java -cp .. io.netnotes.engine.io.ContextPathBench [iterations]
+ */
+public class ContextPathBench {
+
+    private static final int PATHS = 1024;
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String... args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        ContextPath[] paths = new ContextPath[PATHS];
+        ContextPath[] copies = new ContextPath[PATHS];
+        ContextPath[] interned = new ContextPath[PATHS];
+        ContextPath[] internedCopies = new ContextPath[PATHS];
+        ContextPath[] prefixes = new ContextPath[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            String[] segs = { "system", "io", "session-" + (i % 32), "device-" + i };
+            paths[i] = ContextPath.of(segs);
+            copies[i] = ContextPath.of(segs);
+            interned[i] = ContextPath.of(segs).intern();
+            internedCopies[i] = ContextPath.of(segs).intern();
+            prefixes[i] = ContextPath.of("system", "io", "session-" + (i % 32));
+        }
+        ContextPath[] patterns = {
+            ContextPath.parse("/system/io/*/device-7"),
+            ContextPath.parse("/system/**/device-7"),
+            ContextPath.parse("/**/**/**/**/device-7"),
+        };
+
+        System.out.format("op          | legacy (ns/op) | ids (ns/op) | interned (ns/op)%n");
+        Random rnd = new Random(3);
+        int[] picks = new int[iterations];
+        for (int i = 0; i < iterations; i++) {
+            picks[i] = rnd.nextInt(PATHS);
+        }
+
+        double[] r = null;
+        for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+            r = new double[] {
+                time(picks, i -> paths[i].getSegments().equals(copies[i].getSegments())),
+                time(picks, i -> paths[i].equals(copies[i])),
+                time(picks, i -> interned[i].equals(internedCopies[i])),
+            };
+        }
+        report("equals", r);
+
+        for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+            r = new double[] {
+                time(picks, i -> paths[i].getSegments().hashCode() != 0),
+                time(picks, i -> paths[i].hashCode() != 0),
+                time(picks, i -> interned[i].hashCode() != 0),
+            };
+        }
+        report("hashCode", r);
+
+        for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+            r = new double[] {
+                time(picks, i -> paths[i].getSegments().startsWith(prefixes[i].getSegments())),
+                time(picks, i -> paths[i].startsWith(prefixes[i])),
+                Double.NaN,
+            };
+        }
+        report("startsWith", r);
+
+        for (ContextPath pattern : patterns) {
+            for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                r = new double[] {
+                    time(picks, i -> legacyMatches(paths[i].getStringSegments(), 0,
+                        pattern.getStringSegments(), 0)),
+                    time(picks, i -> paths[i].matches(pattern)),
+                    Double.NaN,
+                };
+            }
+            report("matches " + pattern, r);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Op {
+        boolean test(int index);
+    }
+
+    private static double time(int[] picks, Op op) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int pick : picks) {
+            if (op.test(pick)) hits++;
+        }
+        long delta = System.nanoTime() - start;
+        if (hits == Integer.MIN_VALUE) System.out.print("");
+        return delta / (double) picks.length;
+    }
+
+    /** The recursive matcher ContextPath.matches used before PathPattern */
+    private static boolean legacyMatches(String[] path, int pathIdx, String[] pattern, int patternIdx) {
+        if (pathIdx >= path.length && patternIdx >= pattern.length) return true;
+        if (patternIdx >= pattern.length) return false;
+
+        String patternSeg = pattern[patternIdx];
+        if ("**".equals(patternSeg)) {
+            for (int i = pathIdx; i <= path.length; i++) {
+                if (legacyMatches(path, i, pattern, patternIdx + 1)) return true;
+            }
+            return false;
+        }
+        if (pathIdx >= path.length) return false;
+        if ("*".equals(patternSeg) || path[pathIdx].equals(patternSeg)) {
+            return legacyMatches(path, pathIdx + 1, pattern, patternIdx + 1);
+        }
+        return false;
+    }
+
+    private static void report(String op, double[] r) {
+        System.out.format("%-11s | %14.1f | %11.1f | %16s%n", op, r[0], r[1],
+            Double.isNaN(r[2]) ? "-" : String.format("%.1f", r[2]));
+    }
+}
@@ -0,0 +1,89 @@
+package io.netnotes.engine.io;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ContextPathInterner - weak canonicalization table for ContextPath
+ *
+ * intern() returns one shared instance per distinct path, so long-lived
+ * keys (registry, routes) compare by identity and share their cached hash,
+ * segment ids and compiled pattern. Interning is what registers a path's
+ * segments in PathSegmentTable. Entries are weakly referenced: once no
+ * one holds the canonical instance it is collected and its entry expunged
+ * on a later intern().
+ */
+final class ContextPathInterner {
+
+    private static final ConcurrentHashMap<Key, Ref> table = new ConcurrentHashMap<>(256);
+    private static final ReferenceQueue<ContextPath> queue = new ReferenceQueue<>();
+
+    private ContextPathInterner() {}
+
+    static ContextPath intern(ContextPath path) {
+        expunge();
+        Key key = new Key(path.registerSegmentIds(), path.hashCode());
+        for (;;) {
+            Ref ref = table.get(key);
+            if (ref != null) {
+                ContextPath existing = ref.get();
+                if (existing != null) {
+                    return existing;
+                }
+                // Collected but not yet expunged: replace it
+                if (table.replace(key, ref, new Ref(path, key, queue))) {
+                    return path;
+                }
+                continue;
+            }
+            if (table.putIfAbsent(key, new Ref(path, key, queue)) == null) {
+                return path;
+            }
+        }
+    }
+
+    static int size() {
+        expunge();
+        return table.size();
+    }
+
+    private static void expunge() {
+        Object stale;
+        while ((stale = queue.poll()) != null) {
+            Ref ref = (Ref) stale;
+            table.remove(ref.key, ref);
+        }
+    }
+
+    private static final class Ref extends WeakReference<ContextPath> {
+        final Key key;
+
+        Ref(ContextPath path, Key key, ReferenceQueue<ContextPath> queue) {
+            super(path, queue);
+            this.key = key;
+        }
+    }
+
+    /** Holds only the ids, never the path, so the path stays collectable */
+    private static final class Key {
+        final int[] ids;
+        final int hash;
+
+        Key(int[] ids, int hash) {
+            this.ids = ids;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && Arrays.equals(ids, other.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package io.netnotes.engine.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netnotes.noteBytes.NoteBytes;
+import io.netnotes.noteBytes.collections.NoteBytesMap;
+
+/**
+ * PacketMetadata - immutable small-array metadata for RoutedPacket
+ *
+ * Packets carry a handful of entries (correlationId, replyTo, ...), so a
+ * flat [k0, v0, k1, v1, ...] array with linear lookup beats a hash map, and
+ * being immutable it never needs a defensive copy.
+ *
+ * - with(key, value) shares this instance: the new node holds one entry and
+ *   points at its parent, so adding to a packet's metadata is one small
+ *   allocation instead of a full map copy
+ * - newer entries shadow older ones with the same key
+ * - chains longer than MAX_DEPTH are flattened so lookups stay short
+ * - Builder collects entries and creates a single node
+ */
+public final class PacketMetadata {
+
+    public static final PacketMetadata EMPTY = new PacketMetadata(null, new NoteBytes[0]);
+
+    private static final int MAX_DEPTH = 4;
+
+    private final PacketMetadata parent;
+    // Interleaved key/value pairs
+    private final NoteBytes[] entries;
+    private final int depth;
+
+    private PacketMetadata(PacketMetadata parent, NoteBytes[] entries) {
+        this.parent = parent != null && parent.entries.length == 0 && parent.parent == null ? null : parent;
+        this.entries = entries;
+        this.depth = this.parent == null ? 0 : this.parent.depth + 1;
+    }
+
+    /**
+     * Snapshot of a mutable map
+     */
+    public static PacketMetadata of(NoteBytesMap map) {
+        if (map == null || map.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder();
+        for (var entry : map.getHashMap().entrySet()) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    public static PacketMetadata of(NoteBytes key, NoteBytes value) {
+        return EMPTY.with(key, value);
+    }
+
+    // ===== LOOKUP =====
+
+    public NoteBytes get(NoteBytes key) {
+        for (PacketMetadata node = this; node != null; node = node.parent) {
+            NoteBytes[] e = node.entries;
+            for (int i = e.length - 2; i >= 0; i -= 2) {
+                if (e[i].equals(key)) {
+                    return e[i + 1];
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(NoteBytes key) {
+        return get(key) != null;
+    }
+
+    public boolean isEmpty() {
+        return entries.length == 0 && parent == null;
+    }
+
+    /**
+     * Distinct keys, newest first
+     */
+    public List<NoteBytes> keys() {
+        List<NoteBytes> keys = new ArrayList<>(4);
+        for (PacketMetadata node = this; node != null; node = node.parent) {
+            NoteBytes[] e = node.entries;
+            for (int i = e.length - 2; i >= 0; i -= 2) {
+                if (!keys.contains(e[i])) {
+                    keys.add(e[i]);
+                }
+            }
+        }
+        return keys;
+    }
+
+    public int size() {
+        return keys().size();
+    }
+
+    // ===== DERIVATION =====
+
+    /**
+     * This metadata plus one entry (replacing any entry with the same key)
+     */
+    public PacketMetadata with(NoteBytes key, NoteBytes value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Metadata key and value required");
+        }
+        if (depth >= MAX_DEPTH) {
+            return toBuilder().put(key, value).build();
+        }
+        return new PacketMetadata(this, new NoteBytes[] { key, value });
+    }
+
+    /**
+     * This metadata plus every entry of map, as one node
+     */
+    public PacketMetadata withAll(NoteBytesMap map) {
+        if (map == null || map.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return of(map);
+        }
+        Builder builder = depth >= MAX_DEPTH ? toBuilder() : new Builder(this);
+        for (var entry : map.getHashMap().entrySet()) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Mutable copy (for callers that need a NoteBytesMap)
+     */
+    public NoteBytesMap toNoteBytesMap() {
+        NoteBytesMap map = new NoteBytesMap();
+        for (NoteBytes key : keys()) {
+            map.put(key, get(key));
+        }
+        return map;
+    }
+
+    /**
+     * Builder pre-filled with the current (flattened) entries
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        List<NoteBytes> keys = keys();
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            NoteBytes key = keys.get(i);
+            builder.put(key, get(key));
+        }
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return "PacketMetadata" + keys();
+    }
+
+    // ===== BUILDER =====
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects entries, build() creates one node
+     */
+    public static final class Builder {
+        private final PacketMetadata parent;
+        private NoteBytes[] entries = new NoteBytes[4];
+        private int length = 0;
+
+        public Builder() {
+            this(null);
+        }
+
+        private Builder(PacketMetadata parent) {
+            this.parent = parent;
+        }
+
+        public Builder put(NoteBytes key, NoteBytes value) {
+            if (key == null || value == null) {
+                throw new IllegalArgumentException("Metadata key and value required");
+            }
+            for (int i = 0; i < length; i += 2) {
+                if (entries[i].equals(key)) {
+                    entries[i + 1] = value;
+                    return this;
+                }
+            }
+            if (length == entries.length) {
+                NoteBytes[] grown = new NoteBytes[entries.length * 2];
+                System.arraycopy(entries, 0, grown, 0, length);
+                entries = grown;
+            }
+            entries[length++] = key;
+            entries[length++] = value;
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        public PacketMetadata build() {
+            if (length == 0) {
+                return parent != null ? parent : EMPTY;
+            }
+            NoteBytes[] exact = new NoteBytes[length];
+            System.arraycopy(entries, 0, exact, 0, length);
+            return new PacketMetadata(parent, exact);
+        }
+    }
+}
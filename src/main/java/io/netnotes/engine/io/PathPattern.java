@@ -0,0 +1,232 @@
+package io.netnotes.engine.io;
+
+import java.util.Arrays;
+
+/**
+ * PathPattern - compiled "*" / "**" matcher for ContextPath
+ *
+ * Same rules as ContextPath.matches:
+ * - "*"  matches exactly one segment
+ * - "**" matches zero or more segments
+ * - anything else matches that segment literally
+ *
+ * Literals compile to segment ids (PathSegmentTable.lookup, which never
+ * registers) and the pattern runs as an NFA over the path's segment ids:
+ * one pass over the path, tracking every pattern position that is still
+ * alive (a long bitmask for patterns up to 63 segments). Cost is
+ * O(path length x pattern length) with no backtracking, where the old
+ * recursive matcher went exponential on repeated "**".
+ *
+ * A literal or path segment without an id (nothing interned it) is compared
+ * as a string; literals are looked up again once the table has grown.
+ *
+ * Immutable and thread-safe; compile once and reuse (ContextPath caches the
+ * compiled form of a pattern path).
+ */
+public final class PathPattern {
+    public static final String WILDCARD = "*";
+    public static final String RECURSIVE_WILDCARD = "**";
+
+    private static final int STAR = -1;
+    private static final int GLOBSTAR = -2;
+    // Literal whose segment had no id at the last lookup
+    private static final int UNRESOLVED = -3;
+
+    private final String[] literals;
+    private final boolean literal;
+    private final String source;
+    private volatile Resolution resolution;
+
+    private PathPattern(int[] tokens, String[] literals, boolean literal, String source, int generation) {
+        this.literals = literals;
+        this.literal = literal;
+        this.source = source;
+        this.resolution = new Resolution(tokens, generation);
+    }
+
+    public static PathPattern compile(String pattern) {
+        return compile(ContextPath.parse(pattern));
+    }
+
+    public static PathPattern compile(ContextPath pattern) {
+        int generation = PathSegmentTable.generation();
+        String[] segments = pattern.getStringSegments();
+        int[] tokens = new int[segments.length];
+        String[] literals = new String[segments.length];
+        int length = 0;
+        boolean literal = true;
+        for (String segment : segments) {
+            int token;
+            if (RECURSIVE_WILDCARD.equals(segment)) {
+                // "**/**" == "**"
+                if (length > 0 && tokens[length - 1] == GLOBSTAR) {
+                    continue;
+                }
+                token = GLOBSTAR;
+                literal = false;
+            } else if (WILDCARD.equals(segment)) {
+                token = STAR;
+                literal = false;
+            } else {
+                token = toToken(PathSegmentTable.lookup(segment));
+                literals[length] = segment;
+            }
+            tokens[length++] = token;
+        }
+        return new PathPattern(Arrays.copyOf(tokens, length), Arrays.copyOf(literals, length), literal,
+            pattern.toString(), generation);
+    }
+
+    private static int toToken(int id) {
+        return id == PathSegmentTable.UNKNOWN ? UNRESOLVED : id;
+    }
+
+    /**
+     * @return true if path matches this pattern
+     */
+    public boolean matches(ContextPath path) {
+        // Tokens before path ids: a literal resolved here is visible to the path lookup
+        Resolution r = resolve();
+        int[] tokens = r.tokens;
+        int[] ids = path.segmentIds();
+        if (literal && r.complete && ids == path.knownSegmentIds()) {
+            return Arrays.equals(tokens, ids);
+        }
+        return tokens.length < Long.SIZE ? matchMask(tokens, ids, path) : matchWide(tokens, ids, path);
+    }
+
+    private Resolution resolve() {
+        Resolution r = resolution;
+        if (r.complete) {
+            return r;
+        }
+        int generation = PathSegmentTable.generation();
+        if (r.generation == generation) {
+            return r;
+        }
+        int[] tokens = r.tokens.clone();
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i] == UNRESOLVED) {
+                tokens[i] = toToken(PathSegmentTable.lookup(literals[i]));
+            }
+        }
+        r = new Resolution(tokens, generation);
+        resolution = r;
+        return r;
+    }
+
+    /** Literal token i against path segment index; both ids known compare as ints */
+    private boolean literalMatches(int i, int token, int id, ContextPath path, int index) {
+        if (token >= 0 && id >= 0) {
+            return token == id;
+        }
+        return literals[i].equals(path.getSegment(index));
+    }
+
+    private boolean matchMask(int[] tokens, int[] ids, ContextPath path) {
+        int m = tokens.length;
+        long states = closure(tokens, 1L);
+        for (int j = 0; j < ids.length; j++) {
+            int id = ids[j];
+            long next = 0L;
+            long active = states;
+            while (active != 0) {
+                int i = Long.numberOfTrailingZeros(active);
+                active &= active - 1;
+                if (i == m) {
+                    continue;
+                }
+                int token = tokens[i];
+                if (token == GLOBSTAR) {
+                    next |= 1L << i;
+                } else if (token == STAR || literalMatches(i, token, id, path, j)) {
+                    next |= 1L << (i + 1);
+                }
+            }
+            if (next == 0L) {
+                return false;
+            }
+            states = closure(tokens, next);
+        }
+        return (states & (1L << m)) != 0;
+    }
+
+    /** Follow "**" zero-segment edges */
+    private static long closure(int[] tokens, long states) {
+        for (int i = 0; i < tokens.length; i++) {
+            if ((states & (1L << i)) != 0 && tokens[i] == GLOBSTAR) {
+                states |= 1L << (i + 1);
+            }
+        }
+        return states;
+    }
+
+    private boolean matchWide(int[] tokens, int[] ids, ContextPath path) {
+        int m = tokens.length;
+        boolean[] states = new boolean[m + 1];
+        boolean[] next = new boolean[m + 1];
+        states[0] = true;
+        closure(tokens, states);
+        for (int j = 0; j < ids.length; j++) {
+            int id = ids[j];
+            Arrays.fill(next, false);
+            boolean any = false;
+            for (int i = 0; i < m; i++) {
+                if (!states[i]) continue;
+                int token = tokens[i];
+                if (token == GLOBSTAR) {
+                    next[i] = true;
+                    any = true;
+                } else if (token == STAR || literalMatches(i, token, id, path, j)) {
+                    next[i + 1] = true;
+                    any = true;
+                }
+            }
+            if (!any) {
+                return false;
+            }
+            closure(tokens, next);
+            boolean[] swap = states;
+            states = next;
+            next = swap;
+        }
+        return states[m];
+    }
+
+    private static void closure(int[] tokens, boolean[] states) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (states[i] && tokens[i] == GLOBSTAR) {
+                states[i + 1] = true;
+            }
+        }
+    }
+
+    public boolean isLiteral() {
+        return literal;
+    }
+
+    @Override
+    public String toString() {
+        return "PathPattern{" + source + "}";
+    }
+
+    /** Tokens as of a table generation; complete once every literal has an id */
+    private static final class Resolution {
+        final int[] tokens;
+        final int generation;
+        final boolean complete;
+
+        Resolution(int[] tokens, int generation) {
+            this.tokens = tokens;
+            this.generation = generation;
+            boolean complete = true;
+            for (int token : tokens) {
+                if (token == UNRESOLVED) {
+                    complete = false;
+                    break;
+                }
+            }
+            this.complete = complete;
+        }
+    }
+}
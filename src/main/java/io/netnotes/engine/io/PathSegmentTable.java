@@ -0,0 +1,91 @@
+package io.netnotes.engine.io;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PathSegmentTable - global segment string → int id table for ContextPath
+ *
+ * Equal segment strings always get the same id, so path equality and prefix
+ * tests become int[] comparisons and pattern literals compare by id.
+ *
+ * Only interned paths register their segments (idOf). Every other path and
+ * every pattern literal only looks segments up (lookup), so per-packet and
+ * per-session paths never grow the table; it is bounded by the vocabulary of
+ * long-lived keys. Ids are never reused or released: a released id could
+ * alias a live path.
+ */
+final class PathSegmentTable {
+
+    /** lookup() result for a segment that has no id */
+    static final int UNKNOWN = -1;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>(256);
+    private static final AtomicInteger nextId = new AtomicInteger(0);
+    // Bumped after each registration is visible, see generation()
+    private static final AtomicInteger generation = new AtomicInteger(0);
+
+    private PathSegmentTable() {}
+
+    /**
+     * Id for segment, assigned on first use (interned paths only)
+     */
+    static int idOf(String segment) {
+        Integer id = ids.get(segment);
+        if (id != null) {
+            return id;
+        }
+        id = ids.computeIfAbsent(segment, k -> nextId.getAndIncrement());
+        generation.incrementAndGet();
+        return id;
+    }
+
+    /**
+     * Id for segment, or UNKNOWN if no interned path has registered it
+     */
+    static int lookup(String segment) {
+        Integer id = ids.get(segment);
+        return id != null ? id : UNKNOWN;
+    }
+
+    static int[] idsOf(String[] segments) {
+        int[] result = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            result[i] = idOf(segments[i]);
+        }
+        return result;
+    }
+
+    /**
+     * lookup() of each segment; UNKNOWN entries stay valid until generation()
+     * changes
+     */
+    static int[] lookupAll(String[] segments) {
+        int[] result = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            result[i] = lookup(segments[i]);
+        }
+        return result;
+    }
+
+    static boolean isComplete(int[] segmentIds) {
+        for (int id : segmentIds) {
+            if (id == UNKNOWN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes after every registration; read it before a lookup to know
+     * whether an UNKNOWN result can have gone stale
+     */
+    static int generation() {
+        return generation.get();
+    }
+
+    static int size() {
+        return ids.size();
+    }
+}
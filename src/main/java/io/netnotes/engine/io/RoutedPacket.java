@@ -36,7 +36,7 @@ public final class RoutedPacket {
     private final ContextPath sourcePath;
     private final ContextPath destinationPath;  // Optional: explicit destination
     private final NoteBytesReadOnly payload;
-    private final NoteBytesMap metadata;
+    private final PacketMetadata metadata;
     private final long timestamp;
     
     // Routing modes
@@ -46,7 +46,7 @@ public final class RoutedPacket {
      * Create a routed packet with source path only (registry determines destination)
      */
     public RoutedPacket(ContextPath sourcePath, NoteBytesReadOnly payload) {
-        this(sourcePath, null, payload, new NoteBytesMap(), RoutingMode.REGISTRY);
+        this(sourcePath, null, payload, PacketMetadata.EMPTY, RoutingMode.REGISTRY);
     }
     
     /**
@@ -56,11 +56,11 @@ public final class RoutedPacket {
             ContextPath sourcePath, 
             ContextPath destinationPath,
             NoteBytesReadOnly payload) {
-        this(sourcePath, destinationPath, payload, new NoteBytesMap(), RoutingMode.DIRECT);
+        this(sourcePath, destinationPath, payload, PacketMetadata.EMPTY, RoutingMode.DIRECT);
     }
     
     /**
-     * Full constructor with metadata
+     * Full constructor with metadata (snapshot of the map)
      */
     public RoutedPacket(
             ContextPath sourcePath,
@@ -68,6 +68,18 @@ public final class RoutedPacket {
             NoteBytesReadOnly payload,
             NoteBytesMap metadata,
             RoutingMode routingMode) {
+        this(sourcePath, destinationPath, payload, PacketMetadata.of(metadata), routingMode);
+    }
+
+    /**
+     * Full constructor with immutable metadata (shared, not copied)
+     */
+    public RoutedPacket(
+            ContextPath sourcePath,
+            ContextPath destinationPath,
+            NoteBytesReadOnly payload,
+            PacketMetadata metadata,
+            RoutingMode routingMode) {
         
         Objects.requireNonNull(sourcePath, "sourcePath cannot be null");
         Objects.requireNonNull(payload, "payload cannot be null");
@@ -75,7 +87,7 @@ public final class RoutedPacket {
         this.sourcePath = sourcePath;
         this.destinationPath = destinationPath;
         this.payload = payload;
-        this.metadata = new NoteBytesMap(metadata.getHashMap());
+        this.metadata = metadata != null ? metadata : PacketMetadata.EMPTY;
         this.routingMode = routingMode;
         this.timestamp = System.currentTimeMillis();
     }
@@ -166,10 +178,18 @@ public final class RoutedPacket {
     }
     
     /**
-     * Get all metadata
+     * Get all metadata as a mutable copy
+     * Prefer getMetadataView() when only reading
      */
     public NoteBytesMap getAllMetadata() {
-        return new NoteBytesMap(metadata.getHashMap());
+        return metadata.toNoteBytesMap();
+    }
+
+    /**
+     * Get all metadata (immutable, no copy)
+     */
+    public PacketMetadata getMetadataView() {
+        return metadata;
     }
     
     // ===== ROUTING CONTROL =====
@@ -201,20 +221,19 @@ public final class RoutedPacket {
     
     /**
      * Create a new packet with additional metadata
+     * 
+     * Shares this packet's metadata; use builder() to set several entries
+     * in one go
      */
     public RoutedPacket withMetadata(NoteBytes key, NoteBytes value) {
-        NoteBytesMap newMetadata = new NoteBytesMap(this.metadata.getHashMap());
-        newMetadata.put(key, value);
-        return new RoutedPacket(sourcePath, destinationPath, payload, newMetadata, routingMode);
+        return new RoutedPacket(sourcePath, destinationPath, payload, metadata.with(key, value), routingMode);
     }
     
     /**
      * Create a new packet with multiple metadata entries
      */
     public RoutedPacket withMetadata(NoteBytesMap additionalMetadata) {
-        NoteBytesMap newMetadata = new NoteBytesMap(this.metadata.getHashMap());
-        newMetadata.putAll(additionalMetadata);
-        return new RoutedPacket(sourcePath, destinationPath, payload, newMetadata, routingMode);
+        return new RoutedPacket(sourcePath, destinationPath, payload, metadata.withAll(additionalMetadata), routingMode);
     }
     
     /**
@@ -256,6 +275,72 @@ public final class RoutedPacket {
         );
     }
     
+    // ===== BUILDER =====
+
+    /**
+     * Build a packet with all of its metadata in one step
+     * 
+     * RoutedPacket.builder(source, payload)
+     *     .destination(target)
+     *     .metadata(CORRELATION_ID, id)
+     *     .metadata(REPLY_TO, replyPath)
+     *     .build();
+     * 
+     * Routing mode defaults to DIRECT with a destination, REGISTRY without.
+     */
+    public static Builder builder(ContextPath sourcePath, NoteBytesReadOnly payload) {
+        return new Builder(sourcePath, payload);
+    }
+
+    public static final class Builder {
+        private final ContextPath sourcePath;
+        private final NoteBytesReadOnly payload;
+        private ContextPath destinationPath = null;
+        private RoutingMode routingMode = null;
+        private PacketMetadata base = PacketMetadata.EMPTY;
+        private PacketMetadata.Builder metadata = null;
+
+        private Builder(ContextPath sourcePath, NoteBytesReadOnly payload) {
+            this.sourcePath = sourcePath;
+            this.payload = payload;
+        }
+
+        public Builder destination(ContextPath destinationPath) {
+            this.destinationPath = destinationPath;
+            return this;
+        }
+
+        public Builder routingMode(RoutingMode routingMode) {
+            this.routingMode = routingMode;
+            return this;
+        }
+
+        public Builder metadata(NoteBytes key, NoteBytes value) {
+            if (metadata == null) {
+                metadata = base.isEmpty() ? PacketMetadata.builder() : base.toBuilder();
+            }
+            metadata.put(key, value);
+            return this;
+        }
+
+        /**
+         * Start from existing metadata (shared if nothing else is added)
+         */
+        public Builder metadata(PacketMetadata existing) {
+            this.base = existing != null ? existing : PacketMetadata.EMPTY;
+            this.metadata = null;
+            return this;
+        }
+
+        public RoutedPacket build() {
+            RoutingMode mode = routingMode != null
+                ? routingMode
+                : (destinationPath != null ? RoutingMode.DIRECT : RoutingMode.REGISTRY);
+            PacketMetadata built = metadata != null ? metadata.build() : base;
+            return new RoutedPacket(sourcePath, destinationPath, payload, built, mode);
+        }
+    }
+    
     // ===== STATIC FACTORIES =====
 
     public static RoutedPacket create(ContextPath sourcePath, NoteBytesPair... payload) {
@@ -298,7 +383,7 @@ public final class RoutedPacket {
             sourcePath,
             targetPrefix,
             payload,
-            new NoteBytesMap(),
+            PacketMetadata.EMPTY,
             RoutingMode.MULTICAST
         );
     }
@@ -313,7 +398,7 @@ public final class RoutedPacket {
             sourcePath,
             null,
             payload,
-            new NoteBytesMap(),
+            PacketMetadata.EMPTY,
             RoutingMode.HIERARCHICAL
         );
     }
@@ -418,7 +503,7 @@ public final class RoutedPacket {
         sb.append(", size=").append(payload.byteLength());
         
         if (!metadata.isEmpty()) {
-            sb.append(", metadata=").append(metadata.keySet());
+            sb.append(", metadata=").append(metadata.keys());
         }
         
         sb.append(", age=").append(System.currentTimeMillis() - timestamp).append("ms");
@@ -0,0 +1,111 @@
+package io.netnotes.engine.io;
+
+import java.lang.management.ManagementFactory;
+
+import io.netnotes.engine.io.RoutedPacket.RoutingMode;
+import io.netnotes.engine.io.process.ProcessKeys;
+import io.netnotes.engine.utils.noteBytes.NoteUUID;
+import io.netnotes.noteBytes.NoteBytes;
+import io.netnotes.noteBytes.NoteBytesReadOnly;
+import io.netnotes.noteBytes.collections.NoteBytesMap;
+
+/**
+ * RoutedPacketBench - bytes allocated per packet, map-copy vs PacketMetadata
+ *
+ * Builds the packets FlowProcess creates per message:
+ * - emit:    plain packet, no metadata
+ * - request: DIRECT + CORRELATION_ID + REPLY_TO
+ * - reply:   DIRECT + CORRELATION_ID, then the receiver reads both back
+ *
+ * "copy" reproduces the old path (createDirect, then withMetadata per key,
+ * each copying a NoteBytesMap into a new packet). "shared" is the builder
+ * / PacketMetadata path used now.
+ *
+ * usage: java -cp .. io.netnotes.engine.io.RoutedPacketBench [packets]
+ */
+public class RoutedPacketBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String... args) {
+        int packets = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        ContextPath source = ContextPath.of("system", "bench", "source");
+        ContextPath target = ContextPath.of("system", "bench", "target");
+        NoteBytesReadOnly payload = new NoteBytesReadOnly(new byte[32]);
+        NoteBytes correlationId = NoteUUID.createLocalUUID64();
+        NoteBytes replyTo = source.getSegments();
+
+        System.out.format("shape   | copy (B/msg) | shared (B/msg) | copy (ns/msg) | shared (ns/msg)%n");
+        for (String shape : new String[] { "emit", "request", "reply" }) {
+            double[] copy = null;
+            double[] shared = null;
+            for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                copy = run(shape, false, packets, source, target, payload, correlationId, replyTo);
+                shared = run(shape, true, packets, source, target, payload, correlationId, replyTo);
+            }
+            System.out.format("%-7s | %12.1f | %14.1f | %13.1f | %15.1f%n",
+                shape, copy[0], shared[0], copy[1], shared[1]);
+        }
+    }
+
+    private static double[] run(String shape, boolean shared, int packets, ContextPath source,
+            ContextPath target, NoteBytesReadOnly payload, NoteBytes correlationId, NoteBytes replyTo) {
+        long sink = 0;
+        long alloc = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < packets; i++) {
+            RoutedPacket packet = switch (shape) {
+                case "emit" -> shared
+                    ? RoutedPacket.create(source, payload)
+                    : copyPath(source, null, payload, RoutingMode.REGISTRY);
+                case "request" -> shared
+                    ? RoutedPacket.builder(source, payload)
+                        .destination(target)
+                        .metadata(ProcessKeys.CORRELATION_ID, correlationId)
+                        .metadata(ProcessKeys.REPLY_TO, replyTo)
+                        .build()
+                    : copyPath(copyPath(copyPath(source, target, payload, RoutingMode.DIRECT),
+                        ProcessKeys.CORRELATION_ID, correlationId), ProcessKeys.REPLY_TO, replyTo);
+                default -> shared
+                    ? RoutedPacket.builder(target, payload)
+                        .destination(source)
+                        .metadata(ProcessKeys.CORRELATION_ID, correlationId)
+                        .build()
+                    : copyPath(copyPath(target, source, payload, RoutingMode.DIRECT),
+                        ProcessKeys.CORRELATION_ID, correlationId);
+            };
+            if (packet.hasMetadata(ProcessKeys.CORRELATION_ID)) {
+                sink += packet.getMetadata(ProcessKeys.CORRELATION_ID).byteLength();
+            }
+        }
+        long delta = System.nanoTime() - start;
+        long bytes = allocatedBytes() - alloc;
+
+        if (sink == Long.MIN_VALUE) System.out.print("");
+        return new double[] { bytes / (double) packets, delta / (double) packets };
+    }
+
+    /** Old constructor: defensive NoteBytesMap copy per packet */
+    private static RoutedPacket copyPath(ContextPath source, ContextPath target, NoteBytesReadOnly payload,
+            RoutingMode mode) {
+        NoteBytesMap empty = new NoteBytesMap();
+        return new RoutedPacket(source, target, payload, new NoteBytesMap(empty.getHashMap()), mode);
+    }
+
+    /** Old withMetadata: copy the map, add one key, new packet (which copies again) */
+    private static RoutedPacket copyPath(RoutedPacket packet, NoteBytes key, NoteBytes value) {
+        NoteBytesMap copy = packet.getAllMetadata();
+        copy.put(key, value);
+        return new RoutedPacket(packet.getSourcePath(), packet.getDestinationPath(), packet.getPayload(),
+            new NoteBytesMap(copy.getHashMap()), packet.getRoutingMode());
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -1,11 +1,11 @@
 package io.netnotes.engine.io.daemon;
 
 import java.io.IOException;
-import java.io.PipedInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import io.netnotes.engine.utils.LoggingHelpers.Log;
 import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
@@ -32,6 +32,7 @@ import io.netnotes.engine.io.daemon.DaemonProtocolState.DeviceState;
 import io.netnotes.engine.io.input.IEventFactory;
 import io.netnotes.engine.io.input.InputDevice;
 import io.netnotes.engine.io.input.events.EventBytes;
+import io.netnotes.engine.io.input.events.EventCoalescer;
 import io.netnotes.engine.io.input.events.EventHandlerRegistry;
 import io.netnotes.engine.io.input.events.RoutedEvent;
 import io.netnotes.engine.io.process.ChannelWriter;
@@ -74,13 +75,15 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
     private DeviceEncryptionSession encryptionSession;
     private final Map<NoteBytesReadOnly, MessageExecutor> m_execMsgMap = new ConcurrentHashMap<>();
     
-    // Backpressure tracking
-    private final AtomicInteger processedEvents = new AtomicInteger(0);
-    private static final int ACK_BATCH_SIZE = 32;
+    // Backpressure: adaptive credit acks back to the daemon
+    private final CreditWindow creditWindow = new CreditWindow(this::sendAck);
     
     private volatile boolean active = false;
     private final EventHandlerRegistry eventHandlerRegistry;
 
+    // Optional move/scroll coalescing between createEvent and dispatch (off by default)
+    private final EventCoalescer eventCoalescer;
+
     /**
      * Optional callback invoked when the daemon reports that the physical USB
      * device has disconnected.  This is NOT terminal — the ClaimedDevice
@@ -152,6 +155,8 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
         this.ioDaemonPath = ioDaemonPath;
         this.eventFactory = eventFatory;
         this.eventHandlerRegistry = new EventHandlerRegistry();
+        this.eventCoalescer = new EventCoalescer(deviceId.getAsString(), this::dispatchEvent,
+            VirtualExecutors.getVirtualExecutor());
         
         this.deviceState = new DeviceState(
             deviceId, 
@@ -229,12 +234,13 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
         // This is the event stream FROM IODaemon
         this.incomingEventStream = channel;
         this.active = true;
+        creditWindow.start(VirtualExecutors.getVirtualScheduledExecutor());
         VirtualExecutors.getVirtualExecutor().execute(() -> {
        
         
             Log.logMsg("Event stream ready: " + devicePath, LOG_LEVEL);
             
-            try (NoteBytesReader reader = new NoteBytesReader(new PipedInputStream(channel.getChannelStream(),StreamUtils.PIPE_BUFFER_SIZE))) {
+            try (NoteBytesReader reader = new NoteBytesReader(channel.getInputStream())) {
                 channel.getReadyFuture().complete(null);
                 NoteBytesReadOnly nextBytes = reader.nextNoteBytesReadOnly();
                 
@@ -248,6 +254,10 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
             }
         });
     }
+    /**
+     * The event may outlive the call (queued by the coalescer, dispatched on
+     * another thread): it must not rely on the caller keeping noteBytes intact.
+     */
     @FunctionalInterface
     public interface EventCreator{
         RoutedEvent createEvent(NoteBytes noteBytes);
@@ -259,7 +269,7 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
         m_onCreateEvent = onCreateEvent;
     }
     
-    private EventDispatcher eventDispatcher = null;
+    private volatile EventDispatcher eventDispatcher = null;
 
     public void setEventDispatcher(EventDispatcher dispatcher){
         this.eventDispatcher = dispatcher;
@@ -273,8 +283,13 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
             ? m_onCreateEvent.createEvent(event)
             : eventFactory.from(getContextPath(), event);
 
-        if(eventDispatcher != null){
-            eventDispatcher.dispatchEvent(routedEvent);
+        eventCoalescer.submit(routedEvent);
+    }
+
+    private void dispatchEvent(RoutedEvent routedEvent) {
+        EventDispatcher dispatcher = eventDispatcher;
+        if(dispatcher != null){
+            dispatcher.dispatchEvent(routedEvent);
         }else{
             this.eventHandlerRegistry.dispatch(routedEvent);
         }
@@ -284,6 +299,50 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
     public EventHandlerRegistry getEventHandlerRegistry(){
         return eventHandlerRegistry;
     }
+
+    /**
+     * Coalesce mouse moves / scrolls for this device while its consumer is
+     * busy. With a policy enabled, events are dispatched from a virtual
+     * thread instead of the stream reader, so handlers no longer hold up
+     * reading; queued events count against the credit window.
+     * 
+     * @param policy EventCoalescer.Policy.NONE (default) dispatches inline
+     */
+    public void setEventCoalescing(EventCoalescer.Policy policy){
+        eventCoalescer.setPolicy(policy);
+    }
+
+    /**
+     * Coalescing stage for this device (policy, received/dispatched/merged counts)
+     */
+    public EventCoalescer getEventCoalescer(){
+        return eventCoalescer;
+    }
+
+    /**
+     * Credit window for this device's event stream (configuration and
+     * per-device metrics: credits outstanding, acks, stall time)
+     */
+    public CreditWindow getCreditWindow(){
+        return creditWindow;
+    }
+
+    /**
+     * Events already queued in the incoming stream behind the current one,
+     * estimated from readable bytes and the current frame size
+     */
+    private int getQueuedEvents(NoteBytesReadOnly payload) {
+        StreamChannel channel = incomingEventStream;
+        if (channel == null) {
+            return 0;
+        }
+        int available = channel.getPipe().available();
+        if (available <= 0) {
+            return 0;
+        }
+        // type byte + 4 byte length + payload
+        return available / (payload.byteLength() + 5);
+    }
     
     /**
      * Handle incoming payload - control message or event data
@@ -305,15 +364,23 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
             }
         }
         
+        long eventStart = creditWindow.beginEvent();
+
         // Check if payload is encrypted event data
         if (payload.getType() == NoteBytesMetaData.NOTE_BYTES_ENCRYPTED_TYPE) {
             if (encryptionSession != null && encryptionSession.isActive()) {
+                // Pooled buffer for the decrypt only: it is wiped and reused on release,
+                // while the event may be queued (coalescing) or keep the payload, so it gets a copy
+                ByteBuffer plaintext = encryptionSession.acquirePlaintext(payload.byteLength());
                 try {
-                    byte[] decrypted = encryptionSession.decrypt(payload.getBytes());
-                    NoteBytesEphemeral decryptedPayload = new NoteBytesEphemeral(decrypted);
+                    encryptionSession.decryptInto(payload, plaintext);
+                    NoteBytesEphemeral decryptedPayload = new NoteBytesEphemeral(
+                        Arrays.copyOf(plaintext.array(), plaintext.limit()));
                     createEvent(decryptedPayload);
                 } catch (Exception e) {
                     Log.logError("Decryption failed: " + e.getMessage());
+                } finally {
+                    encryptionSession.release(plaintext);
                 }
             } else {
                 Log.logError("Received encrypted data but no active encryption session");
@@ -323,11 +390,8 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
             createEvent(payload);
         }
         
-        // Track for backpressure ACK
-        int processed = processedEvents.incrementAndGet();
-        if (processed % ACK_BATCH_SIZE == 0) {
-            sendAck(ACK_BATCH_SIZE);
-        }
+        // Track for backpressure ACK (events held by the coalescer are still queued)
+        creditWindow.endEvent(eventStart, getQueuedEvents(payload) + eventCoalescer.getPendingCount());
     }
 
 
@@ -529,6 +593,7 @@ public class ClaimedDevice extends FlowProcess implements InputDevice {
      */
     public void release() {
         active = false;
+        creditWindow.stop();
         StreamUtils.safeClose(incomingEventStream);
         // Shutdown async writer (drains queue)
         if (outgoingControlStream != null) {
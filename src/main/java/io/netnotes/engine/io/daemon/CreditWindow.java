@@ -0,0 +1,281 @@
+package io.netnotes.engine.io.daemon;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CreditWindow - Java side of the daemon event credit protocol
+ *
+ * The daemon may have at most `window` events in flight per device; each
+ * RESUME ack returns `processed_count` credits. Acking every fixed N events
+ * stalls the daemon at low rates (it waits for the Nth event that never
+ * comes) and floods the control stream at high rates. Instead the ack size
+ * follows the consumer:
+ *
+ * - consumer idle / fast (backlog 0, service time well under inter-arrival):
+ *   ack roughly every idleFlush interval's worth of events, at least minAck,
+ *   so slow streams get credit back immediately and fast streams batch
+ * - consumer behind (events queued in the stream, or service time >= arrival
+ *   interval): ack at window/2 so the daemon slows to the drain rate
+ * - never more than window/2 unacked, so the daemon always has credit left
+ *   while the ack is in flight
+ * - idle flush: a periodic check acks any remainder once no event has
+ *   arrived for idleFlush
+ *
+ * Stall time is counted from the moment the daemon is out of credit
+ * (window events consumed without an ack) until the ack is sent.
+ *
+ * Threading: beginEvent/endEvent from the single reader thread, flush from
+ * the reader or the idle-flush task.
+ */
+public class CreditWindow {
+
+    @FunctionalInterface
+    public interface AckSender {
+        void sendAck(int count);
+    }
+
+    public static final int DEFAULT_INITIAL_WINDOW = 64;
+    public static final int DEFAULT_MIN_ACK = 1;
+    public static final long DEFAULT_IDLE_FLUSH_MS = 10;
+
+    // EWMA weight for arrival / service estimates (1/8)
+    private static final int EWMA_SHIFT = 3;
+
+    private final AckSender sender;
+    private volatile int window;
+    private volatile int minAck = DEFAULT_MIN_ACK;
+    private volatile long idleFlushNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_IDLE_FLUSH_MS);
+
+    private final AtomicInteger outstanding = new AtomicInteger(0);
+    private final AtomicLong stallStartNanos = new AtomicLong(0);
+
+    // Reader-thread estimates
+    private long lastArrivalNanos = 0;
+    private long arrivalIntervalNanos = 0;
+    private long serviceNanos = 0;
+    private volatile long lastEventNanos = 0;
+    private volatile int threshold;
+
+    private ScheduledFuture<?> idleFlushTask = null;
+
+    // Metrics
+    private final AtomicLong eventsReceived = new AtomicLong();
+    private final AtomicLong acksSent = new AtomicLong();
+    private final AtomicLong idleAcks = new AtomicLong();
+    private final AtomicLong creditsReturned = new AtomicLong();
+    private final AtomicLong totalStallNanos = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+
+    public CreditWindow(AckSender sender) {
+        this(sender, DEFAULT_INITIAL_WINDOW);
+    }
+
+    public CreditWindow(AckSender sender, int initialWindow) {
+        this.sender = sender;
+        setWindow(initialWindow);
+    }
+
+    // ===== CONFIG =====
+
+    public void setWindow(int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("window must be >= 2");
+        }
+        this.window = window;
+        this.threshold = maxAck(window);
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setMinAck(int minAck) {
+        this.minAck = Math.max(1, minAck);
+    }
+
+    public void setIdleFlush(long time, TimeUnit unit) {
+        this.idleFlushNanos = Math.max(1, unit.toNanos(time));
+    }
+
+    private static int maxAck(int window) {
+        return Math.max(1, window / 2);
+    }
+
+    // ===== EVENT PATH =====
+
+    /**
+     * Call when an event has been read, before dispatching it
+     * @return start timestamp for endEvent
+     */
+    public long beginEvent() {
+        long now = System.nanoTime();
+        if (lastArrivalNanos != 0) {
+            long interval = now - lastArrivalNanos;
+            arrivalIntervalNanos = arrivalIntervalNanos == 0
+                ? interval
+                : arrivalIntervalNanos + ((interval - arrivalIntervalNanos) >> EWMA_SHIFT);
+        }
+        lastArrivalNanos = now;
+        lastEventNanos = now;
+        eventsReceived.incrementAndGet();
+        return now;
+    }
+
+    /**
+     * Call once the event has been dispatched
+     *
+     * @param startNanos value returned by beginEvent
+     * @param queuedEvents events already waiting behind this one (0 if unknown)
+     */
+    public void endEvent(long startNanos, int queuedEvents) {
+        long now = System.nanoTime();
+        long service = now - startNanos;
+        serviceNanos = serviceNanos == 0
+            ? service
+            : serviceNanos + ((service - serviceNanos) >> EWMA_SHIFT);
+
+        int pending = outstanding.incrementAndGet();
+        int w = window;
+        if (pending >= w) {
+            stallStartNanos.compareAndSet(0, now);
+        }
+
+        int t = computeThreshold(w, queuedEvents);
+        threshold = t;
+        if (pending >= t) {
+            flush(false);
+        }
+    }
+
+    private int computeThreshold(int w, int queuedEvents) {
+        int max = maxAck(w);
+        int min = Math.min(minAck, max);
+
+        if (queuedEvents > 0) {
+            // Behind: batch, let the daemon wait on us
+            return max;
+        }
+        long arrival = arrivalIntervalNanos;
+        if (arrival == 0) {
+            // No rate yet: ack promptly
+            return min;
+        }
+        if (serviceNanos >= arrival) {
+            return max;
+        }
+
+        // Keeping up: return credit about every idleFlush worth of arrivals
+        long perInterval = idleFlushNanos / arrival;
+        if (perInterval <= min) return min;
+        if (perInterval >= max) return max;
+        return (int) perInterval;
+    }
+
+    /**
+     * Return all outstanding credit now
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    private void flush(boolean idle) {
+        int count = outstanding.getAndSet(0);
+        if (count <= 0) {
+            return;
+        }
+        long stallStart = stallStartNanos.getAndSet(0);
+        if (stallStart != 0) {
+            totalStallNanos.addAndGet(System.nanoTime() - stallStart);
+            stalls.incrementAndGet();
+        }
+        acksSent.incrementAndGet();
+        creditsReturned.addAndGet(count);
+        if (idle) {
+            idleAcks.incrementAndGet();
+        }
+        sender.sendAck(count);
+    }
+
+    // ===== IDLE FLUSH =====
+
+    /**
+     * Start the periodic idle flush on the given scheduler
+     */
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        if (idleFlushTask != null) {
+            return;
+        }
+        long period = idleFlushNanos;
+        idleFlushTask = scheduler.scheduleAtFixedRate(
+            this::checkIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (idleFlushTask != null) {
+            idleFlushTask.cancel(false);
+            idleFlushTask = null;
+        }
+    }
+
+    private void checkIdle() {
+        if (outstanding.get() > 0 && System.nanoTime() - lastEventNanos >= idleFlushNanos) {
+            flush(true);
+        }
+    }
+
+    // ===== METRICS =====
+
+    /** Events consumed by the daemon's budget that have not been acked yet */
+    public int getCreditsOutstanding() {
+        return outstanding.get();
+    }
+
+    public int getAckThreshold() {
+        return threshold;
+    }
+
+    public long getEventsReceived() {
+        return eventsReceived.get();
+    }
+
+    public long getAcksSent() {
+        return acksSent.get();
+    }
+
+    public long getIdleAcks() {
+        return idleAcks.get();
+    }
+
+    public long getCreditsReturned() {
+        return creditsReturned.get();
+    }
+
+    public long getStallCount() {
+        return stalls.get();
+    }
+
+    public long getTotalStallNanos() {
+        long start = stallStartNanos.get();
+        long current = start != 0 ? System.nanoTime() - start : 0;
+        return totalStallNanos.get() + current;
+    }
+
+    public long getServiceNanos() {
+        return serviceNanos;
+    }
+
+    public long getArrivalIntervalNanos() {
+        return arrivalIntervalNanos;
+    }
+
+    public String getStats() {
+        return String.format(
+            "CreditWindow{window=%d, threshold=%d, outstanding=%d, events=%d, acks=%d (idle %d), stalls=%d, stallMs=%.3f}",
+            window, threshold, getCreditsOutstanding(), getEventsReceived(), getAcksSent(),
+            getIdleAcks(), getStallCount(), getTotalStallNanos() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,231 @@
+package io.netnotes.engine.io.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * CreditWindowBench - fixed ACK_BATCH_SIZE acks vs CreditWindow
+ *
+ * A stand-in daemon on a temporary Unix-domain socket streams 8-byte events
+ * and only sends while it holds credit (window events, each 4-byte ack frame
+ * returns `count` credits). The client reads events, burns `serviceNanos`
+ * per event to stand in for dispatch, and acks with either:
+ * - fixed:    every 32 events (the old ClaimedDevice behaviour)
+ * - adaptive: CreditWindow (idle flush 10ms)
+ *
+ * Reports daemon-side stall time (time spent with zero credit), acks sent,
+ * and credit left unreturned at the end of the run.
+ *
+ * usage: java -cp .. io.netnotes.engine.io.daemon.CreditWindowBench [window]
+ */
+public class CreditWindowBench {
+
+    private static final int FIXED_ACK = 32;
+
+    record Scenario(String name, int events, long gapNanos, long serviceNanos) {}
+
+    private static final Scenario[] SCENARIOS = {
+        new Scenario("trickle", 200, TimeUnit.MILLISECONDS.toNanos(2), 2_000),
+        new Scenario("burst", 50_000, 0, 500),
+        new Scenario("slow-consumer", 5_000, 0, 50_000),
+    };
+
+    record Result(long stallNanos, long acks, int unreturned, long elapsedNanos) {}
+
+    public static void main(String... args) throws Exception {
+        int window = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            puts("scenario      | policy   | stall (ms) | acks   | unreturned | elapsed (ms)");
+            for (Scenario scenario : SCENARIOS) {
+                report(scenario, "fixed", run(scenario, window, false, scheduler));
+                report(scenario, "adaptive", run(scenario, window, true, scheduler));
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static Result run(Scenario scenario, int window, boolean adaptive,
+            ScheduledExecutorService scheduler) throws Exception {
+        Path dir = Files.createTempDirectory("credit-bench");
+        Path socketPath = dir.resolve("daemon.sock");
+        UnixDomainSocketAddress addr = UnixDomainSocketAddress.of(socketPath);
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(addr);
+            StandInDaemon daemon = new StandInDaemon(server, scenario, window);
+            Thread daemonThread = Thread.ofPlatform().start(daemon);
+
+            try (SocketChannel socket = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                socket.connect(addr);
+                ByteBuffer ackFrame = ByteBuffer.allocate(4);
+                long[] acks = new long[1];
+                CreditWindow.AckSender sender = count -> {
+                    synchronized (ackFrame) {
+                        try {
+                            ackFrame.clear();
+                            ackFrame.putInt(count).flip();
+                            while (ackFrame.hasRemaining()) {
+                                socket.write(ackFrame);
+                            }
+                            acks[0]++;
+                        } catch (IOException e) {
+                            // Daemon finished and closed
+                        }
+                    }
+                };
+
+                CreditWindow credits = new CreditWindow(sender, window);
+                if (adaptive) {
+                    credits.start(scheduler);
+                }
+
+                BufferedInputStream buffered = new BufferedInputStream(Channels.newInputStream(socket), 64 * 1024);
+                DataInputStream in = new DataInputStream(buffered);
+                int sinceAck = 0;
+                long start = System.nanoTime();
+                try {
+                    for (int i = 0; i < scenario.events(); i++) {
+                        in.readLong();
+                        long t = adaptive ? credits.beginEvent() : 0;
+                        spin(scenario.serviceNanos());
+                        if (adaptive) {
+                            credits.endEvent(t, buffered.available() / Long.BYTES);
+                        } else if (++sinceAck == FIXED_ACK) {
+                            sender.sendAck(sinceAck);
+                            sinceAck = 0;
+                        }
+                    }
+                } catch (EOFException e) {
+                    throw new IllegalStateException("daemon closed early", e);
+                }
+                long elapsed = System.nanoTime() - start;
+
+                // Let a pending idle flush land before reading what is left over
+                if (adaptive) {
+                    Thread.sleep(30);
+                    credits.stop();
+                }
+                int unreturned = adaptive ? credits.getCreditsOutstanding() : sinceAck;
+
+                socket.shutdownOutput();
+                daemonThread.join();
+                return new Result(daemon.stallNanos, acks[0], unreturned, elapsed);
+            }
+        } finally {
+            Files.deleteIfExists(socketPath);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * Sends scenario.events() events, blocking while out of credit.
+     * A reader thread adds credit from ack frames.
+     */
+    private static final class StandInDaemon implements Runnable {
+        private final ServerSocketChannel server;
+        private final Scenario scenario;
+        private volatile int credits;
+        private volatile Thread sender;
+        long stallNanos = 0;
+
+        StandInDaemon(ServerSocketChannel server, Scenario scenario, int window) {
+            this.server = server;
+            this.scenario = scenario;
+            this.credits = window;
+        }
+
+        @Override
+        public void run() {
+            try (SocketChannel client = server.accept()) {
+                sender = Thread.currentThread();
+                Thread ackReader = Thread.ofPlatform().start(() -> readAcks(client));
+
+                ByteBuffer frame = ByteBuffer.allocate(Long.BYTES);
+                long nextSend = System.nanoTime();
+                for (int i = 0; i < scenario.events(); i++) {
+                    if (credits == 0) {
+                        long stallStart = System.nanoTime();
+                        while (credits == 0) {
+                            LockSupport.parkNanos(this, 50_000);
+                        }
+                        stallNanos += System.nanoTime() - stallStart;
+                    }
+                    if (scenario.gapNanos() > 0) {
+                        nextSend += scenario.gapNanos();
+                        long wait = nextSend - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    synchronized (this) {
+                        credits--;
+                    }
+                    frame.clear();
+                    frame.putLong(i).flip();
+                    while (frame.hasRemaining()) {
+                        client.write(frame);
+                    }
+                }
+                ackReader.join();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void readAcks(SocketChannel client) {
+            ByteBuffer ack = ByteBuffer.allocate(4);
+            try {
+                while (true) {
+                    ack.clear();
+                    while (ack.hasRemaining()) {
+                        if (client.read(ack) < 0) {
+                            return;
+                        }
+                    }
+                    ack.flip();
+                    synchronized (this) {
+                        credits += ack.getInt();
+                    }
+                    LockSupport.unpark(sender);
+                }
+            } catch (IOException e) {
+                // Client gone
+            }
+        }
+    }
+
+    private static void spin(long nanos) {
+        if (nanos <= 0) return;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void report(Scenario scenario, String policy, Result r) {
+        System.out.format("%-13s | %-8s | %10.2f | %6d | %10d | %12.2f%n",
+            scenario.name(), policy, r.stallNanos() / 1_000_000.0, r.acks(), r.unreturned(),
+            r.elapsedNanos() / 1_000_000.0);
+    }
+
+    private static void puts(String s) {
+        System.out.format("%s%n", s);
+    }
+}
@@ -0,0 +1,324 @@
+package io.netnotes.engine.io.daemon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.engine.utils.LoggingHelpers.Log;
+import io.netnotes.engine.virtualExecutors.SerializedVirtualExecutor;
+import io.netnotes.noteBytes.NoteBytes;
+import io.netnotes.noteBytes.NoteBytesObject;
+import io.netnotes.noteBytes.processing.NoteBytesWriter;
+
+/**
+ * DaemonBatchWriter - coalescing writer for the daemon socket
+ *
+ * writeToDaemon used to run one executor task per message, each ending in
+ * its own flush (one socket write per claim/release/ack). Instead:
+ * - submit() queues the message and schedules at most one drain task
+ * - a drain serializes every queued message into pooled direct buffers
+ * - one gathering write (channel.write(ByteBuffer[])) sends the whole batch
+ * - per-message futures complete after the batch is on the socket
+ *
+ * Message order is submission order. A failed write fails every future in
+ * that batch; messages queued after it are still attempted.
+ *
+ * Drains run on the supplied SerializedVirtualExecutor so they never
+ * interleave with other work on that executor.
+ */
+public class DaemonBatchWriter {
+
+    /** Direct buffer chunk size */
+    public static final int CHUNK_SIZE = 64 * 1024;
+    /** Pooled chunks kept between flushes */
+    public static final int MAX_POOLED_CHUNKS = 8;
+    /** Stop pulling messages into a batch once this many bytes are staged */
+    public static final int MAX_BATCH_BYTES = 1024 * 1024;
+
+    private final GatheringByteChannel channel;
+    private final SerializedVirtualExecutor exec;
+
+    private final ConcurrentLinkedQueue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+    // Drain-thread state (only touched inside drain)
+    private final BufferChainOutputStream staging = new BufferChainOutputStream();
+    private final NoteBytesWriter stagingWriter = new NoteBytesWriter(staging);
+    private final List<PendingWrite> batch = new ArrayList<>();
+
+    // Metrics
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+    private final AtomicLong byteCount = new AtomicLong();
+    private volatile int maxMessagesPerFlush = 0;
+    private volatile int lastMessagesPerFlush = 0;
+
+    public DaemonBatchWriter(GatheringByteChannel channel, SerializedVirtualExecutor exec) {
+        this.channel = channel;
+        this.exec = exec;
+    }
+
+    /**
+     * Queue a single object message
+     */
+    public CompletableFuture<Void> submit(NoteBytesObject message) {
+        return enqueue(new PendingWrite(message, null, null));
+    }
+
+    /**
+     * Queue an id-prefixed message (deviceId followed by payload)
+     */
+    public CompletableFuture<Void> submit(NoteBytes id, NoteBytes payload) {
+        return enqueue(new PendingWrite(null, id, payload));
+    }
+
+    private CompletableFuture<Void> enqueue(PendingWrite pending) {
+        queue.add(pending);
+        if (drainScheduled.compareAndSet(false, true)) {
+            exec.execute(this::drain).exceptionally(ex -> {
+                // Executor shut down: nothing will drain, fail what is queued
+                drainScheduled.set(false);
+                failQueued(ex);
+                return null;
+            });
+        }
+        return pending.future;
+    }
+
+    // ===== DRAIN =====
+
+    private void drain() {
+        for (;;) {
+            PendingWrite next = queue.poll();
+            if (next == null) {
+                drainScheduled.set(false);
+                // Re-check: a submit may have seen drainScheduled == true just before the reset
+                if (queue.isEmpty() || !drainScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                while (next != null) {
+                    batch.add(next);
+                    next.serialize(stagingWriter);
+                    if (staging.size() >= MAX_BATCH_BYTES) {
+                        break;
+                    }
+                    next = queue.poll();
+                }
+                stagingWriter.flush();
+
+                long written = staging.writeTo(channel);
+                recordFlush(batch.size(), written);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.complete(null);
+                }
+            } catch (IOException e) {
+                Log.logError("[DaemonBatchWriter] Failed to write batch of " + batch.size(), e);
+                CompletionException failure = new CompletionException("Failed to write to daemon", e);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.completeExceptionally(failure);
+                }
+            } catch (RuntimeException e) {
+                Log.logError("[DaemonBatchWriter] Failed to serialize batch", e);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+                staging.release();
+            }
+        }
+    }
+
+    private void failQueued(Throwable ex) {
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(ex);
+        }
+    }
+
+    private void recordFlush(int messages, long bytes) {
+        flushCount.incrementAndGet();
+        messageCount.addAndGet(messages);
+        byteCount.addAndGet(bytes);
+        lastMessagesPerFlush = messages;
+        if (messages > maxMessagesPerFlush) {
+            maxMessagesPerFlush = messages;
+        }
+    }
+
+    // ===== METRICS =====
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getMessageCount() {
+        return messageCount.get();
+    }
+
+    public long getByteCount() {
+        return byteCount.get();
+    }
+
+    public int getMaxMessagesPerFlush() {
+        return maxMessagesPerFlush;
+    }
+
+    public int getLastMessagesPerFlush() {
+        return lastMessagesPerFlush;
+    }
+
+    public double getAverageMessagesPerFlush() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0.0 : messageCount.get() / (double) flushes;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public String getStats() {
+        return String.format(
+            "DaemonBatchWriter{flushes=%d, messages=%d, bytes=%d, avgPerFlush=%.2f, maxPerFlush=%d, queued=%d}",
+            getFlushCount(), getMessageCount(), getByteCount(),
+            getAverageMessagesPerFlush(), getMaxMessagesPerFlush(), getQueuedCount());
+    }
+
+    // ===== INTERNALS =====
+
+    private static final class PendingWrite {
+        final NoteBytesObject object;
+        final NoteBytes id;
+        final NoteBytes payload;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(NoteBytesObject object, NoteBytes id, NoteBytes payload) {
+            this.object = object;
+            this.id = id;
+            this.payload = payload;
+        }
+
+        void serialize(NoteBytesWriter writer) throws IOException {
+            if (object != null) {
+                writer.write(object);
+            } else {
+                writer.write(id);
+                writer.write(payload);
+            }
+        }
+    }
+
+    /**
+     * OutputStream over a chain of pooled direct ByteBuffers.
+     * Only used from the drain, so the pool is a plain deque.
+     */
+    private static final class BufferChainOutputStream extends OutputStream {
+        private final ArrayDeque<ByteBuffer> pool = new ArrayDeque<>();
+        private final ArrayList<ByteBuffer> chain = new ArrayList<>();
+        private ByteBuffer[] gather = new ByteBuffer[4];
+        private ByteBuffer current = null;
+        private long size = 0;
+
+        long size() {
+            return size;
+        }
+
+        /** Return every chunk to the pool (up to MAX_POOLED_CHUNKS) */
+        void release() {
+            for (int i = 0; i < chain.size(); i++) {
+                ByteBuffer buf = chain.get(i);
+                if (pool.size() < MAX_POOLED_CHUNKS) {
+                    buf.clear();
+                    pool.push(buf);
+                }
+            }
+            chain.clear();
+            current = null;
+            size = 0;
+        }
+
+        private ByteBuffer nextChunk() {
+            ByteBuffer buf = pool.poll();
+            if (buf == null) {
+                buf = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            }
+            chain.add(buf);
+            current = buf;
+            return buf;
+        }
+
+        @Override
+        public void write(int b) {
+            ByteBuffer buf = current;
+            if (buf == null || !buf.hasRemaining()) {
+                buf = nextChunk();
+            }
+            buf.put((byte) b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                ByteBuffer buf = current;
+                if (buf == null || !buf.hasRemaining()) {
+                    buf = nextChunk();
+                }
+                int n = Math.min(len, buf.remaining());
+                buf.put(b, off, n);
+                off += n;
+                len -= n;
+                size += n;
+            }
+        }
+
+        /**
+         * Gathering write of the whole chain, looping over partial writes
+         */
+        long writeTo(GatheringByteChannel channel) throws IOException {
+            int count = chain.size();
+            if (count == 0) return 0;
+            if (gather.length < count) {
+                gather = new ByteBuffer[Math.max(count, gather.length * 2)];
+            }
+            for (int i = 0; i < count; i++) {
+                ByteBuffer buf = chain.get(i);
+                buf.flip();
+                gather[i] = buf;
+            }
+
+            long total = 0;
+            int offset = 0;
+            try {
+                while (offset < count) {
+                    long n = channel.write(gather, offset, count - offset);
+                    if (n < 0) {
+                        throw new IOException("Channel closed");
+                    }
+                    total += n;
+                    while (offset < count && !gather[offset].hasRemaining()) {
+                        offset++;
+                    }
+                }
+            } finally {
+                for (int i = 0; i < count; i++) {
+                    gather[i] = null;
+                }
+            }
+            return total;
+        }
+    }
+}
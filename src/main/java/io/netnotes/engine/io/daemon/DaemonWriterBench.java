@@ -0,0 +1,141 @@
+package io.netnotes.engine.io.daemon;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import io.netnotes.engine.io.input.events.EventBytes;
+import io.netnotes.engine.messaging.NoteMessaging.Keys;
+import io.netnotes.engine.virtualExecutors.SerializedVirtualExecutor;
+import io.netnotes.noteBytes.NoteBytesObject;
+import io.netnotes.noteBytes.processing.NoteBytesWriter;
+
+/**
+ * DaemonWriterBench - per-message flush vs DaemonBatchWriter
+ *
+ * A stand-in daemon accepts on a temporary Unix-domain socket and discards
+ * everything it reads. PRODUCERS virtual threads then fire small control
+ * messages (ack-sized NoteBytesObjects) at it through:
+ * - flush:  one SerializedVirtualExecutor task per message, write + flush
+ *           (the old writeToDaemon path)
+ * - batch:  DaemonBatchWriter.submit (drain + gathering write)
+ *
+ * usage: java -cp .. io.netnotes.engine.io.daemon.DaemonWriterBench [messagesPerProducer]
+ */
+public class DaemonWriterBench {
+
+    private static final int[] PRODUCERS = { 1, 4, 16 };
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String... args) throws Exception {
+        int perProducer = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        puts("producers | flush (us/msg) | batch (us/msg) | msgs/flush | speedup");
+        for (int producers : PRODUCERS) {
+            double flushUs = 0;
+            double batchUs = 0;
+            double perFlush = 0;
+            for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                flushUs = run(producers, perProducer, false, null);
+                double[] avg = new double[1];
+                batchUs = run(producers, perProducer, true, avg);
+                perFlush = avg[0];
+            }
+            System.out.format("%-9d | %14.3f | %14.3f | %10.1f | %6.1fx%n",
+                producers, flushUs, batchUs, perFlush, batchUs > 0 ? flushUs / batchUs : 0.0);
+        }
+    }
+
+    private static double run(int producers, int perProducer, boolean batched, double[] avgPerFlush)
+            throws Exception {
+        Path dir = Files.createTempDirectory("daemon-bench");
+        Path socketPath = dir.resolve("daemon.sock");
+        UnixDomainSocketAddress addr = UnixDomainSocketAddress.of(socketPath);
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(addr);
+            Thread daemon = Thread.ofVirtual().start(() -> drainDaemon(server));
+
+            SerializedVirtualExecutor exec = new SerializedVirtualExecutor();
+            try (SocketChannel socket = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                socket.connect(addr);
+
+                NoteBytesWriter flushWriter = new NoteBytesWriter(Channels.newOutputStream(socket));
+                DaemonBatchWriter batchWriter = new DaemonBatchWriter(socket, exec);
+
+                CompletableFuture<?>[] last = new CompletableFuture<?>[producers];
+                Thread[] threads = new Thread[producers];
+
+                long start = System.nanoTime();
+                for (int p = 0; p < producers; p++) {
+                    final int slot = p;
+                    threads[p] = Thread.ofVirtual().start(() -> {
+                        CompletableFuture<Void> f = null;
+                        for (int i = 0; i < perProducer; i++) {
+                            NoteBytesObject msg = ackMessage(i);
+                            if (batched) {
+                                f = batchWriter.submit(msg);
+                            } else {
+                                f = exec.execute(() -> {
+                                    try {
+                                        flushWriter.write(msg);
+                                        flushWriter.flush();
+                                    } catch (IOException e) {
+                                        throw new RuntimeException(e);
+                                    }
+                                });
+                            }
+                        }
+                        last[slot] = f;
+                    });
+                }
+                for (Thread t : threads) {
+                    t.join();
+                }
+                CompletableFuture.allOf(last).join();
+                long delta = System.nanoTime() - start;
+
+                if (avgPerFlush != null) {
+                    avgPerFlush[0] = batchWriter.getAverageMessagesPerFlush();
+                }
+                exec.shutdown();
+                socket.shutdownOutput();
+                daemon.join();
+                return delta / (double) (producers * (long) perProducer) / 1000.0;
+            }
+        } finally {
+            Files.deleteIfExists(socketPath);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static NoteBytesObject ackMessage(int seq) {
+        NoteBytesObject msg = new NoteBytesObject();
+        msg.add(Keys.EVENT, EventBytes.TYPE_SHUTDOWN);
+        msg.add(Keys.TIMESTAMP, (long) seq);
+        return msg;
+    }
+
+    /** Stand-in daemon: accept one client and discard until EOF */
+    private static void drainDaemon(ServerSocketChannel server) {
+        try (SocketChannel client = server.accept()) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(256 * 1024);
+            while (client.read(buf) >= 0) {
+                buf.clear();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void puts(String s) {
+        System.out.format("%s%n", s);
+    }
+}
@@ -1,11 +1,14 @@
 package io.netnotes.engine.io.daemon;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import io.netnotes.engine.crypto.DHKeyExchange;
 import io.netnotes.engine.crypto.EncryptedSession;
 import io.netnotes.engine.io.ContextPath;
 import io.netnotes.engine.utils.LoggingHelpers.Log;
 import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
+import io.netnotes.noteBytes.NoteBytesReadOnly;
 
 /**
  * DeviceEncryptionSession - Per-device encryption handler
@@ -20,6 +23,12 @@ import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
  * 4. Daemon sends ENCRYPTION_READY with IV
  * 5. Client calls finalizeEncryption() - session is active
  * 6. All subsequent device events are encrypted/decrypted with this session
+ * 
+ * Hot path (one reader thread per device):
+ *   ByteBuffer plain = session.acquirePlaintext(payload.byteLength());
+ *   try { session.decryptInto(payload, plain); ... } finally { session.release(plain); }
+ * Plaintext buffers are pooled by exact length (device events come in a few
+ * fixed sizes) and wiped on release.
  */
 public class DeviceEncryptionSession {
     private final String deviceId;
@@ -29,6 +38,13 @@ public class DeviceEncryptionSession {
     private EncryptedSession encryptedSession;
     
     private volatile boolean active = false;
+
+    private static final int GCM_TAG_BYTES = 16;
+    // Plaintext lengths up to this are pooled, larger ones are allocated per event
+    private static final int MAX_POOLED_LENGTH = 1024;
+
+    // Free plaintext buffer per exact length (null while leased)
+    private final ByteBuffer[] plaintextPool = new ByteBuffer[MAX_POOLED_LENGTH + 1];
     
     public DeviceEncryptionSession(String deviceId, ContextPath devicePath) {
         this.deviceId = deviceId;
@@ -101,6 +117,55 @@ public class DeviceEncryptionSession {
         return encryptedSession.decrypt(ciphertext);
     }
     
+    /**
+     * Lease a wiped plaintext buffer sized exactly for this ciphertext
+     * (backing array length == plaintext length). Return it with release().
+     */
+    public ByteBuffer acquirePlaintext(int ciphertextLength) {
+        int length = ciphertextLength - GCM_TAG_BYTES;
+        if (length < 0) {
+            throw new IllegalArgumentException("Ciphertext too short (needs at least 16 bytes for tag)");
+        }
+        if (length <= MAX_POOLED_LENGTH) {
+            ByteBuffer buf = plaintextPool[length];
+            if (buf != null) {
+                plaintextPool[length] = null;
+                buf.clear();
+                return buf;
+            }
+        }
+        return ByteBuffer.allocate(length);
+    }
+
+    /**
+     * Wipe a leased plaintext buffer and return it to the pool
+     */
+    public void release(ByteBuffer plaintext) {
+        if (plaintext == null) {
+            return;
+        }
+        byte[] array = plaintext.array();
+        Arrays.fill(array, (byte) 0);
+        plaintext.clear();
+        if (array.length <= MAX_POOLED_LENGTH && active) {
+            plaintextPool[array.length] = plaintext;
+        }
+    }
+
+    /**
+     * Decrypt device event from daemon into out (at out.position())
+     * No plaintext allocation; pair with acquirePlaintext()/release().
+     * 
+     * @return plaintext length
+     */
+    public int decryptInto(NoteBytesReadOnly ciphertext, ByteBuffer out) throws Exception {
+        if (!active || encryptedSession == null) {
+            throw new IllegalStateException("Encryption session not active");
+        }
+        ByteBuffer in = ByteBuffer.wrap(ciphertext.get(), 0, ciphertext.byteLength());
+        return encryptedSession.decrypt(in, out);
+    }
+
     /**
      * Encrypt data to send to daemon
      * (Currently not used - device events flow daemon → client only)
@@ -134,6 +199,9 @@ public class DeviceEncryptionSession {
             encryptedSession.clear();
             encryptedSession = null;
         }
+
+        // Pooled buffers are wiped on release, just drop them
+        Arrays.fill(plaintextPool, null);
     }
     
     public String getDeviceId() {
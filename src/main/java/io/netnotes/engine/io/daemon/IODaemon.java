@@ -2,8 +2,6 @@ package io.netnotes.engine.io.daemon;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.PipedInputStream;
 import java.net.StandardProtocolFamily;
 import java.net.UnixDomainSocketAddress;
 import java.nio.channels.Channels;
@@ -42,10 +40,8 @@ import io.netnotes.noteBytes.collections.NoteBytesMap;
 import io.netnotes.noteBytes.collections.NoteBytesPair;
 import io.netnotes.noteBytes.processing.NoteBytesMetaData;
 import io.netnotes.noteBytes.processing.NoteBytesReader;
-import io.netnotes.noteBytes.processing.NoteBytesWriter;
 import io.netnotes.engine.utils.LoggingHelpers.Log;
 import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
-import io.netnotes.engine.utils.streams.StreamUtils;
 import io.netnotes.engine.virtualExecutors.SerializedVirtualExecutor;
 import io.netnotes.engine.virtualExecutors.VirtualExecutors;
 
@@ -87,12 +83,12 @@ public class IODaemon extends FlowProcess {
     private final String m_UUID = NoteUUID.createSafeUUID128();
     
     private SocketChannel socketChannel;
-    private NoteBytesWriter daemonWriter;
+    private DaemonBatchWriter daemonWriter;
     private NoteBytesReader daemonReader;
 
     //Re-entrant safe serial executors
-    private final SerializedVirtualExecutor daemonWriterExec = new SerializedVirtualExecutor();
-    private final SerializedVirtualExecutor daemonInternalExec = new SerializedVirtualExecutor();
+    private final SerializedVirtualExecutor daemonWriterExec = new SerializedVirtualExecutor("IODaemon-Writer");
+    private final SerializedVirtualExecutor daemonInternalExec = new SerializedVirtualExecutor("IODaemon-Internal");
 
     private final Map<NoteBytes, ClientSession> sessions = new ConcurrentHashMap<>();
 
@@ -159,22 +155,18 @@ public class IODaemon extends FlowProcess {
     }
 
     private CompletableFuture<Void> writeToDaemon(NoteBytesObject message) {
-        return daemonWriterExec.execute(() -> {
-            try {
-                // No synchronized needed - already serialized!
-                // Log what's being sent for debugging
-                String event = getMessageEvent(message);
-                Log.logMsg("[IODaemon] >>> writeToDaemon: event=" + event, LOG_LEVEL);
-                
-                daemonWriter.write(message);
-                daemonWriter.flush();
-                
+        // Log what's being sent for debugging (event lookup parses the map, skip when filtered)
+        boolean logEnabled = Log.isEnabled(LOG_LEVEL);
+        String event = logEnabled ? getMessageEvent(message) : null;
+        if (logEnabled) {
+            Log.logMsg("[IODaemon] >>> writeToDaemon: event=" + event, LOG_LEVEL);
+        }
+
+        // Queued and coalesced with other pending messages into one socket write
+        return daemonWriter.submit(message).whenComplete((v,ex)->{
+            if (logEnabled && ex == null) {
                 Log.logMsg("[IODaemon] >>> Sent message: " + event, LOG_LEVEL);
-            } catch (IOException e) {
-                Log.logError("[IODaemon] Failed to write to daemon", e);
-                throw new CompletionException("Failed to write to daemon", e);
             }
-        }).whenComplete((v,ex)->{
             if(!socketChannel.isConnected() && connected){
                 handleDisconnect();
             }
@@ -198,17 +190,7 @@ public class IODaemon extends FlowProcess {
     }
 
     private CompletableFuture<Void> writeToDaemon(NoteBytes id,  NoteBytes messageObject) {
-        return daemonWriterExec.execute(() -> {
-
-            try {
-                daemonWriter.write(id);
-                daemonWriter.write(messageObject);
-                daemonWriter.flush();
-            } catch (IOException e) {
-                throw new CompletionException("Failed to write to daemon", e);
-            }
-        
-        }).whenComplete((v,ex)->{
+        return daemonWriter.submit(id, messageObject).whenComplete((v,ex)->{
             if(!socketChannel.isConnected() && connected){
                 handleDisconnect();
             }
@@ -321,7 +303,7 @@ public class IODaemon extends FlowProcess {
         
         VirtualExecutors.getVirtualExecutor().execute(() -> {
  
-            try (NoteBytesReader reader = new NoteBytesReader(new PipedInputStream( channel.getChannelStream(), StreamUtils.PIPE_BUFFER_SIZE))) {
+            try (NoteBytesReader reader = new NoteBytesReader(channel.getInputStream())) {
                 channel.getReadyFuture().complete(null);
                 Log.logMsg("[IODaemon.handleStreamChannel] active, from: " + fromPath 
                     + " waiting for commands...", LOG_LEVEL);
@@ -384,9 +366,8 @@ public class IODaemon extends FlowProcess {
                     }
                     
                     InputStream inputStream = Channels.newInputStream(socketChannel);
-                    OutputStream outputStream = Channels.newOutputStream(socketChannel);
                     
-                    daemonWriter = new NoteBytesWriter(outputStream);
+                    daemonWriter = new DaemonBatchWriter(socketChannel, daemonWriterExec);
                     daemonReader = new NoteBytesReader(inputStream);
                 }catch(IOException e){
                     throw new CompletionException("Could not establish connection", e);
@@ -478,13 +459,18 @@ public class IODaemon extends FlowProcess {
                         break;
                     }
                     
-                    Log.logMsg("[IODaemon] <<< Received message: type=" + first.getType(), LOG_LEVEL);
+                    boolean logEnabled = Log.isEnabled(LOG_LEVEL);
+                    if (logEnabled) {
+                        Log.logMsg("[IODaemon] <<< Received message: type=" + first.getType(), LOG_LEVEL);
+                    }
                     
                     switch(first.getType()) {
                         case NoteBytesMetaData.STRING_TYPE:
                             NoteBytesReadOnly deviceId = first;
                             NoteBytesReadOnly payload = daemonReader.nextNoteBytesReadOnly();
-                            Log.logMsg("[IODaemon] <<< Device event: deviceId=" + deviceId.getAsString() + ", payloadType=" + (payload != null ? payload.getType() : "null"), LOG_LEVEL);
+                            if (logEnabled) {
+                                Log.logMsg("[IODaemon] <<< Device event: deviceId=" + deviceId.getAsString() + ", payloadType=" + (payload != null ? payload.getType() : "null"), LOG_LEVEL);
+                            }
                             if(!writeToDevice(deviceId, payload)){
                                 Log.logError("[IODaemon] Expected payload, EOF signaled");
                                 break;
@@ -1186,6 +1172,14 @@ public class IODaemon extends FlowProcess {
         return socketPath;
     }
 
+    /**
+     * Socket writer for the current connection (flush / messages-per-flush metrics)
+     * @return null before the connection is established
+     */
+    public DaemonBatchWriter getDaemonWriter() {
+        return daemonWriter;
+    }
+
     public void completeDeviceRelease(NoteBytes deviceId) {
         ClaimedDevice device = claimedDevices.remove(deviceId);
         ChannelWriter deviceStream = deviceStreams.remove(deviceId);
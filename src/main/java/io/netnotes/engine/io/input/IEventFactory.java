@@ -5,5 +5,9 @@ import io.netnotes.engine.io.input.events.RoutedEvent;
 import io.netnotes.noteBytes.NoteBytes;
 
 public interface IEventFactory {
+    /**
+     * The returned event may be queued and dispatched on another thread after
+     * this returns, so it must copy any part of packet it keeps.
+     */
     RoutedEvent from( ContextPath sourcePath, NoteBytes packet);
 }
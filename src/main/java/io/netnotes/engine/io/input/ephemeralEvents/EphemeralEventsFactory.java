@@ -79,7 +79,8 @@ public final class EphemeralEventsFactory {
     @SuppressWarnings("resource")
     public static EphemeralRoutedEvent from(ContextPath sourcePath, NoteBytesEphemeral noteBytes) {
         if(noteBytes.getType() != NoteBytesMetaData.NOTE_BYTES_OBJECT_TYPE){
-            return new EphemeralEvent(sourcePath,  new NoteBytesEphemeral("unknown"), 0, new NoteBytesEphemeral[]{ noteBytes});
+            // Copy: decryptedBytes may be a pooled buffer that is wiped after this returns
+            return new EphemeralEvent(sourcePath,  new NoteBytesEphemeral("unknown"), 0, new NoteBytesEphemeral[]{ noteBytes.copy()});
         }
         // Deserialize into ephemeral object
         try (
@@ -1,6 +1,7 @@
 package io.netnotes.engine.io.input.events;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import io.netnotes.noteBytes.NoteBytes;
@@ -342,6 +343,72 @@ public class EventBytes {
         NAME_TO_TYPE.put(name, type);
         }
 
+        // ===== TYPE IDS =====
+
+        /**
+         * Returned by typeId for types not defined here
+         */
+        public static final int NO_TYPE_ID = -1;
+
+        // Dense 0..n-1 ids for the constants above, so dispatch tables can be
+        // arrays. Most events carry the constant itself, so the identity map
+        // hits first; the equals map covers deserialized copies.
+        private static final Map<NoteBytes, Integer> TYPE_ID_BY_REF = new IdentityHashMap<>();
+        private static final Map<NoteBytes, Integer> TYPE_ID = new HashMap<>();
+        private static final NoteBytesReadOnly[] TYPES;
+
+        static {
+        TYPES = new NoteBytesReadOnly[] {
+                EVENT_MOUSE_MOVE_RELATIVE, EVENT_MOUSE_BUTTON_DOWN, EVENT_MOUSE_BUTTON_UP,
+                EVENT_MOUSE_CLICK, EVENT_MOUSE_DOUBLE_CLICK, EVENT_MOUSE_SCROLL,
+                EVENT_MOUSE_ENTER, EVENT_MOUSE_EXIT, EVENT_MOUSE_DRAG_START,
+                EVENT_MOUSE_DRAG, EVENT_MOUSE_DRAG_END, EVENT_MOUSE_MOVE_ABSOLUTE,
+                EVENT_KEY_DOWN, EVENT_KEY_UP, EVENT_KEY_REPEAT, EVENT_KEY_CHAR,
+                EVENT_CONTAINER_FOCUS_GAINED, EVENT_CONTAINER_FOCUS_LOST,
+                EVENT_CONTAINER_REGION_CHANGED, EVENT_CONTAINER_MOVE, EVENT_CONTAINER_CLOSED,
+                EVENT_CONTAINER_MINIMIZE, EVENT_CONTAINER_MAXIMIZE, EVENT_CONTAINER_RESTORE,
+                EVENT_CONTAINER_SHOWN, EVENT_CONTAINER_HIDDEN, EVENT_CONTAINER_RENDERED,
+                EVENT_RAW_HID,
+                TYPE_ENCRYPTION_OFFER, TYPE_ENCRYPTION_ACCEPT, TYPE_ENCRYPTION_READY,
+                TYPE_ENCRYPTED, TYPE_ENCRYPTION_DECLINE,
+                EVENT_RELEASE, EVENT_REMOVED, EVENT_CHANGED, EVENT_CHECKED, EVENT_UPDATED, EVENT_ADDED,
+                TYPE_UNKNOWN, TYPE_ERROR, TYPE_DISCONNECTED, TYPE_PONG, TYPE_PING,
+                TYPE_ACCEPT, TYPE_HELLO, TYPE_CMD, TYPE_SHUTDOWN
+        };
+        for (int i = 0; i < TYPES.length; i++) {
+                TYPE_ID_BY_REF.put(TYPES[i], i);
+                TYPE_ID.put(TYPES[i], i);
+        }
+        }
+
+        /**
+         * Small integer id for an event type, or NO_TYPE_ID
+         */
+        public static int typeId(NoteBytes type) {
+        if (type == null) {
+                return NO_TYPE_ID;
+        }
+        Integer id = TYPE_ID_BY_REF.get(type);
+        if (id == null) {
+                id = TYPE_ID.get(type);
+        }
+        return id != null ? id : NO_TYPE_ID;
+        }
+
+        /**
+         * The type constant for an id from typeId
+         */
+        public static NoteBytesReadOnly typeForId(int id) {
+        return TYPES[id];
+        }
+
+        /**
+         * Number of ids typeId can return (ids are 0..typeCount-1)
+         */
+        public static int typeCount() {
+        return TYPES.length;
+        }
+
         // ===== UTILITY METHODS =====
 
         public static boolean isMouseEvent(NoteBytes type) {
@@ -0,0 +1,283 @@
+package io.netnotes.engine.io.input.events;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import io.netnotes.engine.io.input.events.mouseEvents.MouseMoveEvent;
+import io.netnotes.engine.io.input.events.mouseEvents.MouseScrollEvent;
+import io.netnotes.engine.utils.LoggingHelpers.Log;
+
+/**
+ * EventCoalescer - merges mouse move / scroll bursts while the consumer is busy
+ *
+ * Sits between event creation and dispatch. Events are queued and delivered
+ * to the sink on the consumer's executor, one drain at a time, in order.
+ * While an event is waiting in the queue, a following event of the same
+ * kind is merged into it instead of being queued:
+ * - EVENT_MOUSE_MOVE_RELATIVE: deltas are summed
+ * - EVENT_MOUSE_MOVE_ABSOLUTE: the latest position wins
+ * - EVENT_MOUSE_SCROLL: offsets are summed, pointer position is the latest
+ *
+ * Only the tail of the queue is ever merged into, and only with an event of
+ * the same type, source and state flags (buttons/modifiers), so a move is
+ * never merged across a button, key or any other event. An idle consumer
+ * gets every event: merging only happens while the previous event is still
+ * waiting.
+ *
+ * With Policy.NONE the coalescer is a pass-through: events are delivered
+ * inline on the calling thread, exactly as without it.
+ *
+ * Counters: received (submitted), dispatched (delivered to the sink) and
+ * merged (received - dispatched, once the queue is empty).
+ */
+public final class EventCoalescer {
+
+    /**
+     * Which events may be merged, and how many into one
+     */
+    public static final class Policy {
+        public static final int DEFAULT_MAX_MERGED = 64;
+
+        /** Pass-through: no queue, no merging */
+        public static final Policy NONE = new Policy(false, false, 0);
+        /** Merge moves and scrolls */
+        public static final Policy MOVES_AND_SCROLL = new Policy(true, true, DEFAULT_MAX_MERGED);
+        /** Merge moves only (scroll steps each delivered) */
+        public static final Policy MOVES_ONLY = new Policy(true, false, DEFAULT_MAX_MERGED);
+
+        private final boolean moves;
+        private final boolean scroll;
+        private final int maxMerged;
+
+        private Policy(boolean moves, boolean scroll, int maxMerged) {
+            this.moves = moves;
+            this.scroll = scroll;
+            this.maxMerged = maxMerged;
+        }
+
+        public static Policy of(boolean moves, boolean scroll) {
+            return !moves && !scroll ? NONE : new Policy(moves, scroll, DEFAULT_MAX_MERGED);
+        }
+
+        /**
+         * Cap on events merged into one queued event, so a long drag behind
+         * a stalled consumer still delivers intermediate positions
+         */
+        public Policy withMaxMerged(int maxMerged) {
+            if (maxMerged < 1) {
+                throw new IllegalArgumentException("maxMerged must be >= 1");
+            }
+            return isEnabled() ? new Policy(moves, scroll, maxMerged) : this;
+        }
+
+        public boolean isEnabled() {
+            return moves || scroll;
+        }
+
+        public boolean coalescesMoves() {
+            return moves;
+        }
+
+        public boolean coalescesScroll() {
+            return scroll;
+        }
+
+        public int getMaxMerged() {
+            return maxMerged;
+        }
+
+        @Override
+        public String toString() {
+            return "Policy[moves=" + moves + ", scroll=" + scroll + ", maxMerged=" + maxMerged + "]";
+        }
+    }
+
+    private static final int MOVE_RELATIVE_ID = EventBytes.typeId(EventBytes.EVENT_MOUSE_MOVE_RELATIVE);
+    private static final int MOVE_ABSOLUTE_ID = EventBytes.typeId(EventBytes.EVENT_MOUSE_MOVE_ABSOLUTE);
+    private static final int SCROLL_ID = EventBytes.typeId(EventBytes.EVENT_MOUSE_SCROLL);
+
+    // Events delivered per drain task before yielding the executor
+    private static final int DRAIN_BATCH = 64;
+
+    private final String name;
+    private final Consumer<RoutedEvent> sink;
+    private final Executor executor;
+    private volatile Policy policy = Policy.NONE;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<RoutedEvent> pending = new ArrayDeque<>();
+    private int tailMerged = 0;
+    private boolean draining = false;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+
+    /**
+     * @param name     for logging
+     * @param sink     the dispatch being protected (registry, container, ...)
+     * @param executor the consumer's executor; drains run there, one at a time.
+     *                 It must queue rather than run inline on its own thread,
+     *                 or the drain after each batch recurses instead of yielding
+     */
+    public EventCoalescer(String name, Consumer<RoutedEvent> sink, Executor executor) {
+        this.name = name;
+        this.sink = sink;
+        this.executor = executor;
+    }
+
+    public void setPolicy(Policy policy) {
+        this.policy = policy != null ? policy : Policy.NONE;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Queue (or merge) an event for delivery
+     */
+    public void submit(RoutedEvent event) {
+        received.incrementAndGet();
+        Policy p = policy;
+
+        boolean schedule;
+        synchronized (lock) {
+            if (!p.isEnabled() && pending.isEmpty() && !draining) {
+                schedule = false;
+            } else {
+                RoutedEvent tail = pending.peekLast();
+                if (tail != null && tailMerged < p.maxMerged) {
+                    RoutedEvent combined = merge(p, tail, event);
+                    if (combined != null) {
+                        pending.pollLast();
+                        pending.addLast(combined);
+                        tailMerged++;
+                        merged.incrementAndGet();
+                        return;
+                    }
+                }
+                pending.addLast(event);
+                tailMerged = 0;
+                schedule = !draining;
+                draining = true;
+            }
+        }
+
+        if (schedule) {
+            scheduleDrain();
+        } else if (!p.isEnabled()) {
+            // Pass-through (nothing queued ahead of it)
+            deliver(event);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < DRAIN_BATCH; i++) {
+            RoutedEvent next;
+            synchronized (lock) {
+                next = pending.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            deliver(next);
+        }
+        // Yield the consumer's executor, then continue
+        scheduleDrain();
+    }
+
+    /**
+     * Caller holds draining. If the executor refuses the task, draining is
+     * released so the next submit schedules again instead of queueing forever.
+     */
+    private void scheduleDrain() {
+        try {
+            executor.execute(this::drain);
+        } catch (Throwable t) {
+            synchronized (lock) {
+                draining = false;
+            }
+            Log.logError("[EventCoalescer:" + name + "] drain not scheduled: " + t);
+            throw t;
+        }
+    }
+
+    private void deliver(RoutedEvent event) {
+        dispatched.incrementAndGet();
+        try {
+            sink.accept(event);
+        } catch (Throwable t) {
+            Log.logError("[EventCoalescer:" + name + "] dispatch failed: " + t);
+        }
+    }
+
+    /**
+     * Merge next into queued, or null if they must stay separate
+     */
+    private static RoutedEvent merge(Policy p, RoutedEvent queued, RoutedEvent next) {
+        int typeId = next.getEventTypeId();
+        if (typeId != queued.getEventTypeId()
+                || queued.getStateFlags() != next.getStateFlags()
+                || !sameSource(queued, next)) {
+            return null;
+        }
+
+        if (p.moves && queued instanceof MouseMoveEvent a && next instanceof MouseMoveEvent b) {
+            if (typeId == MOVE_RELATIVE_ID) {
+                return new MouseMoveEvent(b.getSourcePath(), b.getEventTypeBytes(), b.getStateFlags(),
+                    a.x() + b.x(), a.y() + b.y());
+            }
+            if (typeId == MOVE_ABSOLUTE_ID) {
+                return b;
+            }
+        } else if (p.scroll && typeId == SCROLL_ID
+                && queued instanceof MouseScrollEvent a && next instanceof MouseScrollEvent b) {
+            return new MouseScrollEvent(b.getSourcePath(), b.getEventTypeBytes(), b.getStateFlags(),
+                a.xOffset() + b.xOffset(), a.yOffset() + b.yOffset(), b.mouseX(), b.mouseY());
+        }
+        return null;
+    }
+
+    private static boolean sameSource(RoutedEvent a, RoutedEvent b) {
+        return a.getSourcePath() == null
+            ? b.getSourcePath() == null
+            : a.getSourcePath().equals(b.getSourcePath());
+    }
+
+    // ===== METRICS =====
+
+    /** Events submitted */
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /** Events delivered to the sink */
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    /** Events folded into an already queued event */
+    public long getMergedCount() {
+        return merged.get();
+    }
+
+    /** Events queued, not yet delivered */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventCoalescer[" + name + ", " + policy +
+            ", received=" + getReceivedCount() +
+            ", dispatched=" + getDispatchedCount() +
+            ", merged=" + getMergedCount() +
+            ", pending=" + getPendingCount() + "]";
+    }
+}
@@ -0,0 +1,157 @@
+package io.netnotes.engine.io.input.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import io.netnotes.engine.io.ContextPath;
+import io.netnotes.engine.io.input.events.EventHandlerRegistry.RoutedEventHandler;
+import io.netnotes.noteBytes.NoteBytes;
+import io.netnotes.noteBytes.NoteBytesReadOnly;
+
+/**
+ * EventDispatchBench - EventHandlerRegistry.dispatch throughput
+ *
+ * - legacy:   ConcurrentHashMap<NoteBytesReadOnly, ArrayList> lookup and the
+ *             unconditional filter.test per handler (the old dispatch)
+ * - registry: EventHandlerRegistry (type id array + COW snapshots)
+ * - churn:    registry while another thread registers/unregisters a handler
+ *             on the same types (the legacy lists are not safe to run this)
+ *
+ * Handlers per type: one unfiltered, one source-filtered, one type+class
+ * filtered, one with a custom predicate. Events are BaseEvents carrying the
+ * EventBytes constants, from one of eight source paths. Both sides use the
+ * current EventFilter, so the difference is lookup, snapshot and the
+ * accept-all skip, not the filter checks themselves.
+ * Plain timing loop with warmup rounds (the project has no JMH dependency).
+ *
+ * usage: java -cp .. io.netnotes.engine.io.input.events.EventDispatchBench [events]
+ */
+public class EventDispatchBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int SOURCES = 8;
+
+    private static final NoteBytesReadOnly[] TYPES = {
+        EventBytes.EVENT_KEY_DOWN,
+        EventBytes.EVENT_KEY_UP,
+        EventBytes.EVENT_KEY_CHAR,
+        EventBytes.EVENT_MOUSE_MOVE_ABSOLUTE,
+        EventBytes.EVENT_MOUSE_BUTTON_DOWN,
+        EventBytes.EVENT_MOUSE_SCROLL,
+        EventBytes.EVENT_CONTAINER_REGION_CHANGED,
+        EventBytes.EVENT_CONTAINER_FOCUS_GAINED,
+    };
+
+    private static long sink = 0;
+
+    public static void main(String... args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        ContextPath[] sources = new ContextPath[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = ContextPath.of("system", "io", "session-0", "device-" + i);
+        }
+
+        Consumer<RoutedEvent> handler = e -> sink++;
+        Map<NoteBytesReadOnly, List<RoutedEventHandler>> legacy = new ConcurrentHashMap<>();
+        EventHandlerRegistry registry = new EventHandlerRegistry();
+        for (NoteBytesReadOnly type : TYPES) {
+            RoutedEventHandler[] wrappers = {
+                new RoutedEventHandler(handler),
+                new RoutedEventHandler(handler, EventFilter.forSource(sources[0])),
+                new RoutedEventHandler(handler, EventFilter.builder()
+                    .eventType(type).eventClass(BaseEvent.class).build()),
+                new RoutedEventHandler(handler, EventFilter.builder()
+                    .customPredicate(e -> e.getStateFlags() != 0).build()),
+            };
+            List<RoutedEventHandler> list = new ArrayList<>();
+            for (RoutedEventHandler wrapper : wrappers) {
+                list.add(wrapper);
+                registry.register(type, wrapper);
+            }
+            legacy.put(type, list);
+        }
+
+        System.out.format("legacy (ns/evt) | registry (ns/evt) | churn (ns/evt) | churn swaps%n");
+        double[] r = null;
+        long swaps = 0;
+        for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+            AtomicBoolean running = new AtomicBoolean(true);
+            long[] swapCount = new long[1];
+            Thread churn = new Thread(() -> {
+                Consumer<RoutedEvent> extra = e -> sink--;
+                int i = 0;
+                while (running.get()) {
+                    NoteBytesReadOnly type = TYPES[i++ % TYPES.length];
+                    registry.register(type, extra);
+                    registry.unregister(type, extra);
+                    swapCount[0] += 2;
+                }
+            }, "EventDispatchBench-churn");
+
+            double legacyNs = time(events(count, sources), e -> legacyDispatch(legacy, e));
+            double registryNs = time(events(count, sources), registry::dispatch);
+            RoutedEvent[] churnEvents = events(count, sources);
+            churn.start();
+            double churnNs = time(churnEvents, registry::dispatch);
+            running.set(false);
+            churn.join();
+
+            r = new double[] { legacyNs, registryNs, churnNs };
+            swaps = swapCount[0];
+        }
+        System.out.format("%15.1f | %17.1f | %14.1f | %11d%n", r[0], r[1], r[2], swaps);
+        if (sink == Long.MIN_VALUE) System.out.print("");
+    }
+
+    /** Fresh events per run, so no run sees type ids cached by an earlier one */
+    private static RoutedEvent[] events(int count, ContextPath[] sources) {
+        Random rnd = new Random(11);
+        RoutedEvent[] events = new RoutedEvent[count];
+        for (int i = 0; i < count; i++) {
+            events[i] = new BaseEvent(sources[rnd.nextInt(SOURCES)], TYPES[rnd.nextInt(TYPES.length)],
+                rnd.nextInt(2), null);
+        }
+        return events;
+    }
+
+    @FunctionalInterface
+    private interface Dispatch {
+        boolean dispatch(RoutedEvent event);
+    }
+
+    private static double time(RoutedEvent[] events, Dispatch dispatch) {
+        long start = System.nanoTime();
+        for (RoutedEvent event : events) {
+            dispatch.dispatch(event);
+        }
+        return (System.nanoTime() - start) / (double) events.length;
+    }
+
+    /** The dispatch loop EventHandlerRegistry used before type-id snapshots */
+    private static boolean legacyDispatch(Map<NoteBytesReadOnly, List<RoutedEventHandler>> handlers,
+            RoutedEvent event) {
+        NoteBytes eventType = event.getEventTypeBytes();
+        List<RoutedEventHandler> eventHandlers = handlers.get(eventType);
+        if (eventHandlers == null || eventHandlers.isEmpty()) {
+            return false;
+        }
+        boolean anyInvoked = false;
+        for (RoutedEventHandler wrapper : eventHandlers) {
+            if (!wrapper.getFilter().test(event)) {
+                continue;
+            }
+            wrapper.getHandler().accept(event);
+            anyInvoked = true;
+            if (event.isConsumed()) {
+                break;
+            }
+        }
+        return anyInvoked;
+    }
+}
@@ -38,14 +38,22 @@ public class EventFilter implements Predicate<RoutedEvent> {
     private final Predicate<RoutedEvent> customPredicate;
     private final Class<? extends RoutedEvent> eventClass;
     private boolean enabled = true;
+
+    // Precompiled checks: type by EventBytes id where it has one, source as
+    // the interned path (equals short-circuits on identity)
+    private final int eventTypeId;
+    private final boolean acceptsAll;
     
     private EventFilter(Builder builder) {
         this.id = builder.id;
         this.eventType = builder.eventType;
-        this.sourcePath = builder.sourcePath;
+        this.sourcePath = builder.sourcePath != null ? builder.sourcePath.intern() : null;
         this.eventClass = builder.eventClass;
         this.customPredicate = builder.customPredicate;
         this.enabled = builder.enabled;
+        this.eventTypeId = EventBytes.typeId(eventType);
+        this.acceptsAll = eventType == null && sourcePath == null
+            && eventClass == null && customPredicate == null;
     }
 
     public String getId(){
@@ -56,19 +64,37 @@ public class EventFilter implements Predicate<RoutedEvent> {
         return enabled;
     }
     
+    /**
+     * True if this filter has no checks (test only rejects null)
+     */
+    public boolean isAcceptAll() {
+        return acceptsAll;
+    }
+    
+    /**
+     * Cheap checks (class, type, source) run before the custom predicate
+     */
     @Override
     public boolean test(RoutedEvent event) {
         if (event == null) {
             return false;
         }
 
+        if (acceptsAll) {
+            return true;
+        }
+
         if (eventClass != null && !eventClass.isInstance(event)) {
             return false;
         }
         
         // Check event type if specified
         if (eventType != null) {
-            if (!eventType.equals(event.getEventTypeBytes())) {
+            if (eventTypeId != EventBytes.NO_TYPE_ID) {
+                if (eventTypeId != event.getEventTypeId()) {
+                    return false;
+                }
+            } else if (!eventType.equals(event.getEventTypeBytes())) {
                 return false;
             }
         }
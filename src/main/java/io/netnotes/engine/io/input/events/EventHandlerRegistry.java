@@ -1,10 +1,16 @@
 package io.netnotes.engine.io.input.events;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import io.netnotes.noteBytes.NoteBytes;
 import io.netnotes.noteBytes.NoteBytesReadOnly;
@@ -18,10 +24,16 @@ import io.netnotes.engine.utils.LoggingHelpers.Log;
  * - Type-safe handlers via generics
  * - Multiple handlers per event type
  * - Event filtering by type and source
- * - O(1) lookup via ConcurrentHashMap
- * - Thread-safe registration/unregistration
+ * - Array-indexed lookup by EventBytes type id (map fallback for other types)
+ * - Copy-on-write handler snapshots: dispatch never locks or copies, and
+ *   handlers may register/unregister from inside a handler
  * - Handler priority support
  * 
+ * Each event type holds an immutable RoutedEventHandler[] in priority
+ * order. register/unregister build a new array under the write lock and
+ * publish it atomically; a dispatch in progress keeps iterating the
+ * snapshot it started with.
+ * 
  * Usage:
  * <pre>
  * EventHandlerRegistry registry = new EventHandlerRegistry();
@@ -40,10 +52,18 @@ import io.netnotes.engine.utils.LoggingHelpers.Log;
 public class EventHandlerRegistry {
     
     /**
-     * Map of event types to lists of handlers
+     * Handler snapshots for EventBytes types, indexed by EventBytes.typeId
+     */
+    private final AtomicReferenceArray<RoutedEventHandler[]> handlersById =
+        new AtomicReferenceArray<>(EventBytes.typeCount());
+
+    /**
+     * Handler snapshots for types EventBytes does not define
      */
-    private final Map<NoteBytesReadOnly, List<RoutedEventHandler>> handlers = 
+    private final Map<NoteBytesReadOnly, RoutedEventHandler[]> otherHandlers =
         new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
     
     /**
      * Event handler wrapper with priority and filtering
@@ -53,7 +73,8 @@ public class EventHandlerRegistry {
         final Consumer<RoutedEvent> handler;
         final int priority;
         final EventFilter filter;
-        boolean added = false;
+        final boolean filtered;
+        volatile boolean added = false;
         
         public RoutedEventHandler(
                 Consumer<RoutedEvent> handler, 
@@ -62,6 +83,7 @@ public class EventHandlerRegistry {
             this.handler = handler;
             this.priority = priority;
             this.filter = filter != null ? filter : EventFilter.acceptAll();
+            this.filtered = !this.filter.isAcceptAll();
         }
 
         public RoutedEventHandler(Consumer<RoutedEvent> handler) {
@@ -96,7 +118,7 @@ public class EventHandlerRegistry {
          * Test if this handler accepts the event
          */
         public boolean accepts(RoutedEvent event) {
-            return filter.test(event);
+            return !filtered || filter.test(event);
         }
     }
     
@@ -159,35 +181,55 @@ public class EventHandlerRegistry {
             NoteBytesReadOnly eventType,
             RoutedEventHandler wrapper) {
  
-        handlers.compute(eventType, (k, list) -> {
-            if (list == null) {
-                list = new ArrayList<>();
+        update(eventType, current -> {
+            if (current == null) {
+                return new RoutedEventHandler[] { wrapper };
             }
             
-            // Insert in priority order (descending)
-            int insertPos = 0;
-            for (int i = 0; i < list.size(); i++) {
-                if (list.get(i).priority < wrapper.priority) {
+            // Insert in priority order (descending), after equal priorities
+            int insertPos = current.length;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].priority < wrapper.priority) {
                     insertPos = i;
                     break;
                 }
-                insertPos = i + 1;
             }
             
-            list.add(insertPos, wrapper);
-            wrapper.added = true;
-            return list;
+            RoutedEventHandler[] next = new RoutedEventHandler[current.length + 1];
+            System.arraycopy(current, 0, next, 0, insertPos);
+            next[insertPos] = wrapper;
+            System.arraycopy(current, insertPos, next, insertPos + 1, current.length - insertPos);
+            return next;
         });
+        wrapper.added = true;
         
         return wrapper.id;
     }
 
+    /**
+     * Snapshot of the handlers for an event type, in priority order
+     * 
+     * @return unmodifiable list, or null if none are registered
+     */
     public List<RoutedEventHandler> getEventHandlers(NoteBytesReadOnly eventType) {
-        return handlers.get(eventType);
+        return asList(snapshot(eventType));
     }
 
+    /**
+     * Snapshot of all registered handlers by event type
+     * 
+     * Later registrations are not reflected in the returned map.
+     */
     public Map<NoteBytesReadOnly, List<RoutedEventHandler>> getHandlersMap() {
-        return handlers;
+        Map<NoteBytesReadOnly, List<RoutedEventHandler>> map = new LinkedHashMap<>();
+        for (int id = 0; id < handlersById.length(); id++) {
+            RoutedEventHandler[] snapshot = handlersById.get(id);
+            if (snapshot != null) {
+                map.put(EventBytes.typeForId(id), asList(snapshot));
+            }
+        }
+        otherHandlers.forEach((type, snapshot) -> map.put(type, asList(snapshot)));
+        return Collections.unmodifiableMap(map);
     }
     
     /**
@@ -197,10 +239,7 @@ public class EventHandlerRegistry {
             NoteBytesReadOnly eventType,
             Consumer<RoutedEvent> handler) {
         
-        return handlers.computeIfPresent(eventType, (k, list) -> {
-            list.removeIf(wrapper -> wrapper.handler == handler);
-            return list.isEmpty() ? null : list;
-        });
+        return removeIf(eventType, wrapper -> wrapper.handler == handler);
     }
 
     /**
@@ -210,17 +249,21 @@ public class EventHandlerRegistry {
             NoteBytesReadOnly eventType,
             RoutedEventHandler eventHandler) {
         
-        return handlers.computeIfPresent(eventType, (k, list) -> {
-            list.removeIf(wrapper -> wrapper.id.equals(eventHandler.id));
-            return list.isEmpty() ? null : list;
-        });
+        return removeIf(eventType, wrapper -> wrapper.id.equals(eventHandler.id));
     }
 
     /**
      * Unregister all handlers for event type
+     * 
+     * @return the handlers that were removed, or null if there were none
      */
     public List<RoutedEventHandler> unregister(NoteBytesReadOnly eventType) {
-        return handlers.remove(eventType);
+        RoutedEventHandler[][] removed = new RoutedEventHandler[1][];
+        update(eventType, current -> {
+            removed[0] = current;
+            return null;
+        });
+        return asList(removed[0]);
     }
 
     /**
@@ -230,17 +273,19 @@ public class EventHandlerRegistry {
             NoteBytesReadOnly eventType,
             NoteBytesReadOnly id) {
         
-        return handlers.computeIfPresent(eventType, (k, list) -> {
-            list.removeIf(wrapper -> wrapper.id.equals(id));
-            return list.isEmpty() ? null : list;
-        });
+        return removeIf(eventType, wrapper -> wrapper.id.equals(id));
     }
 
     /**
      * Clear all handlers
      */
     public void clear() {
-        handlers.clear();
+        synchronized (writeLock) {
+            for (int id = 0; id < handlersById.length(); id++) {
+                handlersById.set(id, null);
+            }
+            otherHandlers.clear();
+        }
     }
     
     /**
@@ -254,10 +299,9 @@ public class EventHandlerRegistry {
      * @return true if any handlers were invoked
      */
     public boolean dispatch(RoutedEvent event) {
-        NoteBytes eventType = event.getEventTypeBytes();
-        List<RoutedEventHandler> eventHandlers = handlers.get(eventType);
+        RoutedEventHandler[] eventHandlers = dispatchSnapshot(event);
         
-        if (eventHandlers == null || eventHandlers.isEmpty()) {
+        if (eventHandlers == null) {
             return false;
         }
         
@@ -266,7 +310,7 @@ public class EventHandlerRegistry {
         // Invoke handlers in priority order, checking filters
         for (RoutedEventHandler wrapper : eventHandlers) {
             // Check if handler accepts this event
-            if (!wrapper.accepts(event)) {
+            if (wrapper.filtered && !wrapper.filter.test(event)) {
                 continue;
             }
             
@@ -281,7 +325,7 @@ public class EventHandlerRegistry {
             } catch (Exception e) {
                 Log.logError(String.format(
                     "[EventHandlerRegistry] Error dispatching %s: %s",
-                    EventBytes.getEventName(eventType),
+                    EventBytes.getEventName(event.getEventTypeBytes()),
                     e.getMessage()
                 ));
             }
@@ -294,32 +338,116 @@ public class EventHandlerRegistry {
      * Check if any handlers are registered for an event type
      */
     public boolean hasHandlers(NoteBytesReadOnly eventType) {
-        List<RoutedEventHandler> list = handlers.get(eventType);
-        return list != null && !list.isEmpty();
+        return snapshot(eventType) != null;
     }
     
     /**
      * Get the number of handlers for an event type
      */
     public int getHandlerCount(NoteBytesReadOnly eventType) {
-        List<RoutedEventHandler> list = handlers.get(eventType);
-        return list != null ? list.size() : 0;
+        RoutedEventHandler[] snapshot = snapshot(eventType);
+        return snapshot != null ? snapshot.length : 0;
     }
     
     /**
      * Get total number of registered handlers across all types
      */
     public int getTotalHandlerCount() {
-        return handlers.values().stream()
-            .mapToInt(List::size)
-            .sum();
+        int total = 0;
+        for (int id = 0; id < handlersById.length(); id++) {
+            RoutedEventHandler[] snapshot = handlersById.get(id);
+            if (snapshot != null) {
+                total += snapshot.length;
+            }
+        }
+        for (RoutedEventHandler[] snapshot : otherHandlers.values()) {
+            total += snapshot.length;
+        }
+        return total;
+    }
+
+    // ===== SNAPSHOTS =====
+
+    private RoutedEventHandler[] dispatchSnapshot(RoutedEvent event) {
+        int typeId = event.getEventTypeId();
+        if (typeId != EventBytes.NO_TYPE_ID) {
+            return handlersById.get(typeId);
+        }
+        NoteBytes eventType = event.getEventTypeBytes();
+        if (eventType == null || otherHandlers.isEmpty()) {
+            return null;
+        }
+        return otherHandlers.get(eventType);
+    }
+
+    private RoutedEventHandler[] snapshot(NoteBytes eventType) {
+        int typeId = EventBytes.typeId(eventType);
+        if (typeId != EventBytes.NO_TYPE_ID) {
+            return handlersById.get(typeId);
+        }
+        return eventType != null ? otherHandlers.get(eventType) : null;
+    }
+
+    /**
+     * Replace the snapshot for eventType with update(current); an empty
+     * or null result removes the type
+     */
+    private RoutedEventHandler[] update(
+            NoteBytesReadOnly eventType,
+            UnaryOperator<RoutedEventHandler[]> update) {
+        synchronized (writeLock) {
+            int typeId = EventBytes.typeId(eventType);
+            RoutedEventHandler[] current = typeId != EventBytes.NO_TYPE_ID
+                ? handlersById.get(typeId)
+                : otherHandlers.get(eventType);
+
+            RoutedEventHandler[] next = update.apply(current);
+            if (next != null && next.length == 0) {
+                next = null;
+            }
+
+            if (typeId != EventBytes.NO_TYPE_ID) {
+                handlersById.set(typeId, next);
+            } else if (next == null) {
+                otherHandlers.remove(eventType);
+            } else {
+                otherHandlers.put(eventType, next);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * @return the remaining handlers, or null if none remain
+     */
+    private List<RoutedEventHandler> removeIf(
+            NoteBytesReadOnly eventType,
+            Predicate<RoutedEventHandler> match) {
+        return asList(update(eventType, current -> {
+            if (current == null) {
+                return null;
+            }
+            List<RoutedEventHandler> kept = new ArrayList<>(current.length);
+            for (RoutedEventHandler wrapper : current) {
+                if (!match.test(wrapper)) {
+                    kept.add(wrapper);
+                }
+            }
+            return kept.size() == current.length
+                ? current
+                : kept.toArray(new RoutedEventHandler[0]);
+        }));
+    }
+
+    private static List<RoutedEventHandler> asList(RoutedEventHandler[] snapshot) {
+        return snapshot != null ? Collections.unmodifiableList(Arrays.asList(snapshot)) : null;
     }
     
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("EventHandlerRegistry[\n");
         
-        handlers.forEach((type, list) -> {
+        getHandlersMap().forEach((type, list) -> {
             sb.append(String.format("  %s: %d handler(s)\n", 
                 EventBytes.getEventName(type), list.size()));
             
@@ -4,11 +4,27 @@ import io.netnotes.engine.io.ContextPath;
 import io.netnotes.noteBytes.NoteBytes;
 
 public abstract class RoutedEvent {
+    private static final int UNRESOLVED_TYPE_ID = Integer.MIN_VALUE;
+
     private boolean isConsumed = false;
+    private int eventTypeId = UNRESOLVED_TYPE_ID;
     public boolean isConsumed() { return isConsumed; }
     public void setConsumed(boolean isConsumed) { this.isConsumed = isConsumed; }
     public abstract ContextPath getSourcePath();
     public abstract NoteBytes getEventTypeBytes();
     public abstract int getStateFlags();
     public abstract void setStateFlags(int flags);
-}
\ No newline at end of file
+
+    /**
+     * EventBytes.typeId of the event type, resolved once per event
+     * (an event may pass through several registries while bubbling)
+     */
+    public int getEventTypeId() {
+        int id = eventTypeId;
+        if (id == UNRESOLVED_TYPE_ID) {
+            id = EventBytes.typeId(getEventTypeBytes());
+            eventTypeId = id;
+        }
+        return id;
+    }
+}
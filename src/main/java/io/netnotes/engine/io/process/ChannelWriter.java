@@ -9,7 +9,7 @@ import io.netnotes.noteBytes.processing.NoteBytesWriter;
 public class ChannelWriter{
         private final StreamChannel channel;
         private NoteBytesWriter writer = null;
-        private final SerializedVirtualExecutor writeExec = new SerializedVirtualExecutor();
+        private final SerializedVirtualExecutor writeExec = new SerializedVirtualExecutor("ChannelWriter");
         private final CompletableFuture<NoteBytesWriter> writeFuture;
         
         public ChannelWriter(StreamChannel channel){
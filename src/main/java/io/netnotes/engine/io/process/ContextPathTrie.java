@@ -0,0 +1,221 @@
+package io.netnotes.engine.io.process;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netnotes.engine.io.ContextPath;
+
+/**
+ * ContextPathTrie - Segment trie keyed on ContextPath segments
+ *
+ * Replaces full-map scans for hierarchical lookups:
+ * - findUnder(prefix): walk to the prefix node, collect its subtree
+ * - findMatching(pattern): descend only along branches the pattern allows
+ *   ("*" = exactly one segment, "**" = zero or more segments, same rules
+ *   as ContextPath.matches)
+ *
+ * CONCURRENCY:
+ * - Reads are lock-free (children are ConcurrentHashMaps, values are volatile)
+ * - Writes (put/remove/clear) are serialized on the trie, so pruning an empty
+ *   branch can never race an insert into that branch
+ *
+ * Registration is rare compared to routing, so single-writer is the right trade.
+ *
+ * @param <T> value stored at a path (FlowProcess, subscriber, ...)
+ */
+class ContextPathTrie<T> {
+    private static final String WILDCARD = "*";
+    private static final String RECURSIVE_WILDCARD = "**";
+
+    private static final class Node<T> {
+        final ConcurrentHashMap<String, Node<T>> children = new ConcurrentHashMap<>(4);
+        volatile T value;
+
+        boolean isPrunable() {
+            return value == null && children.isEmpty();
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    // ===== MUTATION (serialized) =====
+
+    /**
+     * Store value at path
+     *
+     * @return previous value at path, or null
+     */
+    synchronized T put(ContextPath path, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        Node<T> node = root;
+        int depth = path.size();
+        for (int i = 0; i < depth; i++) {
+            node = node.children.computeIfAbsent(path.getSegment(i), k -> new Node<>());
+        }
+        T previous = node.value;
+        node.value = value;
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /**
+     * Remove value at path, pruning branches left empty
+     *
+     * @return removed value, or null
+     */
+    synchronized T remove(ContextPath path) {
+        int depth = path.size();
+        @SuppressWarnings("unchecked")
+        Node<T>[] trail = new Node[depth + 1];
+        trail[0] = root;
+
+        Node<T> node = root;
+        for (int i = 0; i < depth; i++) {
+            node = node.children.get(path.getSegment(i));
+            if (node == null) {
+                return null;
+            }
+            trail[i + 1] = node;
+        }
+
+        T removed = node.value;
+        if (removed == null) {
+            return null;
+        }
+        node.value = null;
+        size.decrementAndGet();
+
+        // Prune bottom-up until a node still holds something
+        for (int i = depth; i > 0; i--) {
+            if (!trail[i].isPrunable()) {
+                break;
+            }
+            trail[i - 1].children.remove(path.getSegment(i - 1));
+        }
+        return removed;
+    }
+
+    synchronized void clear() {
+        root.children.clear();
+        root.value = null;
+        size.set(0);
+    }
+
+    // ===== QUERIES (lock-free) =====
+
+    T get(ContextPath path) {
+        Node<T> node = find(path);
+        return node != null ? node.value : null;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * All values at prefix or below it (same semantics as ContextPath.startsWith)
+     *
+     * No value needs to exist at the prefix itself.
+     */
+    List<T> findUnder(ContextPath prefix) {
+        Node<T> node = find(prefix);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>();
+        collect(node, result);
+        return result;
+    }
+
+    /**
+     * All values whose path matches a "*" / "**" pattern
+     */
+    List<T> findMatching(ContextPath pattern) {
+        String[] segments = pattern.getStringSegments();
+        // "**" can reach the same (node, patternIdx) state along several branches;
+        // remembering visited states keeps the walk linear in nodes x pattern length
+        Map<Node<T>, BitSet> visited = new IdentityHashMap<>();
+        List<T> result = new ArrayList<>();
+        match(root, segments, 0, visited, result);
+        return result;
+    }
+
+    private Node<T> find(ContextPath path) {
+        Node<T> node = root;
+        int depth = path.size();
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.children.get(path.getSegment(i));
+        }
+        return node;
+    }
+
+    private void collect(Node<T> node, List<T> out) {
+        T value = node.value;
+        if (value != null) {
+            out.add(value);
+        }
+        for (Node<T> child : node.children.values()) {
+            collect(child, out);
+        }
+    }
+
+    private void match(Node<T> node, String[] pattern, int idx, Map<Node<T>, BitSet> visited, List<T> out) {
+        BitSet states = visited.computeIfAbsent(node, k -> new BitSet(pattern.length + 1));
+        if (states.get(idx)) {
+            return;
+        }
+        states.set(idx);
+
+        if (idx == pattern.length) {
+            T value = node.value;
+            if (value != null) {
+                out.add(value);
+            }
+            return;
+        }
+
+        String seg = pattern[idx];
+        if (RECURSIVE_WILDCARD.equals(seg)) {
+            // Zero segments consumed
+            match(node, pattern, idx + 1, visited, out);
+            // One more segment consumed, stay on "**"
+            for (Node<T> child : node.children.values()) {
+                match(child, pattern, idx, visited, out);
+            }
+        } else if (WILDCARD.equals(seg)) {
+            for (Node<T> child : node.children.values()) {
+                match(child, pattern, idx + 1, visited, out);
+            }
+        } else {
+            Node<T> child = node.children.get(seg);
+            if (child != null) {
+                match(child, pattern, idx + 1, visited, out);
+            }
+        }
+    }
+
+    /**
+     * Snapshot of every stored value (diagnostics)
+     */
+    List<T> values() {
+        List<T> result = new ArrayList<>(size.get());
+        collect(root, result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ContextPathTrie{size=" + size.get() + "}";
+    }
+}
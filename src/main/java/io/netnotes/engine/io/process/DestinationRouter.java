@@ -0,0 +1,204 @@
+package io.netnotes.engine.io.process;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.engine.io.ContextPath;
+import io.netnotes.engine.io.RoutedPacket;
+
+/**
+ * DestinationRouter - per-publisher routing table keyed by subscriber path
+ *
+ * Replaces broadcast-and-filter for subscribers wired through
+ * FlowProcessService.connect(). Each connected downstream gets its own
+ * SubmissionPublisher (its own queue), and a packet is only submitted to the
+ * queues it is addressed to:
+ *
+ * - DIRECT / REGISTRY with destination: exact path lookup, one queue
+ * - MULTICAST: every route at or under destinationPath (trie subtree)
+ * - HIERARCHICAL: routes under sourcePath plus routes on sourcePath's ancestors
+ * - BROADCAST / REGISTRY without destination: every route
+ *
+ * Same targets as RoutedPacket.matchesDestination, resolved by index instead
+ * of by every subscriber.
+ *
+ * Routes are added/removed on connect/disconnect (rare); route() is lock-free.
+ */
+final class DestinationRouter {
+
+    private final int bufferSize;
+
+    private final ConcurrentHashMap<ContextPath, SubmissionPublisher<RoutedPacket>> routes =
+        new ConcurrentHashMap<>();
+    private final ContextPathTrie<SubmissionPublisher<RoutedPacket>> routeIndex = new ContextPathTrie<>();
+
+    // Metrics
+    private final AtomicLong routedPackets = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong unroutable = new AtomicLong();
+
+    DestinationRouter(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    // ===== ROUTES =====
+
+    /**
+     * Route packets addressed to path into subscriber's own queue
+     *
+     * @param executor delivers to subscriber (the downstream's mailbox)
+     * @return false if a route for path already exists
+     */
+    synchronized boolean addRoute(ContextPath path, Flow.Subscriber<? super RoutedPacket> subscriber,
+            Executor executor) {
+        path = path.intern();
+        if (routes.containsKey(path)) {
+            return false;
+        }
+        SubmissionPublisher<RoutedPacket> queue = new SubmissionPublisher<>(executor, bufferSize);
+        queue.subscribe(subscriber);
+        routes.put(path, queue);
+        routeIndex.put(path, queue);
+        return true;
+    }
+
+    /**
+     * Remove the route for path and complete its subscription
+     */
+    synchronized boolean removeRoute(ContextPath path) {
+        SubmissionPublisher<RoutedPacket> queue = routes.remove(path);
+        if (queue == null) {
+            return false;
+        }
+        routeIndex.remove(path);
+        queue.close();
+        return true;
+    }
+
+    synchronized void closeAll() {
+        routes.values().forEach(SubmissionPublisher::close);
+        routes.clear();
+        routeIndex.clear();
+    }
+
+    boolean hasRoute(ContextPath path) {
+        return routes.containsKey(path);
+    }
+
+    boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    int size() {
+        return routes.size();
+    }
+
+    int getSubscriberCount() {
+        int count = 0;
+        for (SubmissionPublisher<RoutedPacket> queue : routes.values()) {
+            count += queue.getNumberOfSubscribers();
+        }
+        return count;
+    }
+
+    // ===== ROUTING =====
+
+    /**
+     * Submit packet to the queues it is addressed to
+     *
+     * @return highest estimated lag among the target queues
+     */
+    int route(RoutedPacket packet) {
+        routedPackets.incrementAndGet();
+        ContextPath destination = packet.getDestinationPath();
+
+        return switch (packet.getRoutingMode()) {
+            case DIRECT -> destination != null ? submitTo(destination, packet) : countUnroutable();
+            case REGISTRY -> destination != null ? submitTo(destination, packet) : submitAll(packet);
+            case MULTICAST -> destination != null
+                ? submitAll(routeIndex.findUnder(destination), packet)
+                : countUnroutable();
+            case HIERARCHICAL -> submitHierarchical(packet);
+            case BROADCAST -> submitAll(packet);
+        };
+    }
+
+    private int submitTo(ContextPath destination, RoutedPacket packet) {
+        SubmissionPublisher<RoutedPacket> queue = routes.get(destination);
+        if (queue == null) {
+            return countUnroutable();
+        }
+        return submit(queue, packet);
+    }
+
+    private int submitAll(RoutedPacket packet) {
+        int lag = 0;
+        for (SubmissionPublisher<RoutedPacket> queue : routes.values()) {
+            lag = Math.max(lag, submit(queue, packet));
+        }
+        return lag;
+    }
+
+    private int submitAll(List<SubmissionPublisher<RoutedPacket>> queues, RoutedPacket packet) {
+        if (queues.isEmpty()) {
+            return countUnroutable();
+        }
+        int lag = 0;
+        for (SubmissionPublisher<RoutedPacket> queue : queues) {
+            lag = Math.max(lag, submit(queue, packet));
+        }
+        return lag;
+    }
+
+    private int submitHierarchical(RoutedPacket packet) {
+        ContextPath source = packet.getSourcePath();
+        // Descendants (and source itself)
+        int lag = submitAll(routeIndex.findUnder(source), packet);
+        // Ancestors
+        ContextPath ancestor = source.parent();
+        while (ancestor != null) {
+            SubmissionPublisher<RoutedPacket> queue = routes.get(ancestor);
+            if (queue != null) {
+                lag = Math.max(lag, submit(queue, packet));
+            }
+            ancestor = ancestor.parent();
+        }
+        return lag;
+    }
+
+    private int submit(SubmissionPublisher<RoutedPacket> queue, RoutedPacket packet) {
+        deliveries.incrementAndGet();
+        return queue.submit(packet);
+    }
+
+    private int countUnroutable() {
+        unroutable.incrementAndGet();
+        return 0;
+    }
+
+    // ===== METRICS =====
+
+    long getRoutedPackets() {
+        return routedPackets.get();
+    }
+
+    /** Queue submissions (one per target per packet) */
+    long getDeliveries() {
+        return deliveries.get();
+    }
+
+    /** Packets with no matching route */
+    long getUnroutable() {
+        return unroutable.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DestinationRouter{routes=%d, routed=%d, deliveries=%d, unroutable=%d}",
+            routes.size(), getRoutedPackets(), getDeliveries(), getUnroutable());
+    }
+}
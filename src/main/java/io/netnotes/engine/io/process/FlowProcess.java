@@ -7,6 +7,8 @@ import io.netnotes.noteBytes.collections.*;
 import io.netnotes.engine.utils.LoggingHelpers.Log;
 import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
 import io.netnotes.engine.utils.noteBytes.NoteUUID;
+import io.netnotes.engine.virtualExecutors.HashedWheelTimer;
+import io.netnotes.engine.virtualExecutors.VirtualExecutors;
 
 import java.time.Duration;
 import java.util.*;
@@ -48,12 +50,19 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
     private final ConcurrentHashMap<NoteBytes, Flow.Subscription> incomingSubscriptions = new ConcurrentHashMap<>();
 
     private final SubmissionPublisher<RoutedPacket> outgoingPublisher;
-    private final ExecutorService publisherExecutor;
+    // Per-subscriber queues for processes wired by FlowProcessService.connect
+    private final DestinationRouter router;
+    // Routed deliveries into this process run here, one at a time
+    private final ProcessMailbox mailbox;
+    private final AtomicLong packetsReceived = new AtomicLong();
+    private final AtomicLong packetsDiscarded = new AtomicLong();
     
     // ===== ASYNC INFRASTRUCTURE =====
-    private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
-    private final ConcurrentHashMap<NoteBytes, CompletableFuture<RoutedPacket>> pendingRequests = 
+    // Shared pools; re-bound to the service's scheduler on registration
+    private volatile ProcessScheduler scheduler = ProcessScheduler.getDefault();
+    private final ConcurrentHashMap<NoteBytes, PendingRequest> pendingRequests = 
         new ConcurrentHashMap<>();
+    private final AtomicLong expiredRequests = new AtomicLong();
     
     // ===== PROCESS TYPE =====
     private final ProcessType processType;
@@ -79,11 +88,12 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         this.processType = type;
         this.name = name;
         this.incomingSubscriber = new ProcessSubscriber();
-        this.publisherExecutor = getExecutorForType(type);
+        this.mailbox = scheduler.newMailbox(name, type);
         this.outgoingPublisher = new SubmissionPublisher<>(
-            publisherExecutor,
+            task -> scheduler.executorFor(processType).execute(task),
             getBufferSizeForType(type)
         );
+        this.router = new DestinationRouter(getBufferSizeForType(type));
     }
 
     public String getName() {
@@ -91,6 +101,19 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
     }
     
     // ===== INITIALIZATION =====
+
+    /**
+     * Move this process onto the given scheduler's pools
+     * Called by FlowProcessService before initialize()
+     */
+    void bindScheduler(ProcessScheduler scheduler) {
+        this.scheduler = scheduler;
+        mailbox.bind(scheduler.executorFor(processType));
+    }
+
+    public ProcessScheduler getScheduler() {
+        return scheduler;
+    }
     
      /**
      * Initialize with EXPLICIT path
@@ -161,6 +184,11 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         return CompletableFuture.completedFuture(null);
     }
     
+    /**
+     * Connected upstreams deliver on this process's mailbox, one packet at a
+     * time: don't block here waiting for another packet to this process
+     * (compose on the request() future instead).
+     */
     public CompletableFuture<Void> handleMessage(RoutedPacket packet) {
         return CompletableFuture.completedFuture(null);
     }
@@ -188,16 +216,23 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
     
     public void emit(RoutedPacket packet) {
         if (!alive) {
-            Log.logMsg("[FlowProcess:" + contextPath + "] Cannot emit - process not alive", LOG_LEVEL);
+            Log.logFormat(LOG_LEVEL, "[FlowProcess:%s] Cannot emit - process not alive", contextPath);
             return;
         }
         
-        Log.logMsg("[FlowProcess.emit]: source:" + packet.getSourcePath() + 
-            "\n\tDestination:" + (packet.getDestinationPath() != null ? packet.getDestinationPath() : "broadcast"), LOG_LEVEL);
+        if (Log.isEnabled(LOG_LEVEL)) {
+            Log.logMsg("[FlowProcess.emit]: source:" + packet.getSourcePath() + 
+                "\n\tDestination:" + (packet.getDestinationPath() != null ? packet.getDestinationPath() : "broadcast"), LOG_LEVEL);
+        }
         
         try {
-            int lag = outgoingPublisher.submit(packet);
-            if (lag > 100) {
+            // Routed subscribers only see packets addressed to them,
+            // plain subscribe() subscribers still get everything
+            int lag = router.isEmpty() ? 0 : router.route(packet);
+            if (outgoingPublisher.hasSubscribers()) {
+                lag = Math.max(lag, outgoingPublisher.submit(packet));
+            }
+            if (lag > 100 && Log.isEnabled(LOG_LEVEL)) {
                 Log.logMsg("WARNING: " + contextPath + 
                     " downstream lagging (buffer: " + lag + ")", LOG_LEVEL);
             }
@@ -231,8 +266,7 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
     }
     
     public void emitTo(ContextPath destination, NoteBytesReadOnly payload) {
-        // ADD THIS LOGGING
-        Log.logMsg("[FlowProcess:" + contextPath + "] emitTo " + destination, LOG_LEVEL);
+        Log.logFormat(LOG_LEVEL, "[FlowProcess:%s] emitTo %s", contextPath, destination);
         
         emit(RoutedPacket.createDirect(contextPath, destination, payload));
     }
@@ -280,10 +314,28 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         
         outgoingPublisher.subscribe(filteredSubscriber);
     }
+
+    /**
+     * Give subscriberPath its own queue: it only receives packets addressed
+     * to it (see DestinationRouter). The queue delivers on the downstream's
+     * mailbox. Used by FlowProcessService.connect.
+     *
+     * @return false if subscriberPath is already routed
+     */
+    boolean addRoute(ContextPath subscriberPath, FlowProcess downstream) {
+        return router.addRoute(subscriberPath, downstream.getSubscriber(), downstream.mailbox);
+    }
+
+    /**
+     * Remove subscriberPath's queue, completing its subscription
+     */
+    boolean removeRoute(ContextPath subscriberPath) {
+        return router.removeRoute(subscriberPath);
+    }
     
     public int getSubscriberCount() {
         try {
-            int count = outgoingPublisher.getNumberOfSubscribers();
+            int count = outgoingPublisher.getNumberOfSubscribers() + router.getSubscriberCount();
             
             // Temporarily log every call to see when it changes
             if (contextPath != null && contextPath.toString().contains("container-service")) {
@@ -335,35 +387,44 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         @Override
         public void onNext(RoutedPacket packet) {
             if (!alive) {
-                Log.logMsg("[ProcessSubscriber:" + contextPath + "] Ignoring packet - not alive", LOG_LEVEL);
+                Log.logFormat(LOG_LEVEL, "[ProcessSubscriber:%s] Ignoring packet - not alive", contextPath);
                 return;
             }
 
+            packetsReceived.incrementAndGet();
+            pending.decrementAndGet();
+
             // ROUTING FILTER: Only process packets addressed to us or broadcasts (null destination)
+            // Routed connections are pre-filtered; this catches plain subscribe() broadcasts
             ContextPath destination = packet.getDestinationPath();
-            if (destination != null && !destination.equals(contextPath)) {
+            if (destination != null && !packet.matchesDestination(contextPath)) {
                 // Packet is for someone else, ignore it
-                Log.logMsg("[ProcessSubscriber:" + contextPath + "] Ignoring packet from " + 
-                    packet.getSourcePath() + " to " + destination + " (not for me)", LOG_LEVEL);
+                packetsDiscarded.incrementAndGet();
+                Log.logFormat(LOG_LEVEL, "[ProcessSubscriber:%s] Ignoring packet from %s to %s (not for me)",
+                    contextPath, packet.getSourcePath(), destination);
+                if (shouldRequestMore()) {
+                    requestMoreFromAll();
+                }
                 return;
             }
             
-            Log.logMsg("[ProcessSubscriber:" + contextPath + "] Processing packet from " + 
-                packet.getSourcePath() + " to " + (destination != null ? destination : "broadcast"), LOG_LEVEL);
-            
-            pending.decrementAndGet();
+            if (Log.isEnabled(LOG_LEVEL)) {
+                Log.logMsg("[ProcessSubscriber:" + contextPath + "] Processing packet from " + 
+                    packet.getSourcePath() + " to " + (destination != null ? destination : "broadcast"), LOG_LEVEL);
+            }
             
             // CHECK IF THIS IS A REPLY FIRST
             if (packet.hasMetadata(ProcessKeys.CORRELATION_ID)) {
                 NoteBytes corrId = packet.getMetadata(ProcessKeys.CORRELATION_ID);
-                Log.logMsg("[ProcessSubscriber:" + contextPath + "] Packet has correlationId: " + corrId, LOG_LEVEL);
+                Log.logFormat(LOG_LEVEL, "[ProcessSubscriber:%s] Packet has correlationId: %s", contextPath, corrId);
                 
                 // Try to handle as reply - if it was consumed, don't process as message
-                CompletableFuture<RoutedPacket> pendingRequest = pendingRequests.remove(corrId);
+                PendingRequest pendingRequest = pendingRequests.remove(corrId);
                 if (pendingRequest != null) {
-                    Log.logMsg("[ProcessSubscriber:" + contextPath + "]"
-                        +"\n\tReply consumed by pending request, skipping handleMessage", LOG_LEVEL);
-                    pendingRequest.complete(packet);
+                    Log.logFormat(LOG_LEVEL, "[ProcessSubscriber:%s]"
+                        +"\n\tReply consumed by pending request, skipping handleMessage", contextPath);
+                    pendingRequest.timeout.cancel();
+                    pendingRequest.future.complete(packet);
                     
                     if (shouldRequestMore()) {
                         requestMoreFromAll();
@@ -372,8 +433,8 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
                 }
                 
                 // No pending request found, might be an unsolicited message with correlationId
-                Log.logMsg("[ProcessSubscriber:" + contextPath + "]" 
-                    + "\n\tNo pending request for correlationId, processing as regular message", LOG_LEVEL);
+                Log.logFormat(LOG_LEVEL, "[ProcessSubscriber:%s]" 
+                    + "\n\tNo pending request for correlationId, processing as regular message", contextPath);
             }
             
             // Process as regular message
@@ -478,35 +539,51 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         NoteBytes correlationId = processId.getNextCorrelationId();
         CompletableFuture<RoutedPacket> future = new CompletableFuture<>();
         
-        pendingRequests.put(correlationId, future);
+        // Timeout on the shared wheel; cancelled when the reply arrives
+        HashedWheelTimer.Timeout requestTimeout = VirtualExecutors.getTimeoutWheel().newTimeout(
+            () -> expireRequest(correlationId), timeout.toNanos(), TimeUnit.NANOSECONDS);
         
-        RoutedPacket request = RoutedPacket
-            .createDirect(contextPath, targetPath, payload)
-            .withMetadata(ProcessKeys.CORRELATION_ID, correlationId)
-            .withMetadata(ProcessKeys.REPLY_TO, contextPath.getSegments());
+        pendingRequests.put(correlationId, new PendingRequest(future, requestTimeout));
+        if (requestTimeout.isExpired()) {
+            // Fired before the put
+            expireRequest(correlationId);
+        }
         
-        Log.logMsg("[FlowProcess:" + contextPath + "] Emitting request to " + targetPath, LOG_LEVEL);
+        // One packet, one metadata node
+        RoutedPacket request = RoutedPacket.builder(contextPath, payload)
+            .destination(targetPath)
+            .metadata(ProcessKeys.CORRELATION_ID, correlationId)
+            .metadata(ProcessKeys.REPLY_TO, contextPath.getSegments())
+            .build();
+        
+        if (Log.isEnabled(LOG_LEVEL)) {
+            Log.logMsg("[FlowProcess:" + contextPath + "] Emitting request to " + targetPath, LOG_LEVEL);
+        }
 
         emit(request);
-
-        
-        // Setup timeout
-        virtualExecutor.execute(() -> {
-            try {
-                Thread.sleep(timeout.toMillis());
-                CompletableFuture<RoutedPacket> pending = pendingRequests.remove(correlationId);
-                if (pending != null && !pending.isDone()) {
-                    pending.completeExceptionally(
-                        new TimeoutException("Request timed out"));
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
         
         return future;
     }
 
+    private void expireRequest(NoteBytes correlationId) {
+        PendingRequest pending = pendingRequests.remove(correlationId);
+        if (pending != null) {
+            expiredRequests.incrementAndGet();
+            pending.future.completeExceptionally(
+                new TimeoutException("Request timed out"));
+        }
+    }
+
+    private static final class PendingRequest {
+        final CompletableFuture<RoutedPacket> future;
+        final HashedWheelTimer.Timeout timeout;
+
+        PendingRequest(CompletableFuture<RoutedPacket> future, HashedWheelTimer.Timeout timeout) {
+            this.future = future;
+            this.timeout = timeout;
+        }
+    }
+
      public void reply(RoutedPacket originalRequest, NoteBytesPair... payload) {
         reply(originalRequest, new NoteBytesObject(payload));
     }
@@ -527,9 +604,10 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
             return;
         }
         
-        RoutedPacket reply = RoutedPacket
-            .createDirect(contextPath, replyTo, payload)
-            .withMetadata(ProcessKeys.CORRELATION_ID, correlationId);
+        RoutedPacket reply = RoutedPacket.builder(contextPath, payload)
+            .destination(replyTo)
+            .metadata(ProcessKeys.CORRELATION_ID, correlationId)
+            .build();
         
         emit(reply);
     }
@@ -563,7 +641,7 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         return CompletableFuture.supplyAsync(() -> {
             // Interface computes child path = parent path + child name
             return registry.registerChild(contextPath, child);
-        }, virtualExecutor);
+        }, scheduler.getIoExecutor());
     }
 
     public ContextPath registerChild(FlowProcess process) {
@@ -837,12 +915,15 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         }
         incomingSubscriptions.clear();
         
-        pendingRequests.values().forEach(f -> 
-            f.completeExceptionally(new CancellationException("Process killed")));
+        pendingRequests.values().forEach(p -> {
+            p.timeout.cancel();
+            p.future.completeExceptionally(new CancellationException("Process killed"));
+        });
         pendingRequests.clear();
         
         Log.logMsg("  Closing outgoingPublisher (subscribers: " + getSubscriberCount() + ")", LOG_LEVEL);
         outgoingPublisher.close();
+        router.closeAll();
         completionFuture.complete(null);
     }
     
@@ -854,7 +935,7 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
             "\n\tClosing outgoingPublisher (subscribers: " + getSubscriberCount() + ")", LOG_LEVEL);
         
         outgoingPublisher.close();
-        virtualExecutor.shutdown();
+        router.closeAll();
         completionFuture.complete(null);
     }
     
@@ -895,25 +976,42 @@ public abstract class FlowProcess implements Flow.Publisher<RoutedPacket> {
         return System.currentTimeMillis() - startTime;
     }
     
+    /** Packets delivered to this process's subscriber (including discarded) */
+    public long getReceivedPacketCount() {
+        return packetsReceived.get();
+    }
+
+    /** Delivered packets dropped because they were addressed elsewhere */
+    public long getDiscardedPacketCount() {
+        return packetsDiscarded.get();
+    }
+
+    /** Downstreams with their own routed queue */
+    public int getRouteCount() {
+        return router.size();
+    }
+
+    /** Requests waiting for a reply */
+    public int getOutstandingRequestCount() {
+        return pendingRequests.size();
+    }
+
+    /** Requests failed with TimeoutException since start */
+    public long getExpiredRequestCount() {
+        return expiredRequests.get();
+    }
+    
     public String getInfo() {
         return String.format(
-            "Process{path=%s, type=%s, alive=%s, subscribers=%d, pending=%d, uptime=%dms}",
+            "Process{path=%s, type=%s, alive=%s, subscribers=%d, pending=%d, expired=%d, uptime=%dms}",
             contextPath, processType, alive, getSubscriberCount(), 
-            pendingRequests.size(), getUptimeMillis()
+            pendingRequests.size(), expiredRequests.get(), getUptimeMillis()
         );
     }
     
     // ===== UTILITIES =====
     
 
-    private ExecutorService getExecutorForType(ProcessType type) {
-        return switch (type) {
-            case SOURCE, BIDIRECTIONAL -> Executors.newVirtualThreadPerTaskExecutor();
-            case TRANSFORM -> Executors.newWorkStealingPool();
-            case SINK -> Executors.newVirtualThreadPerTaskExecutor();
-        };
-    }
-    
     private int getBufferSizeForType(ProcessType type) {
         return switch (type) {
             case SOURCE -> 1000;
@@ -2,7 +2,6 @@ package io.netnotes.engine.io.process;
 
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
 import io.netnotes.engine.io.ContextPath;
 import io.netnotes.engine.utils.LoggingHelpers.Log;
@@ -43,21 +42,42 @@ public class FlowProcessService {
     // Connections: subscriber path → publisher paths
     private final ConcurrentHashMap<ContextPath, Set<ContextPath>> connections = 
         new ConcurrentHashMap<>();
+
+    // Reverse adjacency: publisher path → subscriber paths (kept in sync with connections)
+    private final ConcurrentHashMap<ContextPath, Set<ContextPath>> downstreams = 
+        new ConcurrentHashMap<>();
+
+    // Segment trie over registered paths for prefix / wildcard lookups
+    private final ContextPathTrie<FlowProcess> pathIndex = new ContextPathTrie<>();
     
     // Stream capabilities
     private final ConcurrentHashMap<ContextPath, Boolean> streamCapable = 
         new ConcurrentHashMap<>();
     
-    // Executor
-    private final Executor virtualExec = Executors.newVirtualThreadPerTaskExecutor();
+    // Shared pools for every process registered here
+    private final ProcessScheduler scheduler;
+    private final Executor virtualExec;
     
     /**
      * Public constructor - anyone can create their own registry
      * Security is handled by who controls interface creation
      */
     public FlowProcessService() {
+        this(ProcessScheduler.getDefault());
+    }
+
+    /**
+     * @param scheduler pools (and CPU parallelism) for registered processes
+     */
+    public FlowProcessService(ProcessScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.virtualExec = scheduler.getIoExecutor();
         Log.logMsg("[FlowProcessService] New registry instance created",LOGGING_LEVEL);
     }
+
+    public ProcessScheduler getScheduler() {
+        return scheduler;
+    }
     
     public ProcessRegistryInterface getRegistryInterface(){
         return new FullRegistryInterface();
@@ -77,15 +97,19 @@ public class FlowProcessService {
         ProcessRegistryInterface interfaceForNewProcess
     ) {
         Log.logMsg("[FlowProcessService] registering " + process.getName() + "...", LOGGING_LEVEL);
+        // Canonical instance: registry keys and the process share one path
+        path = path.intern();
         if (processes.containsKey(path)) {
             throw new IllegalStateException("Process already registered at: " + path);
         }
         
-        // Initialize with explicit path
+        // Initialize with explicit path, on this service's pools
+        process.bindScheduler(scheduler);
         process.initialize(path, parentPath, interfaceForNewProcess);
         
         // Store
         processes.put(path, process);
+        pathIndex.put(path, process);
         
         // Track hierarchy (separate from path structure!)
         if (parentPath != null) {
@@ -121,6 +145,7 @@ public class FlowProcessService {
     void unregisterProcess(ContextPath path) {
         FlowProcess process = processes.remove(path);
         if (process == null) return;
+        pathIndex.remove(path);
         
         if (process.isAlive()) {
             process.kill();
@@ -137,9 +162,23 @@ public class FlowProcessService {
             }
         }
         
-        // Remove connections
-        connections.remove(path);
-        connections.values().forEach(set -> set.remove(path));
+        // Remove connections (both directions, via adjacency - no full scan)
+        Set<ContextPath> upstreams = connections.remove(path);
+        if (upstreams != null) {
+            for (ContextPath upstreamPath : upstreams) {
+                removeEdge(downstreams, upstreamPath, path);
+                FlowProcess upstream = processes.get(upstreamPath);
+                if (upstream != null) {
+                    upstream.removeRoute(path);
+                }
+            }
+        }
+        Set<ContextPath> subscribers = downstreams.remove(path);
+        if (subscribers != null) {
+            for (ContextPath downstreamPath : subscribers) {
+                removeEdge(connections, downstreamPath, path);
+            }
+        }
         
         // Recursively unregister children
         Set<ContextPath> childPaths = children.remove(path);
@@ -174,15 +213,18 @@ public class FlowProcessService {
         // ADD THIS LOG
         Log.logMsg("  Upstream subscribers before: " + upstream.getSubscriberCount(), LOGGING_LEVEL);
         
-        // Subscribe downstream to upstream
-        upstream.subscribe(downstream.getSubscriber());
+        // Subscribe downstream to upstream through its own routed queue:
+        // it only receives packets addressed to downstreamPath (or broadcast)
+        if (!upstream.addRoute(downstreamPath, downstream)) {
+            Log.logMsg("[FlowProcessService] Already connected: " + upstreamPath + " → " + downstreamPath, LOGGING_LEVEL);
+        }
         
         // ADD THIS LOG
         Log.logMsg("  Upstream subscribers after: " + upstream.getSubscriberCount(), LOGGING_LEVEL);
         
         // Track connection
-        connections.computeIfAbsent(downstreamPath, k -> ConcurrentHashMap.newKeySet())
-            .add(upstreamPath);
+        addEdge(connections, downstreamPath, upstreamPath);
+        addEdge(downstreams, upstreamPath, downstreamPath);
         
         Log.logMsg("[ProcessService] Connected: " + upstreamPath + " → " + downstreamPath, LOGGING_LEVEL);
     }
@@ -191,14 +233,46 @@ public class FlowProcessService {
      * Disconnect processes
      */
     void disconnect(ContextPath upstreamPath, ContextPath downstreamPath) {
-        Set<ContextPath> upstreams = connections.get(downstreamPath);
-        if (upstreams != null) {
-            upstreams.remove(upstreamPath);
+        removeEdge(connections, downstreamPath, upstreamPath);
+        removeEdge(downstreams, upstreamPath, downstreamPath);
+
+        FlowProcess upstream = processes.get(upstreamPath);
+        if (upstream != null) {
+            upstream.removeRoute(downstreamPath);
         }
         
         Log.logMsg("[ProcessService] Disconnected: " + upstreamPath + " ⊣ " + downstreamPath, LOGGING_LEVEL);
     }
     
+    /**
+     * Add one edge to an adjacency map
+     * 
+     * compute() keeps add and removeEdge's empty-set cleanup atomic per key
+     */
+    private static void addEdge(
+            ConcurrentHashMap<ContextPath, Set<ContextPath>> adjacency,
+            ContextPath from,
+            ContextPath to) {
+        adjacency.compute(from, (k, set) -> {
+            Set<ContextPath> edges = set != null ? set : ConcurrentHashMap.newKeySet();
+            edges.add(to);
+            return edges;
+        });
+    }
+
+    /**
+     * Remove one edge from an adjacency map, dropping the entry once empty
+     */
+    private static void removeEdge(
+            ConcurrentHashMap<ContextPath, Set<ContextPath>> adjacency,
+            ContextPath from,
+            ContextPath to) {
+        adjacency.computeIfPresent(from, (k, set) -> {
+            set.remove(to);
+            return set.isEmpty() ? null : set;
+        });
+    }
+    
     /**
      * Start a process
      * 
@@ -324,13 +398,19 @@ public class FlowProcessService {
      * Find by path prefix - KEY NEW FEATURE
      * 
      * No process needs to exist at prefix path!
-     * Searches by string matching on paths.
+     * Walks the path trie to the prefix node, cost is O(depth + matches)
      */
     public List<FlowProcess> findByPathPrefix(ContextPath prefix) {
-        return processes.entrySet().stream()
-            .filter(e -> e.getKey().startsWith(prefix))
-            .map(Map.Entry::getValue)
-            .collect(Collectors.toList());
+        return pathIndex.findUnder(prefix);
+    }
+
+    /**
+     * Find by wildcard pattern ("*" = one segment, "**" = any number)
+     * 
+     * Same rules as ContextPath.matches, resolved against the path trie
+     */
+    public List<FlowProcess> findByPattern(ContextPath pattern) {
+        return pathIndex.findMatching(pattern);
     }
 
     public Set<ContextPath> getAllPaths() {
@@ -382,17 +462,12 @@ public class FlowProcessService {
     }
     
     public Set<ContextPath> getDownstreams(ContextPath processPath) {
-        return connections.entrySet().stream()
-            .filter(e -> e.getValue().contains(processPath))
-            .map(Map.Entry::getKey)
-            .collect(java.util.stream.Collectors.toSet());
+        Set<ContextPath> subscribers = downstreams.get(processPath);
+        return subscribers != null ? new HashSet<>(subscribers) : Collections.emptySet();
     }
     
     public List<FlowProcess> findProcessesUnder(ContextPath prefix) {
-        return processes.entrySet().stream()
-            .filter(e -> e.getKey().startsWith(prefix))
-            .map(Map.Entry::getValue)
-            .toList();
+        return pathIndex.findUnder(prefix);
     }
     
     public String getSummary() {
@@ -411,6 +486,8 @@ public class FlowProcessService {
         children.clear();
         parents.clear();
         connections.clear();
+        downstreams.clear();
+        pathIndex.clear();
         streamCapable.clear();
         Log.logMsg("[ProcessService] Shutdown complete", LogLevel.GENERAL);
     }
@@ -450,6 +527,11 @@ public class FlowProcessService {
             return FlowProcessService.this.findByPathPrefix(prefix);
         }
         
+        @Override
+        public List<FlowProcess> findByPattern(String pattern) {
+            return FlowProcessService.this.findByPattern(ContextPath.parse(pattern));
+        }
+        
         @Override
         public Set<ContextPath> getAllPaths() {
             return FlowProcessService.this.getAllPaths();
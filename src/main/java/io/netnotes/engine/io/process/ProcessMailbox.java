@@ -0,0 +1,110 @@
+package io.netnotes.engine.io.process;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.engine.utils.LoggingHelpers.Log;
+
+/**
+ * ProcessMailbox - serial executor for one process on a shared pool
+ *
+ * Tasks run one at a time in submission order, but on whatever thread the
+ * shared executor provides - no thread or pool is owned per process.
+ * Deliveries into a process from all of its upstreams go through its
+ * mailbox, so handleMessage never runs concurrently with itself.
+ *
+ * A drain runs at most BATCH tasks and then re-schedules itself, so one busy
+ * process can't monopolize a pool worker.
+ *
+ * The target executor can be re-bound (default scheduler at construction,
+ * the service's scheduler at registration).
+ */
+final class ProcessMailbox implements Executor {
+    private static final int BATCH = 64;
+
+    private final String name;
+    private volatile Executor target;
+
+    private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    // Metrics
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong drains = new AtomicLong();
+
+    ProcessMailbox(String name, Executor target) {
+        this.name = name;
+        this.target = target;
+    }
+
+    void bind(Executor target) {
+        this.target = target;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                target.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        drains.incrementAndGet();
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    Log.logError("[ProcessMailbox:" + name + "] task failed", t);
+                }
+                executed.incrementAndGet();
+            }
+        } finally {
+            scheduled.set(false);
+            // Anything added after the last poll, or left over from the batch
+            if (!queue.isEmpty()) {
+                try {
+                    schedule();
+                } catch (RejectedExecutionException e) {
+                    Log.logError("[ProcessMailbox:" + name + "] executor rejected drain", e);
+                }
+            }
+        }
+    }
+
+    // ===== METRICS =====
+
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    long getExecutedCount() {
+        return executed.get();
+    }
+
+    long getDrainCount() {
+        return drains.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessMailbox{" + name + ", queued=" + queue.size() + ", executed=" + executed.get() + "}";
+    }
+}
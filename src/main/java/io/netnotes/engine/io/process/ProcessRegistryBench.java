@@ -0,0 +1,136 @@
+package io.netnotes.engine.io.process;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.netnotes.engine.io.ContextPath;
+
+/**
+ * ProcessRegistryBench - flat-map stream scans vs ContextPathTrie / reverse adjacency
+ *
+ * Mirrors the lookups FlowProcessService performs:
+ * - prefix:     findByPathPrefix / findProcessesUnder
+ * - pattern:    findByPattern ("*" / "**")
+ * - downstream: getDownstreams
+ *
+ * Paths are laid out like IODaemon sessions: /system/io/session-S/device-D
+ *
+ * usage: java -cp .. io.netnotes.engine.io.process.ProcessRegistryBench [iterations]
+ */
+public class ProcessRegistryBench {
+
+    private static final int[] SIZES = { 1_000, 10_000, 100_000 };
+    private static final int DEVICES_PER_SESSION = 50;
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String... args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        puts("paths    | lookup     | scan (us/op) | index (us/op) | speedup");
+        for (int size : SIZES) {
+            run(size, iterations);
+        }
+    }
+
+    private static void run(int size, int iterations) {
+        ConcurrentHashMap<ContextPath, String> processes = new ConcurrentHashMap<>();
+        ContextPathTrie<String> trie = new ContextPathTrie<>();
+
+        // connections: subscriber → publishers, downstreams: publisher → subscribers
+        ConcurrentHashMap<ContextPath, Set<ContextPath>> connections = new ConcurrentHashMap<>();
+        ConcurrentHashMap<ContextPath, Set<ContextPath>> downstreams = new ConcurrentHashMap<>();
+
+        ContextPath hub = ContextPath.of("system", "io", "daemon");
+        processes.put(hub, hub.toString());
+        trie.put(hub, hub.toString());
+
+        int sessions = Math.max(1, size / DEVICES_PER_SESSION);
+        for (int i = 0; i < size; i++) {
+            ContextPath path = ContextPath.of(
+                "system", "io", "session-" + (i % sessions), "device-" + i);
+            processes.put(path, path.toString());
+            trie.put(path, path.toString());
+
+            // Every device listens to the hub
+            connections.computeIfAbsent(path, k -> ConcurrentHashMap.newKeySet()).add(hub);
+            downstreams.computeIfAbsent(hub, k -> ConcurrentHashMap.newKeySet()).add(path);
+        }
+
+        ContextPath prefix = ContextPath.of("system", "io", "session-" + (sessions / 2));
+        ContextPath pattern = ContextPath.parse("/system/io/*/device-" + (size / 2));
+        ContextPath lonely = ContextPath.of("system", "io", "session-0", "device-0");
+
+        report(size, "prefix",
+            time(iterations, () -> scanPrefix(processes, prefix).size()),
+            time(iterations, () -> trie.findUnder(prefix).size()));
+
+        report(size, "pattern",
+            time(iterations, () -> scanPattern(processes, pattern).size()),
+            time(iterations, () -> trie.findMatching(pattern).size()));
+
+        report(size, "downstream",
+            time(iterations, () -> scanDownstreams(connections, lonely).size()),
+            time(iterations, () -> {
+                Set<ContextPath> set = downstreams.get(lonely);
+                return set != null ? set.size() : 0;
+            }));
+    }
+
+    // ===== CURRENT STREAM SCANS =====
+
+    private static List<String> scanPrefix(Map<ContextPath, String> processes, ContextPath prefix) {
+        return processes.entrySet().stream()
+            .filter(e -> e.getKey().startsWith(prefix))
+            .map(Map.Entry::getValue)
+            .collect(Collectors.toList());
+    }
+
+    private static List<String> scanPattern(Map<ContextPath, String> processes, ContextPath pattern) {
+        return processes.entrySet().stream()
+            .filter(e -> e.getKey().matches(pattern))
+            .map(Map.Entry::getValue)
+            .collect(Collectors.toList());
+    }
+
+    private static Set<ContextPath> scanDownstreams(
+            Map<ContextPath, Set<ContextPath>> connections, ContextPath path) {
+        return connections.entrySet().stream()
+            .filter(e -> e.getValue().contains(path))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+    }
+
+    // ===== HARNESS =====
+
+    interface Op {
+        int run();
+    }
+
+    static volatile int sink;
+
+    private static double time(int iterations, Op op) {
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            for (int i = 0; i < iterations; i++) {
+                sink += op.run();
+            }
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += op.run();
+        }
+        long delta = System.nanoTime() - start;
+        return delta / (double) iterations / 1000.0;
+    }
+
+    private static void report(int size, String lookup, double scanUs, double indexUs) {
+        System.out.format("%-8d | %-10s | %12.3f | %13.3f | %7.1fx%n",
+            size, lookup, scanUs, indexUs, indexUs > 0 ? scanUs / indexUs : 0.0);
+    }
+
+    private static void puts(String s) {
+        System.out.format("%s%n", s);
+    }
+}
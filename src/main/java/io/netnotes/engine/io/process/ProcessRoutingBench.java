@@ -0,0 +1,129 @@
+package io.netnotes.engine.io.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.engine.io.ContextPath;
+import io.netnotes.engine.io.RoutedPacket;
+import io.netnotes.noteBytes.NoteBytesReadOnly;
+
+/**
+ * ProcessRoutingBench - broadcast-and-filter vs DestinationRouter
+ *
+ * One hub process emits DIRECT packets to random sinks out of SUBSCRIBERS.
+ * - broadcast: sinks subscribe with hub.subscribe(sink.getSubscriber())
+ *              (every packet reaches every sink, ProcessSubscriber filters)
+ * - routed:    sinks wired with FlowProcessService.connect (per-sink queue)
+ *
+ * Reports packets delivered to subscribers, how many of those were
+ * discarded as "not for me", and elapsed time until every addressed packet
+ * has been handled.
+ *
+ * usage: java -cp .. io.netnotes.engine.io.process.ProcessRoutingBench [packets] [subscribers]
+ */
+public class ProcessRoutingBench {
+
+    public static void main(String... args) throws Exception {
+        int packets = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int subscribers = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        puts("mode      | packets | delivered  | discarded  | handled | elapsed (ms)");
+        // Warm up
+        run(false, packets / 10, subscribers);
+        run(true, packets / 10, subscribers);
+
+        report("broadcast", packets, run(false, packets, subscribers));
+        report("routed", packets, run(true, packets, subscribers));
+    }
+
+    record Result(long delivered, long discarded, long handled, long elapsedNanos) {}
+
+    private static Result run(boolean routed, int packets, int subscribers) throws Exception {
+        FlowProcessService service = new FlowProcessService();
+        ProcessRegistryInterface registry = service.getRegistryInterface();
+
+        ContextPath base = ContextPath.of("bench", routed ? "routed" : "broadcast");
+        Hub hub = new Hub();
+        ContextPath hubPath = registry.registerProcess(hub, base.append("hub"), null, registry);
+
+        AtomicLong handled = new AtomicLong();
+        List<Sink> sinks = new ArrayList<>(subscribers);
+        List<ContextPath> sinkPaths = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            Sink sink = new Sink("sink-" + i, handled);
+            ContextPath path = registry.registerProcess(sink, base.append(sink.getName()), null, registry);
+            if (routed) {
+                registry.connect(hubPath, path);
+            } else {
+                hub.subscribe(sink.getSubscriber());
+            }
+            sinks.add(sink);
+            sinkPaths.add(path);
+        }
+
+        NoteBytesReadOnly payload = new NoteBytesReadOnly(new byte[32]);
+        Random rnd = new Random(42);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < packets; i++) {
+            ContextPath target = sinkPaths.get(rnd.nextInt(subscribers));
+            hub.emit(RoutedPacket.createDirect(hubPath, target, payload));
+        }
+        while (handled.get() < packets) {
+            Thread.onSpinWait();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long delivered = 0;
+        long discarded = 0;
+        for (Sink sink : sinks) {
+            delivered += sink.getReceivedPacketCount();
+            discarded += sink.getDiscardedPacketCount();
+        }
+        service.shutdown();
+        return new Result(delivered, discarded, handled.get(), elapsed);
+    }
+
+    private static final class Hub extends FlowProcess {
+        Hub() {
+            super("hub", ProcessType.SOURCE);
+        }
+
+        @Override
+        public void handleStreamChannel(StreamChannel channel, ContextPath fromPath) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class Sink extends FlowProcess {
+        private final AtomicLong handled;
+
+        Sink(String name, AtomicLong handled) {
+            super(name, ProcessType.SINK);
+            this.handled = handled;
+        }
+
+        @Override
+        public CompletableFuture<Void> handleMessage(RoutedPacket packet) {
+            handled.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void handleStreamChannel(StreamChannel channel, ContextPath fromPath) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static void report(String mode, int packets, Result r) {
+        System.out.format("%-9s | %7d | %10d | %10d | %7d | %12.1f%n",
+            mode, packets, r.delivered(), r.discarded(), r.handled(), r.elapsedNanos() / 1_000_000.0);
+    }
+
+    private static void puts(String s) {
+        System.out.format("%s%n", s);
+    }
+}
@@ -0,0 +1,135 @@
+package io.netnotes.engine.io.process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netnotes.engine.io.process.FlowProcess.ProcessType;
+import io.netnotes.engine.virtualExecutors.VirtualExecutors;
+
+/**
+ * ProcessScheduler - shared executor topology for FlowProcesses
+ *
+ * Processes used to create their own executors (a work-stealing pool per
+ * TRANSFORM process, a virtual-thread executor per other process, plus a
+ * private virtual executor each). With thousands of processes that is
+ * thousands of pools competing for the same cores. Instead:
+ *
+ * - CPU pool:  one ForkJoinPool (async/FIFO mode) sized to `parallelism`,
+ *              used by TRANSFORM processes
+ * - IO:        the shared virtual-thread executor, used by SOURCE, SINK and
+ *              BIDIRECTIONAL processes and for process housekeeping
+ * - mailboxes: one ProcessMailbox per process on top of its pool, so each
+ *              process still sees its packets one at a time, in order
+ *
+ * Owned by FlowProcessService (one per service, or the shared default).
+ */
+public class ProcessScheduler {
+
+    public static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final class DefaultHolder {
+        static final ProcessScheduler INSTANCE = new ProcessScheduler(DEFAULT_PARALLELISM);
+    }
+
+    private final ForkJoinPool cpuPool;
+    private final ExecutorService ioExecutor;
+
+    public ProcessScheduler() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * @param parallelism worker threads for CPU-bound (TRANSFORM) processes
+     */
+    public ProcessScheduler(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        this.cpuPool = new ForkJoinPool(
+            parallelism,
+            pool -> {
+                var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                worker.setName("process-cpu-" + threadId.incrementAndGet());
+                worker.setDaemon(true);
+                return worker;
+            },
+            null,
+            true
+        );
+        this.ioExecutor = VirtualExecutors.getVirtualExecutor();
+    }
+
+    /**
+     * Scheduler used by processes until they are registered with a service
+     */
+    public static ProcessScheduler getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    // ===== EXECUTORS =====
+
+    public Executor getCpuExecutor() {
+        return cpuPool;
+    }
+
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Pool a process of this type runs on
+     */
+    public Executor executorFor(ProcessType type) {
+        return type == ProcessType.TRANSFORM ? cpuPool : ioExecutor;
+    }
+
+    /**
+     * New serial mailbox on the pool for type
+     */
+    ProcessMailbox newMailbox(String name, ProcessType type) {
+        return new ProcessMailbox(name, executorFor(type));
+    }
+
+    // ===== METRICS =====
+
+    public int getParallelism() {
+        return cpuPool.getParallelism();
+    }
+
+    /** CPU pool threads currently alive */
+    public int getCpuPoolSize() {
+        return cpuPool.getPoolSize();
+    }
+
+    public long getCpuStealCount() {
+        return cpuPool.getStealCount();
+    }
+
+    public String getStats() {
+        return String.format("ProcessScheduler{parallelism=%d, cpuThreads=%d, active=%d, queued=%d, steals=%d}",
+            cpuPool.getParallelism(), cpuPool.getPoolSize(), cpuPool.getActiveThreadCount(),
+            cpuPool.getQueuedSubmissionCount() + cpuPool.getQueuedTaskCount(),
+            cpuPool.getStealCount());
+    }
+
+    // ===== SHUTDOWN =====
+
+    /**
+     * Stop the CPU pool. The IO executor is the shared virtual executor and
+     * stays up. Never call this on the default scheduler.
+     */
+    public void shutdown() {
+        if (this == DefaultHolder.INSTANCE) {
+            throw new IllegalStateException("Default scheduler cannot be shut down");
+        }
+        cpuPool.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return cpuPool.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,133 @@
+package io.netnotes.engine.io.process;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.engine.io.process.FlowProcess.ProcessType;
+
+/**
+ * ProcessSchedulerBench - per-process executors vs shared ProcessScheduler
+ *
+ * PROCESSES publisher/subscriber pairs stand in for registered FlowProcesses
+ * (a quarter TRANSFORM, the rest SINK), each delivering through a
+ * SubmissionPublisher like FlowProcess does:
+ * - per-process: the old getExecutorForType (a new work-stealing pool per
+ *                TRANSFORM, a new virtual executor otherwise) plus the
+ *                private virtualExecutor every instance created
+ * - shared:      one ProcessScheduler, each process delivering on its own
+ *                ProcessMailbox
+ *
+ * TRANSFORM handlers spin TRANSFORM_WORK_NANOS to stand in for CPU work.
+ * Reports messages/s and peak live platform threads.
+ *
+ * usage: java -cp .. io.netnotes.engine.io.process.ProcessSchedulerBench [processes] [messages]
+ */
+public class ProcessSchedulerBench {
+
+    private static final long TRANSFORM_WORK_NANOS = 2_000;
+
+    record Result(double msgsPerSec, int peakThreads, int executors) {}
+
+    public static void main(String... args) throws Exception {
+        int processes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        System.out.format("processes=%d messages=%d cpus=%d%n",
+            processes, messages, Runtime.getRuntime().availableProcessors());
+        System.out.format("topology    | msgs/s     | peak threads | executors%n");
+        report("per-process", run(false, processes, messages));
+        report("shared", run(true, processes, messages));
+    }
+
+    private static Result run(boolean shared, int processes, int messages) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        ProcessScheduler scheduler = shared ? new ProcessScheduler() : null;
+        List<ExecutorService> owned = new ArrayList<>();
+        List<SubmissionPublisher<Long>> publishers = new ArrayList<>(processes);
+        AtomicLong handled = new AtomicLong();
+
+        for (int i = 0; i < processes; i++) {
+            ProcessType type = i % 4 == 0 ? ProcessType.TRANSFORM : ProcessType.SINK;
+            Executor executor;
+            if (shared) {
+                executor = scheduler.newMailbox("p" + i, type);
+            } else {
+                ExecutorService perProcess = type == ProcessType.TRANSFORM
+                    ? Executors.newWorkStealingPool()
+                    : Executors.newVirtualThreadPerTaskExecutor();
+                owned.add(perProcess);
+                owned.add(Executors.newVirtualThreadPerTaskExecutor());
+                executor = perProcess;
+            }
+            SubmissionPublisher<Long> publisher = new SubmissionPublisher<>(executor, 256);
+            publisher.subscribe(new CountingSubscriber(type, handled));
+            publishers.add(publisher);
+        }
+
+        Random rnd = new Random(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            publishers.get(rnd.nextInt(processes)).submit((long) i);
+        }
+        while (handled.get() < messages) {
+            Thread.onSpinWait();
+        }
+        long elapsed = System.nanoTime() - start;
+        int peak = threads.getPeakThreadCount();
+
+        publishers.forEach(SubmissionPublisher::close);
+        owned.forEach(ExecutorService::shutdownNow);
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        return new Result(messages / (elapsed / 1e9), peak, shared ? 1 : owned.size());
+    }
+
+    private static final class CountingSubscriber implements Flow.Subscriber<Long> {
+        private final ProcessType type;
+        private final AtomicLong handled;
+
+        CountingSubscriber(ProcessType type, AtomicLong handled) {
+            this.type = type;
+            this.handled = handled;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Long item) {
+            if (type == ProcessType.TRANSFORM) {
+                long end = System.nanoTime() + TRANSFORM_WORK_NANOS;
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+            }
+            handled.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {}
+
+        @Override
+        public void onComplete() {}
+    }
+
+    private static void report(String topology, Result r) {
+        System.out.format("%-11s | %10.0f | %12d | %9d%n",
+            topology, r.msgsPerSec(), r.peakThreads(), r.executors());
+    }
+}
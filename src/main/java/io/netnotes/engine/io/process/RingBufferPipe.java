@@ -0,0 +1,347 @@
+package io.netnotes.engine.io.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RingBufferPipe - single-producer / single-consumer byte pipe
+ *
+ * Replacement for PipedOutputStream/PipedInputStream on StreamChannel:
+ * - No monitors: cursors are volatile longs, so a blocked virtual thread
+ *   parks (LockSupport) instead of pinning its carrier in wait()
+ * - No 1-second polling: the writer unparks the reader as soon as bytes are
+ *   published, the reader unparks the writer as soon as space is freed
+ * - Bulk copies: a write/read is at most two arraycopy calls (wrap-around)
+ * - Zero-copy reads: readSlice() exposes the readable region as a read-only
+ *   ByteBuffer view over the ring, release() frees it
+ *
+ * Contract (same as the piped streams it replaces):
+ * - output().close() signals EOF, the reader drains what is left then sees -1
+ * - input().close() makes further writes fail with IOException("Pipe closed")
+ *
+ * Threading: exactly one thread may write at a time and exactly one thread may
+ * read at a time. StreamChannel writers already serialize through
+ * getWriteExecutor() / ChannelWriter.getWriteExec(), and each channel has one
+ * reader loop.
+ */
+public final class RingBufferPipe {
+
+    private final byte[] buffer;
+    private final int capacity;
+    private final int mask;
+
+    // Monotonic cursors: readable = writePos - readPos, free = capacity - readable
+    private volatile long writePos = 0;
+    private volatile long readPos = 0;
+
+    private volatile boolean writerClosed = false;
+    private volatile boolean readerClosed = false;
+
+    private volatile Thread parkedReader = null;
+    private volatile Thread parkedWriter = null;
+
+    private final RingOutputStream output = new RingOutputStream();
+    private final RingInputStream input = new RingInputStream();
+
+    /**
+     * @param minCapacity rounded up to the next power of two
+     */
+    public RingBufferPipe(int minCapacity) {
+        if (minCapacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        if (minCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity too large: " + minCapacity);
+        }
+        int cap = Integer.highestOneBit(minCapacity);
+        if (cap < minCapacity) cap <<= 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.buffer = new byte[cap];
+    }
+
+    public OutputStream output() {
+        return output;
+    }
+
+    public InputStream input() {
+        return input;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Bytes currently readable */
+    public int available() {
+        return (int) (writePos - readPos);
+    }
+
+    public boolean isWriterClosed() {
+        return writerClosed;
+    }
+
+    public boolean isReaderClosed() {
+        return readerClosed;
+    }
+
+    // ===== PRODUCER =====
+
+    private void write(byte[] src, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (src.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            checkWritable();
+            long w = writePos;
+            int free = capacity - (int) (w - readPos);
+            if (free == 0) {
+                awaitSpace(w);
+                continue;
+            }
+            int n = Math.min(free, len);
+            int index = (int) (w & mask);
+            int first = Math.min(n, capacity - index);
+            System.arraycopy(src, off, buffer, index, first);
+            if (first < n) {
+                System.arraycopy(src, off + first, buffer, 0, n - first);
+            }
+            writePos = w + n;
+            wake(parkedReader);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void write(int b) throws IOException {
+        for (;;) {
+            checkWritable();
+            long w = writePos;
+            if (w - readPos < capacity) {
+                buffer[(int) (w & mask)] = (byte) b;
+                writePos = w + 1;
+                wake(parkedReader);
+                return;
+            }
+            awaitSpace(w);
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (writerClosed || readerClosed) {
+            throw new IOException("Pipe closed");
+        }
+    }
+
+    private void awaitSpace(long w) throws IOException {
+        Thread current = Thread.currentThread();
+        parkedWriter = current;
+        try {
+            // Re-check after publishing parkedWriter so a concurrent release() can't be missed
+            while (w - readPos >= capacity && !readerClosed && !writerClosed) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    current.interrupt();
+                    throw new InterruptedIOException("Interrupted while writing to pipe");
+                }
+            }
+        } finally {
+            parkedWriter = null;
+        }
+    }
+
+    private void closeWriter() {
+        if (writerClosed) return;
+        writerClosed = true;
+        wake(parkedReader);
+        wake(parkedWriter);
+    }
+
+    // ===== CONSUMER =====
+
+    /**
+     * Blocks until at least one byte is readable or the writer closed.
+     * @return readable byte count, or -1 on EOF
+     */
+    private int awaitData() throws IOException {
+        if (readerClosed) {
+            throw new IOException("Pipe closed");
+        }
+        long r = readPos;
+        int avail = (int) (writePos - r);
+        if (avail > 0) return avail;
+
+        Thread current = Thread.currentThread();
+        parkedReader = current;
+        try {
+            for (;;) {
+                avail = (int) (writePos - r);
+                if (avail > 0) return avail;
+                if (writerClosed) {
+                    // Writer may have published right before closing
+                    avail = (int) (writePos - r);
+                    return avail > 0 ? avail : -1;
+                }
+                if (readerClosed) {
+                    throw new IOException("Pipe closed");
+                }
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    current.interrupt();
+                    throw new InterruptedIOException("Interrupted while reading from pipe");
+                }
+            }
+        } finally {
+            parkedReader = null;
+        }
+    }
+
+    private int read(byte[] dst, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (dst.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) return 0;
+
+        int avail = awaitData();
+        if (avail < 0) return -1;
+
+        long r = readPos;
+        int n = Math.min(avail, len);
+        int index = (int) (r & mask);
+        int first = Math.min(n, capacity - index);
+        System.arraycopy(buffer, index, dst, off, first);
+        if (first < n) {
+            System.arraycopy(buffer, 0, dst, off + first, n - first);
+        }
+        readPos = r + n;
+        wake(parkedWriter);
+        return n;
+    }
+
+    private int read() throws IOException {
+        int avail = awaitData();
+        if (avail < 0) return -1;
+        long r = readPos;
+        int b = buffer[(int) (r & mask)] & 0xFF;
+        readPos = r + 1;
+        wake(parkedWriter);
+        return b;
+    }
+
+    /**
+     * Zero-copy read: blocks until data is readable, then returns a read-only
+     * view of up to maxLen contiguous readable bytes inside the ring. The view
+     * stays valid until release() is called; call release(slice.remaining())
+     * (or less) once consumed.
+     *
+     * @return slice, or null on EOF
+     */
+    public ByteBuffer readSlice(int maxLen) throws IOException {
+        if (maxLen <= 0) {
+            throw new IllegalArgumentException("maxLen must be > 0");
+        }
+        int avail = awaitData();
+        if (avail < 0) return null;
+
+        int index = (int) (readPos & mask);
+        int n = Math.min(Math.min(avail, maxLen), capacity - index);
+        return ByteBuffer.wrap(buffer, index, n).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Frees bytes previously returned by readSlice()
+     */
+    public void release(int count) {
+        long r = readPos;
+        if (count < 0 || count > (int) (writePos - r)) {
+            throw new IllegalArgumentException("release count out of range: " + count);
+        }
+        readPos = r + count;
+        wake(parkedWriter);
+    }
+
+    private void closeReader() {
+        if (readerClosed) return;
+        readerClosed = true;
+        wake(parkedWriter);
+        wake(parkedReader);
+    }
+
+    private static void wake(Thread t) {
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    // ===== STREAM VIEWS =====
+
+    private final class RingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            RingBufferPipe.this.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            RingBufferPipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Bytes are visible to the reader as soon as write returns
+            if (readerClosed) {
+                throw new IOException("Pipe closed");
+            }
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+
+    private final class RingInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            return RingBufferPipe.this.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return RingBufferPipe.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (readerClosed) {
+                throw new IOException("Pipe closed");
+            }
+            return RingBufferPipe.this.available();
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (n <= 0) return 0;
+            int avail = awaitData();
+            if (avail < 0) return 0;
+            int count = (int) Math.min(avail, n);
+            release(count);
+            return count;
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RingBufferPipe{capacity=%d, available=%d, writerClosed=%s, readerClosed=%s}",
+            capacity, available(), writerClosed, readerClosed);
+    }
+}
@@ -1,7 +1,8 @@
 package io.netnotes.engine.io.process;
 
 import java.io.IOException;
-import java.io.PipedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -10,25 +11,25 @@ import java.util.concurrent.TimeUnit;
 import io.netnotes.engine.io.ContextPath;
 import io.netnotes.engine.utils.LoggingHelpers.Log;
 import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
+import io.netnotes.engine.utils.streams.StreamUtils;
 
 /**
  * StreamChannel - Unidirectional pipe communication between processes
  * 
- * FIXED: Now handles piped stream threading internally!
- * 
- * PipedOutputStream/PipedInputStream require the writer and reader to be on
- * separate threads to avoid deadlock. This class handles that internally with:
+ * Backed by a RingBufferPipe (single-producer / single-consumer). The writer
+ * and reader must still be on separate threads, a full ring blocks the writer:
  * - Async write queue (sender writes to queue, dedicated thread writes to pipe)
  * - Async read handling (receiver gets data on dedicated thread)
  * 
  * Flow:
  * 1. Sender requests channel from registry
  * 2. Registry creates channel and routes to receiver
- * 3. Receiver calls startReceiving() - sets up read thread
+ * 3. Receiver starts a read thread on getInputStream()
  * 4. Receiver signals ready via readyFuture
  * 5. Sender gets channel and can start writing (writes go to queue)
- * 6. Internal write thread drains queue to pipe
- * 7. Receiver's read thread consumes from pipe
+ * 6. Internal write thread drains queue to getChannelStream()
+ * 7. Receiver's read thread consumes from the ring
+ * 8. close() ends the write side, the reader drains and sees EOF
  * 
  * For bidirectional: create two separate channels (A→B and B→A)
  */
@@ -38,7 +39,7 @@ public class StreamChannel {
     
     private final ContextPath source;
     private final ContextPath target;
-    private final PipedOutputStream pipeOutput;
+    private final RingBufferPipe pipe;
 
     private final CompletableFuture<Void> readyFuture;
 
@@ -54,7 +55,7 @@ public class StreamChannel {
     StreamChannel(ContextPath source, ContextPath target) throws IOException {
         this.source = source;
         this.target = target;
-        this.pipeOutput = new PipedOutputStream();
+        this.pipe = new RingBufferPipe(StreamUtils.PIPE_BUFFER_SIZE);
   
         this.readyFuture = new CompletableFuture<>();
         
@@ -70,12 +71,26 @@ public class StreamChannel {
     }
 
     /**
-     * Get raw input stream for advanced usage
+     * Get raw output stream (sender side)
      */
-    public PipedOutputStream getChannelStream() {
+    public OutputStream getChannelStream() {
         Log.logMsg("[StreamChannel] getStreamChannel called for " + source + " → " + target, LOG_LEVEL);
         active = true;
-        return pipeOutput;
+        return pipe.output();
+    }
+
+    /**
+     * Get raw input stream (receiver side)
+     */
+    public InputStream getInputStream() {
+        return pipe.input();
+    }
+
+    /**
+     * Underlying ring, for zero-copy readSlice()/release() on the receiver side
+     */
+    public RingBufferPipe getPipe() {
+        return pipe;
     }
     
     /**
@@ -99,7 +114,8 @@ public class StreamChannel {
             }
         }
 
-   
+        // EOF for the reader once queued writes have drained
+        pipe.output().close();
     }
     
     
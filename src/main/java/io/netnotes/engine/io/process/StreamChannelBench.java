@@ -0,0 +1,159 @@
+package io.netnotes.engine.io.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Arrays;
+
+import io.netnotes.engine.utils.streams.StreamUtils;
+
+/**
+ * StreamChannelBench - PipedOutputStream/PipedInputStream vs RingBufferPipe
+ *
+ * Both sides run on virtual threads, like StreamChannel writers
+ * (getWriteExecutor) and readers (VirtualExecutors).
+ *
+ * - throughput: writer streams fixed-size frames, reader drains (MB/s)
+ * - latency:    ping-pong of one small frame over two pipes (us round trip)
+ *
+ * Pipes are sized with StreamUtils.PIPE_BUFFER_SIZE.
+ *
+ * usage: java -cp .. io.netnotes.engine.io.process.StreamChannelBench [megabytes]
+ */
+public class StreamChannelBench {
+
+    private static final int[] FRAME_SIZES = { 64, 1024, 16 * 1024 };
+    private static final int PING_PONG_ROUNDS = 20_000;
+    private static final int LATENCY_FRAME = 64;
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String... args) throws Exception {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        long totalBytes = megabytes * 1024L * 1024L;
+
+        puts("test       | frame  | piped        | ring         | speedup");
+        for (int frame : FRAME_SIZES) {
+            double piped = 0;
+            double ring = 0;
+            for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                piped = throughput(pipedPair(), frame, totalBytes);
+                ring = throughput(ringPair(), frame, totalBytes);
+            }
+            System.out.format("%-10s | %6d | %7.1f MB/s | %7.1f MB/s | %6.1fx%n",
+                "throughput", frame, piped, ring, piped > 0 ? ring / piped : 0.0);
+        }
+
+        double pipedUs = 0;
+        double ringUs = 0;
+        for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+            pipedUs = pingPong(pipedPair(), pipedPair());
+            ringUs = pingPong(ringPair(), ringPair());
+        }
+        System.out.format("%-10s | %6d | %9.2f us | %9.2f us | %6.1fx%n",
+            "latency", LATENCY_FRAME, pipedUs, ringUs, ringUs > 0 ? pipedUs / ringUs : 0.0);
+    }
+
+    // ===== PIPE PAIRS =====
+
+    record Pair(OutputStream out, InputStream in) {}
+
+    private static Pair pipedPair() throws IOException {
+        PipedOutputStream out = new PipedOutputStream();
+        PipedInputStream in = new PipedInputStream(out, StreamUtils.PIPE_BUFFER_SIZE);
+        return new Pair(out, in);
+    }
+
+    private static Pair ringPair() {
+        RingBufferPipe pipe = new RingBufferPipe(StreamUtils.PIPE_BUFFER_SIZE);
+        return new Pair(pipe.output(), pipe.input());
+    }
+
+    // ===== TESTS =====
+
+    private static double throughput(Pair pair, int frameSize, long totalBytes) throws Exception {
+        byte[] frame = new byte[frameSize];
+        Arrays.fill(frame, (byte) 7);
+        long frames = totalBytes / frameSize;
+
+        Thread writer = Thread.ofVirtual().unstarted(() -> {
+            try (OutputStream out = pair.out()) {
+                for (long i = 0; i < frames; i++) {
+                    out.write(frame, 0, frameSize);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        long[] received = new long[1];
+        Thread reader = Thread.ofVirtual().unstarted(() -> {
+            byte[] buf = new byte[StreamUtils.BUFFER_SIZE];
+            try (InputStream in = pair.in()) {
+                int n;
+                while ((n = in.read(buf, 0, buf.length)) != -1) {
+                    received[0] += n;
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        long start = System.nanoTime();
+        reader.start();
+        writer.start();
+        writer.join();
+        reader.join();
+        long delta = System.nanoTime() - start;
+
+        if (received[0] != frames * frameSize) {
+            throw new IllegalStateException("short read: " + received[0]);
+        }
+        return (received[0] / (1024.0 * 1024.0)) / (delta / 1e9);
+    }
+
+    private static double pingPong(Pair ping, Pair pong) throws Exception {
+        Thread echo = Thread.ofVirtual().unstarted(() -> {
+            byte[] buf = new byte[LATENCY_FRAME];
+            try (InputStream in = ping.in(); OutputStream out = pong.out()) {
+                while (in.readNBytes(buf, 0, LATENCY_FRAME) == LATENCY_FRAME) {
+                    out.write(buf, 0, LATENCY_FRAME);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        echo.start();
+
+        long[] elapsed = new long[1];
+        Thread driver = Thread.ofVirtual().unstarted(() -> {
+            byte[] frame = new byte[LATENCY_FRAME];
+            byte[] back = new byte[LATENCY_FRAME];
+            try (OutputStream out = ping.out(); InputStream in = pong.in()) {
+                long start = System.nanoTime();
+                for (int i = 0; i < PING_PONG_ROUNDS; i++) {
+                    out.write(frame, 0, LATENCY_FRAME);
+                    out.flush();
+                    if (in.readNBytes(back, 0, LATENCY_FRAME) != LATENCY_FRAME) {
+                        throw new IOException("echo closed");
+                    }
+                }
+                elapsed[0] = System.nanoTime() - start;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        driver.start();
+        driver.join();
+        echo.join();
+
+        return elapsed[0] / (double) PING_PONG_ROUNDS / 1000.0;
+    }
+
+    private static void puts(String s) {
+        System.out.format("%s%n", s);
+    }
+}
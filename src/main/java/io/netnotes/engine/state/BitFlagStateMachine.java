@@ -30,6 +30,11 @@ import java.util.function.UnaryOperator;
  * - Full NoteBytes serialization
  * - Thread-safe
  * - Backward compatible with long-based bit positions
+ *
+ * Storage: bits 0-62 are held in a primitive long word (see StateWord), so
+ * int / long queries and add / remove of a single state never allocate.
+ * The machine falls back to a BigInteger only once a bit at position 63+
+ * is set.
  */
 public class BitFlagStateMachine {
 
@@ -38,22 +43,47 @@ public class BitFlagStateMachine {
      * Use this for consistent reads across multiple queries.
      */
     public static class StateSnapshot {
-        public final BigInteger state;
+        private final long word;
+        private BigInteger state; // materialized on first getState() when word-backed
         public final long version;
         public final long timestamp;
 
         public StateSnapshot(BigInteger state, long version) {
+            this.word = StateWord.fitsInline(state) ? state.longValue() : StateWord.EXTENDED;
             this.state = state;
             this.version = version;
             this.timestamp = System.nanoTime();
         }
 
+        StateSnapshot(long word, long version) {
+            this.word = word;
+            this.state = null;
+            this.version = version;
+            this.timestamp = System.nanoTime();
+        }
+
+        public BigInteger getState() {
+            BigInteger s = state;
+            if (s == null) {
+                s = StateWord.toBigInteger(word);
+                state = s;
+            }
+            return s;
+        }
+
         public boolean hasState(BigInteger stateBit) {
-            return state.and(stateBit).equals(stateBit);
+            if (word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+                long mask = stateBit.longValue();
+                return (word & mask) == mask;
+            }
+            return getState().and(stateBit).equals(stateBit);
         }
 
         public boolean hasState(int bitPosition) {
-            return state.testBit(bitPosition);
+            if (word != StateWord.EXTENDED && bitPosition >= 0) {
+                return StateWord.isInlinePosition(bitPosition) && (word & (1L << bitPosition)) != 0;
+            }
+            return getState().testBit(bitPosition);
         }
 
         public boolean hasAllStates(BigInteger... stateBits) {
@@ -79,14 +109,16 @@ public class BitFlagStateMachine {
 
         @Override
         public String toString() {
-            return String.format("StateSnapshot[version=%d, state=%s]", 
-                version, state.toString(16));
+            return String.format("StateSnapshot[version=%d, state=%s]",
+                version, getState().toString(16));
         }
     }
 
     private final AtomicLong m_version = new AtomicLong(0);
     private final String m_id;
-    private BigInteger m_state = BigInteger.ZERO;
+    // Inline state word, StateWord.EXTENDED while m_wide holds the state
+    private long m_word = 0L;
+    private BigInteger m_wide = null;
     private final Map<BigInteger, List<StateTransition>> m_transitions;
     private final Map<BigInteger, List<BiConsumer<BigInteger, BigInteger>>> m_stateListeners;
     private final List<BiConsumer<BigInteger, BigInteger>> m_globalListeners;
@@ -100,7 +132,7 @@ public class BitFlagStateMachine {
 
     public BitFlagStateMachine(String id, BigInteger initialState) {
         this.m_id = id;
-        this.m_state = initialState;
+        storeState(initialState);
         this.m_transitions = new ConcurrentHashMap<>();
         this.m_stateListeners = new ConcurrentHashMap<>();
         this.m_globalListeners = new CopyOnWriteArrayList<>();
@@ -132,15 +164,24 @@ public class BitFlagStateMachine {
     // ========== State Queries ==========
 
     public boolean hasState(BigInteger stateBit) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+            long mask = stateBit.longValue();
+            return (word & mask) == mask;
+        }
         return getState().and(stateBit).equals(stateBit);
     }
 
     public boolean hasState(int bitPosition) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && bitPosition >= 0) {
+            return StateWord.isInlinePosition(bitPosition) && (word & (1L << bitPosition)) != 0;
+        }
         return getState().testBit(bitPosition);
     }
 
     public boolean hasState(long stateBit) {
-        return hasState(BigInteger.valueOf(stateBit));
+        return hasAllFlags(stateBit);
     }
 
     public boolean hasAnyState(BigInteger... stateBits) {
@@ -173,10 +214,14 @@ public class BitFlagStateMachine {
 
     // Convenience aliases
     public boolean hasAllFlags(BigInteger flags) {
-        return getState().and(flags).equals(flags);
+        return hasState(flags);
     }
 
     public boolean hasAllFlags(long flags) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && StateWord.fitsInline(flags)) {
+            return (word & flags) == flags;
+        }
         return hasAllFlags(BigInteger.valueOf(flags));
     }
 
@@ -185,6 +230,10 @@ public class BitFlagStateMachine {
     }
 
     public boolean hasAnyFlags(long flags) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && StateWord.fitsInline(flags)) {
+            return (word & flags) != 0;
+        }
         return hasAnyFlags(BigInteger.valueOf(flags));
     }
 
@@ -201,7 +250,18 @@ public class BitFlagStateMachine {
     }
 
     public BigInteger getState() {
-        return m_state;
+        long word = m_word;
+        return word != StateWord.EXTENDED ? StateWord.toBigInteger(word) : m_wide;
+    }
+
+    private void storeState(BigInteger state) {
+        if (StateWord.fitsInline(state)) {
+            m_wide = null;
+            m_word = state.longValue();
+        } else {
+            m_wide = state;
+            m_word = StateWord.EXTENDED;
+        }
     }
 
     public String getId() {
@@ -211,8 +271,11 @@ public class BitFlagStateMachine {
     // ========== State Mutations ==========
 
     public boolean addState(BigInteger stateBit) {
-        
-        BigInteger oldState = m_state;
+        if (m_word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+            return addWord(stateBit.longValue());
+        }
+
+        BigInteger oldState = getState();
 
         if (oldState.and(stateBit).equals(stateBit)) {
             return false;
@@ -221,7 +284,7 @@ public class BitFlagStateMachine {
         BigInteger newState = oldState.or(stateBit);
         validateStateConstraints(newState);
 
-        m_state = newState;
+        storeState(newState);
 
         notifyStateChange(oldState, newState, stateBit, true);
         checkTransitions(stateBit, true, newState, oldState);
@@ -229,36 +292,113 @@ public class BitFlagStateMachine {
     }
 
     public boolean addState(int bitPosition) {
+        if (m_word != StateWord.EXTENDED && StateWord.isInlinePosition(bitPosition)) {
+            return addWord(1L << bitPosition);
+        }
         return addState(bit(bitPosition));
     }
 
     public boolean addState(long stateBit) {
+        if (m_word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+            return addWord(stateBit);
+        }
         return addState(BigInteger.valueOf(stateBit));
     }
 
+    private boolean addWord(long mask) {
+        long oldWord = m_word;
+        if ((oldWord & mask) == mask) {
+            return false;
+        }
+
+        long newWord = oldWord | mask;
+        validateStateConstraints(newWord);
+
+        m_word = newWord;
+
+        fireWordChange(oldWord, newWord, mask, true);
+        return true;
+    }
+
     public boolean removeState(BigInteger stateBit) {
+        if (m_word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+            return removeWord(stateBit.longValue());
+        }
 
-        BigInteger oldState = m_state;
+        BigInteger oldState = getState();
         if (!oldState.and(stateBit).equals(stateBit)) {
             return false;
         }
 
         BigInteger newState = oldState.andNot(stateBit);
 
-        m_state = newState;
+        storeState(newState);
         notifyStateChange(oldState, newState, stateBit, false);
         checkTransitions(stateBit, false, newState, oldState);
         return true;
     }
 
     public boolean removeState(int bitPosition) {
+        if (m_word != StateWord.EXTENDED && StateWord.isInlinePosition(bitPosition)) {
+            return removeWord(1L << bitPosition);
+        }
         return removeState(bit(bitPosition));
     }
 
     public boolean removeState(long stateBit) {
+        if (m_word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+            return removeWord(stateBit);
+        }
         return removeState(BigInteger.valueOf(stateBit));
     }
 
+    private boolean removeWord(long mask) {
+        long oldWord = m_word;
+        if ((oldWord & mask) != mask) {
+            return false;
+        }
+
+        long newWord = oldWord & ~mask;
+
+        m_word = newWord;
+
+        fireWordChange(oldWord, newWord, mask, false);
+        return true;
+    }
+
+    /**
+     * Listener / transition dispatch for an inline change. The BigInteger
+     * old/new values are only built when someone is there to receive them.
+     * Listeners are notified as on the BigInteger path: an add notifies the
+     * listeners of stateBit itself, a remove those of each cleared bit.
+     */
+    private void fireWordChange(long oldWord, long newWord, long mask, boolean isAdd) {
+        if (m_globalListeners.isEmpty() && m_stateListeners.isEmpty() && m_transitions.isEmpty()) {
+            return;
+        }
+        BigInteger stateBit = StateWord.key(mask);
+        if (m_globalListeners.isEmpty()
+                && !m_transitions.containsKey(stateBit)
+                && !(isAdd ? m_stateListeners.containsKey(stateBit) : hasBitListener(mask))) {
+            return;
+        }
+        BigInteger oldState = StateWord.toBigInteger(oldWord);
+        BigInteger newState = StateWord.toBigInteger(newWord);
+        notifyStateChange(oldState, newState, stateBit, isAdd);
+        checkTransitions(stateBit, isAdd, newState, oldState);
+    }
+
+    /** True if any single bit of mask has a state listener */
+    private boolean hasBitListener(long mask) {
+        while (mask != 0) {
+            if (m_stateListeners.containsKey(StateWord.key(Long.lowestOneBit(mask)))) {
+                return true;
+            }
+            mask &= mask - 1;
+        }
+        return false;
+    }
+
     public boolean toggleState(BigInteger stateBit) {
         if (hasState(stateBit)) {
             return removeState(stateBit);
@@ -278,9 +418,9 @@ public class BitFlagStateMachine {
     public void setState(BigInteger newState) {
         validateStateConstraints(newState);
 
-        BigInteger oldState = m_state;
+        BigInteger oldState = getState();
         if (oldState.equals(newState)) return;
-        m_state = newState;
+        storeState(newState);
 
         notifyStateChange(oldState, newState, BigInteger.ZERO, false);
 
@@ -333,10 +473,12 @@ public class BitFlagStateMachine {
     public static class StateConstraint {
         public final BigInteger mutuallyExclusiveStates;
         public final String errorMessage;
+        final long inlineMask;
 
         public StateConstraint(BigInteger mutuallyExclusiveStates, String errorMessage) {
             this.mutuallyExclusiveStates = mutuallyExclusiveStates;
             this.errorMessage = errorMessage;
+            this.inlineMask = StateWord.inlineMask(mutuallyExclusiveStates);
         }
     }
 
@@ -357,6 +499,14 @@ public class BitFlagStateMachine {
         }
     }
 
+    private void validateStateConstraints(long newWord) {
+        for (StateConstraint constraint : m_constraints) {
+            if (Long.bitCount(newWord & constraint.inlineMask) > 1) {
+                throw new IllegalStateException(constraint.errorMessage);
+            }
+        }
+    }
+
     // ========== Transitions ==========
 
     public static class StateTransition {
@@ -590,14 +740,14 @@ public class BitFlagStateMachine {
 
     public void update(UnaryOperator<BigInteger> updater) {
     
-        BigInteger oldState = m_state;
+        BigInteger oldState = getState();
         BigInteger newState = updater.apply(oldState);
 
         if (oldState.equals(newState)) return;
 
         validateStateConstraints(newState);
 
-        m_state = newState;
+        storeState(newState);
 
         notifyStateChange(oldState, newState, BigInteger.ZERO, false);
         replayTransitions(oldState, newState);
@@ -704,7 +854,7 @@ public class BitFlagStateMachine {
         if (position < 0) {
             throw new IllegalArgumentException("Bit position must be non-negative");
         }
-        return BigInteger.ONE.shiftLeft(position);
+        return StateWord.bit(position);
     }
 
     public static BigInteger combine(BigInteger... bits) {
@@ -820,15 +970,17 @@ public class BitFlagStateMachine {
      */
     public StateSnapshot getSnapshot() {
         long v1, v2;
-        BigInteger state;
-        
+        long word;
+        BigInteger wide;
+
         do {
             v1 = m_version.get();
-            state = m_state;
+            word = m_word;
+            wide = m_wide;
             v2 = m_version.get();
         } while (v1 != v2); // Retry if version changed during read
-        
-        return new StateSnapshot(state, v1);
+
+        return word != StateWord.EXTENDED ? new StateSnapshot(word, v1) : new StateSnapshot(wide, v1);
     }
 
     /**
@@ -861,7 +1013,7 @@ public class BitFlagStateMachine {
                 return false; // Version changed - conflict
             }
             
-            BigInteger oldState = m_state;
+            BigInteger oldState = getState();
             BigInteger newState = updater.apply(oldState);
             
             if (oldState.equals(newState)) {
@@ -869,7 +1021,7 @@ public class BitFlagStateMachine {
             }
             
             validateStateConstraints(newState);
-            m_state = newState;
+            storeState(newState);
             m_version.incrementAndGet();
             notifyStateChange(oldState, newState, BigInteger.ZERO, false);
             replayTransitions(oldState, newState);
@@ -884,7 +1036,7 @@ public class BitFlagStateMachine {
     public boolean updateIfState(BigInteger expectedState, 
                                   Function<BigInteger, BigInteger> updater) {
     
-        BigInteger oldState = m_state;
+        BigInteger oldState = getState();
         if (!oldState.equals(expectedState)) {
             return false; // State changed - conflict
         }
@@ -897,7 +1049,7 @@ public class BitFlagStateMachine {
         
         validateStateConstraints(newState);
         
-        m_state = newState;
+        storeState(newState);
         m_version.incrementAndGet();
         notifyStateChange(oldState, newState, BigInteger.ZERO, false);
         replayTransitions(oldState, newState);
@@ -921,7 +1073,7 @@ public class BitFlagStateMachine {
     public boolean updateIf(Predicate<BigInteger> condition,
                             Function<BigInteger, BigInteger> updater) {
     
-        BigInteger oldState = m_state;
+        BigInteger oldState = getState();
         if (!condition.test(oldState)) {
             return false; // Condition no longer true
         }
@@ -934,7 +1086,7 @@ public class BitFlagStateMachine {
         
         validateStateConstraints(newState);
         
-        m_state = newState;
+        storeState(newState);
         m_version.incrementAndGet();
         notifyStateChange(oldState, newState, BigInteger.ZERO, false);
         replayTransitions(oldState, newState);
@@ -1036,7 +1188,7 @@ public class BitFlagStateMachine {
         
         while (true) {
             StateSnapshot snap = getSnapshot();
-            if (condition.test(snap.state)) {
+            if (condition.test(snap.getState())) {
                 return new WaitResult(true, snap, System.nanoTime() - startTime);
             }
             
@@ -1076,7 +1228,7 @@ public class BitFlagStateMachine {
 
         return new NoteBytesObject(new NoteBytesPair[]{
             new NoteBytesPair(Keys.ID, new NoteString(m_id)),
-            new NoteBytesPair(Keys.STATE, new NoteBytes(snapshot.state)),
+            new NoteBytesPair(Keys.STATE, new NoteBytes(snapshot.getState())),
             new NoteBytesPair(Keys.VERSION, new NoteLong(snapshot.version))
         });
     }
@@ -1119,8 +1271,8 @@ public class BitFlagStateMachine {
         StateSnapshot snap = getSnapshot();
         return new StateStats(
             snap.version,
-            snap.state.bitCount(),
-            snap.state.bitLength()
+            snap.getState().bitCount(),
+            snap.getState().bitLength()
         );
     }
 
@@ -10,12 +10,13 @@ import io.netnotes.engine.utils.LoggingHelpers.Log;
 import io.netnotes.engine.utils.noteBytes.NoteUUID;
 import io.netnotes.engine.virtualExecutors.SerializedVirtualExecutor;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -32,13 +33,33 @@ import java.util.function.UnaryOperator;
  * - Full NoteBytes serialization
  * - Thread-safe
  * - Backward compatible with long-based bit positions
+ *
+ * Storage: bits 0-62 are held in a volatile long word updated by VarHandle
+ * CAS (see StateWord), so int / long queries and add / remove of a single
+ * state never allocate. Setting a bit at position 63+ promotes the machine
+ * to a BigInteger for good: the word is CAS'd to StateWord.EXTENDED and the
+ * BigInteger is published to m_wide, which is CAS'd from then on.
  */
 public class ConcurrentBitFlagStateMachine {
 
+    private static final VarHandle WORD;
+    private static final VarHandle WIDE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            WORD = lookup.findVarHandle(ConcurrentBitFlagStateMachine.class, "m_word", long.class);
+            WIDE = lookup.findVarHandle(ConcurrentBitFlagStateMachine.class, "m_wide", BigInteger.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     private final AtomicLong m_version = new AtomicLong(0);
     private final String m_id;
-    private final AtomicReference<BigInteger> m_state = new AtomicReference<>();
+    // Inline state word, StateWord.EXTENDED once m_wide holds the state
+    private volatile long m_word = 0L;
+    private volatile BigInteger m_wide = null;
     private final Map<BigInteger, List<StateTransition>> m_transitions;
     private final Map<BigInteger, List<BiConsumer<BigInteger, BigInteger>>> m_stateListeners;
     private final List<BiConsumer<BigInteger, BigInteger>> m_globalListeners;
@@ -52,7 +73,12 @@ public class ConcurrentBitFlagStateMachine {
 
     public ConcurrentBitFlagStateMachine(String id, BigInteger initialState) {
         this.m_id = id;
-        this.m_state.set(initialState);
+        if (StateWord.fitsInline(initialState)) {
+            this.m_word = initialState.longValue();
+        } else {
+            this.m_wide = initialState;
+            this.m_word = StateWord.EXTENDED;
+        }
         this.m_transitions = new ConcurrentHashMap<>();
         this.m_stateListeners = new ConcurrentHashMap<>();
         this.m_globalListeners = new CopyOnWriteArrayList<>();
@@ -71,15 +97,24 @@ public class ConcurrentBitFlagStateMachine {
     // ========== State Queries ==========
 
     public boolean hasState(BigInteger stateBit) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && StateWord.fitsInline(stateBit)) {
+            long mask = stateBit.longValue();
+            return (word & mask) == mask;
+        }
         return getState().and(stateBit).equals(stateBit);
     }
 
     public boolean hasState(int bitPosition) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && bitPosition >= 0) {
+            return StateWord.isInlinePosition(bitPosition) && (word & (1L << bitPosition)) != 0;
+        }
         return getState().testBit(bitPosition);
     }
 
     public boolean hasState(long stateBit) {
-        return hasState(BigInteger.valueOf(stateBit));
+        return hasAllFlags(stateBit);
     }
 
     public boolean hasAnyState(BigInteger... stateBits) {
@@ -112,10 +147,14 @@ public class ConcurrentBitFlagStateMachine {
 
     // Convenience aliases
     public boolean hasAllFlags(BigInteger flags) {
-        return getState().and(flags).equals(flags);
+        return hasState(flags);
     }
 
     public boolean hasAllFlags(long flags) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && StateWord.fitsInline(flags)) {
+            return (word & flags) == flags;
+        }
         return hasAllFlags(BigInteger.valueOf(flags));
     }
 
@@ -124,6 +163,10 @@ public class ConcurrentBitFlagStateMachine {
     }
 
     public boolean hasAnyFlags(long flags) {
+        long word = m_word;
+        if (word != StateWord.EXTENDED && StateWord.fitsInline(flags)) {
+            return (word & flags) != 0;
+        }
         return hasAnyFlags(BigInteger.valueOf(flags));
     }
 
@@ -140,7 +183,42 @@ public class ConcurrentBitFlagStateMachine {
     }
 
     public BigInteger getState() {
-        return m_state.get();
+        return stateOf(m_word);
+    }
+
+    /**
+     * State read for a CAS loop: the BigInteger view of word, or the current
+     * wide reference (identity matters for the WIDE CAS)
+     */
+    private BigInteger stateOf(long word) {
+        return word != StateWord.EXTENDED ? StateWord.toBigInteger(word) : awaitWide();
+    }
+
+    /** A promoting thread publishes m_wide right after the EXTENDED CAS */
+    private BigInteger awaitWide() {
+        BigInteger wide;
+        while ((wide = m_wide) == null) {
+            Thread.onSpinWait();
+        }
+        return wide;
+    }
+
+    /**
+     * CAS from (word, oldState) to newState, promoting to the BigInteger
+     * representation if newState no longer fits inline
+     */
+    private boolean casState(long word, BigInteger oldState, BigInteger newState) {
+        if (word != StateWord.EXTENDED) {
+            if (StateWord.fitsInline(newState)) {
+                return WORD.compareAndSet(this, word, newState.longValue());
+            }
+            if (WORD.compareAndSet(this, word, StateWord.EXTENDED)) {
+                m_wide = newState;
+                return true;
+            }
+            return false;
+        }
+        return WIDE.compareAndSet(this, oldState, newState);
     }
 
     public String getId() {
@@ -150,8 +228,50 @@ public class ConcurrentBitFlagStateMachine {
     // ========== State Mutations ==========
 
     public boolean addState(BigInteger stateBit) {
+        if (StateWord.fitsInline(stateBit)) {
+            return addWord(stateBit.longValue());
+        }
+        return addWide(stateBit);
+    }
+
+    public boolean addState(int bitPosition) {
+        if (StateWord.isInlinePosition(bitPosition)) {
+            return addWord(1L << bitPosition);
+        }
+        return addWide(bit(bitPosition));
+    }
+
+    public boolean addState(long stateBit) {
+        if (StateWord.fitsInline(stateBit)) {
+            return addWord(stateBit);
+        }
+        return addWide(BigInteger.valueOf(stateBit));
+    }
+
+    private boolean addWord(long mask) {
         while (true) {
-            BigInteger oldState = m_state.get();
+            long oldWord = m_word;
+            if (oldWord == StateWord.EXTENDED) {
+                return addWide(StateWord.key(mask));
+            }
+            if ((oldWord & mask) == mask) {
+                return false;
+            }
+
+            long newWord = oldWord | mask;
+            validateStateConstraints(newWord);
+
+            if (WORD.compareAndSet(this, oldWord, newWord)) {
+                fireWordChange(oldWord, newWord, mask, true);
+                return true;
+            }
+        }
+    }
+
+    private boolean addWide(BigInteger stateBit) {
+        while (true) {
+            long word = m_word;
+            BigInteger oldState = stateOf(word);
             if (oldState.and(stateBit).equals(stateBit)) {
                 return false;
             }
@@ -159,7 +279,7 @@ public class ConcurrentBitFlagStateMachine {
             BigInteger newState = oldState.or(stateBit);
             validateStateConstraints(newState);
 
-            if (m_state.compareAndSet(oldState, newState)) {
+            if (casState(word, oldState, newState)) {
                 notifyStateChange(oldState, newState, stateBit, true);
                 checkTransitions(stateBit, true, newState, oldState);
                 return true;
@@ -167,24 +287,57 @@ public class ConcurrentBitFlagStateMachine {
         }
     }
 
-    public boolean addState(int bitPosition) {
-        return addState(bit(bitPosition));
+    public boolean removeState(BigInteger stateBit) {
+        if (StateWord.fitsInline(stateBit)) {
+            return removeWord(stateBit.longValue());
+        }
+        return removeWide(stateBit);
     }
 
-    public boolean addState(long stateBit) {
-        return addState(BigInteger.valueOf(stateBit));
+    public boolean removeState(int bitPosition) {
+        if (StateWord.isInlinePosition(bitPosition)) {
+            return removeWord(1L << bitPosition);
+        }
+        return removeWide(bit(bitPosition));
     }
 
-    public boolean removeState(BigInteger stateBit) {
+    public boolean removeState(long stateBit) {
+        if (StateWord.fitsInline(stateBit)) {
+            return removeWord(stateBit);
+        }
+        return removeWide(BigInteger.valueOf(stateBit));
+    }
+
+    private boolean removeWord(long mask) {
         while (true) {
-            BigInteger oldState = m_state.get();
+            long oldWord = m_word;
+            if (oldWord == StateWord.EXTENDED) {
+                return removeWide(StateWord.key(mask));
+            }
+            if ((oldWord & mask) != mask) {
+                return false;
+            }
+
+            long newWord = oldWord & ~mask;
+
+            if (WORD.compareAndSet(this, oldWord, newWord)) {
+                fireWordChange(oldWord, newWord, mask, false);
+                return true;
+            }
+        }
+    }
+
+    private boolean removeWide(BigInteger stateBit) {
+        while (true) {
+            long word = m_word;
+            BigInteger oldState = stateOf(word);
             if (!oldState.and(stateBit).equals(stateBit)) {
                 return false;
             }
 
             BigInteger newState = oldState.andNot(stateBit);
 
-            if (m_state.compareAndSet(oldState, newState)) {
+            if (casState(word, oldState, newState)) {
                 notifyStateChange(oldState, newState, stateBit, false);
                 checkTransitions(stateBit, false, newState, oldState);
                 return true;
@@ -192,12 +345,37 @@ public class ConcurrentBitFlagStateMachine {
         }
     }
 
-    public boolean removeState(int bitPosition) {
-        return removeState(bit(bitPosition));
+    /**
+     * Listener / transition dispatch for an inline change. The BigInteger
+     * old/new values are only built when someone is there to receive them.
+     * Listeners are notified as on the BigInteger path: an add notifies the
+     * listeners of stateBit itself, a remove those of each cleared bit.
+     */
+    private void fireWordChange(long oldWord, long newWord, long mask, boolean isAdd) {
+        if (m_globalListeners.isEmpty() && m_stateListeners.isEmpty() && m_transitions.isEmpty()) {
+            return;
+        }
+        BigInteger stateBit = StateWord.key(mask);
+        if (m_globalListeners.isEmpty()
+                && !m_transitions.containsKey(stateBit)
+                && !(isAdd ? m_stateListeners.containsKey(stateBit) : hasBitListener(mask))) {
+            return;
+        }
+        BigInteger oldState = StateWord.toBigInteger(oldWord);
+        BigInteger newState = StateWord.toBigInteger(newWord);
+        notifyStateChange(oldState, newState, stateBit, isAdd);
+        checkTransitions(stateBit, isAdd, newState, oldState);
     }
 
-    public boolean removeState(long stateBit) {
-        return removeState(BigInteger.valueOf(stateBit));
+    /** True if any single bit of mask has a state listener */
+    private boolean hasBitListener(long mask) {
+        while (mask != 0) {
+            if (m_stateListeners.containsKey(StateWord.key(Long.lowestOneBit(mask)))) {
+                return true;
+            }
+            mask &= mask - 1;
+        }
+        return false;
     }
 
     public boolean toggleState(BigInteger stateBit) {
@@ -219,7 +397,12 @@ public class ConcurrentBitFlagStateMachine {
     public void setState(BigInteger newState) {
         validateStateConstraints(newState);
 
-        BigInteger oldState = m_state.getAndSet(newState);
+        BigInteger oldState;
+        long word;
+        do {
+            word = m_word;
+            oldState = stateOf(word);
+        } while (!casState(word, oldState, newState));
         if (oldState.equals(newState)) return;
 
         notifyStateChange(oldState, newState, BigInteger.ZERO, false);
@@ -273,10 +456,12 @@ public class ConcurrentBitFlagStateMachine {
     public static class StateConstraint {
         public final BigInteger mutuallyExclusiveStates;
         public final String errorMessage;
+        final long inlineMask;
 
         public StateConstraint(BigInteger mutuallyExclusiveStates, String errorMessage) {
             this.mutuallyExclusiveStates = mutuallyExclusiveStates;
             this.errorMessage = errorMessage;
+            this.inlineMask = StateWord.inlineMask(mutuallyExclusiveStates);
         }
     }
 
@@ -297,6 +482,14 @@ public class ConcurrentBitFlagStateMachine {
         }
     }
 
+    private void validateStateConstraints(long newWord) {
+        for (StateConstraint constraint : m_constraints) {
+            if (Long.bitCount(newWord & constraint.inlineMask) > 1) {
+                throw new IllegalStateException(constraint.errorMessage);
+            }
+        }
+    }
+
     // ========== Transitions ==========
 
     public static class StateTransition {
@@ -534,14 +727,15 @@ public class ConcurrentBitFlagStateMachine {
 
     public void update(UnaryOperator<BigInteger> updater) {
         while (true) {
-            BigInteger oldState = m_state.get();
+            long word = m_word;
+            BigInteger oldState = stateOf(word);
             BigInteger newState = updater.apply(oldState);
 
             if (oldState.equals(newState)) return;
 
             validateStateConstraints(newState);
 
-            if (m_state.compareAndSet(oldState, newState)) {
+            if (casState(word, oldState, newState)) {
 
                 notifyStateChange(oldState, newState, BigInteger.ZERO, false);
                 replayTransitions(oldState, newState);
@@ -648,7 +842,7 @@ public class ConcurrentBitFlagStateMachine {
         if (position < 0) {
             throw new IllegalArgumentException("Bit position must be non-negative");
         }
-        return BigInteger.ONE.shiftLeft(position);
+        return StateWord.bit(position);
     }
 
     public static BigInteger combine(BigInteger... bits) {
@@ -764,15 +958,17 @@ public class ConcurrentBitFlagStateMachine {
      */
     public StateSnapshot getSnapshot() {
         long v1, v2;
-        BigInteger state;
-        
+        long word;
+        BigInteger wide;
+
         do {
             v1 = m_version.get();
-            state = m_state.get();
+            word = m_word;
+            wide = word == StateWord.EXTENDED ? awaitWide() : null;
             v2 = m_version.get();
         } while (v1 != v2); // Retry if version changed during read
-        
-        return new StateSnapshot(state, v1);
+
+        return wide == null ? new StateSnapshot(word, v1) : new StateSnapshot(wide, v1);
     }
 
     /**
@@ -805,7 +1001,8 @@ public class ConcurrentBitFlagStateMachine {
                 return false; // Version changed - conflict
             }
             
-            BigInteger oldState = m_state.get();
+            long word = m_word;
+            BigInteger oldState = stateOf(word);
             BigInteger newState = updater.apply(oldState);
             
             if (oldState.equals(newState)) {
@@ -814,7 +1011,7 @@ public class ConcurrentBitFlagStateMachine {
             
             validateStateConstraints(newState);
             
-            if (m_state.compareAndSet(oldState, newState)) {
+            if (casState(word, oldState, newState)) {
                 m_version.incrementAndGet();
                 notifyStateChange(oldState, newState, BigInteger.ZERO, false);
                 replayTransitions(oldState, newState);
@@ -831,7 +1028,8 @@ public class ConcurrentBitFlagStateMachine {
     public boolean updateIfState(BigInteger expectedState, 
                                   Function<BigInteger, BigInteger> updater) {
         while (true) {
-            BigInteger oldState = m_state.get();
+            long word = m_word;
+            BigInteger oldState = stateOf(word);
             if (!oldState.equals(expectedState)) {
                 return false; // State changed - conflict
             }
@@ -844,7 +1042,7 @@ public class ConcurrentBitFlagStateMachine {
             
             validateStateConstraints(newState);
             
-            if (m_state.compareAndSet(oldState, newState)) {
+            if (casState(word, oldState, newState)) {
                 m_version.incrementAndGet();
                 notifyStateChange(oldState, newState, BigInteger.ZERO, false);
                 replayTransitions(oldState, newState);
@@ -868,7 +1066,8 @@ public class ConcurrentBitFlagStateMachine {
     public boolean updateIf(Predicate<BigInteger> condition,
                             Function<BigInteger, BigInteger> updater) {
         while (true) {
-            BigInteger oldState = m_state.get();
+            long word = m_word;
+            BigInteger oldState = stateOf(word);
             if (!condition.test(oldState)) {
                 return false; // Condition no longer true
             }
@@ -881,7 +1080,7 @@ public class ConcurrentBitFlagStateMachine {
             
             validateStateConstraints(newState);
             
-            if (m_state.compareAndSet(oldState, newState)) {
+            if (casState(word, oldState, newState)) {
                 m_version.incrementAndGet();
                 notifyStateChange(oldState, newState, BigInteger.ZERO, false);
                 replayTransitions(oldState, newState);
@@ -984,7 +1183,7 @@ public class ConcurrentBitFlagStateMachine {
         
         while (true) {
             StateSnapshot snap = getSnapshot();
-            if (condition.test(snap.state)) {
+            if (condition.test(snap.getState())) {
                 return new WaitResult(true, snap, System.nanoTime() - startTime);
             }
             
@@ -1024,7 +1223,7 @@ public class ConcurrentBitFlagStateMachine {
     public NoteBytesObject toNoteBytes() {
         return new NoteBytesObject(new NoteBytesPair[]{
             new NoteBytesPair(Keys.ID, new NoteString(m_id)),
-            new NoteBytesPair(Keys.STATE, new NoteBytes(m_state.get())),
+            new NoteBytesPair(Keys.STATE, new NoteBytes(getState())),
             new NoteBytesPair(Keys.VERSION, new NoteLong(m_version.get()))
         });
     }
@@ -1073,8 +1272,8 @@ public class ConcurrentBitFlagStateMachine {
         StateSnapshot snap = getSnapshot();
         return new StateStats(
             snap.version,
-            snap.state.bitCount(),
-            snap.state.bitLength()
+            snap.getState().bitCount(),
+            snap.getState().bitLength()
         );
     }
 
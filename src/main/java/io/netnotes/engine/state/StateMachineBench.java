@@ -0,0 +1,96 @@
+package io.netnotes.engine.state;
+
+import java.math.BigInteger;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StateMachineBench - hasState / addState throughput under contention
+ *
+ * Runs the same ConcurrentBitFlagStateMachine workload twice:
+ * - inline: every bit below 63, state lives in the long word
+ * - wide:   bit 100 set up front, so the machine runs on the BigInteger path
+ *
+ * Each thread owns one bit and loops addState / hasState / removeState / hasState
+ * on it while the other threads CAS the same word. No listeners are attached,
+ * matching the hot flags RenderableStates / ClientStates flip per frame / packet.
+ *
+ * usage: java -cp .. io.netnotes.engine.state.StateMachineBench [millisPerRun]
+ */
+public class StateMachineBench {
+
+    private static final int[] THREADS = { 1, 2, 4, 8 };
+    private static final int WIDE_BIT = 100;
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String... args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1_000;
+
+        System.out.format("%-8s | %-7s | %16s%n", "threads", "mode", "ops/us (total)");
+        for (int threads : THREADS) {
+            for (int w = 0; w < WARMUP_ROUNDS; w++) {
+                run(threads, false, millis / 4);
+                run(threads, true, millis / 4);
+            }
+            report(threads, "inline", run(threads, false, millis), millis);
+            report(threads, "wide", run(threads, true, millis), millis);
+        }
+    }
+
+    private static long run(int threads, boolean wide, long millis) throws InterruptedException {
+        ConcurrentBitFlagStateMachine machine = new ConcurrentBitFlagStateMachine("bench");
+        if (wide) {
+            machine.addState(WIDE_BIT);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder ops = new LongAdder();
+
+        for (int t = 0; t < threads; t++) {
+            final int bit = t;
+            Thread worker = new Thread(() -> {
+                long local = 0;
+                try {
+                    start.await();
+                    while (running.get()) {
+                        machine.addState(bit);
+                        if (!machine.hasState(bit)) {
+                            throw new IllegalStateException("lost bit " + bit);
+                        }
+                        machine.removeState(bit);
+                        if (machine.hasState(bit)) {
+                            throw new IllegalStateException("stale bit " + bit);
+                        }
+                        local += 4;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    ops.add(local);
+                    done.countDown();
+                }
+            }, "bench-" + t);
+            worker.start();
+        }
+
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        done.await();
+
+        if (wide && !machine.getState().testBit(WIDE_BIT)) {
+            throw new IllegalStateException("wide bit lost");
+        }
+        if (!machine.getState().equals(wide ? BigInteger.ONE.shiftLeft(WIDE_BIT) : BigInteger.ZERO)) {
+            throw new IllegalStateException("unexpected final state " + machine.getState());
+        }
+        return ops.sum();
+    }
+
+    private static void report(int threads, String mode, long ops, long millis) {
+        System.out.format("%-8d | %-7s | %16.2f%n", threads, mode, ops / (millis * 1000.0));
+    }
+}
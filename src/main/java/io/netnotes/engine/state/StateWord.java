@@ -0,0 +1,73 @@
+package io.netnotes.engine.state;
+
+import java.math.BigInteger;
+
+/**
+ * StateWord - inline long representation shared by the bit flag state machines
+ *
+ * Bits 0-62 live directly in a long word. Bit 63 is reserved as the
+ * EXTENDED marker: once any bit at position 63 or above is set, the
+ * machine promotes itself to a BigInteger and stays there.
+ *
+ * Every state declared in StateEventRegistry, RenderableStates etc. fits
+ * inline, so queries and transitions on them never allocate.
+ */
+final class StateWord {
+
+    /** Number of state bits stored inline */
+    static final int INLINE_BITS = 63;
+
+    /** Word value marking that the BigInteger state is authoritative */
+    static final long EXTENDED = Long.MIN_VALUE;
+
+    /** Cached single-bit BigIntegers - listener / transition map keys */
+    private static final BigInteger[] BITS = new BigInteger[INLINE_BITS];
+
+    static {
+        for (int i = 0; i < INLINE_BITS; i++) {
+            BITS[i] = BigInteger.ONE.shiftLeft(i);
+        }
+    }
+
+    private StateWord() {}
+
+    static boolean isInlinePosition(int position) {
+        return position >= 0 && position < INLINE_BITS;
+    }
+
+    /** Single-bit BigInteger, shared instance for inline positions */
+    static BigInteger bit(int position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Bit position must be non-negative");
+        }
+        return position < INLINE_BITS ? BITS[position] : BigInteger.ONE.shiftLeft(position);
+    }
+
+    /** BigInteger key for an inline mask, reusing the cached single bits */
+    static BigInteger key(long mask) {
+        if (Long.bitCount(mask) == 1) {
+            return BITS[Long.numberOfTrailingZeros(mask)];
+        }
+        return BigInteger.valueOf(mask);
+    }
+
+    static boolean fitsInline(BigInteger value) {
+        return value.signum() >= 0 && value.bitLength() <= INLINE_BITS;
+    }
+
+    static boolean fitsInline(long value) {
+        return value >= 0;
+    }
+
+    static BigInteger toBigInteger(long word) {
+        return BigInteger.valueOf(word);
+    }
+
+    /**
+     * Portion of a constraint mask that can be set while inline
+     * (bits 63+ can only exist after promotion)
+     */
+    static long inlineMask(BigInteger mask) {
+        return mask.longValue() & Long.MAX_VALUE;
+    }
+}
@@ -3,8 +3,11 @@ package io.netnotes.engine.ui;
 /**
  * Pool interface for spatial regions to eliminate allocation overhead
  * 
- * Thread-local pools ensure thread safety without synchronization.
- * Each thread maintains its own pool of reusable region objects.
+ * Implementations:
+ * - ThreadLocalSpatialRegionPool: each thread keeps its own pool, no
+ *   synchronization (long-lived platform threads)
+ * - StripedSpatialRegionPool: shared lock-free stripes, regions return to
+ *   the pool from any thread (virtual threads, cross-thread recycling)
  * 
  * @param <S> The spatial region type
  */
@@ -0,0 +1,181 @@
+package io.netnotes.engine.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netnotes.noteBytes.NoteBytesObject;
+
+/**
+ * SpatialRegionPoolBench - obtain/recycle from many virtual threads
+ *
+ * - threadLocal: ThreadLocalSpatialRegionPool
+ * - striped:     StripedSpatialRegionPool
+ *
+ * Workloads:
+ * - tasks: TASKS short virtual-thread tasks, each obtaining/recycling
+ *          REGIONS_PER_OP regions OPS_PER_TASK times (per-task executor,
+ *          like SerializedVirtualExecutor/per-request work)
+ * - handoff: regions obtained on one virtual thread and recycled on
+ *          another (layout builds, render thread recycles)
+ *
+ * Reports ns per obtain+recycle and regions allocated per obtain
+ * (1.0 = no reuse). The engine has no concrete SpatialRegion, so the
+ * bench uses a minimal stand-in whose only real method is setToIdentity.
+ *
+ * usage: java -cp .. io.netnotes.engine.ui.SpatialRegionPoolBench [tasks]
+ */
+public class SpatialRegionPoolBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int OPS_PER_TASK = 64;
+    private static final int REGIONS_PER_OP = 4;
+    private static final int HANDOFF_REGIONS = 200_000;
+    private static final int HANDOFF_IN_FLIGHT = 32;
+
+    private static final LongAdder allocated = new LongAdder();
+
+    public static void main(String... args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        System.out.format("workload | pool        | ns/op  | allocs/obtain%n");
+        for (String workload : new String[] { "tasks", "handoff" }) {
+            for (String kind : new String[] { "threadLocal", "striped" }) {
+                double[] r = null;
+                for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                    SpatialRegionPool<BenchRegion> pool = createPool(kind);
+                    r = workload.equals("tasks") ? runTasks(pool, tasks) : runHandoff(pool);
+                }
+                System.out.format("%-8s | %-11s | %6.1f | %13.3f%n", workload, kind, r[0], r[1]);
+            }
+        }
+    }
+
+    private static SpatialRegionPool<BenchRegion> createPool(String kind) {
+        if (kind.equals("striped")) {
+            return StripedSpatialRegionPool.of(BenchRegion::new);
+        }
+        return new ThreadLocalSpatialRegionPool<BenchRegion>() {
+            @Override
+            protected BenchRegion createNew() {
+                return new BenchRegion();
+            }
+        };
+    }
+
+    private static double[] runTasks(SpatialRegionPool<BenchRegion> pool, int tasks) throws Exception {
+        allocated.reset();
+        long start = System.nanoTime();
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int t = 0; t < tasks; t++) {
+                futures.add(exec.submit(() -> {
+                    BenchRegion[] held = new BenchRegion[REGIONS_PER_OP];
+                    for (int op = 0; op < OPS_PER_TASK; op++) {
+                        for (int i = 0; i < REGIONS_PER_OP; i++) {
+                            held[i] = pool.obtain();
+                        }
+                        for (int i = 0; i < REGIONS_PER_OP; i++) {
+                            pool.recycle(held[i]);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        long obtains = (long) tasks * OPS_PER_TASK * REGIONS_PER_OP;
+        return new double[] {
+            (System.nanoTime() - start) / (double) obtains,
+            allocated.sum() / (double) obtains
+        };
+    }
+
+    private static double[] runHandoff(SpatialRegionPool<BenchRegion> pool) throws Exception {
+        allocated.reset();
+        LinkedBlockingQueue<BenchRegion> queue = new LinkedBlockingQueue<>(HANDOFF_IN_FLIGHT);
+        long start = System.nanoTime();
+        Thread producer = Thread.ofVirtual().start(() -> {
+            try {
+                for (int i = 0; i < HANDOFF_REGIONS; i++) {
+                    queue.put(pool.obtain());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread consumer = Thread.ofVirtual().start(() -> {
+            try {
+                for (int i = 0; i < HANDOFF_REGIONS; i++) {
+                    pool.recycle(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join();
+        consumer.join();
+        return new double[] {
+            (System.nanoTime() - start) / (double) HANDOFF_REGIONS,
+            allocated.sum() / (double) HANDOFF_REGIONS
+        };
+    }
+
+    // ===== STAND-IN REGION =====
+
+    static final class BenchPoint extends SpatialPoint<BenchPoint> {
+        @Override public int getDimensionCount() { return 0; }
+        @Override public BenchPoint subtract(BenchPoint point) { return this; }
+        @Override public BenchPoint add(BenchPoint point) { return this; }
+        @Override public NoteBytesObject toNoteBytes() { throw new UnsupportedOperationException(); }
+    }
+
+    static final class BenchRegion extends SpatialRegion<BenchPoint, BenchRegion> {
+        private static final BenchPoint POINT = new BenchPoint();
+        long value;
+
+        BenchRegion() {
+            allocated.increment();
+        }
+
+        @Override public void setToIdentity() { value = 0; }
+        @Override public void setPosition(BenchPoint point) { }
+        @Override public void setToIdentityPosition() { }
+        @Override public BenchPoint getPosition() { return POINT; }
+        @Override public BenchRegion subtractPosition(BenchPoint position) { return this; }
+        @Override public boolean absEquals(BenchRegion other) { return other == this; }
+        @Override public void transformByParent(BenchRegion region) { }
+        @Override public void collapse() { }
+        @Override public boolean contains(BenchRegion region) { return false; }
+        @Override public boolean equals(Object other) { return other == this; }
+        @Override public boolean equals(BenchRegion other) { return other == this; }
+        @Override public int hashCode() { return System.identityHashCode(this); }
+        @Override public int getDimensionCount() { return 0; }
+        @Override public void copyFrom(BenchRegion region) { value = region.value; }
+        @Override public boolean containsPoint(BenchPoint point) { return false; }
+        @Override public boolean intersects(BenchRegion other) { return false; }
+        @Override public BenchRegion intersection(BenchRegion other) { return this; }
+        @Override public void intersectInPlace(BenchRegion other) { }
+        @Override public BenchRegion union(BenchRegion other) { return this; }
+        @Override public void unionInPlace(BenchRegion other) { }
+        @Override public BenchRegion copy() { return new BenchRegion(); }
+        @Override public BenchRegion copy(SpatialRegionPool<BenchRegion> pool) { return pool.obtain(); }
+        @Override public void set(BenchRegion other) { value = other.value; }
+        @Override public boolean isEmpty() { return true; }
+        @Override public void translate(BenchPoint point) { }
+        @Override public BenchRegion createEmpty() { return new BenchRegion(); }
+        @Override public boolean contains(BenchPoint point) { return false; }
+        @Override public NoteBytesObject toNoteBytes() { throw new UnsupportedOperationException(); }
+        @Override public BenchPoint getParentAbsolutePosition() { return POINT; }
+        @Override public void setParentAbsolutePosition(BenchPoint point) { }
+        @Override public void zeroParentAbsolutePosition() { }
+        @Override public BenchPoint getAbsolutePosition() { return POINT; }
+        @Override public void clear() { value = 0; }
+        @Override public void createAbsoluteFrom(BenchRegion region) { }
+    }
+}
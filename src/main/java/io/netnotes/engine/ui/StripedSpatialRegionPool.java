@@ -0,0 +1,255 @@
+package io.netnotes.engine.ui;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.netnotes.engine.utils.LoggingHelpers.Log;
+
+/**
+ * Shared pool implementation striped across threads
+ *
+ * ThreadLocalSpatialRegionPool gives every thread its own pool, which works
+ * for long-lived platform threads but not for virtual threads: each short
+ * task warms a pool nobody reuses, and a region recycled on one thread
+ * never returns to another.
+ *
+ * STRIPED STRATEGY:
+ * - Fixed set of stripes (power of two, default 2 x processors, max 64)
+ * - Stripe picked by a hash of the current thread id, so any thread
+ *   (virtual or not) lands on a shared, already warm stripe
+ * - Each stripe is a bounded slot array updated with CAS only (no locks)
+ * - obtain() falls back to the neighbouring stripe before allocating;
+ *   recycle() likewise before dropping the region
+ * - Capacity is bounded per stripe; over capacity the region is left to GC
+ *
+ * Statistics: hits, misses (allocations), recycled, dropped, and
+ * outstanding (obtained - recycled: regions checked out, or leaked if it
+ * keeps growing).
+ *
+ * @param <S> The spatial region type
+ */
+public abstract class StripedSpatialRegionPool<S extends SpatialRegion<?,S>>
+        implements SpatialRegionPool<S> {
+
+    public static final int DEFAULT_STRIPE_CAPACITY = 32;
+    private static final int MAX_STRIPES = 64;
+
+    private final AtomicReferenceArray<S>[] stripes;
+    // Per-stripe scan start; a racy hint only, slots are claimed by CAS
+    private final int[] tops;
+    private final int stripeMask;
+    private final int stripeCapacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    protected StripedSpatialRegionPool() {
+        this(defaultStripeCount(), DEFAULT_STRIPE_CAPACITY);
+    }
+
+    /**
+     * @param stripeCount    rounded up to a power of two
+     * @param stripeCapacity regions kept per stripe
+     */
+    @SuppressWarnings("unchecked")
+    protected StripedSpatialRegionPool(int stripeCount, int stripeCapacity) {
+        if (stripeCount < 1 || stripeCapacity < 1) {
+            throw new IllegalArgumentException("stripeCount and stripeCapacity must be >= 1");
+        }
+        int count = 1;
+        while (count < stripeCount && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        this.stripes = new AtomicReferenceArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicReferenceArray<>(stripeCapacity);
+        }
+        this.tops = new int[count];
+        this.stripeMask = count - 1;
+        this.stripeCapacity = stripeCapacity;
+    }
+
+    /**
+     * Pool creating regions from a factory
+     */
+    public static <S extends SpatialRegion<?,S>> StripedSpatialRegionPool<S> of(Supplier<S> factory) {
+        return new StripedSpatialRegionPool<S>() {
+            @Override
+            protected S createNew() {
+                return factory.get();
+            }
+        };
+    }
+
+    @Override
+    public S obtain() {
+        int home = stripeIndex();
+        S region = poll(home);
+        if (region == null) {
+            region = poll((home + 1) & stripeMask);
+        }
+        if (region != null) {
+            hits.increment();
+            region.setInPool(false);
+            region.setToIdentity();
+            return region;
+        }
+
+        misses.increment();
+        return createNew();
+    }
+
+    @Override
+    public void recycle(S region) {
+        if (region == null) return;
+        if(region.isInPool()){
+            IllegalStateException ex = new IllegalStateException("Double recycle detected for region: " + region);
+            Log.logError("[StripedSpatialRegionPool] recycle", ex);
+            throw ex;
+        }
+        region.setInPool(true);
+        recycled.increment();
+
+        int home = stripeIndex();
+        if (!offer(home, region) && !offer((home + 1) & stripeMask, region)) {
+            // Both stripes full: let GC handle it
+            region.setInPool(false);
+            dropped.increment();
+        }
+    }
+
+    // ===== STRIPES =====
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /**
+     * Take any region from the stripe, scanning down from its top hint
+     */
+    private S poll(int stripe) {
+        AtomicReferenceArray<S> slots = stripes[stripe];
+        int start = Math.min(tops[stripe], stripeCapacity) - 1;
+        if (start < 0) {
+            start = stripeCapacity - 1;
+        }
+        for (int n = 0, i = start; n < stripeCapacity; n++, i = i == 0 ? stripeCapacity - 1 : i - 1) {
+            if (slots.get(i) != null) {
+                S region = slots.getAndSet(i, null);
+                if (region != null) {
+                    tops[stripe] = i;
+                    return region;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put region in any free slot of the stripe, scanning up from its top hint
+     */
+    private boolean offer(int stripe, S region) {
+        AtomicReferenceArray<S> slots = stripes[stripe];
+        int start = tops[stripe];
+        if (start >= stripeCapacity) {
+            start = 0;
+        }
+        for (int n = 0, i = start; n < stripeCapacity; n++, i = i + 1 == stripeCapacity ? 0 : i + 1) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, region)) {
+                tops[stripe] = i + 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ===== STATS =====
+
+    /**
+     * Pooled regions across all stripes (approximate under concurrency)
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (AtomicReferenceArray<S> slots : stripes) {
+            for (int i = 0; i < stripeCapacity; i++) {
+                if (slots.get(i) != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getRecycledCount() {
+        return recycled.sum();
+    }
+
+    /** Recycled regions dropped because the stripes were full */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Regions obtained and not yet recycled. Steady growth under a steady
+     * workload means regions are leaking (never recycled).
+     */
+    public long getOutstandingCount() {
+        return hits.sum() + misses.sum() - recycled.sum();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    @Override
+    public PoolStats getStats() {
+        return new PoolStats(
+            getPooledCount(),
+            (int) (hits.sum() + misses.sum()),
+            (int) recycled.sum()
+        );
+    }
+
+    @Override
+    public void clear() {
+        for (AtomicReferenceArray<S> slots : stripes) {
+            for (int i = 0; i < stripeCapacity; i++) {
+                S region = slots.getAndSet(i, null);
+                if (region != null) {
+                    region.setInPool(false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "StripedPool[stripes=%d, pooled=%d, hits=%d, misses=%d, recycled=%d, dropped=%d, outstanding=%d]",
+            stripes.length, getPooledCount(), getHitCount(), getMissCount(),
+            getRecycledCount(), getDroppedCount(), getOutstandingCount());
+    }
+
+    /**
+     * Create a new instance of the spatial region
+     * Called when the stripes are empty
+     */
+    protected abstract S createNew();
+
+    private static int defaultStripeCount() {
+        return Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors() * 2);
+    }
+}
@@ -1,7 +1,6 @@
 package io.netnotes.engine.ui.containers;
 
 import java.io.IOException;
-import java.io.PipedInputStream;
 import java.util.HashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -138,7 +137,7 @@ public abstract class Container<
     protected final ConcurrentHashMap<NoteBytesReadOnly, MessageExecutor> msgMap = new ConcurrentHashMap<>();
     protected final HashMap<NoteBytes, MessageExecutor> batchMsgMap = new HashMap<>();
 
-    protected final SerializedVirtualExecutor containerExecutor = new SerializedVirtualExecutor();
+    protected final SerializedVirtualExecutor containerExecutor = new SerializedVirtualExecutor("Container");
 
     protected Consumer<T> onRequestMade = null;
 
@@ -344,7 +343,7 @@ public abstract class Container<
             CompletableFuture.runAsync(() -> {
                 try (
                     NoteBytesReader reader = new NoteBytesReader(
-                        new PipedInputStream(channel.getChannelStream(), StreamUtils.PIPE_BUFFER_SIZE)
+                        channel.getInputStream()
                     );
                 ) {
                     channel.getReadyFuture().complete(null);
@@ -394,7 +393,7 @@ public abstract class Container<
         
         MessageExecutor executor = msgMap.get(cmd);
         if (executor != null) {
-            containerExecutor.execute(()->{
+            containerExecutor.executeFireAndForget(()->{
                 try {
                     executor.execute(command);
                 } catch (Exception e) {
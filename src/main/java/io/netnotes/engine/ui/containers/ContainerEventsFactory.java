@@ -170,7 +170,9 @@ public abstract class ContainerEventsFactory<
         }
 
         if(packet.getType() != NoteBytesMetaData.NOTE_BYTES_OBJECT_TYPE){
-            return new BaseEvent(sourcePath, ProtocolMesssages.UNKNOWN, 0, new NoteBytes[]{packet});
+            // Copy: the event can outlive the packet (see IEventFactory.from)
+            NoteBytes copy = new NoteBytes(packet.getBytes().clone(), packet.getType());
+            return new BaseEvent(sourcePath, ProtocolMesssages.UNKNOWN, 0, new NoteBytes[]{copy});
         }
 
         NoteBytesMap body = packet.getAsNoteBytesMap();
@@ -0,0 +1,218 @@
+package io.netnotes.engine.ui.layout2d;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import io.netnotes.engine.ui.SpatialPoint;
+import io.netnotes.engine.ui.SpatialRegion;
+import io.netnotes.engine.ui.renderer.BatchBuilder;
+import io.netnotes.engine.ui.renderer.LayoutContext;
+import io.netnotes.engine.ui.renderer.LayoutData;
+import io.netnotes.engine.ui.renderer.LayoutGroup.LayoutDataInterface;
+import io.netnotes.engine.ui.renderer.LayoutNode;
+import io.netnotes.engine.ui.renderer.Renderable;
+import io.netnotes.engine.ui.renderer.layout.GroupLayoutCallback;
+import io.netnotes.engine.ui.renderer.layout.LayoutDataPool;
+
+/**
+ * FlexGroupLayout - FlexSolver as a group layout callback.
+ *
+ * Members of the group are the flex items; the group owner is the flex
+ * container. The callback fires once the owner is committed, so the owner's
+ * region is the container size.
+ *
+ * MEASURE:
+ * Content-sized members are measured by RenderableLayoutManager's content
+ * pre-pass before the group fires; their getMeasuredContentBounds() is the
+ * item content size. Other members use their requested region, or their
+ * current region. A content-sized container can report its intrinsic size
+ * from its own Renderable.measureContent via {@link #measureContent}.
+ *
+ * ARRANGE:
+ * Results are written into LayoutData obtained from the LayoutDataPool (or
+ * the member's pre-populated LayoutData) with every spatial axis flagged.
+ * Members hidden by desire or force take no space and are left untouched.
+ *
+ * Together with FlexSolver's retained arrays, a steady-state pass allocates
+ * nothing beyond what the pools hand back.
+ *
+ * WIRING:
+ * Concrete modules bind their own GCB type with a method reference:
+ * <pre>
+ *   FlexGroupLayout&lt;...&gt; flex = new FlexGroupLayout&lt;&gt;(pool, bounds, r -&gt; r.getFlexItem());
+ *   flex.getSolver().setWrap(FlexWrap.WRAP);
+ *   GCB callback = flex::calculate;
+ * </pre>
+ *
+ * THREADING: ui thread only, like every layout callback.
+ */
+public class FlexGroupLayout<
+    B extends BatchBuilder<S>,
+    R extends Renderable<B,P,S,L,LC,LD,?,GCB,?,?,R>,
+    P extends SpatialPoint<P>,
+    S extends SpatialRegion<P,S>,
+    LD extends LayoutData<B,R,S,LD,?>,
+    LC extends LayoutContext<B,R,P,S,LD,?,LC,L>,
+    L extends LayoutNode<B,R,P,S,LD,LC,?,GCB,?,L>,
+    GCB extends GroupLayoutCallback<B,R,P,S,LD,LC,L,GCB>
+> implements GroupLayoutCallback<B,R,P,S,LD,LC,L,GCB> {
+
+    /**
+     * Reads and writes 2D bounds on the concrete region type
+     */
+    public interface Bounds<S> {
+        int width(S region);
+
+        int height(S region);
+
+        /**
+         * Write a parent-local position and size, leaving any other region
+         * state (parent absolute position etc.) as it is.
+         */
+        void set(S region, int x, int y, int width, int height);
+    }
+
+    private final FlexSolver solver = new FlexSolver();
+    private final LayoutDataPool<LD> layoutDataPool;
+    private final Bounds<S> bounds;
+    private final Function<R, FlexItem> itemLookup;
+
+    // member index for each solver slot (hidden members are skipped)
+    private int[] slots = new int[16];
+    private final int[] size = new int[2];
+
+    /**
+     * @param layoutDataPool pool for member LayoutData
+     * @param bounds         2D access to the region type
+     * @param itemLookup     flex properties of a member, may return null for FlexItem.DEFAULT
+     */
+    public FlexGroupLayout(LayoutDataPool<LD> layoutDataPool, Bounds<S> bounds, Function<R, FlexItem> itemLookup) {
+        if (layoutDataPool == null || bounds == null) {
+            throw new IllegalArgumentException("layoutDataPool and bounds are required");
+        }
+        this.layoutDataPool = layoutDataPool;
+        this.bounds = bounds;
+        this.itemLookup = itemLookup;
+    }
+
+    /** Container properties (direction, wrap, justify, align, gap) */
+    public FlexSolver getSolver() {
+        return solver;
+    }
+
+    // ── GroupLayoutCallback ───────────────────────────────────────────────────
+
+    @Override
+    public void calculate(LC[] contexts, Map<String, LayoutDataInterface<LD>> layoutDataInterface) {
+        int n = contexts.length;
+        if (n == 0) return;
+
+        R parent = contexts[0].getRenderable().getParent();
+        S container = contexts[0].getParentRegion();
+        if (parent == null || container == null) return;
+        int containerWidth;
+        int containerHeight;
+        try {
+            containerWidth = bounds.width(container);
+            containerHeight = bounds.height(container);
+        } finally {
+            parent.getRegionPool().recycle(container);
+        }
+
+        int visible = loadItems(contexts);
+        solver.solve(containerWidth, containerHeight);
+
+        for (int k = 0; k < visible; k++) {
+            R member = contexts[slots[k]].getRenderable();
+            LayoutDataInterface<LD> target = layoutDataInterface.get(member.getName());
+            if (target == null) continue;
+            write(target, member, solver.getX(k), solver.getY(k), solver.getWidth(k), solver.getHeight(k));
+        }
+    }
+
+    /**
+     * Intrinsic size of the container - all visible items on one line.
+     *
+     * @param childContexts contexts passed to the container's measureContent
+     * @param target        region receiving the size at position 0,0
+     * @return target
+     */
+    public S measureContent(LC[] childContexts, S target) {
+        loadItems(childContexts);
+        solver.measure();
+        bounds.set(target, 0, 0, solver.getMeasuredWidth(), solver.getMeasuredHeight());
+        return target;
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private int loadItems(LC[] contexts) {
+        int n = contexts.length;
+        if (slots.length < n) {
+            slots = new int[Math.max(n, slots.length << 1)];
+        }
+        int visible = 0;
+        for (int i = 0; i < n; i++) {
+            LC context = contexts[i];
+            if (context.isHiddenForced() || context.isHidden()) continue;
+            slots[visible++] = i;
+        }
+
+        solver.reset(visible);
+        for (int k = 0; k < visible; k++) {
+            LC context = contexts[slots[k]];
+            R member = context.getRenderable();
+            readContentSize(context, member);
+            solver.setItem(k, size[0], size[1], itemLookup != null ? itemLookup.apply(member) : null);
+        }
+        return visible;
+    }
+
+    private void readContentSize(LC context, R member) {
+        S measured = context.getMeasuredContentBounds();
+        if (measured != null) {
+            size[0] = bounds.width(measured);
+            size[1] = bounds.height(measured);
+            return;
+        }
+        S region = context.hasRequestedRegion() ? context.getRequestedRegion() : context.getCurrentRegion();
+        try {
+            size[0] = bounds.width(region);
+            size[1] = bounds.height(region);
+        } finally {
+            member.getRegionPool().recycle(region);
+        }
+    }
+
+    private void write(LayoutDataInterface<LD> target, R member, int x, int y, int width, int height) {
+        boolean existing = target.hasLayoutData();
+        LD data;
+        if (existing) {
+            data = target.getLayoutData();
+        } else {
+            data = layoutDataPool.obtain();
+            data.reset();
+        }
+
+        S region = data.getSpatialRegion();
+        if (region == null) {
+            region = member.getRegion();
+            data.initialize(region);
+        }
+        bounds.set(region, x, y, width, height);
+
+        int axes = member.getNumSpatialAxes();
+        for (int a = 0; a < axes; a++) {
+            data.setAxisChange(a);
+        }
+
+        if (!existing) {
+            target.setLayoutData(data);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FlexGroupLayout[" + solver + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package io.netnotes.engine.ui.layout2d;
+
+/**
+ * FlexItem - per-child flex properties read by FlexSolver.
+ *
+ * Corresponds to the CSS flex item properties flex-grow, flex-shrink,
+ * flex-basis and align-self. Immutable; share one instance between any
+ * number of children.
+ *
+ * Defaults match CSS: grow NONE, shrink SMALL (1), basis AUTO, align-self AUTO.
+ */
+public final class FlexItem {
+
+    public static final FlexItem DEFAULT = new FlexItem(FlexGrow.NONE, FlexShrink.SMALL, FlexBasis.AUTO, AlignSelf.AUTO);
+
+    /** Grow to fill, never shrink below content - equivalent to CSS flex: 1 0 auto */
+    public static final FlexItem FILL = new FlexItem(FlexGrow.SMALL, FlexShrink.NONE, FlexBasis.AUTO, AlignSelf.AUTO);
+
+    /** Fixed at content size - equivalent to CSS flex: none */
+    public static final FlexItem NONE = new FlexItem(FlexGrow.NONE, FlexShrink.NONE, FlexBasis.AUTO, AlignSelf.AUTO);
+
+    private final FlexGrow grow;
+    private final FlexShrink shrink;
+    private final FlexBasis basis;
+    private final AlignSelf alignSelf;
+
+    private FlexItem(FlexGrow grow, FlexShrink shrink, FlexBasis basis, AlignSelf alignSelf) {
+        this.grow = grow;
+        this.shrink = shrink;
+        this.basis = basis;
+        this.alignSelf = alignSelf;
+    }
+
+    public static FlexItem of(FlexGrow grow, FlexShrink shrink, FlexBasis basis) {
+        return of(grow, shrink, basis, AlignSelf.AUTO);
+    }
+
+    public static FlexItem of(FlexGrow grow, FlexShrink shrink, FlexBasis basis, AlignSelf alignSelf) {
+        if (grow == null || shrink == null || basis == null || alignSelf == null) {
+            throw new IllegalArgumentException("FlexItem properties cannot be null");
+        }
+        return new FlexItem(grow, shrink, basis, alignSelf);
+    }
+
+    public FlexItem withGrow(FlexGrow grow)          { return of(grow, shrink, basis, alignSelf); }
+    public FlexItem withShrink(FlexShrink shrink)    { return of(grow, shrink, basis, alignSelf); }
+    public FlexItem withBasis(FlexBasis basis)       { return of(grow, shrink, basis, alignSelf); }
+    public FlexItem withAlignSelf(AlignSelf align)   { return of(grow, shrink, basis, align); }
+
+    public FlexGrow   getGrow()      { return grow; }
+    public FlexShrink getShrink()    { return shrink; }
+    public FlexBasis  getBasis()     { return basis; }
+    public AlignSelf  getAlignSelf() { return alignSelf; }
+
+    @Override
+    public String toString() {
+        return "FlexItem[grow=" + grow + ", shrink=" + shrink + ", align=" + alignSelf + "]";
+    }
+}
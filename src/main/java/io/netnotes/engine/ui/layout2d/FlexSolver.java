@@ -0,0 +1,457 @@
+package io.netnotes.engine.ui.layout2d;
+
+import java.util.Objects;
+
+/**
+ * FlexSolver - single measure + arrange pass over one flex container.
+ *
+ * Dimension-neutral integer core of the flexbox model defined by the enums in
+ * this package. Works on plain ints so it can be driven from any region type
+ * (see FlexGroupLayout for the renderer adapter).
+ *
+ * USAGE (one solve per layout pass):
+ * <pre>
+ *   solver.reset(n);
+ *   for (i..n) solver.setItem(i, contentWidth, contentHeight, item);
+ *   solver.solve(containerWidth, containerHeight);
+ *   solver.getX(i), getY(i), getWidth(i), getHeight(i)   // container-local
+ * </pre>
+ *
+ * ALGORITHM (CSS flexbox, simplified):
+ *   1. hypothetical main size = flex-basis (pixels / percent of container) or
+ *      the measured content size for AUTO / CONTENT
+ *   2. break into lines (WRAP / WRAP_REVERSE) when the next item plus gap
+ *      would exceed the container main size
+ *   3. per line, distribute positive free space by grow factor, negative
+ *      free space by shrink factor x base size (CSS scaled shrink)
+ *   4. line cross size = largest item cross size; single-line containers
+ *      use the full container cross size; AlignContent spreads the rest
+ *   5. JustifyContent places items on the main axis, AlignSelf / AlignItems
+ *      within the line; *_REVERSE mirrors the finished axis
+ *
+ * Free space is split with a running remainder so sizes always sum to the
+ * container exactly - no one-cell drift on terminal grids. BASELINE alignment
+ * falls back to FLEX_START (regions carry no baseline).
+ *
+ * ALLOCATION:
+ * Per-item and per-line state lives in int arrays that only grow. Once the
+ * solver has seen its largest child count, solve() allocates nothing.
+ *
+ * THREADING: not thread-safe; one solver per container, used on the ui thread.
+ */
+public class FlexSolver {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // spread modes shared by JustifyContent and AlignContent
+    private static final int START   = 0;
+    private static final int END     = 1;
+    private static final int CENTER  = 2;
+    private static final int BETWEEN = 3;
+    private static final int AROUND  = 4;
+    private static final int EVENLY  = 5;
+    private static final int STRETCH = 6;
+
+    // ── Container properties ──────────────────────────────────────────────────
+
+    private FlexDirection direction = FlexDirection.ROW;
+    private FlexWrap wrap = FlexWrap.NOWRAP;
+    private JustifyContent justifyContent = JustifyContent.FLEX_START;
+    private AlignItems alignItems = AlignItems.STRETCH;
+    private AlignContent alignContent = AlignContent.STRETCH;
+    private int mainGap = 0;
+    private int crossGap = 0;
+
+    // ── Item state ────────────────────────────────────────────────────────────
+
+    private int count = 0;
+    private FlexItem[] items;
+    private int[] contentWidth;
+    private int[] contentHeight;
+    private int[] mainSize;
+    private int[] crossSize;
+    private int[] mainPos;
+    private int[] crossPos;
+
+    // ── Line state ────────────────────────────────────────────────────────────
+
+    private int lineCount = 0;
+    private int[] lineStart;
+    private int[] lineEnd;
+    private int[] lineCross;
+    private int[] lineOffset;
+
+    private boolean row = true;
+    private int measuredMain = 0;
+    private int measuredCross = 0;
+
+    public FlexSolver() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // ── Configuration ─────────────────────────────────────────────────────────
+
+    public void setDirection(FlexDirection direction) {
+        this.direction = Objects.requireNonNull(direction, "direction");
+    }
+
+    public void setWrap(FlexWrap wrap) {
+        this.wrap = Objects.requireNonNull(wrap, "wrap");
+    }
+
+    public void setJustifyContent(JustifyContent justifyContent) {
+        this.justifyContent = Objects.requireNonNull(justifyContent, "justifyContent");
+    }
+
+    public void setAlignItems(AlignItems alignItems) {
+        this.alignItems = Objects.requireNonNull(alignItems, "alignItems");
+    }
+
+    public void setAlignContent(AlignContent alignContent) {
+        this.alignContent = Objects.requireNonNull(alignContent, "alignContent");
+    }
+
+    /**
+     * @param mainGap  space between items on a line
+     * @param crossGap space between lines
+     */
+    public void setGap(int mainGap, int crossGap) {
+        if (mainGap < 0 || crossGap < 0) {
+            throw new IllegalArgumentException("Gap must be non-negative");
+        }
+        this.mainGap = mainGap;
+        this.crossGap = crossGap;
+    }
+
+    public FlexDirection  getDirection()      { return direction; }
+    public FlexWrap       getWrap()           { return wrap; }
+    public JustifyContent getJustifyContent() { return justifyContent; }
+    public AlignItems     getAlignItems()     { return alignItems; }
+    public AlignContent   getAlignContent()   { return alignContent; }
+    public int            getMainGap()        { return mainGap; }
+    public int            getCrossGap()       { return crossGap; }
+
+    // ── Input ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Start a new solve over {@code count} items. Previous results are discarded.
+     */
+    public void reset(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must be non-negative");
+        }
+        if (count > contentWidth.length) {
+            allocate(Math.max(count, contentWidth.length << 1));
+        }
+        this.count = count;
+        this.lineCount = 0;
+    }
+
+    /**
+     * @param contentWidth  intrinsic width (content measurement or current size)
+     * @param contentHeight intrinsic height
+     * @param item          flex properties, null for FlexItem.DEFAULT
+     */
+    public void setItem(int index, int contentWidth, int contentHeight, FlexItem item) {
+        Objects.checkIndex(index, count);
+        this.items[index] = item != null ? item : FlexItem.DEFAULT;
+        this.contentWidth[index] = Math.max(0, contentWidth);
+        this.contentHeight[index] = Math.max(0, contentHeight);
+    }
+
+    public int getItemCount() { return count; }
+
+    // ── Measure ───────────────────────────────────────────────────────────────
+
+    /**
+     * Intrinsic container size: all items on one line at their hypothetical
+     * sizes. Percent bases have no container to resolve against and fall back
+     * to content. Use from a content-sized container's measureContent.
+     */
+    public void measure() {
+        row = isRow();
+        long main = count > 1 ? (long) mainGap * (count - 1) : 0;
+        int cross = 0;
+        for (int i = 0; i < count; i++) {
+            FlexBasis basis = items[i].getBasis();
+            main += basis.isPixels() ? Math.max(0, basis.getPixels()) : contentMain(i);
+            cross = Math.max(cross, contentCross(i));
+        }
+        measuredMain = clamp(main);
+        measuredCross = cross;
+    }
+
+    public int getMeasuredWidth()  { return row ? measuredMain : measuredCross; }
+    public int getMeasuredHeight() { return row ? measuredCross : measuredMain; }
+
+    // ── Arrange ───────────────────────────────────────────────────────────────
+
+    public void solve(int containerWidth, int containerHeight) {
+        row = isRow();
+        int containerMain = Math.max(0, row ? containerWidth : containerHeight);
+        int containerCross = Math.max(0, row ? containerHeight : containerWidth);
+
+        for (int i = 0; i < count; i++) {
+            mainSize[i] = hypotheticalMain(i, containerMain);
+        }
+
+        breakLines(containerMain);
+
+        for (int l = 0; l < lineCount; l++) {
+            resolveFlexibleLengths(l, containerMain);
+            int cross = 0;
+            for (int i = lineStart[l]; i < lineEnd[l]; i++) {
+                cross = Math.max(cross, contentCross(i));
+            }
+            lineCross[l] = cross;
+        }
+
+        if (wrap == FlexWrap.NOWRAP) {
+            if (lineCount > 0) {
+                lineCross[0] = containerCross;
+                lineOffset[0] = 0;
+            }
+        } else {
+            distributeLines(containerCross);
+        }
+
+        for (int l = 0; l < lineCount; l++) {
+            justifyLine(l, containerMain);
+            alignLine(l);
+        }
+
+        if (direction == FlexDirection.ROW_REVERSE || direction == FlexDirection.COLUMN_REVERSE) {
+            for (int i = 0; i < count; i++) {
+                mainPos[i] = containerMain - mainPos[i] - mainSize[i];
+            }
+        }
+        if (wrap == FlexWrap.WRAP_REVERSE) {
+            for (int i = 0; i < count; i++) {
+                crossPos[i] = containerCross - crossPos[i] - crossSize[i];
+            }
+        }
+    }
+
+    private int hypotheticalMain(int i, int containerMain) {
+        FlexBasis basis = items[i].getBasis();
+        if (basis.isPixels() || basis.isPercent()) {
+            return Math.max(0, basis.toPixels(containerMain));
+        }
+        return contentMain(i);
+    }
+
+    private void breakLines(int containerMain) {
+        lineCount = 0;
+        if (count == 0) return;
+
+        boolean wraps = wrap != FlexWrap.NOWRAP;
+        int start = 0;
+        long used = 0;
+        for (int i = 0; i < count; i++) {
+            int size = mainSize[i];
+            if (i == start) {
+                used = size;
+            } else if (wraps && used + mainGap + size > containerMain) {
+                addLine(start, i);
+                start = i;
+                used = size;
+            } else {
+                used += mainGap + size;
+            }
+        }
+        addLine(start, count);
+    }
+
+    private void addLine(int start, int end) {
+        lineStart[lineCount] = start;
+        lineEnd[lineCount] = end;
+        lineCount++;
+    }
+
+    private void resolveFlexibleLengths(int l, int containerMain) {
+        int s = lineStart[l];
+        int e = lineEnd[l];
+
+        long used = (long) mainGap * (e - s - 1);
+        long totalGrow = 0;
+        long totalScaledShrink = 0;
+        for (int i = s; i < e; i++) {
+            used += mainSize[i];
+            totalGrow += items[i].getGrow().getValue();
+            totalScaledShrink += (long) items[i].getShrink().getValue() * mainSize[i];
+        }
+
+        long free = containerMain - used;
+        if (free > 0 && totalGrow > 0) {
+            long acc = 0;
+            long given = 0;
+            for (int i = s; i < e; i++) {
+                int grow = items[i].getGrow().getValue();
+                if (grow == 0) continue;
+                acc += free * grow;
+                long share = acc / totalGrow;
+                mainSize[i] += (int) (share - given);
+                given = share;
+            }
+        } else if (free < 0 && totalScaledShrink > 0) {
+            long deficit = -free;
+            long acc = 0;
+            long taken = 0;
+            for (int i = s; i < e; i++) {
+                long scaled = (long) items[i].getShrink().getValue() * mainSize[i];
+                if (scaled == 0) continue;
+                acc += deficit * scaled;
+                long share = acc / totalScaledShrink;
+                mainSize[i] = Math.max(0, mainSize[i] - (int) (share - taken));
+                taken = share;
+            }
+        }
+    }
+
+    private void distributeLines(int containerCross) {
+        long used = (long) crossGap * (lineCount - 1);
+        for (int l = 0; l < lineCount; l++) {
+            used += lineCross[l];
+        }
+        long free = containerCross - used;
+
+        int mode = spreadMode(alignContent, free < 0);
+        long cursor = 0;
+        for (int l = 0; l < lineCount; l++) {
+            if (mode == STRETCH) {
+                lineCross[l] += (int) (free * (l + 1) / lineCount - free * l / lineCount);
+                lineOffset[l] = (int) cursor;
+            } else {
+                lineOffset[l] = (int) (cursor + spread(mode, free, l, lineCount));
+            }
+            cursor += lineCross[l] + crossGap;
+        }
+    }
+
+    private void justifyLine(int l, int containerMain) {
+        int s = lineStart[l];
+        int n = lineEnd[l] - s;
+
+        long used = (long) mainGap * (n - 1);
+        for (int i = s; i < s + n; i++) {
+            used += mainSize[i];
+        }
+        long free = containerMain - used;
+
+        int mode = spreadMode(justifyContent, free < 0);
+        long cursor = 0;
+        for (int k = 0; k < n; k++) {
+            int i = s + k;
+            mainPos[i] = (int) (cursor + spread(mode, free, k, n));
+            cursor += mainSize[i] + mainGap;
+        }
+    }
+
+    private void alignLine(int l) {
+        int cross = lineCross[l];
+        int offset = lineOffset[l];
+        for (int i = lineStart[l]; i < lineEnd[l]; i++) {
+            AlignSelf align = items[i].getAlignSelf();
+            if (align == AlignSelf.AUTO) {
+                align = alignItems.toAlignSelf();
+            }
+            int content = contentCross(i);
+            switch (align) {
+                case STRETCH -> {
+                    crossSize[i] = cross;
+                    crossPos[i] = offset;
+                }
+                case FLEX_END -> {
+                    crossSize[i] = content;
+                    crossPos[i] = offset + cross - content;
+                }
+                case CENTER -> {
+                    crossSize[i] = content;
+                    crossPos[i] = offset + (cross - content) / 2;
+                }
+                default -> {
+                    crossSize[i] = content;
+                    crossPos[i] = offset;
+                }
+            }
+        }
+    }
+
+    /** Offset added before the k-th of n entries when spreading free space */
+    private static long spread(int mode, long free, int k, int n) {
+        return switch (mode) {
+            case END     -> free;
+            case CENTER  -> free / 2;
+            case BETWEEN -> n > 1 ? free * k / (n - 1) : 0;
+            case AROUND  -> free * (2L * k + 1) / (2L * n);
+            case EVENLY  -> free * (k + 1) / (n + 1);
+            default      -> 0;
+        };
+    }
+
+    /** Overflowing containers fall back like CSS: between -> start, around / evenly -> center */
+    private static int spreadMode(JustifyContent justify, boolean overflow) {
+        return switch (justify) {
+            case FLEX_START    -> START;
+            case FLEX_END      -> END;
+            case CENTER        -> CENTER;
+            case SPACE_BETWEEN -> overflow ? START : BETWEEN;
+            case SPACE_AROUND  -> overflow ? CENTER : AROUND;
+            case SPACE_EVENLY  -> overflow ? CENTER : EVENLY;
+        };
+    }
+
+    private static int spreadMode(AlignContent align, boolean overflow) {
+        return switch (align) {
+            case FLEX_START    -> START;
+            case FLEX_END      -> END;
+            case CENTER        -> CENTER;
+            case SPACE_BETWEEN -> overflow ? START : BETWEEN;
+            case SPACE_AROUND  -> overflow ? CENTER : AROUND;
+            case SPACE_EVENLY  -> overflow ? CENTER : EVENLY;
+            case STRETCH       -> overflow ? START : STRETCH;
+        };
+    }
+
+    // ── Output (container-local) ──────────────────────────────────────────────
+
+    public int getX(int i)      { return row ? mainPos[i] : crossPos[i]; }
+    public int getY(int i)      { return row ? crossPos[i] : mainPos[i]; }
+    public int getWidth(int i)  { return row ? mainSize[i] : crossSize[i]; }
+    public int getHeight(int i) { return row ? crossSize[i] : mainSize[i]; }
+
+    public int getLineCount()   { return lineCount; }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private boolean isRow() {
+        return direction == FlexDirection.ROW || direction == FlexDirection.ROW_REVERSE;
+    }
+
+    private int contentMain(int i)  { return row ? contentWidth[i] : contentHeight[i]; }
+    private int contentCross(int i) { return row ? contentHeight[i] : contentWidth[i]; }
+
+    private static int clamp(long value) {
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+
+    private void allocate(int capacity) {
+        items         = new FlexItem[capacity];
+        contentWidth  = new int[capacity];
+        contentHeight = new int[capacity];
+        mainSize      = new int[capacity];
+        crossSize     = new int[capacity];
+        mainPos       = new int[capacity];
+        crossPos      = new int[capacity];
+        lineStart     = new int[capacity];
+        lineEnd       = new int[capacity];
+        lineCross     = new int[capacity];
+        lineOffset    = new int[capacity];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FlexSolver[%s %s, items=%d, lines=%d, capacity=%d]",
+            direction, wrap, count, lineCount, contentWidth.length);
+    }
+}
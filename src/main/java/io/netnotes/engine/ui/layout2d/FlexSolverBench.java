@@ -0,0 +1,130 @@
+package io.netnotes.engine.ui.layout2d;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * FlexSolverBench - measure + arrange cost for a 10k item flex container
+ *
+ * Fills one container with mixed items (fixed, growing, shrinking, pixel and
+ * percent bases, mixed align-self) and solves it repeatedly under several
+ * container configurations. Reports time per solve, per item, and bytes
+ * allocated per solve on the benchmark thread (expected 0 at steady state).
+ *
+ * usage: java -cp .. io.netnotes.engine.ui.layout2d.FlexSolverBench [items] [solves]
+ */
+public class FlexSolverBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int CONTAINER_WIDTH = 1_920;
+    private static final int CONTAINER_HEIGHT = 1_080;
+
+    static volatile int sink;
+
+    private record Config(String name, FlexDirection direction, FlexWrap wrap,
+                          JustifyContent justify, AlignContent alignContent) {}
+
+    private static final Config[] CONFIGS = {
+        new Config("row nowrap",        FlexDirection.ROW,    FlexWrap.NOWRAP,       JustifyContent.FLEX_START,    AlignContent.STRETCH),
+        new Config("row wrap between",  FlexDirection.ROW,    FlexWrap.WRAP,         JustifyContent.SPACE_BETWEEN, AlignContent.FLEX_START),
+        new Config("column wrap",       FlexDirection.COLUMN, FlexWrap.WRAP,         JustifyContent.CENTER,        AlignContent.STRETCH),
+        new Config("row-rev wrap-rev",  FlexDirection.ROW_REVERSE, FlexWrap.WRAP_REVERSE, JustifyContent.SPACE_EVENLY, AlignContent.SPACE_AROUND),
+    };
+
+    public static void main(String... args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int solves = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        FlexItem[] kinds = {
+            FlexItem.DEFAULT,
+            FlexItem.FILL,
+            FlexItem.NONE,
+            FlexItem.of(FlexGrow.MEDIUM, FlexShrink.LARGE, FlexBasis.pixels(40)),
+            FlexItem.of(FlexGrow.NONE, FlexShrink.SMALL, FlexBasis.percent(5), AlignSelf.CENTER),
+            FlexItem.DEFAULT.withAlignSelf(AlignSelf.FLEX_END),
+        };
+
+        Random random = new Random(42);
+        int[] widths = new int[items];
+        int[] heights = new int[items];
+        FlexItem[] props = new FlexItem[items];
+        for (int i = 0; i < items; i++) {
+            widths[i] = 8 + random.nextInt(64);
+            heights[i] = 1 + random.nextInt(6);
+            props[i] = kinds[random.nextInt(kinds.length)];
+        }
+
+        System.out.format("%-18s | %6s | %10s | %10s | %12s%n",
+            "config", "lines", "us/solve", "ns/item", "bytes/solve");
+
+        for (Config config : CONFIGS) {
+            FlexSolver solver = new FlexSolver();
+            solver.setDirection(config.direction());
+            solver.setWrap(config.wrap());
+            solver.setJustifyContent(config.justify());
+            solver.setAlignContent(config.alignContent());
+            solver.setGap(1, 1);
+
+            for (int w = 0; w < WARMUP_ROUNDS; w++) {
+                run(solver, widths, heights, props, solves / 4 + 1);
+            }
+            verify(solver, config);
+
+            long allocBefore = allocatedBytes();
+            long start = System.nanoTime();
+            run(solver, widths, heights, props, solves);
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocBefore;
+
+            double usPerSolve = elapsed / 1_000.0 / solves;
+            System.out.format("%-18s | %6d | %10.1f | %10.2f | %12s%n",
+                config.name(), solver.getLineCount(), usPerSolve,
+                elapsed / (double) solves / items,
+                allocated < 0 ? "n/a" : String.valueOf(allocated / solves));
+        }
+    }
+
+    private static void run(FlexSolver solver, int[] widths, int[] heights, FlexItem[] props, int solves) {
+        int n = widths.length;
+        for (int s = 0; s < solves; s++) {
+            solver.reset(n);
+            for (int i = 0; i < n; i++) {
+                solver.setItem(i, widths[i], heights[i], props[i]);
+            }
+            solver.solve(CONTAINER_WIDTH, CONTAINER_HEIGHT);
+            sink += solver.getX(n - 1) + solver.getHeight(n >> 1);
+        }
+    }
+
+    /** Items on a line must not overlap on the main axis and sizes must be non-negative */
+    private static void verify(FlexSolver solver, Config config) {
+        boolean row = config.direction() == FlexDirection.ROW || config.direction() == FlexDirection.ROW_REVERSE;
+        boolean reversed = config.direction() == FlexDirection.ROW_REVERSE
+            || config.direction() == FlexDirection.COLUMN_REVERSE;
+        for (int i = 0; i < solver.getItemCount(); i++) {
+            if (solver.getWidth(i) < 0 || solver.getHeight(i) < 0) {
+                throw new IllegalStateException(config.name() + ": negative size at item " + i);
+            }
+            if (i == 0) continue;
+            int prevStart = row ? solver.getX(i - 1) : solver.getY(i - 1);
+            int prevSize = row ? solver.getWidth(i - 1) : solver.getHeight(i - 1);
+            int start = row ? solver.getX(i) : solver.getY(i);
+            int size = row ? solver.getWidth(i) : solver.getHeight(i);
+            // main position jumping back (forward: lower, reversed: higher) starts a new line
+            boolean newLine = reversed ? start > prevStart : start < prevStart;
+            if (newLine) continue;
+            boolean overlaps = reversed ? start + size > prevStart : prevStart + prevSize > start;
+            if (overlaps) {
+                throw new IllegalStateException(config.name() + ": items overlap at " + i);
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,382 @@
+package io.netnotes.engine.ui.renderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import io.netnotes.engine.ui.Point2D;
+
+/**
+ * ChildHitIndex - uniform grid over a parent's children for hit testing
+ *
+ * Renderable.hitTestChildren walks every child in reverse z-order. Once a
+ * parent has more than Renderable.HIT_INDEX_THRESHOLD children and supplies
+ * Keys, this index narrows the walk to the children whose bounds overlap the
+ * grid cell under the pointer.
+ *
+ * COORDINATES:
+ * Bounds are the child's region in parent-local space (SpatialRegion.getPosition
+ * frame), so moving the parent never invalidates the index. Only axes 0 and 1
+ * are indexed - deeper axes (3D) are resolved by the final hitTest.
+ *
+ * ORDER:
+ * Each entry carries its position in the parent's children list. topmost()
+ * returns the accepted candidate with the highest position, which is exactly
+ * the child the reverse linear walk would return first.
+ *
+ * The index only prunes - accept() (visibility + Renderable.hitTest) still
+ * decides every hit, so bounds may be conservative.
+ *
+ * THREADING: ui thread only, same as the children list it mirrors.
+ *
+ * @param <P> point type
+ * @param <S> region type
+ * @param <R> child type
+ */
+public class ChildHitIndex<P, S, R> {
+
+    /**
+     * Extracts integer grid keys from regions and points
+     */
+    public interface Keys<P, S> {
+        /**
+         * Fill out[0..3] with minX, minY, maxX, maxY (max exclusive) of the
+         * region in parent-local coordinates.
+         *
+         * @return false if the region has no usable bounds (child is then
+         *         tested on every lookup)
+         */
+        boolean bounds(S region, int[] out);
+
+        int x(P point);
+
+        int y(P point);
+    }
+
+    /**
+     * Keys for regions in Point2D space
+     *
+     * A 2D module returns this from Renderable.getChildHitKeys, e.g. with
+     * S::getPosition and the width/height of its FlexGroupLayout.Bounds.
+     *
+     * @param position parent-local position of a region
+     */
+    public static <S> Keys<Point2D, S> point2D(Function<S, Point2D> position, ToIntFunction<S> width,
+        ToIntFunction<S> height
+    ) {
+        return new Keys<>() {
+            @Override
+            public boolean bounds(S region, int[] out) {
+                Point2D p = position.apply(region);
+                if (p == null) return false;
+                out[0] = p.getX();
+                out[1] = p.getY();
+                out[2] = out[0] + width.applyAsInt(region);
+                out[3] = out[1] + height.applyAsInt(region);
+                return true;
+            }
+
+            @Override
+            public int x(Point2D point) {
+                return point.getX();
+            }
+
+            @Override
+            public int y(Point2D point) {
+                return point.getY();
+            }
+        };
+    }
+
+    /** Entries spanning more cells than this are tested on every lookup instead */
+    static final int MAX_CELLS_PER_ENTRY = 64;
+    static final int DEFAULT_CELL_SHIFT = 4;
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private static final class Entry<R> {
+        final R child;
+        int order;
+        // cell span, inclusive; unbounded entries live in the oversized list
+        int minCx, minCy, maxCx, maxCy;
+        boolean oversized;
+
+        Entry(R child) {
+            this.child = child;
+        }
+    }
+
+    private final Keys<P, S> keys;
+    private final int cellShift;
+    private final int[] scratch = new int[4];
+
+    private final IdentityHashMap<R, Entry<R>> entries = new IdentityHashMap<>();
+    private final List<Entry<R>> oversized = new ArrayList<>();
+
+    // Open-addressed cell table: cell key -> entries overlapping that cell.
+    // Cells are never deleted individually; empty lists stay until clear().
+    private long[] cellKeys;
+    private List<Entry<R>>[] cellLists;
+    private int cellCount = 0;
+
+    // Stats
+    private long lookups = 0;
+    private long candidatesTested = 0;
+
+    public ChildHitIndex(Keys<P, S> keys) {
+        this(keys, DEFAULT_CELL_SHIFT);
+    }
+
+    /**
+     * @param cellShift log2 of the cell edge length in region units
+     */
+    public ChildHitIndex(Keys<P, S> keys, int cellShift) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys cannot be null");
+        }
+        if (cellShift < 0 || cellShift > 30) {
+            throw new IllegalArgumentException("cellShift out of range: " + cellShift);
+        }
+        this.keys = keys;
+        this.cellShift = cellShift;
+        allocateCells(64);
+    }
+
+    // ===== MUTATION =====
+
+    /**
+     * Insert or move a child
+     *
+     * @param order position of the child in the parent's children list
+     */
+    public void put(R child, S region, int order) {
+        Entry<R> entry = entries.get(child);
+        if (entry == null) {
+            entry = new Entry<>(child);
+            entries.put(child, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.order = order;
+        link(entry, region);
+    }
+
+    /**
+     * Re-key a child after its region was committed. No-op for unknown children.
+     */
+    public void update(R child, S region) {
+        Entry<R> entry = entries.get(child);
+        if (entry == null) return;
+        unlink(entry);
+        link(entry, region);
+    }
+
+    public void remove(R child) {
+        Entry<R> entry = entries.remove(child);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Refresh list positions after add / remove / z-order sort
+     */
+    public void reorder(List<R> children) {
+        for (int i = 0; i < children.size(); i++) {
+            Entry<R> entry = entries.get(children.get(i));
+            if (entry != null) {
+                entry.order = i;
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        oversized.clear();
+        allocateCells(64);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // ===== QUERY =====
+
+    /**
+     * Topmost child at a parent-local point that passes accept
+     *
+     * @param localPoint point in parent-local coordinates
+     * @param accept final test (visibility, exact hitTest)
+     * @return child with the highest order accepted, or null
+     */
+    public R topmost(P localPoint, Predicate<R> accept) {
+        return topmost(keys.x(localPoint), keys.y(localPoint), accept);
+    }
+
+    public R topmost(int x, int y, Predicate<R> accept) {
+        lookups++;
+        Entry<R> best = null;
+
+        List<Entry<R>> bucket = findCell(cellKey(x >> cellShift, y >> cellShift));
+        if (bucket != null) {
+            best = pick(bucket, best, accept);
+        }
+        if (!oversized.isEmpty()) {
+            best = pick(oversized, best, accept);
+        }
+        return best != null ? best.child : null;
+    }
+
+    private Entry<R> pick(List<Entry<R>> candidates, Entry<R> best, Predicate<R> accept) {
+        for (int i = 0, n = candidates.size(); i < n; i++) {
+            Entry<R> e = candidates.get(i);
+            if (best != null && e.order <= best.order) continue;
+            candidatesTested++;
+            if (accept.test(e.child)) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    public long getLookupCount() {
+        return lookups;
+    }
+
+    /** Average accept() calls per lookup - 1.0 is ideal */
+    public double getAverageCandidates() {
+        return lookups > 0 ? (double) candidatesTested / lookups : 0.0;
+    }
+
+    // ===== CELLS =====
+
+    private void link(Entry<R> entry, S region) {
+        int[] b = scratch;
+        if (region == null || !keys.bounds(region, b)) {
+            entry.oversized = true;
+            oversized.add(entry);
+            return;
+        }
+        entry.oversized = false;
+        if (b[2] <= b[0] || b[3] <= b[1]) {
+            // Zero area can't contain a point - keep the entry, link no cells
+            entry.minCx = 0;
+            entry.maxCx = -1;
+            entry.minCy = 0;
+            entry.maxCy = -1;
+            return;
+        }
+        int minCx = b[0] >> cellShift;
+        int minCy = b[1] >> cellShift;
+        int maxCx = (b[2] - 1) >> cellShift;
+        int maxCy = (b[3] - 1) >> cellShift;
+
+        long span = (long) (maxCx - minCx + 1) * (maxCy - minCy + 1);
+        if (span > MAX_CELLS_PER_ENTRY) {
+            entry.oversized = true;
+            oversized.add(entry);
+            return;
+        }
+
+        entry.minCx = minCx;
+        entry.minCy = minCy;
+        entry.maxCx = maxCx;
+        entry.maxCy = maxCy;
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                obtainCell(cellKey(cx, cy)).add(entry);
+            }
+        }
+    }
+
+    private void unlink(Entry<R> entry) {
+        if (entry.oversized) {
+            oversized.remove(entry);
+            return;
+        }
+        for (int cy = entry.minCy; cy <= entry.maxCy; cy++) {
+            for (int cx = entry.minCx; cx <= entry.maxCx; cx++) {
+                List<Entry<R>> bucket = findCell(cellKey(cx, cy));
+                if (bucket != null) {
+                    bucket.remove(entry);
+                }
+            }
+        }
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocateCells(int capacity) {
+        cellKeys = new long[capacity];
+        Arrays.fill(cellKeys, EMPTY_KEY);
+        cellLists = (List<Entry<R>>[]) new List[capacity];
+        cellCount = 0;
+    }
+
+    private List<Entry<R>> findCell(long key) {
+        int mask = cellKeys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            long k = cellKeys[i];
+            if (k == key) return cellLists[i];
+            if (k == EMPTY_KEY) return null;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private List<Entry<R>> obtainCell(long key) {
+        if ((cellCount + 1) * 2 > cellKeys.length) {
+            growCells();
+        }
+        int mask = cellKeys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            long k = cellKeys[i];
+            if (k == key) return cellLists[i];
+            if (k == EMPTY_KEY) {
+                cellKeys[i] = key;
+                List<Entry<R>> list = new ArrayList<>(4);
+                cellLists[i] = list;
+                cellCount++;
+                return list;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        List<Entry<R>>[] oldLists = cellLists;
+        allocateCells(oldKeys.length << 1);
+        int mask = cellKeys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key == EMPTY_KEY || oldLists[j].isEmpty()) continue;
+            int i = hash(key) & mask;
+            while (cellKeys[i] != EMPTY_KEY) {
+                i = (i + 1) & mask;
+            }
+            cellKeys[i] = key;
+            cellLists[i] = oldLists[j];
+            cellCount++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChildHitIndex[children=%d, cells=%d, oversized=%d, avgCandidates=%.2f]",
+            entries.size(), cellCount, oversized.size(), getAverageCandidates());
+    }
+}
@@ -0,0 +1,194 @@
+package io.netnotes.engine.ui.renderer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import io.netnotes.engine.ui.Point2D;
+
+/**
+ * ChildHitIndexBench - hit-test latency vs child count
+ *
+ * Lays children out as a dashboard of tiles (plus a few full-width overlays
+ * that land in the oversized list) and compares the reverse linear walk of
+ * Renderable.hitTestChildren with ChildHitIndex.topmost for random pointer
+ * positions. Both sides run the same exact containment test per candidate.
+ *
+ * The churn pass then replays the index upkeep Renderable does (build past
+ * HIT_INDEX_THRESHOLD, add, remove + reorder, z-order swaps, region commits)
+ * and checks every lookup against the linear walk.
+ *
+ * usage: java -cp .. io.netnotes.engine.ui.renderer.ChildHitIndexBench [lookups]
+ */
+public class ChildHitIndexBench {
+
+    private static final int[] SIZES = { 16, 64, 256, 1_024, 4_096 };
+    private static final int TILE_W = 24;
+    private static final int TILE_H = 6;
+    private static final int OVERLAYS = 2;
+    private static final int WARMUP_ROUNDS = 3;
+
+    /** Stand-in for a child renderable: x, y, w, h in parent-local space */
+    static final class Tile {
+        int x, y;
+        final int w, h;
+        boolean visible = true;
+
+        Tile(int x, int y, int w, int h) {
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+        }
+
+        boolean contains(int px, int py) {
+            return px >= x && py >= y && px < x + w && py < y + h;
+        }
+    }
+
+    private static final ChildHitIndex.Keys<Point2D, Tile> KEYS =
+        ChildHitIndex.point2D(t -> new Point2D(t.x, t.y), t -> t.w, t -> t.h);
+
+    static volatile int sink;
+
+    public static void main(String... args) {
+        int lookups = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        System.out.format("%-8s | %14s | %14s | %8s | %10s%n",
+            "children", "linear (ns/op)", "index (ns/op)", "speedup", "candidates");
+        for (int size : SIZES) {
+            run(size, lookups);
+        }
+        churn(20_000);
+    }
+
+    private static void run(int size, int lookups) {
+        int cols = (int) Math.ceil(Math.sqrt(size));
+        List<Tile> children = new ArrayList<>(size + OVERLAYS);
+        for (int i = 0; i < size; i++) {
+            children.add(new Tile((i % cols) * TILE_W, (i / cols) * TILE_H, TILE_W - 1, TILE_H - 1));
+        }
+        int width = cols * TILE_W;
+        int height = ((size + cols - 1) / cols) * TILE_H;
+        for (int i = 0; i < OVERLAYS; i++) {
+            Tile overlay = new Tile(0, i * TILE_H, width, TILE_H);
+            overlay.visible = false; // hidden popups still sit in the child list
+            children.add(overlay);
+        }
+
+        ChildHitIndex<Point2D, Tile, Tile> index = new ChildHitIndex<>(KEYS);
+        for (int i = 0; i < children.size(); i++) {
+            index.put(children.get(i), children.get(i), i);
+        }
+
+        Random random = new Random(size);
+        Point2D[] points = new Point2D[4_096];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point2D(random.nextInt(width), random.nextInt(height));
+        }
+
+        // Same answer from both paths before timing anything
+        for (Point2D p : points) {
+            check(children, index, p);
+        }
+
+        double linearNs = time(lookups, points, p -> linear(children, p) != null ? 1 : 0);
+        double indexNs = time(lookups, points, p -> indexed(index, p) != null ? 1 : 0);
+
+        System.out.format("%-8d | %14.1f | %14.1f | %7.1fx | %10.2f%n",
+            size, linearNs, indexNs, indexNs > 0 ? linearNs / indexNs : 0.0, index.getAverageCandidates());
+    }
+
+    /**
+     * Random children list mutations with the index kept in sync the way
+     * Renderable keeps its own (addChild, removeChild, the z-order sort and
+     * onChildRegionCommitted), checking lookups after every step
+     */
+    private static void churn(int ops) {
+        Random random = new Random(7);
+        int extent = 32 * TILE_W;
+        List<Tile> children = new ArrayList<>();
+        ChildHitIndex<Point2D, Tile, Tile> index = null;
+        long checked = 0;
+
+        for (int op = 0; op < ops; op++) {
+            int action = random.nextInt(10);
+            if (children.size() < 8 || action < 4 && children.size() < 512) {
+                Tile tile = new Tile(random.nextInt(extent), random.nextInt(extent),
+                    1 + random.nextInt(TILE_W * 2), 1 + random.nextInt(TILE_H * 2));
+                tile.visible = random.nextInt(8) != 0;
+                children.add(tile);
+                if (index != null) index.put(tile, tile, children.size() - 1);
+            } else if (action < 6) {
+                Tile tile = children.remove(random.nextInt(children.size()));
+                if (index != null) {
+                    index.remove(tile);
+                    index.reorder(children);
+                }
+            } else if (action < 8) {
+                Tile tile = children.get(random.nextInt(children.size()));
+                tile.x = random.nextInt(extent);
+                tile.y = random.nextInt(extent);
+                if (index != null) index.update(tile, tile);
+            } else {
+                Collections.swap(children, random.nextInt(children.size()), random.nextInt(children.size()));
+                if (index != null) index.reorder(children);
+            }
+
+            // Renderable.getChildHitIndex: built past the threshold, dropped below it
+            if (children.size() <= Renderable.HIT_INDEX_THRESHOLD) {
+                index = null;
+            } else if (index == null) {
+                index = new ChildHitIndex<>(KEYS);
+                for (int i = 0; i < children.size(); i++) {
+                    index.put(children.get(i), children.get(i), i);
+                }
+            }
+
+            if (index != null) {
+                for (int i = 0; i < 16; i++) {
+                    check(children, index, new Point2D(random.nextInt(extent), random.nextInt(extent)));
+                    checked++;
+                }
+            }
+        }
+        System.out.format("%nchurn: %d ops, %d lookups match the linear walk%n", ops, checked);
+    }
+
+    private static void check(List<Tile> children, ChildHitIndex<Point2D, Tile, Tile> index, Point2D p) {
+        if (linear(children, p) != indexed(index, p)) {
+            throw new IllegalStateException("index disagrees with linear walk at " + p.getX() + "," + p.getY());
+        }
+    }
+
+    private static Tile linear(List<Tile> children, Point2D p) {
+        for (int i = children.size() - 1; i >= 0; i--) {
+            Tile child = children.get(i);
+            if (!child.visible) continue;
+            if (child.contains(p.getX(), p.getY())) return child;
+        }
+        return null;
+    }
+
+    private static Tile indexed(ChildHitIndex<Point2D, Tile, Tile> index, Point2D p) {
+        return index.topmost(p, child -> child.visible && child.contains(p.getX(), p.getY()));
+    }
+
+    interface Op {
+        int run(Point2D point);
+    }
+
+    private static double time(int lookups, Point2D[] points, Op op) {
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            for (int i = 0; i < lookups; i++) {
+                sink += op.run(points[i & (points.length - 1)]);
+            }
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sink += op.run(points[i & (points.length - 1)]);
+        }
+        return (System.nanoTime() - start) / (double) lookups;
+    }
+}
@@ -1,7 +1,6 @@
 package io.netnotes.engine.ui.renderer;
 
 import java.io.IOException;
-import java.io.PipedInputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -22,6 +21,7 @@ import io.netnotes.engine.io.daemon.ClientSession;
 import io.netnotes.engine.io.daemon.IODaemon;
 import io.netnotes.engine.io.input.Keyboard.KeyCodeBytes;
 import io.netnotes.engine.io.input.events.EventBytes;
+import io.netnotes.engine.io.input.events.EventCoalescer;
 import io.netnotes.engine.io.input.events.EventFilter;
 import io.netnotes.engine.io.input.events.EventFilterList;
 import io.netnotes.engine.io.input.events.EventFilterList.FilterMode;
@@ -155,6 +155,8 @@ public abstract class ContainerHandle<
     private final Map<String, Long> diagnosticLogTimes = new HashMap<>();
     // Event filtering
     private EventFilterList filterList;
+    // Move/scroll coalescing for stream and device events while the UI executor is busy
+    private final EventCoalescer eventCoalescer;
 
     public static class ContainerPredicate implements Predicate<RoutedEvent>{
         @Override
@@ -176,6 +178,7 @@ public abstract class ContainerHandle<
 
     protected final RP regionPool;
 
+    protected final DamageAccumulator.Mode damageMode;
     protected final DA damageAccumulator;;
     
 
@@ -261,7 +264,11 @@ public abstract class ContainerHandle<
         this.renderingServicePath = builder.renderingServicePath;
         this.ioDaemonPath = builder.ioDaemonPath;
         this.filterList = builder.filterList == null ? new EventFilterList() : builder.filterList;
+        this.eventCoalescer = new EventCoalescer("ContainerHandle:" + builder.name, this::dispatchEvent,
+            uiExecutor::runLater);
+        this.eventCoalescer.setPolicy(builder.eventCoalescing);
         this.regionPool = builder.regionPool == null ? createRegionPool() : builder.regionPool;
+        this.damageMode = builder.damageMode;
         this.damageAccumulator = createDamageAcculator(regionPool);
         this.containerPredicate = createContainerPredicate();
         this.eventsFactory = createEventsFactory(regionPool);
@@ -295,6 +302,11 @@ public abstract class ContainerHandle<
 
     protected abstract Predicate<RoutedEvent> createContainerPredicate();
 
+    /**
+     * Called from the constructor, after regionPool and damageMode are set.
+     * Return a TiledDamageAccumulator when damageMode is Mode.TILED and the
+     * region type can supply ChildHitIndex.Keys, a DamageAccumulator otherwise.
+     */
     protected abstract DA createDamageAcculator(RP pool);
 
     public void addFloating(R element, LCB callback, R anchor) {
@@ -668,6 +680,8 @@ public abstract class ContainerHandle<
         public CCFG containerConfig = createContainerConfig();
         public final ContextPath renderingServicePath;
         public EventFilterList filterList = null;
+        public EventCoalescer.Policy eventCoalescing = EventCoalescer.Policy.NONE;
+        public DamageAccumulator.Mode damageMode = DamageAccumulator.Mode.LIST;
         public ContextPath ioDaemonPath = null;
         public RP regionPool = null;
 
@@ -733,6 +747,28 @@ public abstract class ContainerHandle<
             filterList.addPredicate(filter);
             return self();
         }
+
+        /**
+         * Coalesce mouse moves / scrolls from the event stream and device
+         * dispatchers while the UI executor is behind
+         * 
+         * @param policy EventCoalescer.Policy.NONE (default) dispatches every event
+         */
+        public BLD eventCoalescing(EventCoalescer.Policy policy) {
+            this.eventCoalescing = policy;
+            return self();
+        }
+
+        /**
+         * Damage accumulator handed to createDamageAcculator
+         * 
+         * @param mode DamageAccumulator.Mode.LIST (default) or TILED for
+         *             containers with many scattered invalidations
+         */
+        public BLD damageMode(DamageAccumulator.Mode mode) {
+            this.damageMode = mode == null ? DamageAccumulator.Mode.LIST : mode;
+            return self();
+        }
         
         public abstract H build();
         
@@ -1029,8 +1065,7 @@ public abstract class ContainerHandle<
                 Log.logMsg("[ContainerHandle] Event stream read thread started", LOG_LEVEL);
                 try (
                     NoteBytesReader reader = new NoteBytesReader(
-                        new PipedInputStream(channel.getChannelStream(), 
-                            StreamUtils.PIPE_BUFFER_SIZE)
+                        channel.getInputStream()
                     );
                 ) {
                     channel.getReadyFuture().complete(null);
@@ -1042,7 +1077,7 @@ public abstract class ContainerHandle<
                     while (nextBytes != null && isAlive()) {
                         if (nextBytes.getType() == NoteBytesMetaData.NOTE_BYTES_OBJECT_TYPE) {
                             RoutedEvent event = createRoutedEvent(nextBytes);
-                            dispatchEvent(event);
+                            eventCoalescer.submit(event);
                         }
                         nextBytes = reader.nextNoteBytes();
                     }
@@ -1066,9 +1101,7 @@ public abstract class ContainerHandle<
     private ArrayList<EventDispatcher> dispatchers = new ArrayList<>();
 
     public CompletableFuture<EventDispatcher> addEventDispatcher(){
-        EventDispatcher dispatcher = (event)->{
-            dispatchEvent(event);
-        };
+        EventDispatcher dispatcher = eventCoalescer::submit;
         return uiExecutor.submit(()->{
             dispatchers.add(dispatcher);
             return dispatcher;
@@ -1127,6 +1160,17 @@ public abstract class ContainerHandle<
         });
     }
 
+    public void setEventCoalescing(EventCoalescer.Policy policy) {
+        eventCoalescer.setPolicy(policy);
+    }
+
+    /**
+     * Coalescing stage for stream/device events (policy, received/dispatched/merged counts)
+     */
+    public EventCoalescer getEventCoalescer() {
+        return eventCoalescer;
+    }
+
     public CompletableFuture<Void> setContainerEventPredicate(Predicate<RoutedEvent> containerFilter){
         return uiExecutor.submit(()->{
             this.containerPredicate = containerFilter;
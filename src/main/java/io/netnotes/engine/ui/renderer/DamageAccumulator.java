@@ -7,16 +7,35 @@ import io.netnotes.engine.ui.SpatialPoint;
 import io.netnotes.engine.ui.SpatialRegion;
 import io.netnotes.engine.ui.SpatialRegionPool;
 
+/**
+ * DamageAccumulator - collects absolute damage regions between renders
+ *
+ * Each add() is compared against every accumulated region and merged on
+ * overlap, so N reports cost O(N^2); past collapseThreshold the drain
+ * collapses everything into one union. Fine for a handful of reports per
+ * frame. Containers with many small, scattered invalidations should use
+ * TiledDamageAccumulator (Mode.TILED) instead.
+ */
 public class DamageAccumulator<
     P extends SpatialPoint<P>,
     S extends SpatialRegion<P,S>
 >  {
-    private static final int COLLAPSE_THRESHOLD = 32; 
+    protected static final int COLLAPSE_THRESHOLD = 32; 
+
+    /**
+     * Accumulator selection for ContainerHandle.Builder.damageMode
+     */
+    public enum Mode {
+        /** Pairwise merge list (this class) */
+        LIST,
+        /** Tile-indexed merge with area-cost heuristics (TiledDamageAccumulator) */
+        TILED
+    }
 
     private int collapseThreshold;
     
     private final List<S> regions = new ArrayList<>(4);
-    private final SpatialRegionPool<S> pool;
+    protected final SpatialRegionPool<S> pool;
     
     public DamageAccumulator(SpatialRegionPool<S> pool){
         this(pool, COLLAPSE_THRESHOLD);
@@ -51,6 +51,17 @@ public abstract class LayoutNode<
      */
     boolean contentMeasured = false;
 
+    /**
+     * Inputs this node was last laid out with. A node pulled into a pass only
+     * because an ancestor was dirty is skipped when these still match - its
+     * committed region is already the output the callback would produce.
+     */
+    private S memoParentRegion = null;
+    private S memoContentBounds = null;
+    private boolean memoParentHidden = false;
+    private boolean memoParentInvisible = false;
+    private boolean memoValid = false;
+
     private final List<L> children    = new ArrayList<>();
     private final List<G> ownedGroups = new ArrayList<>();
 
@@ -81,11 +92,13 @@ public abstract class LayoutNode<
     public void addChild(L child) {
         children.add(child);
         child.parent = self();
+        child.invalidateLayoutMemo();
     }
 
     public void removeChild(L child) {
         children.remove(child);
         child.parent = null;
+        child.invalidateLayoutMemo();
     }
 
     // ── Owned group management ────────────────────────────────────────────────
@@ -131,6 +144,7 @@ public abstract class LayoutNode<
      */
     public void setLayoutCallback(LCB layoutCallback) {
         this.layoutCallback  = layoutCallback;
+        invalidateLayoutMemo();
     }
 
     public LCB getLayoutCallback()  { return layoutCallback; }
@@ -308,6 +322,81 @@ public abstract class LayoutNode<
         inFlightContext = null;
     }
 
+    // ── Layout memo ───────────────────────────────────────────────────────────
+
+    /**
+     * True if the last committed layout was produced from exactly these inputs.
+     *
+     * @param parentRegion    parent's committed region (position + parent absolute)
+     * @param contentBounds   this pass's content measurement, null if none
+     */
+    public boolean matchesLayoutMemo(
+        S parentRegion,
+        S contentBounds,
+        boolean parentHidden,
+        boolean parentInvisible
+    ) {
+        if (!memoValid) return false;
+        if (memoParentHidden != parentHidden || memoParentInvisible != parentInvisible) return false;
+        if (parentRegion == null || !memoParentRegion.equals(parentRegion)
+            || !memoParentRegion.absEquals(parentRegion)) {
+            return false;
+        }
+        if (contentBounds == null || memoContentBounds == null) {
+            return contentBounds == memoContentBounds;
+        }
+        return memoContentBounds.equals(contentBounds);
+    }
+
+    /**
+     * Remember the inputs of a layout that was just committed. Copies into
+     * regions this node keeps between passes, so the arguments stay owned by
+     * the caller.
+     */
+    public void recordLayoutMemo(
+        S parentRegion,
+        S contentBounds,
+        boolean parentHidden,
+        boolean parentInvisible
+    ) {
+        if (parentRegion == null) {
+            invalidateLayoutMemo();
+            return;
+        }
+        memoParentRegion = copyInto(memoParentRegion, parentRegion);
+        if (contentBounds != null) {
+            memoContentBounds = copyInto(memoContentBounds, contentBounds);
+        } else if (memoContentBounds != null) {
+            renderable.getRegionPool().recycle(memoContentBounds);
+            memoContentBounds = null;
+        }
+        memoParentHidden = parentHidden;
+        memoParentInvisible = parentInvisible;
+        memoValid = true;
+    }
+
+    public void invalidateLayoutMemo() {
+        if (memoParentRegion != null) {
+            renderable.getRegionPool().recycle(memoParentRegion);
+            memoParentRegion = null;
+        }
+        if (memoContentBounds != null) {
+            renderable.getRegionPool().recycle(memoContentBounds);
+            memoContentBounds = null;
+        }
+        memoValid = false;
+    }
+
+    public boolean hasLayoutMemo() { return memoValid; }
+
+    private S copyInto(S target, S source) {
+        if (target == null) {
+            target = renderable.getRegionPool().obtain();
+        }
+        target.copyFrom(source);
+        return target;
+    }
+
     // ── Abstract pool methods ─────────────────────────────────────────────────
 
     protected abstract LD obtainLayoutData();
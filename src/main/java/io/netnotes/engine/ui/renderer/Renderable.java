@@ -103,6 +103,12 @@ public abstract class Renderable<
     protected final List<R> children = new ArrayList<>();
     protected int zOrder = 0;
 
+    // ===== HIT TESTING =====
+    // Children above this count are hit tested through a ChildHitIndex
+    // (when getChildHitKeys() is provided). Built lazily on first hit test.
+    public static final int HIT_INDEX_THRESHOLD = 32;
+    private ChildHitIndex<P,S,R> childHitIndex = null;
+
     
     // ===== LAYOUT - DIMENSION AGNOSTIC =====
     protected S region = null;
@@ -320,6 +326,8 @@ public abstract class Renderable<
         child.setDamageAccumulator(this.damageAccumulator);
         childrenDirty();
 
+        if (childHitIndex != null) childHitIndex.put(child, child.region, children.size() - 1);
+
         if (layoutCallback  != null) childLayoutCallbacks.put(child, layoutCallback);
 
         child.stateMachine.addState(RenderableStates.STATE_ATTACHED);
@@ -449,6 +457,11 @@ public abstract class Renderable<
         boolean removed = children.remove(child);
         if (!removed) return;
         childrenDirty();
+
+        if (childHitIndex != null) {
+            childHitIndex.remove(child);
+            childHitIndex.reorder(children);
+        }
         
         // Damage the region where child was
         if (child.region != null && !child.region.isEmpty()) {
@@ -496,6 +509,7 @@ public abstract class Renderable<
 
         children.clear();
         childrenDirty();
+        childHitIndex = null;
 
         // Build one union damage rect from all removed children.
         // child.region is already in parent-local coords — no transform needed.
@@ -568,6 +582,7 @@ public abstract class Renderable<
     private void sortChildrenInternal() {
         children.sort(Comparator.comparingInt(Renderable::getZOrder));
         childrenDirty();
+        if (childHitIndex != null) childHitIndex.reorder(children);
     }
     
     // ===== SPATIAL OPERATIONS =====
@@ -601,6 +616,14 @@ public abstract class Renderable<
     
     public R hitTestChildren(P point) {
         assertUiThread();
+        ChildHitIndex<P,S,R> index = region != null ? getChildHitIndex() : null;
+        if (index != null) {
+            P localPoint = point.subtract(region.getAbsolutePosition());
+            R hit = index.topmost(localPoint, child -> child.isVisible() && child.hitTest(point));
+            if (hit == null) return null;
+            R deeperHit = hit.hitTestChildren(point);
+            return deeperHit != null ? deeperHit : hit;
+        }
         for (int i = children.size() - 1; i >= 0; i--) {
             R child = children.get(i);
             if (!child.isVisible()) continue;
@@ -613,6 +636,45 @@ public abstract class Renderable<
         return null;
     }
     
+    /**
+     * Grid keys for indexing this renderable's children during hit testing.
+     * Override in a concrete region type (e.g. 2D rectangles) to enable the
+     * index, ChildHitIndex.point2D for Point2D regions; the default keeps the
+     * linear reverse z-order walk.
+     */
+    protected ChildHitIndex.Keys<P,S> getChildHitKeys() {
+        return null;
+    }
+
+    private ChildHitIndex<P,S,R> getChildHitIndex() {
+        if (childHitIndex != null) {
+            if (children.size() > HIT_INDEX_THRESHOLD) return childHitIndex;
+            // Shrunk below threshold - linear walk is cheaper than upkeep
+            childHitIndex = null;
+            return null;
+        }
+        if (children.size() <= HIT_INDEX_THRESHOLD) return null;
+
+        ChildHitIndex.Keys<P,S> keys = getChildHitKeys();
+        if (keys == null) return null;
+
+        ChildHitIndex<P,S,R> index = new ChildHitIndex<>(keys);
+        for (int i = 0; i < children.size(); i++) {
+            R child = children.get(i);
+            index.put(child, child.region, i);
+        }
+        childHitIndex = index;
+        return index;
+    }
+
+    /**
+     * Called when a child's region is committed by the layout pass
+     * (RenderableLayoutManager.applyNode -> applyLayoutData)
+     */
+    void onChildRegionCommitted(R child) {
+        if (childHitIndex != null) childHitIndex.update(child, child.region);
+    }
+
     // ===== DAMAGE TRACKING =====
     protected abstract void onInvalidateRequested(R renderable, S damage);
     protected abstract void onPendingInvalidateSet(R renderable, String text);
@@ -1954,6 +2016,7 @@ public abstract class Renderable<
             
             region.copyFrom(merged);
             clearRequestedRegion();
+            if (parent != null) parent.onChildRegionCommitted(self());
 
             S unionRegionChange = regionPool.obtain();
             unionRegionChange.copyFrom(oldRegion);
@@ -117,6 +117,18 @@ public abstract class RenderableLayoutManager<
     private List<L> currentPassTraversal = null;
     // Index of the next node to process in currentPassTraversal.
     private int currentPassCursor = 0;
+    // Nodes dirtied directly (or injected) this pass - never served from memo.
+    private Set<L> currentPassExplicit = null;
+    // Parents of explicit nodes - their children may read a changed sibling.
+    private Set<L> currentPassTouchedParents = null;
+
+    // ── Incremental layout ────────────────────────────────────────────────────
+
+    private boolean incrementalLayoutEnabled = true;
+    private int  lastPassVisited     = 0;
+    private int  lastPassRecomputed  = 0;
+    private long totalVisited        = 0;
+    private long totalRecomputed     = 0;
 
     // ── Runtime state ─────────────────────────────────────────────────────────
 
@@ -315,6 +327,8 @@ public abstract class RenderableLayoutManager<
         if (pendingFocusRequest == renderable) pendingFocusRequest = null;
         if (renderRequestedBy == renderable) renderRequestedBy = null;
 
+        node.invalidateLayoutMemo();
+
         G memberGroup = node.getMemberGroup();
         if (memberGroup != null) {
             node.setMemberGroup(null);
@@ -651,6 +665,8 @@ public abstract class RenderableLayoutManager<
         } finally {
             layoutExecuting  = false;
             currentPassNodes = null;          // pass is over
+            currentPassExplicit = null;
+            currentPassTouchedParents = null;
             currentPassTraversal = null;
             currentPassCursor = 0;
         }
@@ -662,8 +678,8 @@ public abstract class RenderableLayoutManager<
 
         if (dirtyCount > 0) {
             logSummaryDiagnostic(String.format(
-                "[LayoutManager:%s] pass end %.2fms (nodes=%d, nextDebounce=%dms)",
-                containerName, ms, dirtyCount, currentDebounceMs));
+                "[LayoutManager:%s] pass end %.2fms (nodes=%d, visited=%d, recomputed=%d, nextDebounce=%dms)",
+                containerName, ms, dirtyCount, lastPassVisited, lastPassRecomputed, currentDebounceMs));
         }
 
         if (!dirtyLayoutNodes.isEmpty() || !dirtyFloatingNodes.isEmpty()) {
@@ -681,6 +697,7 @@ public abstract class RenderableLayoutManager<
         for (L node : allDirty) {
             node.clear();
             node.setInFlightContext(null);
+            node.invalidateLayoutMemo();
         }
         for (R r : committingNodes) {                                                                                      
           r.advanceRenderPhase(RenderPhase.IDLE);                                                                        
@@ -733,6 +750,15 @@ public abstract class RenderableLayoutManager<
         Set<L> allDirty = new LinkedHashSet<>(dirtyNodes);
         expandDescendantsInto(allDirty);
 
+        currentPassExplicit = new HashSet<>(dirtyNodes);
+        currentPassTouchedParents = new HashSet<>();
+        for (L node : dirtyNodes) {
+            L parent = node.getParent();
+            if (parent != null) currentPassTouchedParents.add(parent);
+        }
+        lastPassVisited = 0;
+        lastPassRecomputed = 0;
+
 
         List<L> sorted = depthSort(new ArrayList<>(allDirty));
 
@@ -774,10 +800,26 @@ public abstract class RenderableLayoutManager<
             node.setInFlightContext(context);
         }
         context.initialize(node);
+        lastPassVisited++;
+        totalVisited++;
+
+        if (canReuseCommittedLayout(node, context)) {
+            // Inputs unchanged since the last commit - the renderable already
+            // holds what the callback would produce. Children are still visited
+            // and make the same check against this (unchanged) region.
+            node.clear();
+            markNodeCommitted(node);
+            context.reset();
+            recycleLayoutContext(context);
+            return;
+        }
+        lastPassRecomputed++;
+        totalRecomputed++;
 
         node.calculateLayout(context);
         applyNode(node); //calls node.clear
         markNodeCommitted(node);
+        recordLayoutMemo(node, context);
 
         // calculatedLayout is null after this point. fireOwnedGroups
         // reads committed renderable state, not calculatedLayout.
@@ -788,6 +830,61 @@ public abstract class RenderableLayoutManager<
         node.setInFlightContext(null);
     }
 
+    /**
+     * A node may be skipped only when it entered the pass through
+     * expandDescendantsInto and nothing it reads has changed: parent's
+     * committed region, parent's effective visibility, its own content
+     * measurement. Group owners / members and floating nodes always run -
+     * their geometry is produced jointly or from an anchor.
+     */
+    private boolean canReuseCommittedLayout(L node, LC context) {
+        if (!incrementalLayoutEnabled || !node.hasLayoutMemo()) return false;
+        if (!isLayoutMemoEligible(node)) return false;
+        if (currentPassExplicit == null || currentPassExplicit.contains(node)) return false;
+        if (node.getCalculatedLayout() != null) return false;
+        L parent = node.getParent();
+        if (currentPassTouchedParents.contains(parent)) return false;
+        if (parent.getCalculatedLayout() != null) return false;
+        if (node.getRenderable().hasRequestedRegion()) return false;
+
+        R parentRenderable = parent.getRenderable();
+        S parentRegion = parentRenderable.getRegion();
+        try {
+            return node.matchesLayoutMemo(
+                parentRegion,
+                context.getMeasuredContentBounds(),
+                context.getParentEffectivelyHidden(),
+                context.getParentEffectivelyInvisible());
+        } finally {
+            parentRenderable.getRegionPool().recycle(parentRegion);
+        }
+    }
+
+    private void recordLayoutMemo(L node, LC context) {
+        if (!incrementalLayoutEnabled || !isLayoutMemoEligible(node)) {
+            node.invalidateLayoutMemo();
+            return;
+        }
+        R parentRenderable = node.getParent().getRenderable();
+        S parentRegion = parentRenderable.getRegion();
+        try {
+            node.recordLayoutMemo(
+                parentRegion,
+                context.getMeasuredContentBounds(),
+                context.getParentEffectivelyHidden(),
+                context.getParentEffectivelyInvisible());
+        } finally {
+            parentRenderable.getRegionPool().recycle(parentRegion);
+        }
+    }
+
+    private boolean isLayoutMemoEligible(L node) {
+        return node.getParent() != null
+            && !node.isFloating()
+            && !node.isGroupMember()
+            && node.getOwnedGroups().isEmpty();
+    }
+
     private void markNodeCommitted(L node) {
         Set<L> pass = currentPassNodes;
         if (pass != null) {
@@ -969,6 +1066,9 @@ public abstract class RenderableLayoutManager<
         if (passNodes.add(node)) {
             injected.add(node);
         }
+        if (currentPassExplicit != null) {
+            currentPassExplicit.add(node);
+        }
         for (L child : node.getChildren()) {
             collectSubtreeForCurrentPass(child, injected, passNodes);
         }
@@ -1388,9 +1488,45 @@ public abstract class RenderableLayoutManager<
     public String getDiagnostics() {
         return String.format(
             "LayoutManager[container=%s, renderables=%d, groups=%d, dirtyLayout=%d, " +
-            "debounce=%dms, diagnosticMode=%s]",
+            "debounce=%dms, lastPass=%d/%d recomputed, diagnosticMode=%s]",
             containerName, renderableRegistry.size(), groupRegistry.size(),
-            dirtyLayoutNodes.size(), currentDebounceMs, diagnosticMode);
+            dirtyLayoutNodes.size(), currentDebounceMs,
+            lastPassRecomputed, lastPassVisited, diagnosticMode);
+    }
+
+    // =========================================================================
+    // INCREMENTAL LAYOUT
+    // =========================================================================
+
+    /**
+     * Toggle skipping of descendants whose layout inputs are unchanged.
+     * Disabling drops every memo, so re-enabling starts from full passes.
+     */
+    public void setIncrementalLayoutEnabled(boolean enabled) {
+        uiExecutor.runRentrant(() -> {
+            this.incrementalLayoutEnabled = enabled;
+            if (!enabled) {
+                for (L node : renderableRegistry.values()) node.invalidateLayoutMemo();
+            }
+        });
+    }
+
+    public boolean isIncrementalLayoutEnabled() { return incrementalLayoutEnabled; }
+
+    /** Nodes reached by the traversal in the last pass (dirty + expanded + injected) */
+    public int getLastPassVisited()     { return lastPassVisited; }
+
+    /** Nodes whose layout callback actually ran in the last pass */
+    public int getLastPassRecomputed()  { return lastPassRecomputed; }
+
+    public long getTotalVisited()       { return totalVisited; }
+    public long getTotalRecomputed()    { return totalRecomputed; }
+
+    public void resetLayoutCounters() {
+        lastPassVisited = 0;
+        lastPassRecomputed = 0;
+        totalVisited = 0;
+        totalRecomputed = 0;
     }
 
     // =========================================================================
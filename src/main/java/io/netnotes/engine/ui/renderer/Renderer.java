@@ -76,7 +76,7 @@ public abstract class Renderer <
     protected UIReplyExec replyExec;
     
     protected final SerializedVirtualExecutor rendererExecutor = 
-        new SerializedVirtualExecutor();
+        new SerializedVirtualExecutor("Renderer");
 
     /**
      * Constructor
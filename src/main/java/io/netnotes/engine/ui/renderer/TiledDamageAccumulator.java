@@ -0,0 +1,616 @@
+package io.netnotes.engine.ui.renderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.netnotes.engine.ui.SpatialPoint;
+import io.netnotes.engine.ui.SpatialRegion;
+import io.netnotes.engine.ui.SpatialRegionPool;
+
+/**
+ * TiledDamageAccumulator - dirty rectangles indexed on a uniform tile grid
+ *
+ * DamageAccumulator compares every new region with every accumulated one.
+ * Here each accumulated rectangle is linked into the tiles it overlaps, so
+ * add() only looks at rectangles sharing a tile with the new one (plus the
+ * few oversized rectangles) - near-constant per report regardless of how
+ * many regions are pending.
+ *
+ * MERGE HEURISTIC:
+ * Painting two rectangles separately costs areaA + areaB + rectCost (the
+ * per-rectangle overhead of a draw command, in area units). Painting their
+ * bounding union costs areaUnion. A candidate is merged when the union is
+ * no more expensive; among several, the one with the biggest saving wins.
+ * Overlapping damage therefore merges when the overlap is substantial and
+ * stays separate when two thin strips merely clip a corner.
+ *
+ * DRAIN:
+ * Past collapseThreshold rectangles, drainRegions() coarsens instead of
+ * collapsing to one union: rectangles whose centers share a tile are merged,
+ * doubling the tile edge each round until the count fits. Over-repaint stays
+ * local to each neighbourhood.
+ *
+ * COORDINATES:
+ * Bounds come from ChildHitIndex.Keys (axes 0 and 1, max exclusive), so a
+ * concrete 2D container can hand the same keys to both indexes. Regions
+ * without usable bounds are kept as-is and never merged.
+ *
+ * THREADING: ui thread only, same as DamageAccumulator.
+ *
+ * @param <P> point type
+ * @param <S> region type
+ */
+public class TiledDamageAccumulator<
+    P extends SpatialPoint<P>,
+    S extends SpatialRegion<P,S>
+> extends DamageAccumulator<P,S> {
+
+    public static final int DEFAULT_CELL_SHIFT = 5;
+    public static final long DEFAULT_RECT_COST = 64;
+
+    /** Rectangles spanning more tiles than this are compared on every add */
+    static final int MAX_CELLS_PER_ENTRY = 64;
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private static final class Entry<S> {
+        S region;
+        int minX, minY, maxX, maxY;
+        // tile span, inclusive
+        int minCx, minCy, maxCx, maxCy;
+        boolean oversized;
+        int index;
+        int stamp;
+
+        long area() {
+            return (long) (maxX - minX) * (maxY - minY);
+        }
+
+        boolean contains(Entry<S> o) {
+            return minX <= o.minX && minY <= o.minY && maxX >= o.maxX && maxY >= o.maxY;
+        }
+
+        void clear() {
+            region = null;
+            oversized = false;
+        }
+    }
+
+    private final ChildHitIndex.Keys<P,S> keys;
+    private final int cellShift;
+    private long rectCost;
+
+    private final int[] scratch = new int[4];
+    private final List<Entry<S>> entries = new ArrayList<>();
+    private final List<Entry<S>> oversized = new ArrayList<>();
+    private final List<S> unbounded = new ArrayList<>();
+    private final List<Entry<S>> candidates = new ArrayList<>();
+    private final List<Entry<S>> spare = new ArrayList<>();
+    private int stamp = 0;
+
+    // Open-addressed cell table: tile key -> rectangles overlapping that tile.
+    // Emptied lists stay until the next drain / clear.
+    private long[] cellKeys;
+    private List<Entry<S>>[] cellLists;
+    private int cellCount = 0;
+
+    // Stats
+    private long added = 0;
+    private long merged = 0;
+    private long absorbed = 0;
+    private long coarsened = 0;
+    private long drained = 0;
+    private long requestedArea = 0;
+    private long reportedArea = 0;
+    private long lastRequestedArea = 0;
+    private long lastReportedArea = 0;
+    private long lastRequestedSnapshot = 0;
+
+    public TiledDamageAccumulator(SpatialRegionPool<S> pool, ChildHitIndex.Keys<P,S> keys) {
+        this(pool, keys, COLLAPSE_THRESHOLD, DEFAULT_CELL_SHIFT, DEFAULT_RECT_COST);
+    }
+
+    /**
+     * @param collapseThreshold rectangle count above which drainRegions coarsens
+     * @param cellShift log2 of the tile edge length in region units
+     * @param rectCost per-rectangle paint overhead, in area units
+     */
+    public TiledDamageAccumulator(SpatialRegionPool<S> pool, ChildHitIndex.Keys<P,S> keys,
+        int collapseThreshold, int cellShift, long rectCost
+    ) {
+        super(pool, collapseThreshold);
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys cannot be null");
+        }
+        if (cellShift < 0 || cellShift > 30) {
+            throw new IllegalArgumentException("cellShift out of range: " + cellShift);
+        }
+        if (rectCost < 0) {
+            throw new IllegalArgumentException("rectCost cannot be negative");
+        }
+        this.keys = keys;
+        this.cellShift = cellShift;
+        this.rectCost = rectCost;
+        allocateCells(64);
+    }
+
+    // ===== ACCUMULATION =====
+
+    @Override
+    public void add(S region) {
+        if (region.isEmpty()) {
+            pool.recycle(region);
+            return;
+        }
+        int[] b = scratch;
+        if (!keys.bounds(region, b)) {
+            added++;
+            unbounded.add(region);
+            return;
+        }
+        if (b[2] <= b[0] || b[3] <= b[1]) {
+            pool.recycle(region);
+            return;
+        }
+
+        Entry<S> entry = obtainEntry();
+        entry.region = region;
+        entry.minX = b[0];
+        entry.minY = b[1];
+        entry.maxX = b[2];
+        entry.maxY = b[3];
+
+        added++;
+        long area = entry.area();
+        requestedArea += area;
+        lastRequestedArea += area;
+
+        while (true) {
+            collectCandidates(entry);
+
+            Entry<S> best = null;
+            long bestSaving = -1;
+            for (int i = 0, n = candidates.size(); i < n; i++) {
+                Entry<S> c = candidates.get(i);
+                if (c.contains(entry)) {
+                    absorbed++;
+                    pool.recycle(entry.region);
+                    releaseEntry(entry);
+                    candidates.clear();
+                    return;
+                }
+                if (entry.contains(c)) {
+                    absorbed++;
+                    removeEntry(c);
+                    pool.recycle(c.region);
+                    releaseEntry(c);
+                    continue;
+                }
+                long saving = c.area() + entry.area() + rectCost - unionArea(c, entry);
+                if (saving > bestSaving) {
+                    bestSaving = saving;
+                    best = c;
+                }
+            }
+            candidates.clear();
+
+            if (best == null) {
+                break;
+            }
+            // Grow the new rectangle over the best candidate and look again -
+            // the bigger bounds may now reach other rectangles
+            merged++;
+            removeEntry(best);
+            entry.region.unionInPlace(best.region);
+            entry.minX = Math.min(entry.minX, best.minX);
+            entry.minY = Math.min(entry.minY, best.minY);
+            entry.maxX = Math.max(entry.maxX, best.maxX);
+            entry.maxY = Math.max(entry.maxY, best.maxY);
+            pool.recycle(best.region);
+            releaseEntry(best);
+        }
+
+        entry.index = entries.size();
+        entries.add(entry);
+        link(entry);
+    }
+
+    @Override
+    public List<S> drainRegions() {
+        int threshold = getCollapseThreshold();
+        if (entries.size() + unbounded.size() > threshold) {
+            coarsen(threshold - unbounded.size());
+        }
+
+        List<S> snapshot = new ArrayList<>(entries.size() + unbounded.size());
+        long area = 0;
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            Entry<S> e = entries.get(i);
+            area += e.area();
+            snapshot.add(e.region);
+            releaseEntry(e);
+        }
+        snapshot.addAll(unbounded);
+
+        drained += snapshot.size();
+        reportedArea += area;
+        lastReportedArea = area;
+        lastRequestedSnapshot = lastRequestedArea;
+        entries.clear();
+        oversized.clear();
+        unbounded.clear();
+        resetCells();
+        lastRequestedArea = 0;
+        return snapshot;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            Entry<S> e = entries.get(i);
+            pool.recycle(e.region);
+            releaseEntry(e);
+        }
+        unbounded.forEach(pool::recycle);
+        entries.clear();
+        oversized.clear();
+        unbounded.clear();
+        resetCells();
+        lastRequestedArea = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.isEmpty() && unbounded.isEmpty();
+    }
+
+    public int size() {
+        return entries.size() + unbounded.size();
+    }
+
+    // ===== COARSENING =====
+
+    /**
+     * Merge rectangles whose centers share a tile, doubling the tile edge
+     * each round until at most limit remain. Cells are not maintained - the
+     * caller resets them right after.
+     */
+    private void coarsen(int limit) {
+        if (limit < 1) limit = 1;
+        int shift = cellShift + 1;
+        while (entries.size() > limit) {
+            if (shift > 30) {
+                // Everything in one bucket
+                mergeAllInto(0);
+                break;
+            }
+            mergeByCenterTile(shift);
+            shift++;
+        }
+    }
+
+    private void mergeByCenterTile(int shift) {
+        // Reuse the cell table as bucket -> head rectangle
+        resetCells();
+        int write = 0;
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            Entry<S> e = entries.get(i);
+            int cx = (int) (((long) e.minX + e.maxX) >> 1) >> shift;
+            int cy = (int) (((long) e.minY + e.maxY) >> 1) >> shift;
+            List<Entry<S>> bucket = obtainCell(cellKey(cx, cy));
+            if (bucket.isEmpty()) {
+                bucket.add(e);
+                entries.set(write++, e);
+                continue;
+            }
+            Entry<S> head = bucket.get(0);
+            mergeInto(head, e);
+        }
+        trim(write);
+    }
+
+    private void mergeAllInto(int target) {
+        Entry<S> head = entries.get(target);
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            if (i != target) mergeInto(head, entries.get(i));
+        }
+        entries.clear();
+        entries.add(head);
+    }
+
+    private void mergeInto(Entry<S> head, Entry<S> e) {
+        coarsened++;
+        head.region.unionInPlace(e.region);
+        head.minX = Math.min(head.minX, e.minX);
+        head.minY = Math.min(head.minY, e.minY);
+        head.maxX = Math.max(head.maxX, e.maxX);
+        head.maxY = Math.max(head.maxY, e.maxY);
+        pool.recycle(e.region);
+        releaseEntry(e);
+    }
+
+    private void trim(int size) {
+        for (int i = entries.size() - 1; i >= size; i--) {
+            entries.remove(i);
+        }
+    }
+
+    private static long unionArea(Entry<?> a, Entry<?> b) {
+        long w = (long) Math.max(a.maxX, b.maxX) - Math.min(a.minX, b.minX);
+        long h = (long) Math.max(a.maxY, b.maxY) - Math.min(a.minY, b.minY);
+        return w * h;
+    }
+
+    // ===== ENTRIES =====
+
+    private Entry<S> obtainEntry() {
+        int n = spare.size();
+        return n > 0 ? spare.remove(n - 1) : new Entry<>();
+    }
+
+    private void releaseEntry(Entry<S> e) {
+        e.clear();
+        spare.add(e);
+    }
+
+    /** Unlink from cells and swap-remove from the entries list */
+    private void removeEntry(Entry<S> e) {
+        unlink(e);
+        int last = entries.size() - 1;
+        Entry<S> tail = entries.remove(last);
+        if (tail != e) {
+            entries.set(e.index, tail);
+            tail.index = e.index;
+        }
+    }
+
+    /** Fill candidates with distinct rectangles sharing a tile with e */
+    private void collectCandidates(Entry<S> e) {
+        int s = ++stamp;
+        int minCx = e.minX >> cellShift;
+        int minCy = e.minY >> cellShift;
+        int maxCx = (e.maxX - 1) >> cellShift;
+        int maxCy = (e.maxY - 1) >> cellShift;
+
+        long span = (long) (maxCx - minCx + 1) * (maxCy - minCy + 1);
+        if (span > MAX_CELLS_PER_ENTRY || span > entries.size()) {
+            // Cheaper to look at every rectangle than at every tile
+            for (int i = 0, n = entries.size(); i < n; i++) {
+                candidates.add(entries.get(i));
+            }
+            return;
+        }
+
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                List<Entry<S>> bucket = findCell(cellKey(cx, cy));
+                if (bucket == null) continue;
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    Entry<S> c = bucket.get(i);
+                    if (c.stamp == s) continue;
+                    c.stamp = s;
+                    candidates.add(c);
+                }
+            }
+        }
+        for (int i = 0, n = oversized.size(); i < n; i++) {
+            Entry<S> c = oversized.get(i);
+            if (c.stamp == s) continue;
+            c.stamp = s;
+            candidates.add(c);
+        }
+    }
+
+    // ===== CELLS =====
+
+    private void link(Entry<S> e) {
+        int minCx = e.minX >> cellShift;
+        int minCy = e.minY >> cellShift;
+        int maxCx = (e.maxX - 1) >> cellShift;
+        int maxCy = (e.maxY - 1) >> cellShift;
+
+        long span = (long) (maxCx - minCx + 1) * (maxCy - minCy + 1);
+        if (span > MAX_CELLS_PER_ENTRY) {
+            e.oversized = true;
+            oversized.add(e);
+            return;
+        }
+        e.oversized = false;
+        e.minCx = minCx;
+        e.minCy = minCy;
+        e.maxCx = maxCx;
+        e.maxCy = maxCy;
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                obtainCell(cellKey(cx, cy)).add(e);
+            }
+        }
+    }
+
+    private void unlink(Entry<S> e) {
+        if (e.oversized) {
+            oversized.remove(e);
+            return;
+        }
+        for (int cy = e.minCy; cy <= e.maxCy; cy++) {
+            for (int cx = e.minCx; cx <= e.maxCx; cx++) {
+                List<Entry<S>> bucket = findCell(cellKey(cx, cy));
+                if (bucket != null) {
+                    bucket.remove(e);
+                }
+            }
+        }
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocateCells(int capacity) {
+        cellKeys = new long[capacity];
+        Arrays.fill(cellKeys, EMPTY_KEY);
+        cellLists = (List<Entry<S>>[]) new List[capacity];
+        cellCount = 0;
+    }
+
+    /** Empty every tile but keep the table and its lists for the next frame */
+    private void resetCells() {
+        if (cellCount == 0) return;
+        if (cellKeys.length > 4_096) {
+            // A one-off burst grew the table - don't scan it every frame
+            allocateCells(64);
+            return;
+        }
+        for (int i = 0; i < cellKeys.length; i++) {
+            if (cellKeys[i] != EMPTY_KEY) {
+                cellLists[i].clear();
+            }
+        }
+    }
+
+    private List<Entry<S>> findCell(long key) {
+        int mask = cellKeys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            long k = cellKeys[i];
+            if (k == key) return cellLists[i];
+            if (k == EMPTY_KEY) return null;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private List<Entry<S>> obtainCell(long key) {
+        if ((cellCount + 1) * 2 > cellKeys.length) {
+            growCells();
+        }
+        int mask = cellKeys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            long k = cellKeys[i];
+            if (k == key) return cellLists[i];
+            if (k == EMPTY_KEY) {
+                cellKeys[i] = key;
+                List<Entry<S>> list = new ArrayList<>(4);
+                cellLists[i] = list;
+                cellCount++;
+                return list;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        List<Entry<S>>[] oldLists = cellLists;
+        allocateCells(oldKeys.length << 1);
+        int mask = cellKeys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key == EMPTY_KEY || oldLists[j].isEmpty()) continue;
+            int i = hash(key) & mask;
+            while (cellKeys[i] != EMPTY_KEY) {
+                i = (i + 1) & mask;
+            }
+            cellKeys[i] = key;
+            cellLists[i] = oldLists[j];
+            cellCount++;
+        }
+    }
+
+    // ===== SETTINGS / STATS =====
+
+    public long getRectCost() {
+        return rectCost;
+    }
+
+    public void setRectCost(long rectCost) {
+        if (rectCost < 0) {
+            throw new IllegalArgumentException("rectCost cannot be negative");
+        }
+        this.rectCost = rectCost;
+    }
+
+    public int getCellShift() {
+        return cellShift;
+    }
+
+    /**
+     * Area currently marked dirty - what the next drain would report before
+     * coarsening. Unbounded regions are not counted.
+     */
+    public long getCoverage() {
+        long area = 0;
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            area += entries.get(i).area();
+        }
+        return area;
+    }
+
+    /**
+     * Reported area / requested area over the lifetime of the accumulator.
+     * Requested area counts every add(), so overlapping reports can push
+     * this below 1.0; above 1.0 is area repainted that nobody invalidated.
+     */
+    public double getOverdrawRatio() {
+        return requestedArea > 0 ? (double) reportedArea / requestedArea : 0.0;
+    }
+
+    /** Same ratio for the most recent drain only */
+    public double getLastOverdrawRatio() {
+        return lastRequestedSnapshot > 0 ? (double) lastReportedArea / lastRequestedSnapshot : 0.0;
+    }
+
+    public DamageStats getStats() {
+        return new DamageStats(added, merged, absorbed, coarsened, drained, requestedArea, reportedArea);
+    }
+
+    public void resetStats() {
+        added = 0;
+        merged = 0;
+        absorbed = 0;
+        coarsened = 0;
+        drained = 0;
+        requestedArea = 0;
+        reportedArea = 0;
+    }
+
+    public static class DamageStats {
+        public final long added;        // regions reported via add()
+        public final long merged;       // merges chosen by the area-cost heuristic
+        public final long absorbed;     // regions dropped because another contained them
+        public final long coarsened;    // merges forced by the collapse threshold
+        public final long drained;      // regions handed out by drainRegions()
+        public final long requestedArea;
+        public final long reportedArea;
+
+        public DamageStats(long added, long merged, long absorbed, long coarsened, long drained,
+            long requestedArea, long reportedArea
+        ) {
+            this.added = added;
+            this.merged = merged;
+            this.absorbed = absorbed;
+            this.coarsened = coarsened;
+            this.drained = drained;
+            this.requestedArea = requestedArea;
+            this.reportedArea = reportedArea;
+        }
+
+        public double overdrawRatio() {
+            return requestedArea > 0 ? (double) reportedArea / requestedArea : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "DamageStats[added=%d, merged=%d, absorbed=%d, coarsened=%d, drained=%d, requested=%d, reported=%d, overdraw=%.2f]",
+                added, merged, absorbed, coarsened, drained, requestedArea, reportedArea, overdrawRatio());
+        }
+    }
+}
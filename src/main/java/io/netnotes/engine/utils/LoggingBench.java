@@ -0,0 +1,82 @@
+package io.netnotes.engine.utils;
+
+import java.lang.management.ManagementFactory;
+
+import io.netnotes.engine.utils.LoggingHelpers.Log;
+import io.netnotes.engine.utils.LoggingHelpers.LogLevel;
+
+/**
+ * LoggingBench - cost of a log call that the configured level filters out
+ *
+ * Compares the eager string-concatenation call every hot path used to make
+ * with the isEnabled guard, Supplier and format overloads. Reports
+ * bytes allocated and nanoseconds per suppressed call on the calling thread.
+ *
+ * usage: java -cp .. io.netnotes.engine.utils.LoggingBench [iterations]
+ */
+public class LoggingBench {
+
+    private static final LogLevel SUPPRESSED = LogLevel.GENERAL;
+    private static final int WARMUP_ROUNDS = 5;
+
+    interface Call {
+        void func(int i, Object subject);
+    }
+
+    public static void main(String... args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Log.setLogLevel(LogLevel.GENERAL);
+        if (Log.isEnabled(SUPPRESSED)) {
+            System.err.println("level " + SUPPRESSED + " is not filtered, nothing to measure");
+            return;
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Object subject = "/system/io/session-1/device-42";
+
+        System.out.format("%-12s | %14s | %12s%n", "call", "bytes/call", "ns/call");
+
+        bench(threads, iterations, subject, "concat", (i, s) ->
+            Log.logMsg("[ProcessSubscriber:" + s + "] Processing packet " + i, SUPPRESSED));
+
+        bench(threads, iterations, subject, "isEnabled", (i, s) -> {
+            if (Log.isEnabled(SUPPRESSED)) {
+                Log.logMsg("[ProcessSubscriber:" + s + "] Processing packet " + i, SUPPRESSED);
+            }
+        });
+
+        bench(threads, iterations, subject, "supplier", (i, s) ->
+            Log.logMsg(() -> "[ProcessSubscriber:" + s + "] Processing packet", SUPPRESSED));
+
+        bench(threads, iterations, subject, "format", (i, s) ->
+            Log.logFormat(SUPPRESSED, "[ProcessSubscriber:%s] Processing packet", s));
+
+        Log.shutdown();
+    }
+
+    private static void bench(com.sun.management.ThreadMXBean threads, int iterations,
+            Object subject, String name, Call call) {
+        long tid = Thread.currentThread().threadId();
+
+        for (int w = 0; w < WARMUP_ROUNDS; w++) {
+            for (int i = 0; i < iterations; i++) {
+                call.func(i, subject);
+            }
+        }
+
+        long bytes0 = threads.getThreadAllocatedBytes(tid);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            call.func(i, subject);
+        }
+        long dt = System.nanoTime() - t0;
+        long bytes = threads.getThreadAllocatedBytes(tid) - bytes0;
+
+        System.out.format("%-12s | %14.2f | %12.2f%n",
+            name, (double) bytes / iterations, (double) dt / iterations);
+    }
+}
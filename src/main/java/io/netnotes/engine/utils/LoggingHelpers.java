@@ -6,9 +6,16 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -17,7 +24,6 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 import io.netnotes.engine.messaging.NoteMessaging;
-import io.netnotes.engine.virtualExecutors.SerializedVirtualExecutor;
 import io.netnotes.noteBytes.NoteBytes;
 import io.netnotes.noteBytes.NoteBytesObject;
 import io.netnotes.noteBytes.collections.NoteBytesMap;
@@ -56,16 +62,17 @@ public class LoggingHelpers {
         public static String logName = "log";
         public static String logExt = ".txt";
         
-        private static File logFile = createTimedLogFile();
-        
-        // Serialized virtual thread executor for all log writes
-        private static final SerializedVirtualExecutor logExecutor = new SerializedVirtualExecutor();
-        
-        // Timeout for individual log operations
-        private static final long LOG_TIMEOUT_MS = 2000;
+        private static volatile File logFile = createTimedLogFile();
         
         private static volatile int logLevel = LogLevel.GENERAL.getValue();
 
+        // Returned for every filtered message - no allocation on the suppressed path.
+        // Shared by every caller, so its value cannot be obtruded
+        private static final CompletableFuture<Void> SKIPPED = new CompletedFuture();
+
+        // Single appender for all log writes, drains queued lines in blocks
+        private static final BatchAppender appender = new BatchAppender();
+
         public static File createTimedLogFile() {
             return createTimedLogFile(logName);
         }
@@ -84,9 +91,9 @@ public class LoggingHelpers {
         }
        
         public static CompletableFuture<Void> setLogLevel(int level){
-            return logExecutor.execute(() -> {
-                Log.logLevel = level;
-            });
+            // Level is checked on the caller's thread, so it takes effect immediately
+            Log.logLevel = level;
+            return SKIPPED;
         }
 
         public static LogLevel getLogLevel(){
@@ -96,21 +103,81 @@ public class LoggingHelpers {
 
 
         public static CompletableFuture<Void> setLogFile(File file){
-            return logExecutor.execute(() -> {
+            // Ordered behind lines already queued for the previous file
+            return appender.enqueueAction(() -> {
                 Log.logFile = file;
             });
         }
 
+        /**
+         * Level check for hot paths - guard expensive message construction with this
+         * <pre>
+         * if (Log.isEnabled(LOG_LEVEL)) {
+         *     Log.logMsg("[Process] packet " + packet, LOG_LEVEL);
+         * }
+         * </pre>
+         */
+        public static boolean isEnabled(LogLevel level) {
+            return !checkPriority(level.value);
+        }
+
+        /**
+         * Deferred message - supplier is only invoked once the level passes
+         * 
+         * Non-capturing or constant-capturing lambdas cost nothing when filtered.
+         */
+        public static CompletableFuture<Void> logMsg(Supplier<String> msg, LogLevel level) {
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(msg.get());
+        }
+
+        /**
+         * Deferred String.format - formatting only happens once the level passes
+         * 
+         * Fixed-arity overloads avoid the varargs array on the filtered path.
+         */
+        public static CompletableFuture<Void> logFormat(LogLevel level, String format, Object arg) {
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(String.format(format, arg));
+        }
+
+        public static CompletableFuture<Void> logFormat(LogLevel level, String format, Object arg1, Object arg2) {
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(String.format(format, arg1, arg2));
+        }
+
+        public static CompletableFuture<Void> logFormat(LogLevel level, String format, Object arg1, Object arg2, Object arg3) {
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(String.format(format, arg1, arg2, arg3));
+        }
+
+        public static CompletableFuture<Void> logFormat(LogLevel level, String format, Object... args) {
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(String.format(format, args));
+        }
+
         public static CompletableFuture<Void> log(String scope, String msg, LogLevel level) {
-            return enqueue(level.getValue(), () ->
-                write(scope + ": " + msg + "\n")
-            );
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(scope + ": " + msg);
         }
 
         public static CompletableFuture<Void> logError(String msg) {
-            return enqueue(LogLevel.ERROR.getValue(), () ->
-                write("[ERROR] " + msg + "\n")
-            );
+            if (checkPriority(LogLevel.ERROR.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine("[ERROR] " + msg);
         }
 
         public static CompletableFuture<Void> logError(String scope, Throwable error) {
@@ -118,9 +185,10 @@ public class LoggingHelpers {
         }
 
         public static CompletableFuture<Void> logError(String scope, Throwable error, boolean printStackTrace) {
-            return enqueue(LogLevel.ERROR.getValue(), () ->
-                write(scope + ": " + getThrowableMsg(error) + (printStackTrace ? ":\n" + getStackTraceAsString(error) + "\n"  : "\n"))
-            );
+            if (checkPriority(LogLevel.ERROR.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(scope + ": " + getThrowableMsg(error) + (printStackTrace ? ":\n" + getStackTraceAsString(error) : ""));
         }
 
         public static CompletableFuture<Void> logError(String scope, String msg, Throwable error) {
@@ -128,9 +196,10 @@ public class LoggingHelpers {
         }
 
         public static CompletableFuture<Void> logError(String scope, String msg, Throwable error, boolean printStackTrace) {
-            return enqueue(LogLevel.ERROR.getValue(), () ->
-                write(scope + ": '" + msg + "' - " + getThrowableMsg(error) +  (printStackTrace ? ":\n" + getStackTraceAsString(error) + "\n"  : "\n"))
-            );
+            if (checkPriority(LogLevel.ERROR.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(scope + ": '" + msg + "' - " + getThrowableMsg(error) +  (printStackTrace ? ":\n" + getStackTraceAsString(error) : ""));
         }
 
         public static CompletableFuture<Void> logJson(String scope, JsonObject json, LogLevel logLevel) {
@@ -173,38 +242,22 @@ public class LoggingHelpers {
         }
 
         public static CompletableFuture<Void> logMsg(String msg, LogLevel level) {
-            return enqueue(level.value, () -> {
-                write(msg + "\n");
-            });
+            if (checkPriority(level.value)) {
+                return SKIPPED;
+            }
+            return appender.enqueueLine(msg);
         }
 
         /**
-         * Enqueues a log action with priority checking and timeout handling.
-         * Returns a CompletableFuture that completes when the log is written,
-         * times out, or fails.
+         * Enqueues a log action (JSON / NoteBytes dumps) with priority checking.
+         * Actions run on the appender thread in order with queued lines.
          */
         private static CompletableFuture<Void> enqueue(int priority, Runnable action) {
             // Skip if priority too low
             if (checkPriority(priority)) {
-                return CompletableFuture.completedFuture(null);
+                return SKIPPED;
             }
-            
-            // Submit to executor with timeout handling
-            CompletableFuture<Void> future = logExecutor.execute(action);
-            
-            // Apply timeout with fallback to stderr
-            return future
-                .orTimeout(LOG_TIMEOUT_MS, TimeUnit.MILLISECONDS)
-                .whenComplete((v, ex) -> {
-                    // Log timeout or error to stderr as fallback
-                    if(ex != null){
-                        if (ex instanceof java.util.concurrent.TimeoutException) {
-                            System.err.println("[LOG TIMEOUT] Write hung after " + LOG_TIMEOUT_MS + "ms");
-                        } else {
-                            System.err.println("[LOG ERROR] " + ex.toString());
-                        }
-                    }
-                });
+            return appender.enqueueAction(action);
         }
 
         private static void write(String text) {
@@ -229,18 +282,18 @@ public class LoggingHelpers {
         }
         
         /**
-         * Initiates graceful shutdown of the logging executor.
+         * Initiates graceful shutdown of the logging appender.
          * Queued logs will complete, but new logs will be rejected.
          */
         public static void shutdown() {
-            logExecutor.shutdown();
+            appender.shutdown();
         }
         
         /**
-         * Immediately shuts down the logging executor and cancels queued logs.
+         * Immediately shuts down the logging appender and cancels queued logs.
          */
         public static void shutdownNow() {
-            logExecutor.shutdownNow();
+            appender.shutdownNow();
         }
         
         /**
@@ -251,7 +304,211 @@ public class LoggingHelpers {
          * @return true if terminated, false if timeout
          */
         public static boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
-            return logExecutor.awaitTermination(timeout, unit);
+            return appender.awaitTermination(timeout, unit);
+        }
+
+        /**
+         * Number of writes the appender has issued and lines written,
+         * lines / writes = average block size
+         */
+        public static long getAppenderWrites() {
+            return appender.writes;
+        }
+
+        public static long getAppenderLines() {
+            return appender.lines;
+        }
+    }
+
+    /**
+     * Completed future that refuses obtrudeValue / obtrudeException.
+     * complete, cancel etc. are already no-ops once a future is done, and
+     * dependent stages are plain CompletableFutures (newIncompleteFuture).
+     */
+    private static final class CompletedFuture extends CompletableFuture<Void> {
+        CompletedFuture() {
+            super.complete(null);
+        }
+
+        @Override
+        public void obtrudeValue(Void value) {
+            throw new UnsupportedOperationException("Shared completed future");
+        }
+
+        @Override
+        public void obtrudeException(Throwable ex) {
+            throw new UnsupportedOperationException("Shared completed future");
+        }
+    }
+
+    /**
+     * BatchAppender - one virtual thread drains every queued line per wakeup
+     * and appends them to the log file as a single block.
+     * 
+     * Actions (setLogFile, JSON / NoteBytes dumps) flush the pending block
+     * first so file order always matches enqueue order.
+     * 
+     * SHUTDOWN:
+     * An enqueue can pass the shutdown check just before shutdown() and land
+     * after the drain thread last saw an empty queue. The drain thread clears
+     * its draining flag and looks again before exiting; a producer that adds
+     * after shutdown with the flag clear drains the queue itself. The flag
+     * keeps either side from flushing concurrently.
+     */
+    private static final class BatchAppender {
+        private static final int MAX_BATCH = 512;
+        private static final int BLOCK_CAPACITY = 8192;
+
+        private record Entry(String line, Runnable action, CompletableFuture<Void> future) {}
+
+        // Wakes the appender on shutdown without being written
+        private static final Entry STOP = new Entry(null, null, null);
+
+        private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private final Thread drainThread;
+        // Held by whoever is flushing: the drain thread until it exits, then late producers
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        private volatile boolean shutdown = false;
+        private volatile boolean discard = false;
+
+        // Written only by the holder of draining, read for diagnostics
+        private volatile long writes = 0;
+        private volatile long lines = 0;
+
+        BatchAppender() {
+            drainThread = Thread.ofVirtual().name("Log-Appender").start(this::drainLoop);
+        }
+
+        CompletableFuture<Void> enqueueLine(String line) {
+            return enqueue(new Entry(line, null, new CompletableFuture<>()));
+        }
+
+        CompletableFuture<Void> enqueueAction(Runnable action) {
+            return enqueue(new Entry(null, action, new CompletableFuture<>()));
+        }
+
+        private CompletableFuture<Void> enqueue(Entry entry) {
+            if (shutdown) {
+                return Log.SKIPPED;
+            }
+            queue.add(entry);
+            if (shutdown && !draining.get()) {
+                // Landed after the drain thread's last look at the queue
+                drainLate();
+            }
+            return entry.future();
+        }
+
+        private void drainLoop() {
+            List<Entry> batch = new ArrayList<>(MAX_BATCH);
+            StringBuilder block = new StringBuilder(BLOCK_CAPACITY);
+            try {
+                do {
+                    while (!(shutdown && queue.isEmpty())) {
+                        batch.add(queue.take());
+                        queue.drainTo(batch, MAX_BATCH - 1);
+                        flush(batch, block);
+                        batch.clear();
+                    }
+                } while (!stopDraining());
+            } catch (InterruptedException e) {
+                // shutdownNow - anything queued since is cancelled
+                draining.set(false);
+                drainLate();
+            } finally {
+                terminated.countDown();
+            }
+        }
+
+        /**
+         * @return false if entries arrived as the flag cleared and the drain
+         *         thread took the flag back to write them
+         */
+        private boolean stopDraining() {
+            draining.set(false);
+            return queue.isEmpty() || !draining.compareAndSet(false, true);
+        }
+
+        /** Drain on the calling thread once the drain thread has exited */
+        private void drainLate() {
+            while (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    List<Entry> batch = new ArrayList<>();
+                    queue.drainTo(batch);
+                    if (discard) {
+                        cancel(batch);
+                    } else {
+                        flush(batch, new StringBuilder());
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void flush(List<Entry> batch, StringBuilder block) {
+            int blockLines = 0;
+            for (Entry entry : batch) {
+                if (entry == STOP) {
+                    continue;
+                }
+                if (entry.line() != null) {
+                    block.append(entry.line()).append('\n');
+                    blockLines++;
+                } else {
+                    blockLines = writeBlock(block, blockLines);
+                    try {
+                        entry.action().run();
+                    } catch (Exception e) {
+                        System.err.println("[LOG ERROR] " + e.toString());
+                    }
+                }
+            }
+            writeBlock(block, blockLines);
+
+            for (Entry entry : batch) {
+                if (entry != STOP) {
+                    entry.future().complete(null);
+                }
+            }
+        }
+
+        private int writeBlock(StringBuilder block, int blockLines) {
+            if (blockLines == 0) {
+                return 0;
+            }
+            Log.write(block.toString());
+            block.setLength(0);
+            writes++;
+            lines += blockLines;
+            return 0;
+        }
+
+        void shutdown() {
+            shutdown = true;
+            queue.add(STOP);
+        }
+
+        void shutdownNow() {
+            discard = true;
+            shutdown = true;
+            List<Entry> dropped = new ArrayList<>();
+            queue.drainTo(dropped);
+            cancel(dropped);
+            drainThread.interrupt();
+        }
+
+        private static void cancel(List<Entry> entries) {
+            for (Entry entry : entries) {
+                if (entry != STOP) {
+                    entry.future().cancel(false);
+                }
+            }
+        }
+
+        boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return terminated.await(timeout, unit);
         }
     }
 
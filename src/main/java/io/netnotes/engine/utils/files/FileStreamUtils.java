@@ -1,6 +1,5 @@
 package io.netnotes.engine.utils.files;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -10,16 +9,20 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.crypto.Cipher;
 import javax.crypto.CipherInputStream;
-import javax.crypto.CipherOutputStream;
 import javax.crypto.SecretKey;
 
 import io.netnotes.noteBytes.NoteBytes;
@@ -34,8 +37,10 @@ import io.netnotes.engine.messaging.task.TaskMessages;
 import io.netnotes.noteBytes.processing.AsyncNoteBytesWriter;
 import io.netnotes.noteBytes.processing.NoteBytesReader;
 import io.netnotes.noteBytes.processing.NoteBytesWriter;
-import io.netnotes.noteBytes.processing.RandomService;
 import io.netnotes.engine.utils.noteBytes.NoteUUID;
+import io.netnotes.engine.utils.streams.ChunkedAES;
+import io.netnotes.engine.utils.streams.ChunkedAESChannel;
+import io.netnotes.engine.utils.streams.ChunkedAESOutputStream;
 import io.netnotes.engine.utils.streams.StreamUtils;
 
 public class FileStreamUtils {
@@ -101,25 +106,9 @@ public class FileStreamUtils {
     public static void saveEncryptedFile(File file, byte[] bytes, SecretKey secretKey) throws Exception{
 
         try(
-            OutputStream fileOutputStream = Files.newOutputStream(file.toPath());
+            ChunkedAESOutputStream outputStream = new ChunkedAESOutputStream(Files.newOutputStream(file.toPath()), secretKey);
         ){
-            
-            byte[] outIV = RandomService.getIV();
-            Cipher encryptCipher = CryptoService.getAESEncryptCipher(outIV, secretKey);
-
-
-            fileOutputStream.write(outIV);
-
-            try(
-                CipherOutputStream outputStream = new CipherOutputStream(fileOutputStream, encryptCipher);
-                ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
-            ){
-                byte[] buffer = new byte[StreamUtils.BUFFER_SIZE > bytes.length ? bytes.length : StreamUtils.BUFFER_SIZE];
-                int length = 0;
-                while((length = inputStream.read(buffer)) != -1){
-                    outputStream.write(buffer, 0, length);
-                }
-            }
+            outputStream.write(bytes);
         }
     
     }
@@ -143,32 +132,18 @@ public class FileStreamUtils {
                     }
                 ));
             }
+            long fileSize = file.length();
             try(
-                InputStream fileInputStream = Files.newInputStream(filePath);
-                OutputStream fileOutputStream = Files.newOutputStream(tmpPath);
-                NoteBytesReader initialReader = new NoteBytesReader(fileInputStream);
+                InputStream inputStream = openDecryptedInputStream(file, oldAppKey);
+                ChunkedAESOutputStream outputStream = new ChunkedAESOutputStream(Files.newOutputStream(tmpPath), newAppKey);
             ){
-                
-                byte[] oldIV = initialReader.readNextBytes(CryptoService.AES_IV_SIZE);
-                byte[] outIV = RandomService.getIV();
-
-                Cipher decryptCipher = CryptoService.getAESDecryptCipher(oldIV, newAppKey);
-                Cipher encryptCipher = CryptoService.getAESEncryptCipher(outIV, newAppKey);
-
-                fileOutputStream.write(outIV);
-                long fileSize = file.length();
-                
-                try(
-                    CipherInputStream inputStream = new CipherInputStream(fileInputStream, decryptCipher);
-                    CipherOutputStream outputStream = new CipherOutputStream(fileOutputStream, encryptCipher);
-                ){
-                    byte[] buffer = new byte[StreamUtils.BUFFER_SIZE >  (fileSize -12)? (int) (fileSize-12) : StreamUtils.BUFFER_SIZE];
-                    int length = 0;
-                    long total = 12;
-                    while((length = inputStream.read(buffer)) != -1){
-                        outputStream.write(buffer, 0, length);
-                        total += length;
-                        if(progressWriter != null){
+                byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+                int length = 0;
+                long total = 0;
+                while((length = inputStream.read(buffer)) != -1){
+                    outputStream.write(buffer, 0, length);
+                    total += length;
+                    if(progressWriter != null){
                         progressWriter.writeAsync(ProgressMessage.getProgressMessage(ProtocolMesssages.UPDATED_ENCRYPTION,
                             total, fileSize, ProtocolMesssages.UPDATED, new NoteBytesPair[]{
                                 new NoteBytesPair("file", file.getAbsolutePath()),
@@ -176,7 +151,6 @@ public class FileStreamUtils {
                             }
                         ));
                     }
-                    }
                 }
             }
         
@@ -200,43 +174,12 @@ public class FileStreamUtils {
         if(encryptedFile != null && encryptedFile.isFile() && encryptedFile.length() > 12){
             
             try(
-                InputStream inputStream = Files.newInputStream(encryptedFile.toPath());
-                NoteBytesReader reader = new NoteBytesReader(inputStream);
+                InputStream inputStream = openDecryptedInputStream(encryptedFile, appKey);
                 OutputStream outStream = Files.newOutputStream(decryptedFile.toPath());
             ){
-                
-                byte[] iV = reader.readNextBytes(CryptoService.AES_IV_SIZE);
-
-                Cipher cipher = CryptoService.getAESDecryptCipher(iV, appKey);
-
-                long fileSize = encryptedFile.length();
-                int bufferSize = fileSize < (8 * 1024) ? (int) fileSize : (8 * 1024);
-
-                byte[] buffer = new byte[bufferSize];
-                byte[] decryptedBuffer;
-                int length = 0;
-                long decrypted = 0;
-
-                while ((length = inputStream.read(buffer)) != -1) {
-                    decryptedBuffer = cipher.update(buffer, 0, length);
-                    if(decryptedBuffer != null){
-                        outStream.write(decryptedBuffer);
-                    }
-                    decrypted += length;
-                }
-
-                decryptedBuffer = cipher.doFinal();
-
-                if(decryptedBuffer != null){
-                    outStream.write(decryptedBuffer);
-                }
-
-                if(decrypted == fileSize){
-                    return true;
-                }
+                inputStream.transferTo(outStream);
+                return true;
             }
-
-      
         }
         return false;
     }
@@ -246,40 +189,26 @@ public class FileStreamUtils {
     public static byte[] decryptFileToBytes(SecretKey appKey, File file) throws Exception{
         if(file != null && file.isFile()){
             
+            long fileSize = file.length();
+            if(fileSize < CryptoService.AES_IV_SIZE){
+                return new byte[0];
+            }
+
             try(
-                InputStream inputStream = Files.newInputStream(file.toPath());
-                NoteBytesReader reader = new NoteBytesReader(inputStream);
+                InputStream inputCipher = openDecryptedInputStream(file, appKey);
                 ByteArrayOutputStream outStream = new ByteArrayOutputStream();
             ){
-
-                if(!file.exists() || !file.isFile()){
-                    return null;
-                }
-                long fileSize = file.length();
-                if(fileSize < CryptoService.AES_IV_SIZE){
-                    return new byte[0];
-                }
-
-                byte[] iV = reader.readNextBytes(CryptoService.AES_IV_SIZE);
-
-               
-                Cipher cipher = CryptoService.getAESDecryptCipher(iV, appKey);
-
-                
                 int bufferSize = fileSize < (long) StreamUtils.BUFFER_SIZE ? (int) fileSize : StreamUtils.BUFFER_SIZE;
 
                 byte[] buffer = new byte[bufferSize];
              
                 int length = 0;
 
-                try(CipherInputStream inputCipher = new CipherInputStream(inputStream, cipher)){
-
-                    while ((length = inputCipher.read(buffer)) != -1) {
-                        outStream.write(buffer, 0, length);
-                    }
+                while ((length = inputCipher.read(buffer)) != -1) {
+                    outStream.write(buffer, 0, length);
+                }
 
-                    return outStream.toByteArray();
-               }
+                return outStream.toByteArray();
             }
         }
         return null;
@@ -295,12 +224,7 @@ public class FileStreamUtils {
                 OutputStream fileOutputStream = Files.newOutputStream(file.toPath());
             ){
                 
-                byte[] outIV = RandomService.getIV();
-                Cipher encryptCipher = CryptoService.getAESEncryptCipher(outIV, secretKey);
-
-                fileOutputStream.write(outIV);
-                
-                try(CipherOutputStream outputStream = new CipherOutputStream(fileOutputStream, encryptCipher)){
+                try(ChunkedAESOutputStream outputStream = new ChunkedAESOutputStream(fileOutputStream, secretKey)){
                     long bytesWritten = 0;
                     int length = 0;  
                     byte[] readBuffer = new byte[StreamUtils.BUFFER_SIZE];
@@ -335,11 +259,7 @@ public class FileStreamUtils {
                 try(
                     OutputStream fileOutputStream = Files.newOutputStream(tmpPath);
                 ){
-                    byte[] outIV = RandomService.getIV();
-                    Cipher encryptCipher = CryptoService.getAESEncryptCipher(outIV, secretKey);
-                    fileOutputStream.write(outIV);
-                    
-                    try (CipherOutputStream outputStream = new CipherOutputStream(fileOutputStream, encryptCipher)) {
+                    try (ChunkedAESOutputStream outputStream = new ChunkedAESOutputStream(fileOutputStream, secretKey)) {
                         int length;
                         byte[] readBuffer = new byte[StreamUtils.BUFFER_SIZE];
                         while ((length = inputStream.read(readBuffer)) != -1) {
@@ -367,23 +287,17 @@ public class FileStreamUtils {
         ExecutorService execService
     ) {
         return CompletableFuture.supplyAsync(() -> {
-            try (
-                InputStream fileInputStream = Files.newInputStream(file.toPath());
-                NoteBytesReader reader = new NoteBytesReader(fileInputStream);
-            ) {
+            try {
            
                 if (file.exists() && file.isFile() && file.length() > CryptoService.AES_IV_SIZE - 1) {
-                    byte[] iV = reader.readNextBytes(CryptoService.AES_IV_SIZE);
-                    
-                    Cipher decryptCipher = CryptoService.getAESDecryptCipher(iV, secretKey);
-                    
                     byte[] readBuffer = new byte[StreamUtils.BUFFER_SIZE];
                     int length;
-                    int dataLength = 0;
-                    try(CipherInputStream inputStream = new CipherInputStream(fileInputStream, decryptCipher)){
+                    long dataLength = 0;
+                    try(InputStream inputStream = openDecryptedInputStream(file, secretKey)){
 
                         while ((length = inputStream.read(readBuffer)) != -1) {
                             pipedOutput.write(readBuffer, 0, length);
+                            dataLength += length;
                         }
                     
                         return TaskMessages.createSuccessResult(file.getAbsolutePath(), "Data length:" + dataLength);
@@ -409,12 +323,7 @@ public class FileStreamUtils {
         try( 
             OutputStream fileOutputStream = Files.newOutputStream(file.toPath());
         ){
-            byte[] outIV = RandomService.getIV();
-            Cipher encryptCipher = CryptoService.getAESEncryptCipher(outIV, secretKey);
-
-            fileOutputStream.write(outIV);
-            
-            try(NoteBytesWriter writer = new NoteBytesWriter(new CipherOutputStream(fileOutputStream, encryptCipher))){
+            try(NoteBytesWriter writer = new NoteBytesWriter(new ChunkedAESOutputStream(fileOutputStream, secretKey))){
                 writer.write(pair);
             }
         }
@@ -423,17 +332,12 @@ public class FileStreamUtils {
 
     public static void readFileToWriter(File tmpFile, NoteBytesWriter writer, SecretKey key) throws Exception {
         try (
-           InputStream fileIn = Files.newInputStream(tmpFile.toPath());
+           InputStream tmpIn = openDecryptedInputStream(tmpFile, key);
         ) {
-            byte[] iV = StreamUtils.readByteAmount(CryptoService.AES_IV_SIZE, fileIn);
-            
-            Cipher decryptCipher = CryptoService.getAESDecryptCipher(iV, key);
-            try(CipherInputStream tmpIn = new CipherInputStream(fileIn, decryptCipher) ){
-                byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
-                int bytesRead;
-                while ((bytesRead = tmpIn.read(buffer)) != -1) {
-                    writer.write(buffer, 0, bytesRead);
-                }
+            byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = tmpIn.read(buffer)) != -1) {
+                writer.write(buffer, 0, bytesRead);
             }
         }
     }
@@ -449,4 +353,185 @@ public class FileStreamUtils {
        
     }
 
+    /**
+     * @return true if file starts with the ChunkedAES header, false for the
+     *         legacy IV + single GCM stream format (or a short file)
+     */
+    public static boolean isChunkedEncrypted(File file) throws IOException {
+        try(InputStream inputStream = Files.newInputStream(file.toPath())){
+            return ChunkedAES.isChunked(inputStream.readNBytes(ChunkedAES.MAGIC.length));
+        }
+    }
+
+    /**
+     * Plaintext stream of an encrypted file in either format. Legacy files
+     * are a single GCM stream: the JCE buffers them whole and only
+     * authenticates at the end.
+     */
+    public static InputStream openDecryptedInputStream(File file, SecretKey secretKey) throws Exception {
+        if(isChunkedEncrypted(file)){
+            return Channels.newInputStream(ChunkedAESChannel.open(file.toPath(), secretKey));
+        }
+        InputStream fileIn = Files.newInputStream(file.toPath());
+        try{
+            byte[] iV = StreamUtils.readByteAmount(CryptoService.AES_IV_SIZE, fileIn);
+            Cipher decryptCipher = CryptoService.getAESDecryptCipher(iV, secretKey);
+            return new CipherInputStream(fileIn, decryptCipher);
+        }catch(Exception e){
+            fileIn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rewrite a legacy encrypted file in the chunked format, through tmpFile
+     *
+     * @return false if the file is missing or already chunked
+     */
+    public static boolean migrateToChunked(SecretKey secretKey, File file, File tmpFile) throws Exception {
+        if(file == null || !file.isFile() || isChunkedEncrypted(file)){
+            return false;
+        }
+        Path tmpPath = tmpFile.toPath();
+        try(
+            InputStream inputStream = openDecryptedInputStream(file, secretKey);
+            ChunkedAESOutputStream outputStream = new ChunkedAESOutputStream(Files.newOutputStream(tmpPath), secretKey);
+        ){
+            inputStream.transferTo(outputStream);
+        }catch(Exception e){
+            Files.deleteIfExists(tmpPath);
+            throw e;
+        }
+        Files.move(tmpPath, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    /**
+     * Encrypt plainFile into the chunked format, one worker per core on
+     * execService; chunks are read and written in place, in any order
+     *
+     * @return plaintext bytes encrypted
+     */
+    public static long encryptFileChunked(File plainFile, File encryptedFile, SecretKey secretKey,
+        ExecutorService execService
+    ) throws Exception {
+        ChunkedAES format = ChunkedAES.create(secretKey, ChunkedAES.DEFAULT_CHUNK_SIZE);
+        try(
+            FileChannel in = FileChannel.open(plainFile.toPath(), StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(encryptedFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ){
+            long size = in.size();
+            long chunkCount = format.chunkCount(size);
+            int chunkSize = format.getChunkSize();
+
+            writeFully(out, format.getHeader(), ChunkedAES.HEADER_SIZE, 0);
+            runChunksParallel(format, chunkCount, execService, (cipher, plain, sealed, index) -> {
+                long position = index * chunkSize;
+                int length = (int) Math.min(chunkSize, size - position);
+                readFully(in, plain, length, position);
+                int sealedLength = format.seal(cipher, index, index == chunkCount - 1, plain, 0, length, sealed, 0);
+                writeFully(out, sealed, sealedLength, format.chunkOffset(index));
+            });
+            return size;
+        }catch(Exception e){
+            Files.deleteIfExists(encryptedFile.toPath());
+            throw e;
+        }
+    }
+
+    /**
+     * Decrypt a chunked file into plainFile, one worker per core on
+     * execService. plainFile is deleted if any chunk fails authentication.
+     *
+     * @return plaintext bytes decrypted
+     */
+    public static long decryptFileChunked(File encryptedFile, File plainFile, SecretKey secretKey,
+        ExecutorService execService
+    ) throws Exception {
+        try(
+            FileChannel in = FileChannel.open(encryptedFile.toPath(), StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(plainFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ){
+            byte[] header = new byte[ChunkedAES.HEADER_SIZE];
+            readFully(in, header, header.length, 0);
+            ChunkedAES format = ChunkedAES.fromHeader(secretKey, header);
+
+            long fileSize = in.size();
+            long size = format.plaintextSize(fileSize);
+            long chunkCount = format.chunkCount(size);
+            int chunkSize = format.getChunkSize();
+
+            runChunksParallel(format, chunkCount, execService, (cipher, sealed, plain, index) -> {
+                long offset = format.chunkOffset(index);
+                int length = (int) Math.min(format.getSegmentSize(), fileSize - offset);
+                readFully(in, sealed, length, offset);
+                int plainLength = format.open(cipher, index, index == chunkCount - 1, sealed, 0, length, plain, 0);
+                writeFully(out, plain, plainLength, index * chunkSize);
+            });
+            return size;
+        }catch(Exception e){
+            Files.deleteIfExists(plainFile.toPath());
+            throw e;
+        }
+    }
+
+    private interface ChunkTask {
+        void run(Cipher cipher, byte[] in, byte[] out, long index) throws Exception;
+    }
+
+    /**
+     * Workers claim chunk indexes from a shared counter, each with its own
+     * Cipher and segment-sized buffers. The first failure stops the others.
+     */
+    private static void runChunksParallel(ChunkedAES format, long chunkCount, ExecutorService execService,
+        ChunkTask task
+    ) throws Exception {
+        int workers = (int) Math.min(chunkCount, Runtime.getRuntime().availableProcessors());
+        AtomicLong next = new AtomicLong();
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for(int i = 0; i < workers; i++){
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try{
+                    Cipher cipher = format.newCipher();
+                    byte[] in = new byte[format.getSegmentSize()];
+                    byte[] out = new byte[format.getSegmentSize()];
+                    long index;
+                    while((index = next.getAndIncrement()) < chunkCount){
+                        task.run(cipher, in, out, index);
+                    }
+                }catch(Exception e){
+                    next.set(chunkCount);
+                    throw new CompletionException(e);
+                }
+            }, execService);
+        }
+        try{
+            CompletableFuture.allOf(futures).join();
+        }catch(CompletionException e){
+            if(e.getCause() instanceof Exception cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void readFully(FileChannel channel, byte[] bytes, int length, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, position + buffer.position()) < 0){
+                throw new IOException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes, int length, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while(buffer.hasRemaining()){
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
 }
\ No newline at end of file
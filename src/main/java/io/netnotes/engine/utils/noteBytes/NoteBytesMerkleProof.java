@@ -0,0 +1,197 @@
+package io.netnotes.engine.utils.noteBytes;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.netnotes.noteBytes.NoteBytes;
+import ove.crypto.digest.Blake2b;
+
+/**
+ * NoteBytesMerkleProof - inclusion / non-inclusion proof for NoteBytesMerkleTree
+ *
+ * Steps run from the bottom of the search path to the root; each carries the
+ * ancestor's key, the hash of the child the search did not take, and which
+ * way it went. verify() recomputes the root from the queried key:
+ * - inclusion:     start from hash(key, leftHash, rightHash)
+ * - non-inclusion: start from the empty hash - the child where the key
+ *                  would have been is absent
+ * and checks that every step's direction agrees with the key's order, so a
+ * non-inclusion proof cannot be replayed for a key on a different path.
+ *
+ * Wire format (toBytes / fromBytes):
+ *   kind(1) [leftHash(32) rightHash(32) if inclusion] stepCount(4)
+ *   per step: wentLeft(1) type(1) keyLength(4) key sibling(32)
+ */
+public final class NoteBytesMerkleProof {
+
+    private static final int HASH_SIZE = NoteBytesMerkleTree.HASH_SIZE;
+    private static final byte KIND_NON_INCLUSION = 0;
+    private static final byte KIND_INCLUSION = 1;
+
+    static final class Step {
+        final byte type;
+        final byte[] keyBytes;
+        final byte[] siblingHash;
+        final boolean wentLeft;
+
+        Step(byte type, byte[] keyBytes, byte[] siblingHash, boolean wentLeft) {
+            this.type = type;
+            this.keyBytes = keyBytes;
+            this.siblingHash = siblingHash;
+            this.wentLeft = wentLeft;
+        }
+    }
+
+    private final boolean inclusion;
+    private final byte[] leftHash;
+    private final byte[] rightHash;
+    private final List<Step> steps;
+
+    private NoteBytesMerkleProof(boolean inclusion, byte[] leftHash, byte[] rightHash, List<Step> steps) {
+        this.inclusion = inclusion;
+        this.leftHash = leftHash;
+        this.rightHash = rightHash;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    static NoteBytesMerkleProof inclusion(byte[] leftHash, byte[] rightHash, List<Step> steps) {
+        return new NoteBytesMerkleProof(true, leftHash.clone(), rightHash.clone(), copySteps(steps));
+    }
+
+    static NoteBytesMerkleProof nonInclusion(List<Step> steps) {
+        return new NoteBytesMerkleProof(false, null, null, copySteps(steps));
+    }
+
+    // Tree nodes own their arrays and rehash in place - detach from them
+    private static List<Step> copySteps(List<Step> steps) {
+        List<Step> copy = new ArrayList<>(steps.size());
+        for (Step s : steps) {
+            copy.add(new Step(s.type, s.keyBytes, s.siblingHash.clone(), s.wentLeft));
+        }
+        return copy;
+    }
+
+    /**
+     * @return true if this proves key is in the tree, false if it proves absence
+     */
+    public boolean isInclusion() {
+        return inclusion;
+    }
+
+    public int getDepth() {
+        return steps.size();
+    }
+
+    /**
+     * @param merkleRoot trusted root, from NoteBytesMerkleTree.getMerkleRoot()
+     * @param key the key the proof was generated for
+     * @return true if the proof is valid for key under merkleRoot; whether it
+     *         shows presence or absence is isInclusion()
+     */
+    public boolean verify(byte[] merkleRoot, NoteBytes key) {
+        if (merkleRoot == null || merkleRoot.length != HASH_SIZE) {
+            return false;
+        }
+        byte[] keyBytes = key.get();
+        Blake2b digest = Blake2b.Digest.newInstance(HASH_SIZE);
+        byte[] lengthScratch = new byte[4];
+
+        byte[] hash = new byte[HASH_SIZE];
+        if (inclusion) {
+            NoteBytesMerkleTree.hashNode(digest, lengthScratch, leftHash, rightHash, key.getType(), keyBytes, hash);
+        }
+        // else: empty child, already all zero
+
+        byte[] next = new byte[HASH_SIZE];
+        for (Step step : steps) {
+            int comparison = NoteBytesMerkleTree.compare(keyBytes, step.keyBytes);
+            if (comparison == 0 || (comparison < 0) != step.wentLeft) {
+                return false;
+            }
+            if (step.wentLeft) {
+                NoteBytesMerkleTree.hashNode(digest, lengthScratch, hash, step.siblingHash, step.type, step.keyBytes, next);
+            } else {
+                NoteBytesMerkleTree.hashNode(digest, lengthScratch, step.siblingHash, hash, step.type, step.keyBytes, next);
+            }
+            byte[] swap = hash;
+            hash = next;
+            next = swap;
+        }
+        return Arrays.equals(hash, merkleRoot);
+    }
+
+    // ===== WIRE FORMAT =====
+
+    public byte[] toBytes() {
+        int size = 1 + (inclusion ? 2 * HASH_SIZE : 0) + 4;
+        for (Step step : steps) {
+            size += 1 + 1 + 4 + step.keyBytes.length + HASH_SIZE;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(inclusion ? KIND_INCLUSION : KIND_NON_INCLUSION);
+        if (inclusion) {
+            buffer.put(leftHash);
+            buffer.put(rightHash);
+        }
+        buffer.putInt(steps.size());
+        for (Step step : steps) {
+            buffer.put((byte) (step.wentLeft ? 1 : 0));
+            buffer.put(step.type);
+            buffer.putInt(step.keyBytes.length);
+            buffer.put(step.keyBytes);
+            buffer.put(step.siblingHash);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if bytes is not a proof written by toBytes()
+     */
+    public static NoteBytesMerkleProof fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            byte kind = buffer.get();
+            if (kind != KIND_INCLUSION && kind != KIND_NON_INCLUSION) {
+                throw new IllegalArgumentException("Unknown proof kind: " + kind);
+            }
+            boolean inclusion = kind == KIND_INCLUSION;
+            byte[] left = null;
+            byte[] right = null;
+            if (inclusion) {
+                left = new byte[HASH_SIZE];
+                right = new byte[HASH_SIZE];
+                buffer.get(left);
+                buffer.get(right);
+            }
+            int count = buffer.getInt();
+            // Each step is at least 38 bytes - reject counts the input can't hold
+            if (count < 0 || count > buffer.remaining() / (6 + HASH_SIZE)) {
+                throw new IllegalArgumentException("Invalid step count: " + count);
+            }
+            List<Step> steps = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                boolean wentLeft = buffer.get() != 0;
+                byte type = buffer.get();
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Invalid key length: " + length);
+                }
+                byte[] key = new byte[length];
+                buffer.get(key);
+                byte[] sibling = new byte[HASH_SIZE];
+                buffer.get(sibling);
+                steps.add(new Step(type, key, sibling, wentLeft));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after proof");
+            }
+            return new NoteBytesMerkleProof(inclusion, left, right, steps);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated proof", e);
+        }
+    }
+}
@@ -2,10 +2,11 @@ package io.netnotes.engine.utils.noteBytes;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-import io.netnotes.engine.crypto.HashServices;
 import io.netnotes.noteBytes.NoteBytes;
 import io.netnotes.noteBytes.NoteBytesArray;
 import io.netnotes.noteBytes.NoteBytesNode;
@@ -13,166 +14,463 @@ import io.netnotes.noteBytes.NoteBytesObject;
 import io.netnotes.noteBytes.NoteInteger;
 import io.netnotes.noteBytes.collections.NoteBytesPair;
 import io.netnotes.noteBytes.processing.ByteDecoding;
+import ove.crypto.digest.Blake2b;
+
+/**
+ * NoteBytesMerkleTree - AVL-balanced set of NoteBytes with a Blake2b Merkle root
+ *
+ * Every node caches
+ *   hash = Blake2b-256(0x01 | leftHash | rightHash | type | length | key)
+ * with an absent child hashing as 32 zero bytes (also the root of an empty
+ * tree). Insert and remove rebalance by rotation and rehash only the nodes
+ * on the search path plus the few rotated ones, so a mutation costs
+ * O(log n) hashes whatever the insert order.
+ *
+ * PROOFS:
+ * prove(key) returns a NoteBytesMerkleProof - the keys and sibling hashes on
+ * the search path. It shows the key is present (inclusion) or that the
+ * search ends at an empty child (non-inclusion) against a known root.
+ *
+ * DIFF:
+ * diff(other) walks both trees in key order and skips any pair of subtrees
+ * whose hashes match, so trees that differ in d keys cost about
+ * O(d log n) instead of a full scan.
+ *
+ * Keys compare as signed byte arrays, shorter first on a common prefix (the
+ * type byte is hashed but not compared). Not thread-safe.
+ */
 public class NoteBytesMerkleTree {
-    
-    private NoteBytesNode m_root = null;
+
+    static final int HASH_SIZE = 32;
+    static final byte[] EMPTY_HASH = new byte[HASH_SIZE];
+    private static final byte NODE_TAG = 0x01;
+
+    static final class Node {
+        NoteBytes key;
+        byte[] keyBytes;
+        byte type;
+        Node left;
+        Node right;
+        int height = 1;
+        final byte[] hash = new byte[HASH_SIZE];
+
+        Node(NoteBytes key, byte[] keyBytes) {
+            setKey(key, keyBytes);
+        }
+
+        void setKey(NoteBytes key, byte[] keyBytes) {
+            this.key = key;
+            this.keyBytes = keyBytes;
+            this.type = key.getType();
+        }
+    }
+
+    private Node m_root = null;
     private int m_size = 0;
-    private final int HASH_SIZE = 32;
-    private byte[] m_merkleRoot = new byte[HASH_SIZE];
-    
+    private final Blake2b m_digest = Blake2b.Digest.newInstance(HASH_SIZE);
+    private final byte[] m_lengthScratch = new byte[4];
+
+    // Set by insertRec / removeRec when the tree actually changed
+    private boolean m_changed = false;
+    private long m_hashCount = 0;
+
     public NoteBytesMerkleTree() {
-        
+
     }
-    
+
     public NoteBytesMerkleTree(byte[] bytes) {
         this();
         set(bytes);
     }
 
-
-   
+    /**
+     * Replace the contents with a tree serialized by get()
+     */
     public void set(byte[] bytes){
-        deserialize(bytes);
-        updateMerkleRoot();
+        List<NoteBytes> keys = new ArrayList<>();
+        deserialize(bytes, keys);
+        rebuild(keys);
     }
 
-
-    private void updateMerkleRoot() {
-        m_merkleRoot = calculateMerkleRoot(m_root);
+    public byte[] getMerkleRoot() {
+        return m_root == null ? EMPTY_HASH.clone() : m_root.hash.clone();
     }
 
-    private byte[] calculateMerkleRoot(NoteBytesNode node) {
-        if (node == null || m_size == 0) {
-            return new byte[HASH_SIZE];
-        }
-        byte[] nodeHash = HashServices.digestBytesToBytes(node.getData().get(), HASH_SIZE);
-        
-        if (node.getLeft() == null && node.getRight() == null) {
-            return nodeHash;
+    // ===== MUTATION =====
+
+    /**
+     * Add data to the set; no-op if an equal key is present
+     */
+    public void insert(NoteBytes data) throws InterruptedException {
+        m_changed = false;
+        m_root = insertRec(m_root, data, data.get());
+        if (m_changed) {
+            m_size++;
         }
-        byte[] leftHash = calculateMerkleRoot(node.getLeft());
-        byte[] rightHash = calculateMerkleRoot(node.getRight());
-        // Combine and hash the child hashes
-        byte[] combined = new byte[leftHash.length + rightHash.length];
-        System.arraycopy(leftHash, 0, combined, 0, leftHash.length);
-        System.arraycopy(rightHash, 0, combined, leftHash.length, rightHash.length);
-        
-        return HashServices.digestBytesToBytes(combined, HASH_SIZE);
     }
 
-    public byte[] getMerkleRoot() {
-        return m_merkleRoot.clone();
+    private Node insertRec(Node node, NoteBytes data, byte[] keyBytes) {
+        if (node == null) {
+            m_changed = true;
+            Node created = new Node(data, keyBytes);
+            rehash(created);
+            return created;
+        }
+        int comparison = compare(keyBytes, node.keyBytes);
+        if (comparison < 0) {
+            node.left = insertRec(node.left, data, keyBytes);
+        } else if (comparison > 0) {
+            node.right = insertRec(node.right, data, keyBytes);
+        } else {
+            return node;
+        }
+        return m_changed ? rebalance(node) : node;
     }
 
-   
-    public void insert(NoteBytes data) throws InterruptedException {
-     
-        m_root = insertRec(m_root, data);
-        m_size++;
-        updateMerkleRoot();
-        
+    /**
+     * @return true if data was present
+     */
+    public boolean remove(NoteBytes data) throws InterruptedException {
+        m_changed = false;
+        m_root = removeRec(m_root, data.get());
+        if (m_changed) {
+            m_size--;
+        }
+        return m_changed;
     }
 
-    private NoteBytesNode insertRec(NoteBytesNode root, NoteBytes data) {
-        if (root == null) {
-            return new NoteBytesNode(data);
+    private Node removeRec(Node node, byte[] keyBytes) {
+        if (node == null) {
+            return null;
         }
-        int comparison = compareNoteBytes(data, root.getData());
+        int comparison = compare(keyBytes, node.keyBytes);
         if (comparison < 0) {
-            root.setLeft(insertRec(root.getLeft(), data));
+            node.left = removeRec(node.left, keyBytes);
         } else if (comparison > 0) {
-            root.setRight(insertRec(root.getRight(), data));
-        }
-        return root;
-    }
-    private int compareNoteBytes(NoteBytes a, NoteBytes b) {
-        byte[] bytesA = a.get();
-        byte[] bytesB = b.get();
-        
-        int minLength = Math.min(bytesA.length, bytesB.length);
-        
-        for (int i = 0; i < minLength; i++) {
-            int comparison = Byte.compare(bytesA[i], bytesB[i]);
-            if (comparison != 0) {
-                return comparison;
+            node.right = removeRec(node.right, keyBytes);
+        } else {
+            m_changed = true;
+            if (node.left == null) {
+                return node.right;
+            } else if (node.right == null) {
+                return node.left;
             }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.setKey(successor.key, successor.keyBytes);
+            node.right = removeMin(node.right);
         }
-        
-        return Integer.compare(bytesA.length, bytesB.length);
+        return m_changed ? rebalance(node) : node;
     }
-    public boolean contains(NoteBytes data) throws InterruptedException {
-    
-        return containsRec(m_root, data);
-       
-    }
-    private boolean containsRec(NoteBytesNode root, NoteBytes data) {
-        if (root == null) {
-            return false;
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
         }
-        int comparison = compareNoteBytes(data, root.getData());
-        if (comparison == 0) {
-            return true;
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    public void clear() {
+        m_root = null;
+        m_size = 0;
+    }
+
+    // ===== BALANCE / HASH =====
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private Node rebalance(Node node) {
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
         }
-        if (comparison < 0) {
-            return containsRec(root.getLeft(), data);
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
         }
-        return containsRec(root.getRight(), data);
+        update(node);
+        return node;
+    }
+
+    private Node rotateRight(Node y) {
+        Node x = y.left;
+        y.left = x.right;
+        x.right = y;
+        update(y);
+        update(x);
+        return x;
     }
 
-    public void remove(NoteBytes data) throws InterruptedException {
-      
-        m_root = removeRec(m_root, data);
-        if (m_size > 0) {
-            updateMerkleRoot();
+    private Node rotateLeft(Node x) {
+        Node y = x.right;
+        x.right = y.left;
+        y.left = x;
+        update(x);
+        update(y);
+        return y;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        rehash(node);
+    }
+
+    private void rehash(Node node) {
+        m_hashCount++;
+        hashNode(m_digest, m_lengthScratch,
+            node.left == null ? EMPTY_HASH : node.left.hash,
+            node.right == null ? EMPTY_HASH : node.right.hash,
+            node.type, node.keyBytes, node.hash);
+    }
+
+    static void hashNode(Blake2b digest, byte[] lengthScratch, byte[] leftHash, byte[] rightHash,
+        byte type, byte[] keyBytes, byte[] out
+    ) {
+        digest.update(NODE_TAG);
+        digest.update(leftHash, 0, HASH_SIZE);
+        digest.update(rightHash, 0, HASH_SIZE);
+        digest.update(type);
+        int length = keyBytes.length;
+        lengthScratch[0] = (byte) (length >>> 24);
+        lengthScratch[1] = (byte) (length >>> 16);
+        lengthScratch[2] = (byte) (length >>> 8);
+        lengthScratch[3] = (byte) length;
+        digest.update(lengthScratch, 0, 4);
+        digest.update(keyBytes, 0, length);
+        digest.digest(out, 0, HASH_SIZE);
+    }
+
+    static int compare(byte[] a, byte[] b) {
+        return Arrays.compare(a, b);
+    }
+
+    private static byte[] hashOf(Node node) {
+        return node == null ? EMPTY_HASH : node.hash;
+    }
+
+    /**
+     * Build a perfectly balanced tree from keys (any order, duplicates dropped)
+     */
+    private void rebuild(List<NoteBytes> keys) {
+        int n = keys.size();
+        NoteBytes[] sorted = keys.toArray(new NoteBytes[0]);
+        byte[][] bytes = new byte[n][];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            bytes[i] = sorted[i].get();
+            order[i] = i;
         }
-       
+        Arrays.sort(order, (x, y) -> compare(bytes[x], bytes[y]));
+
+        List<NoteBytes> uniqueKeys = new ArrayList<>(n);
+        List<byte[]> uniqueBytes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] b = bytes[order[i]];
+            if (!uniqueBytes.isEmpty() && compare(uniqueBytes.get(uniqueBytes.size() - 1), b) == 0) {
+                continue;
+            }
+            uniqueKeys.add(sorted[order[i]]);
+            uniqueBytes.add(b);
+        }
+        m_root = buildBalanced(uniqueKeys, uniqueBytes, 0, uniqueKeys.size() - 1);
+        m_size = uniqueKeys.size();
     }
 
-    private NoteBytesNode removeRec(NoteBytesNode root, NoteBytes data) {
-        if (root == null) {
+    private Node buildBalanced(List<NoteBytes> keys, List<byte[]> bytes, int lo, int hi) {
+        if (lo > hi) {
             return null;
         }
-        int comparison = compareNoteBytes(data, root.getData());
-        if (comparison < 0) {
-            root.setLeft(removeRec(root.getLeft(), data));
-        } else if (comparison > 0) {
-            root.setRight(removeRec(root.getRight(), data));
-        } else {
-            m_size--;
-            
-            if (root.getLeft() == null) {
-                return root.getRight();
-            } else if (root.getRight() == null) {
-                return root.getLeft();
+        int mid = (lo + hi) >>> 1;
+        Node node = new Node(keys.get(mid), bytes.get(mid));
+        node.left = buildBalanced(keys, bytes, lo, mid - 1);
+        node.right = buildBalanced(keys, bytes, mid + 1, hi);
+        update(node);
+        return node;
+    }
+
+    // ===== QUERY =====
+
+    public boolean contains(NoteBytes data) throws InterruptedException {
+        byte[] keyBytes = data.get();
+        Node node = m_root;
+        while (node != null) {
+            int comparison = compare(keyBytes, node.keyBytes);
+            if (comparison == 0) {
+                return true;
             }
-            root.setData(minValue(root.getRight()));
-            root.setRight(removeRec(root.getRight(), root.getData()));
+            node = comparison < 0 ? node.left : node.right;
         }
-        return root;
+        return false;
     }
-    private NoteBytes minValue(NoteBytesNode root) {
-        NoteBytes minv = root.getData();
-        while (root.getLeft() != null) {
-            minv = root.getLeft().getData();
-            root = root.getLeft();
+
+    /**
+     * Inclusion proof if data is present, non-inclusion proof otherwise.
+     * Check with NoteBytesMerkleProof.verify(getMerkleRoot(), data).
+     */
+    public NoteBytesMerkleProof prove(NoteBytes data) {
+        byte[] keyBytes = data.get();
+        List<Node> path = new ArrayList<>();
+        Node node = m_root;
+        while (node != null) {
+            path.add(node);
+            int comparison = compare(keyBytes, node.keyBytes);
+            if (comparison == 0) {
+                break;
+            }
+            node = comparison < 0 ? node.left : node.right;
         }
-        return minv;
+        boolean found = node != null;
+        int ancestors = found ? path.size() - 1 : path.size();
+
+        List<NoteBytesMerkleProof.Step> steps = new ArrayList<>(ancestors);
+        for (int i = ancestors - 1; i >= 0; i--) {
+            Node ancestor = path.get(i);
+            boolean wentLeft = compare(keyBytes, ancestor.keyBytes) < 0;
+            steps.add(new NoteBytesMerkleProof.Step(ancestor.type, ancestor.keyBytes,
+                wentLeft ? hashOf(ancestor.right) : hashOf(ancestor.left), wentLeft));
+        }
+        return found
+            ? NoteBytesMerkleProof.inclusion(hashOf(node.left), hashOf(node.right), steps)
+            : NoteBytesMerkleProof.nonInclusion(steps);
     }
-    public List<NoteBytes> inOrderTraversal() {
-        List<NoteBytes> result = new ArrayList<>();
-        
-        inOrderRec(m_root, result);
-        
+
+    /**
+     * Keys present in only one of the two trees
+     */
+    public Diff diff(NoteBytesMerkleTree other) {
+        Diff result = new Diff();
+        Cursor a = new Cursor(m_root);
+        Cursor b = new Cursor(other.m_root);
+
+        while (!a.isEmpty() || !b.isEmpty()) {
+            if (a.isEmpty()) {
+                b.drainTo(result.onlyInOther);
+                break;
+            }
+            if (b.isEmpty()) {
+                a.drainTo(result.onlyInThis);
+                break;
+            }
+            boolean aKey = a.topIsKey();
+            boolean bKey = b.topIsKey();
+            if (!aKey && !bKey) {
+                Node x = a.top();
+                Node y = b.top();
+                if (Arrays.equals(x.hash, y.hash)) {
+                    // Same hash: same keys in the same order at the same position
+                    a.pop();
+                    b.pop();
+                    result.skippedSubtrees++;
+                    continue;
+                }
+                int hx = x.height;
+                int hy = y.height;
+                if (hx >= hy) a.expand();
+                if (hy >= hx) b.expand();
+                continue;
+            }
+            if (!aKey) {
+                a.expand();
+                continue;
+            }
+            if (!bKey) {
+                b.expand();
+                continue;
+            }
+            int comparison = compare(a.top().keyBytes, b.top().keyBytes);
+            if (comparison == 0) {
+                a.pop();
+                b.pop();
+            } else if (comparison < 0) {
+                result.onlyInThis.add(a.top().key);
+                a.pop();
+            } else {
+                result.onlyInOther.add(b.top().key);
+                b.pop();
+            }
+        }
         return result;
     }
-    private void inOrderRec(NoteBytesNode root, List<NoteBytes> result) {
-        if (root != null) {
-            inOrderRec(root.getLeft(), result);
-            result.add(root.getData());
-            inOrderRec(root.getRight(), result);
+
+    public static final class Diff {
+        public final List<NoteBytes> onlyInThis = new ArrayList<>();
+        public final List<NoteBytes> onlyInOther = new ArrayList<>();
+        /** Matching subtrees skipped without visiting their keys */
+        public int skippedSubtrees = 0;
+
+        public boolean isEmpty() {
+            return onlyInThis.isEmpty() && onlyInOther.isEmpty();
         }
     }
 
+    /** In-order walk that can skip whole subtrees */
+    private static final class Cursor {
+        private final ArrayDeque<Node> nodes = new ArrayDeque<>();
+        private final ArrayDeque<Boolean> keys = new ArrayDeque<>();
+
+        Cursor(Node root) {
+            if (root != null) push(root, false);
+        }
+
+        void push(Node node, boolean key) {
+            nodes.push(node);
+            keys.push(key);
+        }
+
+        boolean isEmpty() {
+            return nodes.isEmpty();
+        }
+
+        Node top() {
+            return nodes.peek();
+        }
+
+        boolean topIsKey() {
+            return keys.peek();
+        }
+
+        void pop() {
+            nodes.pop();
+            keys.pop();
+        }
+
+        /** Replace the subtree on top with left subtree, key, right subtree */
+        void expand() {
+            Node node = nodes.pop();
+            keys.pop();
+            if (node.right != null) push(node.right, false);
+            push(node, true);
+            if (node.left != null) push(node.left, false);
+        }
+
+        void drainTo(List<NoteBytes> out) {
+            while (!isEmpty()) {
+                if (topIsKey()) {
+                    out.add(top().key);
+                    pop();
+                } else {
+                    expand();
+                }
+            }
+        }
+    }
+
+    public List<NoteBytes> inOrderTraversal() {
+        List<NoteBytes> result = new ArrayList<>(m_size);
+        new Cursor(m_root).drainTo(result);
+        return result;
+    }
+
     public NoteBytesObject getAsNoteBytesObject() {
         List<NoteBytes> elements = inOrderTraversal();
         int size = elements.size();
@@ -190,16 +488,42 @@ public class NoteBytesMerkleTree {
         List<NoteBytes> elements = inOrderTraversal();
         return new NoteBytesArray(elements.toArray(new NoteBytes[0]));
     }
-    
 
+    /**
+     * Replace the contents with the keys of a NoteBytesNode tree. The shape
+     * is not kept - keys are rebuilt into a balanced tree.
+     */
     public void setRoot(NoteBytesNode root) {
-        m_root = root;
+        List<NoteBytes> keys = new ArrayList<>();
+        ArrayDeque<NoteBytesNode> stack = new ArrayDeque<>();
+        if (root != null) stack.push(root);
+        while (!stack.isEmpty()) {
+            NoteBytesNode node = stack.pop();
+            keys.add(node.getData());
+            if (node.getLeft() != null) stack.push(node.getLeft());
+            if (node.getRight() != null) stack.push(node.getRight());
+        }
+        rebuild(keys);
     }
 
+    /**
+     * @return a NoteBytesNode copy of the current shape
+     */
     public NoteBytesNode getRoot() {
-        return m_root;
+        return toNoteBytesNode(m_root);
     }
 
+    private static NoteBytesNode toNoteBytesNode(Node node) {
+        if (node == null) {
+            return null;
+        }
+        NoteBytesNode copy = new NoteBytesNode(node.key);
+        copy.setLeft(toNoteBytesNode(node.left));
+        copy.setRight(toNoteBytesNode(node.right));
+        return copy;
+    }
+
+    // ===== SERIALIZATION =====
 
     public byte[] get() {
         if (m_root == null) {
@@ -217,77 +541,50 @@ public class NoteBytesMerkleTree {
     public byte[] getBytes() {
         return get();
     }
-    
 
-    private void serializeNode(NoteBytesNode node, ByteArrayOutputStream outputStream) throws IOException {
+
+    private void serializeNode(Node node, ByteArrayOutputStream outputStream) throws IOException {
         if (node == null) {
             // Write null marker (0)
             outputStream.write(0);
             return;
         }
-        
+
         // Write node marker (1)
         outputStream.write(1);
-        
-        // Write node data
-        NoteBytes data = node.getData();
-        byte[] dataBytes = data.get();
-        byte type = data.getType();
-        
+
         // Write type
-        outputStream.write(type);
-        
+        outputStream.write(node.type);
+
         // Write length
-        byte[] lengthBytes = ByteDecoding.intToBytesBigEndian(dataBytes.length);
+        byte[] lengthBytes = ByteDecoding.intToBytesBigEndian(node.keyBytes.length);
         outputStream.write(lengthBytes);
-        
+
         // Write data content
-        outputStream.write(dataBytes);
-        
+        outputStream.write(node.keyBytes);
+
         // Recursively serialize left and right nodes
-        serializeNode(node.getLeft(), outputStream);
-        serializeNode(node.getRight(), outputStream);
+        serializeNode(node.left, outputStream);
+        serializeNode(node.right, outputStream);
     }
 
-    private void deserialize(byte[] bytes) {
+    /**
+     * Read the pre-order marker format written by serializeNode. Only the
+     * keys are kept; rebuild() restores balance.
+     */
+    private static void deserialize(byte[] bytes, List<NoteBytes> keys) {
         if (bytes == null || bytes.length == 0) {
             return;
         }
-        
         int offset = 0;
         while (offset < bytes.length) {
-            // Read node data
-            NoteBytes nodeData = NoteBytes.readNote(bytes, offset);
-            offset += 5 + nodeData.byteLength(); // 1 byte type + 4 bytes length + content
-            
-            // Read left child flag
-            boolean hasLeft = ByteDecoding.bytesToBoolean(bytes, offset);
-            offset += 1;
-            
-            // Read right child flag  
-            boolean hasRight = ByteDecoding.bytesToBoolean(bytes, offset);
-            offset += 1;
-            
-            // Create current node
-            NoteBytesNode currentNode = new NoteBytesNode(nodeData);
-            
-            if (m_root == null) {
-                m_root = currentNode;
-            }
-            
-            // Recursively deserialize left subtree if exists
-            if (hasLeft) {
-                NoteBytes leftData = NoteBytes.readNote(bytes, offset);
-                offset += 5 + leftData.byteLength();
-                currentNode.setLeft(new NoteBytesNode(leftData));
-            }
-            
-            // Recursively deserialize right subtree if exists
-            if (hasRight) {
-                NoteBytes rightData = NoteBytes.readNote(bytes, offset); 
-                offset += 5 + rightData.byteLength();
-                currentNode.setRight(new NoteBytesNode(rightData));
+            if (bytes[offset++] == 0) {
+                continue;
             }
+            // 1 byte type + 4 bytes length + content
+            NoteBytes nodeData = NoteBytes.readNote(bytes, offset);
+            offset += 5 + nodeData.byteLength();
+            keys.add(nodeData);
         }
     }
 
@@ -301,9 +598,13 @@ public class NoteBytesMerkleTree {
         return m_size == 0;
     }
 
-    public void clear() {
-        m_root = null;
-        m_size = 0;
-        m_merkleRoot = new byte[HASH_SIZE];
+    /** Height of the tree, 0 when empty */
+    public int height() {
+        return height(m_root);
+    }
+
+    /** Node hashes computed since construction */
+    long getHashCount() {
+        return m_hashCount;
     }
-}
\ No newline at end of file
+}
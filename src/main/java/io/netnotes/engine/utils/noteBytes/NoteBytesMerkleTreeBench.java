@@ -0,0 +1,139 @@
+package io.netnotes.engine.utils.noteBytes;
+
+import java.util.Random;
+
+import io.netnotes.noteBytes.NoteBytes;
+
+/**
+ * NoteBytesMerkleTreeBench - insert cost, proofs and diff at 1M keys
+ *
+ * Inserts N 8-byte big-endian keys in sorted and in random order (sorted
+ * order is what degraded the old unbalanced tree into a list). Reports
+ * ns/insert, node hashes per insert, final height, the cost and size of
+ * inclusion / non-inclusion proofs, and a diff against a copy with
+ * DIFF_CHANGES keys removed and added. Every proof and the diff are checked.
+ *
+ * usage: java -cp .. io.netnotes.engine.utils.noteBytes.NoteBytesMerkleTreeBench [keys]
+ */
+public class NoteBytesMerkleTreeBench {
+
+    private static final int PROOFS = 10_000;
+    private static final int DIFF_CHANGES = 100;
+
+    public static void main(String... args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long[] sorted = new long[keys];
+        for (int i = 0; i < keys; i++) {
+            sorted[i] = (long) i * 2; // odd values are never present
+        }
+        long[] shuffled = sorted.clone();
+        Random random = new Random(7);
+        for (int i = keys - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long t = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = t;
+        }
+
+        System.out.format("%-7s | %10s | %12s | %6s | %11s | %11s | %10s%n",
+            "order", "ns/insert", "hashes/ins", "height", "prove (us)", "verify (us)", "proof (B)");
+        NoteBytesMerkleTree sortedTree = run("sorted", sorted);
+        NoteBytesMerkleTree randomTree = run("random", shuffled);
+
+        // Same keys, different insertion order and shape - no keys may differ
+        if (!sortedTree.diff(randomTree).isEmpty()) {
+            throw new IllegalStateException("sorted and random trees hold different keys");
+        }
+        diff(randomTree, keys, random);
+    }
+
+    private static NoteBytesMerkleTree run(String name, long[] order) throws Exception {
+        NoteBytesMerkleTree tree = new NoteBytesMerkleTree();
+        long start = System.nanoTime();
+        for (long k : order) {
+            tree.insert(key(k));
+        }
+        long elapsed = System.nanoTime() - start;
+        double hashesPerInsert = tree.getHashCount() / (double) order.length;
+
+        // Perfectly balanced AVL height bound: 1.44 log2(n + 2)
+        double bound = 1.4405 * (Math.log(order.length + 2) / Math.log(2));
+        if (tree.height() > bound) {
+            throw new IllegalStateException(name + ": height " + tree.height() + " exceeds AVL bound " + bound);
+        }
+
+        byte[] root = tree.getMerkleRoot();
+        Random random = new Random(11);
+        long proveNs = 0;
+        long verifyNs = 0;
+        long proofBytes = 0;
+        for (int i = 0; i < PROOFS; i++) {
+            // Alternate present (even) and absent (odd) keys
+            long k = order[random.nextInt(order.length)] + (i & 1);
+            NoteBytes key = key(k);
+
+            long t0 = System.nanoTime();
+            NoteBytesMerkleProof proof = tree.prove(key);
+            long t1 = System.nanoTime();
+            byte[] wire = proof.toBytes();
+            NoteBytesMerkleProof decoded = NoteBytesMerkleProof.fromBytes(wire);
+            long t2 = System.nanoTime();
+            boolean valid = decoded.verify(root, key);
+            long t3 = System.nanoTime();
+
+            if (!valid || decoded.isInclusion() != ((i & 1) == 0)) {
+                throw new IllegalStateException(name + ": bad proof for " + k);
+            }
+            if (decoded.verify(root, key(k + 2 * (order.length + 1)))) {
+                throw new IllegalStateException(name + ": proof accepted for a different key");
+            }
+            proveNs += t1 - t0;
+            verifyNs += t3 - t2;
+            proofBytes += wire.length;
+        }
+
+        System.out.format("%-7s | %10.0f | %12.1f | %6d | %11.2f | %11.2f | %10.0f%n",
+            name, elapsed / (double) order.length, hashesPerInsert, tree.height(),
+            proveNs / 1_000.0 / PROOFS, verifyNs / 1_000.0 / PROOFS, proofBytes / (double) PROOFS);
+        return tree;
+    }
+
+    private static void diff(NoteBytesMerkleTree tree, int keys, Random random) throws Exception {
+        NoteBytesMerkleTree copy = new NoteBytesMerkleTree(tree.get());
+        // The copy is rebuilt balanced from get(); diff is by key, not by shape
+        if (copy.size() != tree.size() || !tree.diff(copy).isEmpty()) {
+            throw new IllegalStateException("serialized copy differs");
+        }
+
+        for (int i = 0; i < DIFF_CHANGES; i++) {
+            copy.remove(key((long) random.nextInt(keys) * 2));
+            copy.insert(key((long) random.nextInt(keys) * 2 + 1));
+        }
+
+        long start = System.nanoTime();
+        NoteBytesMerkleTree.Diff diff = tree.diff(copy);
+        long elapsed = System.nanoTime() - start;
+
+        if (diff.onlyInOther.size() != copy.size() - tree.size() + diff.onlyInThis.size()) {
+            throw new IllegalStateException("diff sizes inconsistent");
+        }
+        for (NoteBytes k : diff.onlyInThis) {
+            if (copy.contains(k) || !tree.contains(k)) throw new IllegalStateException("wrong onlyInThis key");
+        }
+        for (NoteBytes k : diff.onlyInOther) {
+            if (tree.contains(k) || !copy.contains(k)) throw new IllegalStateException("wrong onlyInOther key");
+        }
+        System.out.format("diff    | %d + %d keys in %.2f ms, %d subtrees skipped%n",
+            diff.onlyInThis.size(), diff.onlyInOther.size(), elapsed / 1e6, diff.skippedSubtrees);
+    }
+
+    private static NoteBytes key(long value) {
+        byte[] b = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            b[i] = (byte) value;
+            value >>>= 8;
+        }
+        return new NoteBytes(b);
+    }
+}
@@ -2,7 +2,9 @@ package io.netnotes.engine.utils.noteBytes;
 
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 import io.netnotes.noteBytes.processing.ByteEncoding;
@@ -16,10 +18,35 @@ import io.netnotes.noteBytes.processing.RandomService;
 import io.netnotes.noteBytes.processing.ByteEncoding.EncodingType;
 
 
+/**
+ * NoteUUID - time-windowed local ids, base64url encoded
+ *
+ * 64 bit local id: [32 bit timestamp (year/day/16s window) | 32 bit sequence]
+ * The sequence starts at a random base per window and counts up, so ids are
+ * unique for up to 2^32 ids per 16s window.
+ *
+ * Hot path (createLocalUUID64 / nextLocalId):
+ * - the window (timestamp, random base, end time) is cached and only
+ *   rebuilt when the clock leaves it, so Calendar and SecureRandom run once
+ *   per 16s instead of once per id
+ * - sequence numbers come from per-thread-stripe blocks of BLOCK_SIZE,
+ *   claimed from the window's counter, so threads don't contend on one
+ *   atomic
+ * - the id is base64url encoded straight into the NoteUUID's byte array
+ *
+ * nextLocalId() returns the id as a primitive long for in-process
+ * correlation; fromLocalId(id) encodes it when a NoteUUID is needed.
+ */
 public class NoteUUID extends NoteBytesReadOnly {
 
-    private static final AtomicInteger m_atomicInteger = new AtomicInteger(createSequenceRand());
-    private static final AtomicInteger m_lastTime = new AtomicInteger(getIntTimeStamp());
+    // ===== SEQUENCE =====
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int STRIPES = stripeCount();
+
+    private static volatile TimeWindow m_window = TimeWindow.create(System.currentTimeMillis(), 0);
+    private static final AtomicReferenceArray<SequenceBlock> m_blocks = new AtomicReferenceArray<>(STRIPES);
+
     private NoteUUID(byte[] bytes){
         super(bytes, NoteBytesMetaData.STRING_ISO_8859_1_TYPE);
     }
@@ -41,7 +68,16 @@ public class NoteUUID extends NoteBytesReadOnly {
     }
 
     public static NoteUUID createLocalUUID64(){
-        return fromUnencodedBytes(createTimeSequenceBytes64());
+        return fromLocalId(nextLocalId());
+    }
+
+    /**
+     * NoteUUID for a 64 bit local id (same encoding as createLocalUUID64)
+     */
+    public static NoteUUID fromLocalId(long id){
+        return DIRECT_ENCODING
+            ? new NoteUUID(encodeUrlSafe(id))
+            : fromUnencodedBytes(ByteDecoding.longToBytesBigEndian(id));
     }
 
     public static String createSafeUUID64(){
@@ -101,51 +137,45 @@ public class NoteUUID extends NoteBytesReadOnly {
     }
 
     public static long getNextUUID64() {
-       
-        return ByteDecoding.bytesToLongBigEndian(createTimeSequenceBytes64());
+        return nextLocalId();
     }
 
-    public static int getNextSequenceRand(){
-        return getNextSequenceRand(getIntTimeStamp());
-    }
-
-    private static int createSequenceRand(){
-        return ByteDecoding.bytesToIntBigEndian(RandomService.getRandomBytes(4)) & 0x7FFFFFFF;
-    }
+    /**
+     * Next 64 bit local id: [timestamp | sequence], no allocation
+     */
+    public static long nextLocalId() {
+        TimeWindow window = currentWindow();
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
 
-    private static int getNextSequenceRand(int now) {
-        int rand = createSequenceRand();
-        
         while (true) {
-            int last = m_lastTime.get();
-
-            if (last == now) {
-                
-                return m_atomicInteger.incrementAndGet();
+            SequenceBlock block = m_blocks.get(stripe);
+            if (block != null && block.window == window) {
+                int used = block.used.getAndIncrement();
+                if (used < BLOCK_SIZE) {
+                    int seq = window.base + block.start + used;
+                    return ((long) window.timestamp << 32) | (seq & 0xFFFFFFFFL);
+                }
+            } else if (block != null && block.window.epoch - window.epoch > 0) {
+                // Another thread already moved this stripe to a newer window
+                window = currentWindow();
+                continue;
             }
+            // Claim the next block of the window's sequence space for this stripe
+            SequenceBlock next = new SequenceBlock(window, window.nextBlock.getAndIncrement() * BLOCK_SIZE);
+            m_blocks.compareAndSet(stripe, block, next);
+        }
+    }
 
-            // Timestamp changed → try to update the timestamp
-            if (m_lastTime.compareAndSet(last, now)) {
-                // Successfully updated timestamp → reset counter
-                m_atomicInteger.set(rand);
-                return rand; // first value for this new window
-            }
+    public static int getNextSequenceRand(){
+        return (int) nextLocalId();
+    }
 
-            // Else: another thread changed it first → loop and retry
-        }
+    private static int createSequenceRand(){
+        return ByteDecoding.bytesToIntBigEndian(RandomService.getRandomBytes(4)) & 0x7FFFFFFF;
     }
 
     public static byte[] createTimeSequenceBytes64() {
-        int now = getIntTimeStamp();
-        int seq = getNextSequenceRand(now);
-
-        byte[] intTimestamp = ByteDecoding.intToBytesBigEndian(now);
-        byte[] seqBytes = ByteDecoding.intToBytesBigEndian(seq);
-        
-        return new byte[] {
-            intTimestamp[0],  intTimestamp[1],  intTimestamp[2],    intTimestamp[3],
-            seqBytes[0],      seqBytes[1],      seqBytes[2],      seqBytes[3]   
-        };
+        return ByteDecoding.longToBytesBigEndian(nextLocalId());
     }
 
     /**
@@ -154,10 +184,29 @@ public class NoteUUID extends NoteBytesReadOnly {
      * @return
      */
     public static int getIntTimeStamp(){
-         long now = System.currentTimeMillis();
+        return currentWindow().timestamp;
+    }
+
+    private static TimeWindow currentWindow() {
+        TimeWindow window = m_window;
+        long now = System.currentTimeMillis();
+        if (now >= window.startMillis && now < window.endMillis) {
+            return window;
+        }
+        return refreshWindow(now);
+    }
 
-        Calendar cal = Calendar.getInstance();
-        cal.setTimeInMillis(now);
+    private static synchronized TimeWindow refreshWindow(long now) {
+        TimeWindow window = m_window;
+        if (now >= window.startMillis && now < window.endMillis) {
+            return window;
+        }
+        window = TimeWindow.create(now, window.epoch + 1);
+        m_window = window;
+        return window;
+    }
+
+    private static int computeIntTimeStamp(Calendar cal){
 
         int year = cal.get(Calendar.YEAR) & 0x3FF;          // 10 bits
         int day  = cal.get(Calendar.DAY_OF_YEAR) & 0x1FF;   // 9 bits
@@ -176,4 +225,111 @@ public class NoteUUID extends NoteBytesReadOnly {
         return timestamp;
     }
 
+    /**
+     * One 16s timestamp window: the cached timestamp, the random sequence
+     * base and the window's block counter
+     */
+    private static final class TimeWindow {
+        final int epoch;
+        final int timestamp;
+        final int base;
+        final long startMillis;
+        final long endMillis;
+        final AtomicInteger nextBlock = new AtomicInteger();
+
+        private TimeWindow(int epoch, int timestamp, int base, long startMillis, long endMillis) {
+            this.epoch = epoch;
+            this.timestamp = timestamp;
+            this.base = base;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        static TimeWindow create(long now, int epoch) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTimeInMillis(now);
+
+            // Windows are 16s of local time of day; hour (DST) and day
+            // changes fall on window boundaries
+            int secondOfDay = cal.get(Calendar.HOUR_OF_DAY) * 3600
+                + cal.get(Calendar.MINUTE) * 60
+                + cal.get(Calendar.SECOND);
+            long intoWindow = (secondOfDay & 0xF) * 1000L + cal.get(Calendar.MILLISECOND);
+            long start = now - intoWindow;
+            return new TimeWindow(epoch, computeIntTimeStamp(cal), createSequenceRand(), start, start + 16_000L);
+        }
+    }
+
+    private static final class SequenceBlock {
+        final TimeWindow window;
+        final int start;
+        final AtomicInteger used = new AtomicInteger();
+
+        SequenceBlock(TimeWindow window, int start) {
+            this.window = window;
+            this.start = start;
+        }
+    }
+
+    private static int stripeCount() {
+        int target = Math.min(64, Runtime.getRuntime().availableProcessors() * 2);
+        return Integer.highestOneBit(Math.max(1, target - 1)) << 1;
+    }
+
+    // ===== ENCODING =====
+
+    private static final byte[] URL_SAFE_ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+
+    // ByteEncoding's length for 8 bytes: 11, or 12 if it pads
+    private static final int ENCODED_LENGTH = encodedLength();
+    private static final boolean DIRECT_ENCODING = checkDirectEncoding();
+
+    /**
+     * Base64url of the 8 big-endian bytes of id, written into one array
+     */
+    private static byte[] encodeUrlSafe(long id) {
+        byte[] out = new byte[ENCODED_LENGTH];
+        for (int i = 0; i < 10; i++) {
+            out[i] = URL_SAFE_ALPHABET[(int) (id >>> (58 - 6 * i)) & 0x3F];
+        }
+        out[10] = URL_SAFE_ALPHABET[(int) (id & 0xF) << 2];
+        if (out.length == 12) {
+            out[11] = '=';
+        }
+        return out;
+    }
+
+    /**
+     * Direct encoding is only used if it reproduces ByteEncoding's
+     * BASE_64_URL_SAFE output (padded or not) byte for byte
+     */
+    private static boolean checkDirectEncoding() {
+        if (ENCODED_LENGTH != 11 && ENCODED_LENGTH != 12) {
+            return false;
+        }
+        try {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            for (int i = 0; i < 16; i++) {
+                long id = i == 0 ? -1L : i == 1 ? 0L : rnd.nextLong();
+                byte[] expected = ByteEncoding.encodeBytes(
+                    ByteDecoding.longToBytesBigEndian(id), EncodingType.BASE_64_URL_SAFE);
+                if (!Arrays.equals(expected, encodeUrlSafe(id))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static int encodedLength() {
+        try {
+            return ByteEncoding.encodeBytes(new byte[8], EncodingType.BASE_64_URL_SAFE).length;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
 }
@@ -0,0 +1,151 @@
+package io.netnotes.engine.utils.noteBytes;
+
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.noteBytes.processing.ByteDecoding;
+import io.netnotes.noteBytes.processing.ByteEncoding;
+import io.netnotes.noteBytes.processing.RandomService;
+import io.netnotes.noteBytes.processing.ByteEncoding.EncodingType;
+
+/**
+ * NoteUUIDBench - local id generation throughput, 1..N threads
+ *
+ * - legacy:    the old createLocalUUID64 (Calendar + SecureRandom per id,
+ *              intermediate arrays, ByteEncoding)
+ * - uuid64:    NoteUUID.createLocalUUID64 (cached window, striped blocks,
+ *              direct encoding)
+ * - localId:   NoteUUID.nextLocalId (primitive long, no encoding)
+ *
+ * Reports aggregate Mops/s and bytes allocated per id (summed over the
+ * worker threads). Plain threads with warmup rounds (the project has no
+ * JMH dependency).
+ *
+ * usage: java -cp .. io.netnotes.engine.utils.noteBytes.NoteUUIDBench [idsPerThread]
+ */
+public class NoteUUIDBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int[] THREADS = { 1, 4, 8 };
+
+    private static final AtomicInteger legacyCounter = new AtomicInteger(legacySequenceRand());
+    private static final AtomicInteger legacyLastTime = new AtomicInteger(legacyTimeStamp());
+
+    @FunctionalInterface
+    private interface IdOp {
+        long next();
+    }
+
+    public static void main(String... args) throws InterruptedException {
+        int perThread = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+
+        String[] names = { "legacy", "uuid64", "localId" };
+        IdOp[] ops = {
+            () -> legacyCreate().length,
+            () -> NoteUUID.createLocalUUID64().byteLength(),
+            NoteUUID::nextLocalId,
+        };
+
+        System.out.format("threads | op      | Mops/s  | B/id%n");
+        for (int threads : THREADS) {
+            for (int o = 0; o < ops.length; o++) {
+                double[] r = null;
+                for (int w = 0; w <= WARMUP_ROUNDS; w++) {
+                    r = run(threads, perThread, ops[o]);
+                }
+                System.out.format("%7d | %-7s | %7.2f | %5.1f%n", threads, names[o], r[0], r[1]);
+            }
+        }
+    }
+
+    private static double[] run(int threads, int perThread, IdOp op) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong sink = new AtomicLong();
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long before = allocatedBytes();
+                long local = 0;
+                for (int i = 0; i < perThread; i++) {
+                    local += op.next();
+                }
+                allocated.addAndGet(allocatedBytes() - before);
+                sink.addAndGet(local);
+                done.countDown();
+            }, "NoteUUIDBench-" + t);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        long total = (long) threads * perThread;
+        if (sink.get() == Long.MIN_VALUE) System.out.print("");
+        return new double[] { total / (elapsed / 1_000.0), allocated.get() / (double) total };
+    }
+
+    // ===== LEGACY =====
+
+    /** The old createLocalUUID64: time + sequence bytes, then ByteEncoding */
+    private static byte[] legacyCreate() {
+        int now = legacyTimeStamp();
+        int seq = legacyNextSequence(now);
+        byte[] intTimestamp = ByteDecoding.intToBytesBigEndian(now);
+        byte[] seqBytes = ByteDecoding.intToBytesBigEndian(seq);
+        byte[] bytes = new byte[] {
+            intTimestamp[0], intTimestamp[1], intTimestamp[2], intTimestamp[3],
+            seqBytes[0], seqBytes[1], seqBytes[2], seqBytes[3]
+        };
+        return ByteEncoding.encodeBytes(bytes, EncodingType.BASE_64_URL_SAFE);
+    }
+
+    private static int legacySequenceRand() {
+        return ByteDecoding.bytesToIntBigEndian(RandomService.getRandomBytes(4)) & 0x7FFFFFFF;
+    }
+
+    private static int legacyNextSequence(int now) {
+        int rand = legacySequenceRand();
+        while (true) {
+            int last = legacyLastTime.get();
+            if (last == now) {
+                return legacyCounter.incrementAndGet();
+            }
+            if (legacyLastTime.compareAndSet(last, now)) {
+                legacyCounter.set(rand);
+                return rand;
+            }
+        }
+    }
+
+    private static int legacyTimeStamp() {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(System.currentTimeMillis());
+        int year = cal.get(Calendar.YEAR) & 0x3FF;
+        int day = cal.get(Calendar.DAY_OF_YEAR) & 0x1FF;
+        int seconds = cal.get(Calendar.HOUR_OF_DAY) * 3600
+            + cal.get(Calendar.MINUTE) * 60
+            + cal.get(Calendar.SECOND);
+        return (year << 22) | (day << 13) | ((seconds >>> 4) & 0x1FFF);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
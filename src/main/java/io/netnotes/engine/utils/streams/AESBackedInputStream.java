@@ -5,15 +5,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 
-import javax.crypto.Cipher;
-import javax.crypto.CipherInputStream;
 import javax.crypto.SecretKey;
 
 import org.apache.commons.io.input.UnsynchronizedByteArrayInputStream;
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 
-import io.netnotes.engine.crypto.CryptoService;
 import io.netnotes.engine.utils.LoggingHelpers.Log;
+import io.netnotes.engine.utils.files.FileStreamUtils;
 
 public final class AESBackedInputStream extends InputStream {
     private final File m_file;
@@ -26,13 +24,8 @@ public final class AESBackedInputStream extends InputStream {
     ) throws Exception {
         this.m_fileBacked = true;
         m_file = file;
-        // Open file, read IV, init cipher
-        InputStream fileIn = Files.newInputStream(file.toPath());
-
-        byte[] iv = StreamUtils.readByteAmount(CryptoService.AES_IV_SIZE, fileIn);
-
-        Cipher decryptCipher = CryptoService.getAESDecryptCipher(iv, secretKey);
-        this.m_delegate = new CipherInputStream(fileIn, decryptCipher);
+        // Chunked or legacy IV + GCM stream
+        this.m_delegate = FileStreamUtils.openDecryptedInputStream(file, secretKey);
     }
 
     public AESBackedInputStream(
@@ -60,11 +53,7 @@ public final class AESBackedInputStream extends InputStream {
         if(aesBackedOutputStream.isFileBacked()){
             this.m_fileBacked = true;
             m_file = aesBackedOutputStream.getFile();
-            // Open file, read IV, init cipher
-            InputStream fileIn = Files.newInputStream(m_file.toPath());
-            byte[] iv = StreamUtils.readByteAmount(CryptoService.AES_IV_SIZE, fileIn);
-            Cipher decryptCipher = CryptoService.getAESDecryptCipher(iv, secretKey);
-            this.m_delegate = new CipherInputStream(fileIn, decryptCipher);
+            this.m_delegate = FileStreamUtils.openDecryptedInputStream(m_file, secretKey);
         }else{  
             m_file = null;
             this.m_fileBacked = false;
@@ -6,15 +6,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 
-import javax.crypto.Cipher;
-import javax.crypto.CipherOutputStream;
 import javax.crypto.SecretKey;
 
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 
-import io.netnotes.engine.crypto.CryptoService;
 import io.netnotes.engine.utils.files.FileStreamUtils;
-import io.netnotes.noteBytes.processing.RandomService;
 
 public final class AESBackedOutputStream extends OutputStream {
 
@@ -37,11 +33,7 @@ public final class AESBackedOutputStream extends OutputStream {
             this.fileBacked = true;
             OutputStream tmpOut = Files.newOutputStream(this.file.toPath());
 
-            byte[] iv = RandomService.getIV();
-            Cipher encryptCipher = CryptoService.getAESEncryptCipher(iv, secretKey);
-
-            tmpOut.write(iv); // write IV first
-            this.delegate = new CipherOutputStream(tmpOut, encryptCipher);
+            this.delegate = new ChunkedAESOutputStream(tmpOut, secretKey);
         }
     }
 
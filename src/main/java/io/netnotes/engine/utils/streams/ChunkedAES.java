@@ -0,0 +1,239 @@
+package io.netnotes.engine.utils.streams;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.netnotes.engine.crypto.CryptoService;
+import io.netnotes.noteBytes.NoteBytesReadOnly;
+import io.netnotes.noteBytes.processing.RandomService;
+
+/**
+ * ChunkedAES - versioned, seekable AES-GCM file format
+ *
+ * LAYOUT:
+ *   header  = magic(8) version(1) chunkSize(4) salt(16) noncePrefix(7)
+ *   chunk i = AES-GCM(plaintext[i * chunkSize ...]) | tag(16)
+ * Every chunk but the last holds exactly chunkSize plaintext bytes, the last
+ * holds 1..chunkSize (0 only for an empty file). Plaintext size and chunk
+ * offsets follow from the file length, so any chunk can be located,
+ * decrypted and authenticated on its own - and chunks encrypt in parallel.
+ *
+ * KEYS AND NONCES:
+ * A file encrypts under HKDF-SHA256(key, salt, KDF_INFO), so nonces only
+ * need to be unique within one file. Chunk i uses
+ *   nonce = noncePrefix(7) | i(4) | last(1)
+ *   AAD   = header | i(8) | last(1)
+ * A moved or swapped chunk fails its tag. Cutting the file at a chunk
+ * boundary leaves a final chunk sealed with last = 0, so truncation fails
+ * too; appending a chunk cannot be done without the key.
+ *
+ * LEGACY:
+ * Files written before this format are IV(12) | AES-GCM(whole file). The
+ * magic tells them apart - a random IV matches it with probability 2^-64.
+ *
+ * One instance holds one file's derived key and header and is immutable;
+ * seal/open take a Cipher so each thread reuses its own (newCipher()).
+ */
+public final class ChunkedAES {
+
+    public static final byte[] MAGIC = { 'N', 'N', 'C', 'H', 'U', 'N', 'K', 0x1A };
+    public static final byte VERSION = 1;
+
+    public static final int TAG_SIZE = CryptoService.GCM_TAG_LENGTH / 8;
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final int MIN_CHUNK_SIZE = 4 * 1024;
+    public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private static final int SALT_SIZE = 16;
+    private static final int NONCE_PREFIX_SIZE = 7;
+    public static final int HEADER_SIZE = MAGIC.length + 1 + 4 + SALT_SIZE + NONCE_PREFIX_SIZE;
+
+    // 2^32 chunks: the index has 4 bytes in the nonce
+    private static final long MAX_CHUNKS = 1L << 32;
+
+    private static final NoteBytesReadOnly KDF_INFO = new NoteBytesReadOnly("netnotes-chunked-aes-v1");
+
+    private final byte[] header;
+    private final int chunkSize;
+    private final byte[] noncePrefix;
+    private final SecretKey fileKey;
+
+    private ChunkedAES(byte[] header, int chunkSize, byte[] salt, byte[] noncePrefix, SecretKey key) throws Exception {
+        byte[] keyBytes = key.getEncoded();
+        if (keyBytes == null) {
+            throw new IllegalArgumentException("Chunked encryption requires an encodable key");
+        }
+        this.header = header;
+        this.chunkSize = chunkSize;
+        this.noncePrefix = noncePrefix;
+        this.fileKey = new SecretKeySpec(
+            CryptoService.deriveHKDFKey(keyBytes, salt, KDF_INFO, keyBytes.length),
+            CryptoService.AES_ALGORITHM);
+    }
+
+    /**
+     * New file parameters: fresh salt and nonce prefix
+     */
+    public static ChunkedAES create(SecretKey key, int chunkSize) throws Exception {
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+        }
+        byte[] salt = RandomService.getRandomBytes(SALT_SIZE);
+        byte[] noncePrefix = RandomService.getRandomBytes(NONCE_PREFIX_SIZE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).put(VERSION).putInt(chunkSize).put(salt).put(noncePrefix);
+
+        return new ChunkedAES(header.array(), chunkSize, salt, noncePrefix, key);
+    }
+
+    /**
+     * Parameters of an existing file
+     *
+     * @param header the first HEADER_SIZE bytes of the file
+     * @throws IOException if header is not a supported chunked header
+     */
+    public static ChunkedAES fromHeader(SecretKey key, byte[] header) throws Exception {
+        if (header.length != HEADER_SIZE || !isChunked(header)) {
+            throw new IOException("Not a chunked encrypted file");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(header, MAGIC.length, HEADER_SIZE - MAGIC.length);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported chunked format version: " + version);
+        }
+        int chunkSize = buffer.getInt();
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IOException("Invalid chunk size: " + chunkSize);
+        }
+        byte[] salt = new byte[SALT_SIZE];
+        byte[] noncePrefix = new byte[NONCE_PREFIX_SIZE];
+        buffer.get(salt).get(noncePrefix);
+
+        return new ChunkedAES(header.clone(), chunkSize, salt, noncePrefix, key);
+    }
+
+    /**
+     * @param start at least the first MAGIC.length bytes of a file
+     */
+    public static boolean isChunked(byte[] start) {
+        return start.length >= MAGIC.length
+            && Arrays.equals(start, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    public byte[] getHeader() {
+        return header.clone();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /** Chunk size on disk: plaintext plus tag */
+    public int getSegmentSize() {
+        return chunkSize + TAG_SIZE;
+    }
+
+    public long chunkCount(long plaintextSize) {
+        long count = plaintextSize == 0 ? 1 : (plaintextSize + chunkSize - 1) / chunkSize;
+        if (count > MAX_CHUNKS) {
+            throw new IllegalArgumentException("Plaintext too large for chunk size " + chunkSize);
+        }
+        return count;
+    }
+
+    /** File offset of chunk index */
+    public long chunkOffset(long index) {
+        return HEADER_SIZE + index * getSegmentSize();
+    }
+
+    /**
+     * @param fileSize encrypted file length, header included
+     * @throws IOException if no sequence of chunks has that length
+     */
+    public long plaintextSize(long fileSize) throws IOException {
+        long body = fileSize - HEADER_SIZE;
+        long segment = getSegmentSize();
+        long fullChunks = body / segment;
+        long remainder = body % segment;
+
+        if (body < TAG_SIZE || (remainder > 0 && remainder < TAG_SIZE)) {
+            throw new IOException("Truncated chunked file: " + fileSize + " bytes");
+        }
+        long chunks = fullChunks + (remainder > 0 ? 1 : 0);
+        if (chunks > MAX_CHUNKS) {
+            throw new IOException("Chunked file has too many chunks: " + chunks);
+        }
+        return body - chunks * TAG_SIZE;
+    }
+
+    public Cipher newCipher() throws GeneralSecurityException {
+        return Cipher.getInstance(CryptoService.AES_GCM_NO_PADDING);
+    }
+
+    /**
+     * Encrypt one chunk
+     *
+     * @return bytes written to out: length + TAG_SIZE
+     */
+    public int seal(Cipher cipher, long index, boolean last, byte[] in, int inOffset, int length,
+        byte[] out, int outOffset
+    ) throws IOException {
+        try {
+            init(cipher, Cipher.ENCRYPT_MODE, index, last);
+            return cipher.doFinal(in, inOffset, length, out, outOffset);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to encrypt chunk " + index, e);
+        }
+    }
+
+    /**
+     * Decrypt and authenticate one chunk
+     *
+     * @param length sealed length, tag included
+     * @return plaintext bytes written to out
+     * @throws IOException if the chunk fails authentication
+     */
+    public int open(Cipher cipher, long index, boolean last, byte[] in, int inOffset, int length,
+        byte[] out, int outOffset
+    ) throws IOException {
+        try {
+            init(cipher, Cipher.DECRYPT_MODE, index, last);
+            return cipher.doFinal(in, inOffset, length, out, outOffset);
+        } catch (AEADBadTagException e) {
+            throw new IOException("Chunk " + index + " failed authentication", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to decrypt chunk " + index, e);
+        }
+    }
+
+    private void init(Cipher cipher, int mode, long index, boolean last) throws GeneralSecurityException {
+        byte lastFlag = (byte) (last ? 1 : 0);
+
+        byte[] nonce = new byte[CryptoService.AES_IV_SIZE];
+        System.arraycopy(noncePrefix, 0, nonce, 0, NONCE_PREFIX_SIZE);
+        nonce[7] = (byte) (index >>> 24);
+        nonce[8] = (byte) (index >>> 16);
+        nonce[9] = (byte) (index >>> 8);
+        nonce[10] = (byte) index;
+        nonce[11] = lastFlag;
+
+        byte[] chunkAad = new byte[9];
+        for (int i = 0; i < 8; i++) {
+            chunkAad[i] = (byte) (index >>> (56 - 8 * i));
+        }
+        chunkAad[8] = lastFlag;
+
+        cipher.init(mode, fileKey, new GCMParameterSpec(CryptoService.GCM_TAG_LENGTH, nonce));
+        cipher.updateAAD(header);
+        cipher.updateAAD(chunkAad);
+    }
+}
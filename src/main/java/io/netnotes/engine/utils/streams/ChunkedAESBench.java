@@ -0,0 +1,259 @@
+package io.netnotes.engine.utils.streams;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.netnotes.engine.crypto.CryptoService;
+import io.netnotes.engine.utils.files.FileStreamUtils;
+
+/**
+ * ChunkedAESBench - legacy single-stream AES-GCM vs ChunkedAES files
+ *
+ * Writes a SIZE MB random plaintext file, then times:
+ * - legacy encrypt:   IV + CipherOutputStream, one thread
+ * - legacy decrypt:   CipherInputStream - the JCE holds the whole GCM
+ *                     stream until its tag, so only run up to
+ *                     LEGACY_DECRYPT_LIMIT_MB
+ * - chunked stream:   ChunkedAESOutputStream / ChunkedAESChannel, one thread
+ * - chunked parallel: FileStreamUtils.encryptFileChunked / decryptFileChunked
+ * - random read:      READS reads of READ_SIZE bytes at random offsets
+ *                     through ChunkedAESChannel, p50 / p99 / max
+ * The decrypted file is compared with the plaintext, and a small file is
+ * checked for tamper and truncation detection.
+ *
+ * usage: java -cp .. io.netnotes.engine.utils.streams.ChunkedAESBench [sizeMB] [dir]
+ */
+public class ChunkedAESBench {
+
+    private static final int MB = 1024 * 1024;
+    private static final int LEGACY_DECRYPT_LIMIT_MB = 512;
+    private static final int READS = 2_000;
+    private static final int READ_SIZE = 4 * 1024;
+
+    public static void main(String... args) throws Exception {
+        int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        File dir = new File(args.length > 1 ? args[1] : System.getProperty("java.io.tmpdir"));
+
+        byte[] keyBytes = new byte[32];
+        new SplittableRandom(1).nextBytes(keyBytes);
+        SecretKey key = new SecretKeySpec(keyBytes, CryptoService.AES_ALGORITHM);
+
+        File plain = new File(dir, "chunked-bench.plain");
+        File legacy = new File(dir, "chunked-bench.legacy");
+        File chunked = new File(dir, "chunked-bench.chunked");
+        File decrypted = new File(dir, "chunked-bench.decrypted");
+
+        try (ExecutorService execService = Executors.newVirtualThreadPerTaskExecutor()) {
+            writePlaintext(plain, sizeMb);
+            System.out.format("%d MB, %d cores, chunk %d KB%n%n", sizeMb,
+                Runtime.getRuntime().availableProcessors(), ChunkedAES.DEFAULT_CHUNK_SIZE / 1024);
+            System.out.format("%-24s | %10s%n", "path", "MB/s");
+
+            long start = System.nanoTime();
+            legacyEncrypt(plain, legacy, key);
+            report("legacy encrypt", sizeMb, start);
+
+            if (sizeMb <= LEGACY_DECRYPT_LIMIT_MB) {
+                start = System.nanoTime();
+                try (InputStream in = FileStreamUtils.openDecryptedInputStream(legacy, key)) {
+                    drain(in);
+                }
+                report("legacy decrypt", sizeMb, start);
+            } else {
+                System.out.format("%-24s | %10s%n", "legacy decrypt", "n/a");
+            }
+            Files.delete(legacy.toPath());
+
+            start = System.nanoTime();
+            try (
+                InputStream in = Files.newInputStream(plain.toPath());
+                ChunkedAESOutputStream out = new ChunkedAESOutputStream(Files.newOutputStream(chunked.toPath()), key)
+            ) {
+                in.transferTo(out);
+            }
+            report("chunked encrypt", sizeMb, start);
+
+            start = System.nanoTime();
+            try (InputStream in = Channels.newInputStream(ChunkedAESChannel.open(chunked.toPath(), key))) {
+                drain(in);
+            }
+            report("chunked decrypt", sizeMb, start);
+
+            start = System.nanoTime();
+            FileStreamUtils.encryptFileChunked(plain, chunked, key, execService);
+            report("chunked encrypt parallel", sizeMb, start);
+
+            start = System.nanoTime();
+            FileStreamUtils.decryptFileChunked(chunked, decrypted, key, execService);
+            report("chunked decrypt parallel", sizeMb, start);
+
+            if (!sameContent(plain, decrypted)) {
+                throw new IllegalStateException("decrypted file differs from plaintext");
+            }
+            Files.delete(decrypted.toPath());
+
+            randomReads(chunked, key, (long) sizeMb * MB);
+            tamperChecks(dir, key);
+        } finally {
+            for (File f : new File[] { plain, legacy, chunked, decrypted }) {
+                Files.deleteIfExists(f.toPath());
+            }
+        }
+    }
+
+    private static void randomReads(File chunked, SecretKey key, long size) throws Exception {
+        long[] nanos = new long[READS];
+        ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+        SplittableRandom random = new SplittableRandom(3);
+
+        try (ChunkedAESChannel channel = ChunkedAESChannel.open(chunked.toPath(), key)) {
+            for (int i = 0; i < READS; i++) {
+                long position = random.nextLong(size - READ_SIZE);
+                buffer.clear();
+                long start = System.nanoTime();
+                channel.position(position);
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) { }
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.format("%nrandom %d B read: p50 %.1fus, p99 %.1fus, max %.1fus (legacy: decrypt from offset 0)%n",
+            READ_SIZE, nanos[READS / 2] / 1e3, nanos[READS * 99 / 100] / 1e3, nanos[READS - 1] / 1e3);
+    }
+
+    private static void tamperChecks(File dir, SecretKey key) throws Exception {
+        File small = new File(dir, "chunked-bench.small");
+        try {
+            byte[] data = new byte[ChunkedAES.DEFAULT_CHUNK_SIZE * 8 + 123];
+            new SplittableRandom(5).nextBytes(data);
+            FileStreamUtils.saveEncryptedFile(small, data, key);
+            if (!Arrays.equals(data, FileStreamUtils.decryptFileToBytes(key, small))) {
+                throw new IllegalStateException("round trip failed");
+            }
+
+            // Flip one bit in chunk 3: chunk 0 still reads, chunk 3 fails
+            long flip = ChunkedAES.HEADER_SIZE + 3L * (ChunkedAES.DEFAULT_CHUNK_SIZE + ChunkedAES.TAG_SIZE) + 10;
+            flipBit(small.toPath(), flip);
+            try (ChunkedAESChannel channel = ChunkedAESChannel.open(small.toPath(), key)) {
+                channel.read(ByteBuffer.allocate(16));
+                channel.position(3L * ChunkedAES.DEFAULT_CHUNK_SIZE);
+                expectFailure("bit flip", () -> channel.read(ByteBuffer.allocate(16)));
+            }
+            flipBit(small.toPath(), flip);
+
+            // Cut at a chunk boundary: the new last chunk was not sealed as last
+            try (FileChannel channel = FileChannel.open(small.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(ChunkedAES.HEADER_SIZE + 4L * (ChunkedAES.DEFAULT_CHUNK_SIZE + ChunkedAES.TAG_SIZE));
+            }
+            expectFailure("truncation", () -> ChunkedAESChannel.open(small.toPath(), key).close());
+            System.out.println("tamper and truncation detected");
+        } finally {
+            Files.deleteIfExists(small.toPath());
+        }
+    }
+
+    interface Check {
+        void run() throws Exception;
+    }
+
+    private static void expectFailure(String name, Check check) throws Exception {
+        try {
+            check.run();
+        } catch (IOException e) {
+            return;
+        }
+        throw new IllegalStateException(name + " was not detected");
+    }
+
+    private static void flipBit(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 1));
+            b.rewind();
+            channel.write(b, position);
+        }
+    }
+
+    private static void legacyEncrypt(File plain, File legacy, SecretKey key) throws Exception {
+        byte[] iv = new byte[CryptoService.AES_IV_SIZE];
+        new SplittableRandom(2).nextBytes(iv);
+        Cipher cipher = CryptoService.getAESEncryptCipher(iv, key);
+        try (
+            InputStream in = Files.newInputStream(plain.toPath());
+            OutputStream fileOut = Files.newOutputStream(legacy.toPath())
+        ) {
+            fileOut.write(iv);
+            try (OutputStream out = new CipherOutputStream(fileOut, cipher)) {
+                in.transferTo(out);
+            }
+        }
+        // Sanity check the format detection on the legacy layout
+        if (FileStreamUtils.isChunkedEncrypted(legacy)) {
+            throw new IllegalStateException("legacy file detected as chunked");
+        }
+    }
+
+    private static void writePlaintext(File plain, int sizeMb) throws IOException {
+        byte[] block = new byte[MB];
+        SplittableRandom random = new SplittableRandom(4);
+        try (OutputStream out = Files.newOutputStream(plain.toPath())) {
+            for (int i = 0; i < sizeMb; i++) {
+                random.nextBytes(block);
+                out.write(block);
+            }
+        }
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[MB];
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            total += n;
+        }
+        return total;
+    }
+
+    private static boolean sameContent(File a, File b) throws IOException {
+        try (
+            InputStream inA = Files.newInputStream(a.toPath());
+            InputStream inB = Files.newInputStream(b.toPath())
+        ) {
+            byte[] bufferA = new byte[MB];
+            byte[] bufferB = new byte[MB];
+            while (true) {
+                int n = inA.readNBytes(bufferA, 0, MB);
+                int m = inB.readNBytes(bufferB, 0, MB);
+                if (n != m || !Arrays.equals(bufferA, 0, n, bufferB, 0, m)) {
+                    return false;
+                }
+                if (n < MB) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private static void report(String name, int sizeMb, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.format("%-24s | %10.1f%n", name, sizeMb / seconds);
+    }
+}
@@ -0,0 +1,169 @@
+package io.netnotes.engine.utils.streams;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * ChunkedAESChannel - read-only, seekable plaintext view of a ChunkedAES file
+ *
+ * A read decrypts and authenticates only the chunks it touches; the last
+ * decrypted chunk is cached, so sequential reads decrypt each chunk once.
+ * open() authenticates the final chunk up front, so size() is trusted and a
+ * truncated file fails immediately rather than at its end.
+ *
+ * Channels.newInputStream(channel) gives a sequential InputStream.
+ * Not thread-safe: open one channel per reader.
+ */
+public final class ChunkedAESChannel implements SeekableByteChannel {
+
+    private final FileChannel m_channel;
+    private final ChunkedAES m_format;
+    private final Cipher m_cipher;
+    private final long m_size;
+    private final long m_chunkCount;
+    private final long m_fileSize;
+
+    private final byte[] m_sealed;
+    private final byte[] m_plain;
+    private long m_cachedIndex = -1;
+    private int m_cachedLength = 0;
+
+    private long m_position = 0;
+
+    private ChunkedAESChannel(FileChannel channel, ChunkedAES format) throws Exception {
+        m_channel = channel;
+        m_format = format;
+        m_cipher = format.newCipher();
+        m_fileSize = channel.size();
+        m_size = format.plaintextSize(m_fileSize);
+        m_chunkCount = format.chunkCount(m_size);
+        m_sealed = new byte[format.getSegmentSize()];
+        m_plain = new byte[format.getChunkSize()];
+        load(m_chunkCount - 1);
+    }
+
+    /**
+     * @throws IOException if the file is not in the chunked format, is
+     *         truncated, or its final chunk fails authentication
+     */
+    public static ChunkedAESChannel open(Path path, SecretKey secretKey) throws Exception {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            byte[] header = new byte[ChunkedAES.HEADER_SIZE];
+            readFully(channel, header, header.length, 0);
+            return new ChunkedAESChannel(channel, ChunkedAES.fromHeader(secretKey, header));
+        } catch (Exception e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (m_position >= m_size) {
+            return -1;
+        }
+        int total = 0;
+        int chunkSize = m_format.getChunkSize();
+        while (dst.hasRemaining() && m_position < m_size) {
+            long index = m_position / chunkSize;
+            load(index);
+            int offset = (int) (m_position - index * chunkSize);
+            int n = Math.min(dst.remaining(), m_cachedLength - offset);
+            dst.put(m_plain, offset, n);
+            m_position += n;
+            total += n;
+        }
+        return total;
+    }
+
+    private void load(long index) throws IOException {
+        if (index == m_cachedIndex) {
+            return;
+        }
+        long offset = m_format.chunkOffset(index);
+        int length = (int) Math.min(m_sealed.length, m_fileSize - offset);
+        readFully(m_channel, m_sealed, length, offset);
+
+        m_cachedIndex = -1;
+        m_cachedLength = m_format.open(m_cipher, index, index == m_chunkCount - 1, m_sealed, 0, length, m_plain, 0);
+        m_cachedIndex = index;
+    }
+
+    static void readFully(FileChannel channel, byte[] bytes, int length, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return m_position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position: " + newPosition);
+        }
+        ensureOpen();
+        m_position = newPosition;
+        return this;
+    }
+
+    /** Plaintext size */
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return m_size;
+    }
+
+    public long getChunkCount() {
+        return m_chunkCount;
+    }
+
+    public int getChunkSize() {
+        return m_format.getChunkSize();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return m_channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_channel.close();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!m_channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
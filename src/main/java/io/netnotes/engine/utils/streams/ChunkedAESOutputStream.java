@@ -0,0 +1,107 @@
+package io.netnotes.engine.utils.streams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * ChunkedAESOutputStream - writes the ChunkedAES format to a stream
+ *
+ * Plaintext is buffered one chunk at a time. A full chunk is only sealed
+ * once more data arrives, so the chunk left at close() is the one sealed
+ * as last. flush() flushes the underlying stream but cannot emit a partial
+ * chunk. close() must be called or the file is unreadable (truncated).
+ *
+ * Encrypts on the writing thread; for whole files across cores see
+ * FileStreamUtils.encryptFileChunked.
+ */
+public final class ChunkedAESOutputStream extends OutputStream {
+
+    private final OutputStream m_out;
+    private final ChunkedAES m_format;
+    private final Cipher m_cipher;
+    private final byte[] m_chunk;
+    private final byte[] m_sealed;
+
+    private int m_filled = 0;
+    private long m_index = 0;
+    private long m_written = 0;
+    private boolean m_closed = false;
+
+    public ChunkedAESOutputStream(OutputStream out, SecretKey secretKey) throws Exception {
+        this(out, secretKey, ChunkedAES.DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedAESOutputStream(OutputStream out, SecretKey secretKey, int chunkSize) throws Exception {
+        m_format = ChunkedAES.create(secretKey, chunkSize);
+        m_cipher = m_format.newCipher();
+        m_chunk = new byte[chunkSize];
+        m_sealed = new byte[m_format.getSegmentSize()];
+        m_out = out;
+        m_out.write(m_format.getHeader());
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (m_filled == m_chunk.length) {
+            sealChunk(false);
+        }
+        m_chunk[m_filled++] = (byte) b;
+        m_written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureOpen();
+        while (len > 0) {
+            if (m_filled == m_chunk.length) {
+                sealChunk(false);
+            }
+            int n = Math.min(len, m_chunk.length - m_filled);
+            System.arraycopy(b, off, m_chunk, m_filled, n);
+            m_filled += n;
+            m_written += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void sealChunk(boolean last) throws IOException {
+        int length = m_format.seal(m_cipher, m_index, last, m_chunk, 0, m_filled, m_sealed, 0);
+        m_out.write(m_sealed, 0, length);
+        m_index++;
+        m_filled = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        m_out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        try (OutputStream out = m_out) {
+            sealChunk(true);
+        }
+    }
+
+    /** Plaintext bytes accepted so far */
+    public long getBytesWritten() {
+        return m_written;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
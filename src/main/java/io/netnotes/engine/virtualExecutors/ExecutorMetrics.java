@@ -0,0 +1,172 @@
+package io.netnotes.engine.virtualExecutors;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ExecutorMetrics - queue and timing telemetry for one SerializedVirtualExecutor
+ *
+ * - depth / max depth: queued tasks now and the highest seen at enqueue
+ * - queue wait: enqueue to start of run, per queued task
+ * - run time: start to end of run, per queued task
+ * - bursts: tasks taken per dispatcher wake-up
+ * - rejected: submissions dropped or cancelled because of shutdown
+ *
+ * Reentrant submissions (already on the dispatcher) run inline and are only
+ * counted, never timed.
+ *
+ * Every executor registers its metrics on construction; live() enumerates
+ * them. The registry holds metrics weakly, so an executor that is dropped
+ * without shutdown still disappears once collected.
+ */
+public final class ExecutorMetrics {
+
+    private static final ConcurrentLinkedQueue<WeakReference<ExecutorMetrics>> registry =
+        new ConcurrentLinkedQueue<>();
+
+    private final String name;
+    private final BlockingQueue<?> queue;
+    private final WeakReference<ExecutorMetrics> registration;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    // Dispatcher-owned
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+    private volatile long failed = 0;
+    private volatile long bursts = 0;
+    private volatile int largestBurst = 0;
+
+    private ExecutorMetrics(String name, BlockingQueue<?> queue) {
+        this.name = name;
+        this.queue = queue;
+        this.registration = new WeakReference<>(this);
+    }
+
+    static ExecutorMetrics register(String name, BlockingQueue<?> queue) {
+        ExecutorMetrics metrics = new ExecutorMetrics(name, queue);
+        registry.add(metrics.registration);
+        return metrics;
+    }
+
+    void unregister() {
+        registry.remove(registration);
+    }
+
+    /**
+     * Metrics of every executor that has not terminated
+     */
+    public static List<ExecutorMetrics> live() {
+        List<ExecutorMetrics> list = new ArrayList<>();
+        Iterator<WeakReference<ExecutorMetrics>> it = registry.iterator();
+        while (it.hasNext()) {
+            ExecutorMetrics metrics = it.next().get();
+            if (metrics == null) {
+                it.remove();
+            } else {
+                list.add(metrics);
+            }
+        }
+        return list;
+    }
+
+    // ===== RECORDING =====
+
+    void onEnqueued() {
+        submitted.increment();
+        int depth = queue.size();
+        int max = maxDepth.get();
+        while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+            max = maxDepth.get();
+        }
+    }
+
+    void onInline() {
+        inline.increment();
+    }
+
+    void onRejected() {
+        rejected.increment();
+    }
+
+    void onBurst(int size) {
+        bursts = bursts + 1;
+        if (size > largestBurst) largestBurst = size;
+    }
+
+    void onRun(long waitNanos, long runNanos, boolean ok) {
+        queueWait.record(waitNanos);
+        runTime.record(runNanos);
+        if (!ok) failed = failed + 1;
+    }
+
+    // ===== READING =====
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxDepth.get();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getInlineCount() {
+        return inline.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getCompletedCount() {
+        return runTime.getCount();
+    }
+
+    public long getFailedCount() {
+        return failed;
+    }
+
+    /** Mean tasks run per dispatcher wake-up */
+    public double getAverageBurst() {
+        long b = bursts;
+        return b > 0 ? (double) runTime.getCount() / b : 0.0;
+    }
+
+    public int getLargestBurst() {
+        return largestBurst;
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public LatencyHistogram getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s[depth=%d, maxDepth=%d, submitted=%d, inline=%d, completed=%d, failed=%d, rejected=%d, burst=%.1f/%d, wait={%s}, run={%s}]",
+            name, getQueueDepth(), getMaxQueueDepth(), getSubmittedCount(), getInlineCount(),
+            getCompletedCount(), getFailedCount(), getRejectedCount(), getAverageBurst(), getLargestBurst(),
+            queueWait, runTime);
+    }
+}
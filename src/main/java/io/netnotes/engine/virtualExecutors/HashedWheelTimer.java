@@ -0,0 +1,375 @@
+package io.netnotes.engine.virtualExecutors;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netnotes.engine.utils.LoggingHelpers.Log;
+
+/**
+ * HashedWheelTimer - shared O(1) timeout scheduler
+ *
+ * For large numbers of short-lived timeouts that are usually cancelled
+ * (request correlation, acks) where a sleeping thread or a
+ * ScheduledExecutorService entry per timeout is too heavy.
+ *
+ * - newTimeout() is a queue offer; cancel() is a CAS plus a queue offer
+ * - one worker (virtual thread, started lazily) ticks every tickDuration,
+ *   moves new timeouts into their bucket, unlinks cancelled ones and expires
+ *   the current bucket
+ * - expired tasks run on the supplied executor, never on the worker, so a
+ *   slow callback can't delay other timeouts
+ *
+ * Precision is one tick: a timeout fires between delay and delay + tick.
+ */
+public final class HashedWheelTimer {
+
+    public interface Timeout {
+        /** @return true if this call cancelled it (false if already expired/cancelled) */
+        boolean cancel();
+        boolean isCancelled();
+        boolean isExpired();
+    }
+
+    private static final int ST_PENDING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private final String name;
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final Executor taskExecutor;
+
+    private final ConcurrentLinkedQueue<WheelTimeout> added = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean stopped = false;
+    // Deadlines are relative to construction
+    private final long startNanos = System.nanoTime();
+    private Thread worker = null;
+
+    // Worker-owned tick counter
+    private long tick = 0;
+
+    // Metrics
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong scheduledCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    /**
+     * @param name worker thread name
+     * @param tickDuration wheel resolution
+     * @param unit unit of tickDuration
+     * @param wheelSize buckets, rounded up to a power of two
+     * @param taskExecutor runs expired tasks
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be > 0");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 20)) {
+            throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) size <<= 1;
+
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Schedule task to run after delay
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+        if (stopped) {
+            throw new RejectedExecutionException("[HashedWheelTimer:" + name + "] stopped");
+        }
+        start();
+
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+        pending.incrementAndGet();
+        scheduledCount.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        if (started.get() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        worker = Thread.ofVirtual().name("HashedWheelTimer-" + name).start(this::run);
+    }
+
+    /**
+     * Stop the worker. Pending timeouts are dropped (never run).
+     */
+    public void stop() {
+        stopped = true;
+        Thread w = worker;
+        if (w != null) {
+            w.interrupt();
+        }
+    }
+
+    // ===== WORKER =====
+
+    private void run() {
+        // Started lazily: skip the ticks that passed with nothing scheduled
+        tick = (System.nanoTime() - startNanos) / tickNanos;
+        try {
+            while (!stopped) {
+                long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    break;
+                }
+                processCancelled();
+                transferAdded();
+                wheel[(int) (tick & mask)].expire();
+                tick++;
+            }
+        } finally {
+            // Drop everything: callers of a stopped timer handle their own cleanup
+            WheelTimeout timeout;
+            while ((timeout = added.poll()) != null) {
+                if (timeout.state.get() == ST_PENDING) {
+                    pending.decrementAndGet();
+                }
+            }
+            for (Bucket bucket : wheel) {
+                pending.addAndGet(-bucket.clear());
+            }
+        }
+    }
+
+    /**
+     * @return elapsed nanos (relative to startNanos) at the tick, or -1 if stopped
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long current = System.nanoTime() - startNanos;
+            long sleepNanos = deadline - current;
+            if (sleepNanos <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferAdded() {
+        // Bounded per tick so a flood of inserts can't starve expiry
+        for (int i = 0; i < 100_000; i++) {
+            WheelTimeout timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == ST_CANCELLED) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // Already past due: put it in the current bucket
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void runTask(WheelTimeout timeout) {
+        pending.decrementAndGet();
+        expiredCount.incrementAndGet();
+        try {
+            taskExecutor.execute(timeout.task);
+        } catch (RejectedExecutionException e) {
+            Log.logError("[HashedWheelTimer:" + name + "] task rejected", e);
+        }
+    }
+
+    // ===== METRICS =====
+
+    /** Scheduled, not yet expired or cancelled */
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    public long getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HashedWheelTimer{%s, tick=%dus, wheel=%d, pending=%d, expired=%d, cancelled=%d}",
+            name, tickNanos / 1000, wheel.length, getPendingCount(), getExpiredCount(), getCancelledCount());
+    }
+
+    // ===== INTERNALS =====
+
+    private static final class WheelTimeout implements Timeout {
+        final HashedWheelTimer timer;
+        final Runnable task;
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger(ST_PENDING);
+
+        // Worker-owned
+        long remainingRounds;
+        Bucket bucket;
+        WheelTimeout next;
+        WheelTimeout prev;
+
+        WheelTimeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_PENDING, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            timer.cancelledCount.incrementAndGet();
+            // Unlinked by the worker on its next tick
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        void expire() {
+            if (state.compareAndSet(ST_PENDING, ST_EXPIRED)) {
+                timer.runTask(this);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts, only touched by the worker
+     */
+    private static final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /** @return pending timeouts dropped */
+        int clear() {
+            int dropped = 0;
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.state.get() == ST_PENDING) {
+                    dropped++;
+                }
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                timeout = next;
+            }
+            head = tail = null;
+            return dropped;
+        }
+    }
+}
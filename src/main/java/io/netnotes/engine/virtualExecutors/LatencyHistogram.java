@@ -0,0 +1,76 @@
+package io.netnotes.engine.virtualExecutors;
+
+/**
+ * LatencyHistogram - log2 buckets of nanosecond durations
+ *
+ * Bucket 0 holds 0 ns, bucket i holds [2^(i-1), 2^i). Percentiles are
+ * reported as the upper bound of the bucket they land in, so they are
+ * accurate to a factor of two - enough to tell 2 us from 2 ms.
+ *
+ * THREADING: single writer (the executor's dispatcher). Readers on other
+ * threads get a slightly torn but never corrupt view.
+ */
+public final class LatencyHistogram {
+
+    public static final int BUCKETS = 64;
+
+    private final long[] counts = new long[BUCKETS];
+    private volatile long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[64 - Long.numberOfLeadingZeros(nanos)]++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+        // Volatile write publishes the plain fields above
+        count = count + 1;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        long n = count;
+        return n > 0 ? max : 0;
+    }
+
+    public double getMeanNanos() {
+        long n = count;
+        return n > 0 ? (double) sum / n : 0.0;
+    }
+
+    /**
+     * @param quantile 0.0 - 1.0
+     * @return upper bound of the bucket holding the quantile, in ns
+     */
+    public long getPercentileNanos(double quantile) {
+        long n = count;
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(quantile * n);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /** Copy of the bucket counts, index as described above */
+    public long[] getBuckets() {
+        if (count == 0) return new long[BUCKETS];
+        return counts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus",
+            getCount(), getMeanNanos() / 1_000.0, getPercentileNanos(0.50) / 1_000.0,
+            getPercentileNanos(0.99) / 1_000.0, getMaxNanos() / 1_000.0);
+    }
+}
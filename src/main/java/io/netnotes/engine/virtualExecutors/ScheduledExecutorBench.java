@@ -0,0 +1,276 @@
+package io.netnotes.engine.virtualExecutors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScheduledExecutorBench - deadline order and lateness of SerializedScheduledVirtualExecutor
+ *
+ * Most scenarios drive a manual clock: step() advances it, wakes the
+ * dispatcher and waits on a zero-delay barrier task (same deadline, later
+ * sequence, so it runs after everything already due). Each task records the
+ * clock when it ran, so ordering and lateness are exact and independent of
+ * machine load.
+ *
+ * - ordering:    later-scheduled earlier deadlines run first
+ * - cancel:      cancelled tasks never run and don't hold back later ones
+ * - fixed rate:  runs stay on the initial grid, a long run skips slots
+ * - fixed delay: gap between runs is measured from completion
+ * - mixed:       random one-shots + cancels + periodics, deadline order and
+ *                lateness <= one step
+ * - wall clock:  a near deadline scheduled behind a far one fires on time
+ *
+ * Reports max lateness and skipped periods per scenario; throws
+ * IllegalStateException on the first violation.
+ *
+ * usage: java -cp .. io.netnotes.engine.virtualExecutors.ScheduledExecutorBench [mixedTasks]
+ */
+public class ScheduledExecutorBench {
+
+    private static final long MS = 1_000_000L;
+    private static final long STEP = MS;
+
+    static final class ManualClock implements SerializedScheduledVirtualExecutor.NanoClock {
+        private final AtomicLong now = new AtomicLong(0);
+
+        @Override
+        public long nanoTime() {
+            return now.get();
+        }
+
+        void advance(long nanos) {
+            now.addAndGet(nanos);
+        }
+    }
+
+    record Run(String name, long deadline, long at) {}
+
+    private final ManualClock clock = new ManualClock();
+    private final SerializedScheduledVirtualExecutor executor = new SerializedScheduledVirtualExecutor(clock);
+    // Written by the dispatcher, read after barriers
+    private final List<Run> runs = Collections.synchronizedList(new ArrayList<>());
+
+    public static void main(String... args) throws Exception {
+        int mixedTasks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+
+        check("ordering", h -> h.ordering());
+        check("cancel", h -> h.cancel());
+        check("fixed rate", h -> h.fixedRate());
+        check("fixed delay", h -> h.fixedDelay());
+        check("mixed", h -> h.mixed(mixedTasks));
+        wallClock();
+    }
+
+    interface Scenario {
+        void run(ScheduledExecutorBench bench) throws Exception;
+    }
+
+    private static void check(String name, Scenario scenario) throws Exception {
+        ScheduledExecutorBench bench = new ScheduledExecutorBench();
+        try {
+            scenario.run(bench);
+        } finally {
+            bench.executor.shutdownNow();
+        }
+        System.out.format("%-12s ok  (max lateness %.3f ms, skipped periods %d)%n", name,
+            bench.executor.getMaxLatenessNanos() / (double) MS, bench.executor.getSkippedPeriods());
+    }
+
+    // ===== SCENARIOS =====
+
+    private void ordering() throws Exception {
+        schedule("late", 100);
+        schedule("mid", 50);
+        schedule("early", 10);
+        schedule("early-2", 10);
+        advanceTo(120);
+        expectOrder("early", "early-2", "mid", "late");
+        expectLateness(STEP);
+    }
+
+    private void cancel() throws Exception {
+        CompletableFuture<Void> head = schedule("head", 30);
+        schedule("after", 40);
+        CompletableFuture<Void> middle = schedule("middle", 35);
+        advanceTo(5);
+        head.cancel(false);
+        middle.cancel(false);
+        advanceTo(45);
+        expectOrder("after");
+        if (executor.getQueueSize() != 0) {
+            throw new IllegalStateException("cancelled tasks still counted: " + executor.getQueueSize());
+        }
+    }
+
+    private void fixedRate() throws Exception {
+        long start = 3 * MS;
+        long period = 10 * MS;
+        AtomicLong count = new AtomicLong();
+        executor.scheduleAtFixedRate(() -> {
+            long n = count.incrementAndGet();
+            runs.add(new Run("tick", -1, clock.nanoTime()));
+            if (n == 5) {
+                // One slow run: spans 3.5 periods
+                clock.advance(35 * MS);
+            }
+        }, 3, 10, TimeUnit.MILLISECONDS);
+
+        advanceTo(203);
+
+        long last = Long.MIN_VALUE;
+        for (Run run : snapshot()) {
+            if ((run.at() - start) % period != 0) {
+                throw new IllegalStateException("fixed rate drifted off grid at " + run.at() / (double) MS + " ms");
+            }
+            if (run.at() <= last) {
+                throw new IllegalStateException("fixed rate replayed a slot at " + run.at() / (double) MS + " ms");
+            }
+            last = run.at();
+        }
+        // 21 slots in [3, 203], three swallowed by the slow run
+        if (count.get() != 18 || executor.getSkippedPeriods() != 3) {
+            throw new IllegalStateException("fixed rate ran " + count.get() + " times, skipped "
+                + executor.getSkippedPeriods());
+        }
+    }
+
+    private void fixedDelay() throws Exception {
+        AtomicLong count = new AtomicLong();
+        CompletableFuture<Void> control = executor.scheduleWithFixedDelay(() -> {
+            long n = count.incrementAndGet();
+            runs.add(new Run("tick", -1, clock.nanoTime()));
+            if (n % 3 == 0) {
+                clock.advance(4 * MS);
+            }
+        }, 0, 7, TimeUnit.MILLISECONDS);
+
+        advanceTo(100);
+        control.cancel(false);
+        long stopped = count.get();
+        advanceTo(150);
+        if (count.get() != stopped) {
+            throw new IllegalStateException("fixed delay kept running after cancel");
+        }
+
+        List<Run> ticks = snapshot();
+        for (int i = 1; i < ticks.size(); i++) {
+            long previousEnd = ticks.get(i - 1).at() + (i % 3 == 0 ? 4 * MS : 0);
+            long gap = ticks.get(i).at() - previousEnd;
+            if (gap < 7 * MS || gap > 7 * MS + STEP) {
+                throw new IllegalStateException("fixed delay gap " + gap / (double) MS + " ms at run " + i);
+            }
+        }
+    }
+
+    private void mixed(int tasks) throws Exception {
+        Random random = new Random(42);
+        List<CompletableFuture<Void>> cancelled = new ArrayList<>();
+        executor.scheduleAtFixedRate(() -> { }, 0, 13, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> { }, 5, 17, TimeUnit.MILLISECONDS);
+
+        long horizon = 0;
+        for (int i = 0; i < tasks; i++) {
+            long delay = random.nextInt(500);
+            long deadline = clock.nanoTime() + delay * MS;
+            horizon = Math.max(horizon, deadline);
+            CompletableFuture<Void> f = scheduleAt("t" + i, deadline);
+            if (random.nextInt(5) == 0) {
+                f.cancel(false);
+                cancelled.add(f);
+            }
+            if (random.nextInt(8) == 0) {
+                step();
+            }
+        }
+        advanceTo(horizon / MS + 1);
+
+        long lastDeadline = Long.MIN_VALUE;
+        int ran = 0;
+        for (Run run : snapshot()) {
+            if (run.deadline() < lastDeadline) {
+                throw new IllegalStateException(run.name() + " ran out of deadline order");
+            }
+            lastDeadline = run.deadline();
+            ran++;
+        }
+        if (ran != tasks - cancelled.size()) {
+            throw new IllegalStateException("ran " + ran + " of " + (tasks - cancelled.size()) + " live tasks");
+        }
+        expectLateness(STEP);
+    }
+
+    /** Real clock: a 20 ms task scheduled behind a 10 s one must not wait for it */
+    private static void wallClock() throws Exception {
+        SerializedScheduledVirtualExecutor executor = new SerializedScheduledVirtualExecutor();
+        try {
+            CompletableFuture<Void> far = executor.schedule(() -> { }, 10, TimeUnit.SECONDS);
+            long start = System.nanoTime();
+            executor.schedule(() -> { }, 20, TimeUnit.MILLISECONDS).get(2, TimeUnit.SECONDS);
+            long nearMs = (System.nanoTime() - start) / MS;
+
+            far.cancel(false);
+            start = System.nanoTime();
+            executor.schedule(() -> { }, 5, TimeUnit.MILLISECONDS).get(2, TimeUnit.SECONDS);
+            long afterCancelMs = (System.nanoTime() - start) / MS;
+
+            System.out.format("%-12s ok  (20 ms task after %d ms, 5 ms task after cancel %d ms, max lateness %.3f ms)%n",
+                "wall clock", nearMs, afterCancelMs, executor.getMaxLatenessNanos() / (double) MS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ===== HELPERS =====
+
+    private CompletableFuture<Void> schedule(String name, long deadlineMs) {
+        return scheduleAt(name, deadlineMs * MS);
+    }
+
+    private CompletableFuture<Void> scheduleAt(String name, long deadlineNanos) {
+        Runnable record = () -> runs.add(new Run(name, deadlineNanos, clock.nanoTime()));
+        return executor.schedule(record, deadlineNanos - clock.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void step() throws Exception {
+        clock.advance(STEP);
+        executor.clockAdvanced();
+        executor.execute(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private void advanceTo(long ms) throws Exception {
+        while (clock.nanoTime() < ms * MS) {
+            step();
+        }
+    }
+
+    private List<Run> snapshot() {
+        synchronized (runs) {
+            return new ArrayList<>(runs);
+        }
+    }
+
+    private void expectOrder(String... names) {
+        List<Run> snapshot = snapshot();
+        List<String> actual = new ArrayList<>();
+        for (Run run : snapshot) {
+            actual.add(run.name());
+        }
+        if (!actual.equals(List.of(names))) {
+            throw new IllegalStateException("expected " + List.of(names) + " but ran " + actual);
+        }
+    }
+
+    private void expectLateness(long boundNanos) {
+        for (Run run : snapshot()) {
+            long lateness = run.at() - run.deadline();
+            if (lateness < 0 || lateness > boundNanos) {
+                throw new IllegalStateException(run.name() + " lateness " + lateness / (double) MS + " ms");
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@ public class ScheduledTask<T> implements Comparable<ScheduledTask<?>> {
     final CompletableFuture<T> future;
     final long executeAtNanos;
     final long sequenceNumber;
+    // In the executor's heap; guarded by the executor lock
+    boolean queued = false;
 
     ScheduledTask(Callable<T> callable, CompletableFuture<T> future, 
                     long executeAtNanos, long sequenceNumber) {
@@ -0,0 +1,86 @@
+package io.netnotes.engine.virtualExecutors;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SerialExecutorBench - SerializedVirtualExecutor submission paths
+ *
+ * One platform thread submits TASKS trivial tasks through each path and
+ * waits for the last one:
+ * - submit:   submit(Callable), CompletableFuture per task
+ * - execute:  execute(Runnable), CompletableFuture + Callable wrapper
+ * - fire:     executeFireAndForget(Runnable), one task object
+ *
+ * Reports tasks/sec, bytes allocated per task on the submitting thread,
+ * and the executor's own view: mean burst, max depth, p50/p99 queue wait.
+ *
+ * usage: java -cp .. io.netnotes.engine.virtualExecutors.SerialExecutorBench [tasks]
+ */
+public class SerialExecutorBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    interface Path {
+        void submit(SerializedVirtualExecutor exec, Runnable task);
+    }
+
+    static volatile long sink;
+
+    public static void main(String... args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.format("%-8s | %12s | %11s | %6s | %9s | %10s | %10s%n",
+            "path", "tasks/sec", "bytes/task", "burst", "max depth", "wait p50", "wait p99");
+        run("submit", tasks, (exec, task) -> exec.submit(() -> {
+            task.run();
+            return null;
+        }));
+        run("execute", tasks, (exec, task) -> exec.execute(task));
+        run("fire", tasks, (exec, task) -> exec.executeFireAndForget(task));
+    }
+
+    private static void run(String name, int tasks, Path path) throws Exception {
+        double perSec = 0;
+        double bytesPerTask = 0;
+        ExecutorMetrics metrics = null;
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            SerializedVirtualExecutor exec = new SerializedVirtualExecutor("bench-" + name);
+            Runnable task = () -> sink++;
+
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < tasks; i++) {
+                path.submit(exec, task);
+            }
+            long bytesAfter = allocatedBytes();
+
+            CountDownLatch done = new CountDownLatch(1);
+            exec.runLater(done::countDown);
+            if (!done.await(60, TimeUnit.SECONDS)) {
+                throw new IllegalStateException(name + " did not drain");
+            }
+            long elapsed = System.nanoTime() - start;
+
+            perSec = tasks / (elapsed / 1e9);
+            bytesPerTask = bytesBefore >= 0 ? (bytesAfter - bytesBefore) / (double) tasks : -1;
+            metrics = exec.getMetrics();
+            exec.shutdownNow();
+        }
+
+        System.out.format("%-8s | %,12.0f | %11.1f | %6.1f | %9d | %8.1fus | %8.1fus%n",
+            name, perSec, bytesPerTask, metrics.getAverageBurst(), metrics.getMaxQueueDepth(),
+            metrics.getQueueWait().getPercentileNanos(0.50) / 1_000.0,
+            metrics.getQueueWait().getPercentileNanos(0.99) / 1_000.0);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
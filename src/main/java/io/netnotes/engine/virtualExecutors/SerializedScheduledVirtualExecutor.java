@@ -1,32 +1,79 @@
 package io.netnotes.engine.virtualExecutors;
 
 
+import java.util.PriorityQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A virtual-thread-based scheduled executor that guarantees serial execution.
  * Tasks execute one at a time in scheduled order (by execution time), with
  * each task completing before the next begins.
- * 
+ *
  * Uses virtual threads for lightweight scheduling and blocking, while
  * maintaining strict ordering and serial execution guarantees.
+ *
+ * TIMING:
+ * The dispatcher parks on a Condition until the head's deadline rather than
+ * sleeping on a task it already took. Scheduling a task that becomes the new
+ * head, or cancelling the head, signals the condition so the dispatcher
+ * re-reads the head - an earlier deadline never waits behind a later one and
+ * a cancelled task never holds the dispatcher asleep.
+ *
+ * PERIODIC:
+ * - fixed rate: runs are anchored to initialDelay + n * period, so lateness
+ *   of one run does not shift the next. Slots that pass while a run is still
+ *   executing are skipped, not replayed back to back.
+ * - fixed delay: the next run is scheduled delay after the previous one
+ *   finished.
  */
 public final class SerializedScheduledVirtualExecutor {
 
-    private final PriorityBlockingQueue<ScheduledTask<?>> queue = new PriorityBlockingQueue<>();
+    /**
+     * Monotonic time source. SYSTEM for production; ScheduledExecutorBench
+     * drives a manual clock and calls clockAdvanced() after each step.
+     */
+    @FunctionalInterface
+    public interface NanoClock {
+        long nanoTime();
+
+        NanoClock SYSTEM = System::nanoTime;
+    }
+
+    // Cancelled tasks are left in the heap until they reach the head; purge
+    // once they make up this share of a non-trivial queue
+    private static final int PURGE_MIN_SIZE = 64;
+
+    private final NanoClock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition headChanged = lock.newCondition();
+    private final PriorityQueue<ScheduledTask<?>> queue = new PriorityQueue<>();
+    private int cancelledInQueue = 0;
+
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
     private final AtomicBoolean terminated = new AtomicBoolean(false);
     private final AtomicLong sequenceCounter = new AtomicLong(0);
     private final Thread dispatcher;
 
+    // Lateness = dispatcher start time - deadline. Written by the dispatcher only.
+    private volatile long executedCount = 0;
+    private volatile long totalLatenessNanos = 0;
+    private volatile long maxLatenessNanos = 0;
+    private final AtomicLong skippedPeriods = new AtomicLong();
+
     public SerializedScheduledVirtualExecutor() {
+        this(NanoClock.SYSTEM);
+    }
+
+    SerializedScheduledVirtualExecutor(NanoClock clock) {
+        this.clock = clock;
         dispatcher = Thread.ofVirtual()
             .name("SerialScheduledVT-Dispatcher")
             .start(this::dispatchLoop);
@@ -34,24 +81,17 @@ public final class SerializedScheduledVirtualExecutor {
 
     /**
      * Dispatch loop runs tasks serially in scheduled order.
-     * Waits for scheduled time, then executes task to completion.
+     * Waits for the head's deadline (re-checked whenever the head changes),
+     * then executes it to completion outside the lock.
      */
     private void dispatchLoop() {
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                ScheduledTask<?> task = queue.take();
-                
-                // Wait until scheduled execution time
-                long now = System.nanoTime();
-                long delayNanos = task.executeAtNanos - now;
-                
-                if (delayNanos > 0) {
-                    // Sleep until execution time
-                    // Virtual thread makes this very cheap
-                    Thread.sleep(delayNanos / 1_000_000, (int)(delayNanos % 1_000_000));
+                ScheduledTask<?> task = awaitNext();
+                if (task == null) {
+                    break;
                 }
-                
-                // Execute task serially
+                recordLateness(clock.nanoTime() - task.executeAtNanos);
                 runTask(task);
             }
         } catch (InterruptedException e) {
@@ -64,6 +104,50 @@ public final class SerializedScheduledVirtualExecutor {
         }
     }
 
+    /**
+     * @return the next due task, or null once shut down with nothing queued
+     */
+    private ScheduledTask<?> awaitNext() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                ScheduledTask<?> head = queue.peek();
+                if (head == null) {
+                    if (shutdown.get()) {
+                        return null;
+                    }
+                    headChanged.await();
+                    continue;
+                }
+                if (head.future.isDone()) {
+                    // Cancelled while queued
+                    queue.poll();
+                    head.queued = false;
+                    cancelledInQueue = Math.max(0, cancelledInQueue - 1);
+                    continue;
+                }
+                long delayNanos = head.executeAtNanos - clock.nanoTime();
+                if (delayNanos <= 0) {
+                    queue.poll();
+                    head.queued = false;
+                    return head;
+                }
+                headChanged.awaitNanos(delayNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordLateness(long latenessNanos) {
+        if (latenessNanos < 0) latenessNanos = 0;
+        executedCount++;
+        totalLatenessNanos += latenessNanos;
+        if (latenessNanos > maxLatenessNanos) {
+            maxLatenessNanos = latenessNanos;
+        }
+    }
+
     private <T> void runTask(ScheduledTask<T> task) {
         if (task.future.isCancelled()) {
             return;
@@ -77,9 +161,72 @@ public final class SerializedScheduledVirtualExecutor {
         }
     }
 
+    private void enqueue(ScheduledTask<?> task) {
+        lock.lock();
+        try {
+            queue.add(task);
+            task.queued = true;
+            if (queue.peek() == task) {
+                headChanged.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onCancelled(ScheduledTask<?> task) {
+        lock.lock();
+        try {
+            if (!task.queued) {
+                return;
+            }
+            if (queue.peek() == task) {
+                // Dispatcher may be parked on this deadline
+                queue.poll();
+                task.queued = false;
+                headChanged.signal();
+                return;
+            }
+            cancelledInQueue++;
+            if (queue.size() >= PURGE_MIN_SIZE && cancelledInQueue * 2 > queue.size()) {
+                queue.removeIf(t -> {
+                    if (!t.future.isDone()) return false;
+                    t.queued = false;
+                    return true;
+                });
+                cancelledInQueue = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wake the dispatcher to re-read a manual clock
+     */
+    void clockAdvanced() {
+        lock.lock();
+        try {
+            headChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> ScheduledTask<T> newTask(Callable<T> callable, CompletableFuture<T> future, long executeAtNanos) {
+        ScheduledTask<T> task = new ScheduledTask<>(callable, future, executeAtNanos,
+            sequenceCounter.getAndIncrement());
+        future.whenComplete((r, t) -> {
+            if (future.isCancelled()) {
+                onCancelled(task);
+            }
+        });
+        return task;
+    }
+
     /**
      * Execute a task immediately (no delay).
-     * 
+     *
      * @param runnable the task to execute
      * @return a CompletableFuture that completes when the task finishes
      */
@@ -89,7 +236,7 @@ public final class SerializedScheduledVirtualExecutor {
 
     /**
      * Schedule a task to execute after a delay.
-     * 
+     *
      * @param runnable the task to execute
      * @param delay the delay before execution
      * @param unit the time unit of the delay
@@ -104,11 +251,12 @@ public final class SerializedScheduledVirtualExecutor {
 
     /**
      * Schedule a Callable task to execute after a delay.
-     * 
+     *
      * @param callable the task to execute
      * @param delay the delay before execution
      * @param unit the time unit of the delay
-     * @return a CompletableFuture that will contain the task's result
+     * @return a CompletableFuture that will contain the task's result;
+     *         cancelling it removes the task from the schedule
      */
     public <T> CompletableFuture<T> schedule(Callable<T> callable, long delay, TimeUnit unit) {
         CompletableFuture<T> future = new CompletableFuture<>();
@@ -119,12 +267,9 @@ public final class SerializedScheduledVirtualExecutor {
             return future;
         }
 
-        long executeAtNanos = System.nanoTime() + unit.toNanos(delay);
-        long sequence = sequenceCounter.getAndIncrement();
-        
-        ScheduledTask<T> task = new ScheduledTask<>(callable, future, executeAtNanos, sequence);
-        queue.add(task);
-        
+        long executeAtNanos = clock.nanoTime() + unit.toNanos(delay);
+        enqueue(newTask(callable, future, executeAtNanos));
+
         return future;
     }
 
@@ -142,12 +287,57 @@ public final class SerializedScheduledVirtualExecutor {
         );
     }
 
+    /**
+     * Run callable at initialDelay + n * period. Cancel the returned future
+     * to stop; it completes exceptionally if a run throws.
+     */
     public CompletableFuture<Void> scheduleAtFixedRate(
         Callable<Void> callable,
         long initialDelay,
         long period,
         TimeUnit unit
     ) {
+        return schedulePeriodic(callable, initialDelay, period, unit, true);
+    }
+
+    public CompletableFuture<Void> scheduleWithFixedDelay(
+        Runnable runnable,
+        long initialDelay,
+        long delay,
+        TimeUnit unit
+    ) {
+        return scheduleWithFixedDelay(
+            Executors.callable(runnable, null),
+            initialDelay,
+            delay,
+            unit
+        );
+    }
+
+    /**
+     * Run callable after initialDelay, then delay after each run finishes.
+     * Cancel the returned future to stop; it completes exceptionally if a
+     * run throws.
+     */
+    public CompletableFuture<Void> scheduleWithFixedDelay(
+        Callable<Void> callable,
+        long initialDelay,
+        long delay,
+        TimeUnit unit
+    ) {
+        return schedulePeriodic(callable, initialDelay, delay, unit, false);
+    }
+
+    private CompletableFuture<Void> schedulePeriodic(
+        Callable<Void> callable,
+        long initialDelay,
+        long period,
+        TimeUnit unit,
+        boolean fixedRate
+    ) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be > 0");
+        }
         if (shutdown.get()) {
             CompletableFuture<Void> f = new CompletableFuture<>();
             f.completeExceptionally(
@@ -155,37 +345,45 @@ public final class SerializedScheduledVirtualExecutor {
             return f;
         }
 
-        FixedRateTask fixed = new FixedRateTask(callable, period, unit);
-
-        long startAt = System.nanoTime() + unit.toNanos(initialDelay);
-        fixed.scheduleNext(startAt);
+        PeriodicTask periodic = new PeriodicTask(callable, unit.toNanos(period), fixedRate);
+        periodic.scheduleNext(clock.nanoTime() + unit.toNanos(initialDelay));
 
-        return fixed.controlFuture;
+        return periodic.controlFuture;
     }
-   
+
 
     /**
      * Initiates graceful shutdown. Previously submitted tasks will execute,
-     * but no new tasks will be accepted.
+     * but no new tasks will be accepted and periodic tasks stop rescheduling.
+     * The dispatcher exits once the queue is empty.
      */
     public void shutdown() {
         shutdown.set(true);
+        clockAdvanced();
     }
 
     /**
      * Attempts to stop all actively executing tasks and cancels queued tasks.
-     * 
-     * @return list of tasks that were awaiting execution
      */
     public void shutdownNow() {
         shutdown.set(true);
 
-        // Cancel all queued tasks
-    
-        queue.forEach(t -> {
+        ScheduledTask<?>[] pending;
+        lock.lock();
+        try {
+            pending = queue.toArray(new ScheduledTask<?>[0]);
+            for (ScheduledTask<?> t : pending) {
+                t.queued = false;
+            }
+            queue.clear();
+            cancelledInQueue = 0;
+        } finally {
+            lock.unlock();
+        }
+        // Outside the lock - cancel callbacks re-enter onCancelled
+        for (ScheduledTask<?> t : pending) {
             t.future.cancel(true);
-        });
-        queue.clear();
+        }
 
         dispatcher.interrupt();
     }
@@ -193,21 +391,21 @@ public final class SerializedScheduledVirtualExecutor {
     /**
      * Blocks until all tasks have completed after a shutdown request,
      * or the timeout occurs, or the current thread is interrupted.
-     * 
+     *
      * @param timeout the maximum time to wait
      * @param unit the time unit of the timeout argument
      * @return true if executor terminated, false if timeout elapsed
      */
     public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
         long deadline = System.nanoTime() + unit.toNanos(timeout);
-        
+
         synchronized (this) {
             while (!terminated.get()) {
                 long remaining = deadline - System.nanoTime();
                 if (remaining <= 0) {
                     return false;
                 }
-                this.wait(TimeUnit.NANOSECONDS.toMillis(remaining));
+                this.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
             }
         }
         return true;
@@ -231,38 +429,65 @@ public final class SerializedScheduledVirtualExecutor {
      * Returns the approximate number of tasks waiting to execute.
      */
     public int getQueueSize() {
-        return queue.size();
+        lock.lock();
+        try {
+            return queue.size() - cancelledInQueue;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getExecutedCount() {
+        return executedCount;
     }
 
+    /** Worst start time past a task's deadline */
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos;
+    }
+
+    public double getMeanLatenessNanos() {
+        long n = executedCount;
+        return n > 0 ? (double) totalLatenessNanos / n : 0.0;
+    }
 
-    private final class FixedRateTask {
+    /** Fixed-rate runs dropped because their slot had already passed */
+    public long getSkippedPeriods() {
+        return skippedPeriods.get();
+    }
+
+
+    private final class PeriodicTask {
 
         final Callable<Void> callable;
         final long periodNanos;
+        final boolean fixedRate;
         final CompletableFuture<Void> controlFuture =
             new CompletableFuture<>();
+        volatile ScheduledTask<Void> current = null;
 
-        FixedRateTask(Callable<Void> callable, long period, TimeUnit unit) {
+        PeriodicTask(Callable<Void> callable, long periodNanos, boolean fixedRate) {
             this.callable = callable;
-            this.periodNanos = unit.toNanos(period);
+            this.periodNanos = periodNanos;
+            this.fixedRate = fixedRate;
+            controlFuture.whenComplete((r, t) -> {
+                ScheduledTask<Void> task = current;
+                if (task != null) task.future.cancel(false);
+            });
         }
 
         void scheduleNext(long executeAtNanos) {
-            if (shutdown.get() || controlFuture.isCancelled()) return;
-
-            long sequence = sequenceCounter.getAndIncrement();
+            if (shutdown.get() || controlFuture.isDone()) return;
 
-            ScheduledTask<Void> task = new ScheduledTask<>(
+            ScheduledTask<Void> task = newTask(
                 () -> {
-                    if (controlFuture.isCancelled()) {
+                    if (controlFuture.isDone()) {
                         throw new CancellationException();
                     }
 
                     try{
                         callable.call();
-
-                        long next = executeAtNanos + periodNanos;
-                        scheduleNext(next);
+                        scheduleNext(nextDeadline(executeAtNanos));
                         return null;
                     } catch(Throwable t){
                         controlFuture.completeExceptionally(t);
@@ -270,11 +495,30 @@ public final class SerializedScheduledVirtualExecutor {
                     }
                 },
                 new CompletableFuture<>(),
-                executeAtNanos,
-                sequence
+                executeAtNanos
             );
 
-            queue.add(task);
+            current = task;
+            enqueue(task);
+            // Cancelled between the isDone check and publishing current
+            if (controlFuture.isDone()) task.future.cancel(false);
+        }
+
+        private long nextDeadline(long lastDeadline) {
+            long now = clock.nanoTime();
+            if (!fixedRate) {
+                return now + periodNanos;
+            }
+            long next = lastDeadline + periodNanos;
+            long behind = now - next;
+            if (behind <= 0) {
+                return next;
+            }
+            // The run overlapped the next slot: stay on the original grid and
+            // skip to the first slot not already behind us
+            long missed = (behind + periodNanos - 1) / periodNanos;
+            skippedPeriods.addAndGet(missed);
+            return next + missed * periodNanos;
         }
     }
 }
@@ -7,6 +7,8 @@ class SerializedTask<T> {
     private final Callable<T> callable;
     private final CompletableFuture<T> future;
     protected volatile boolean isStarted = false;
+    // Set by the executor on enqueue, read by its dispatcher
+    long enqueuedNanos;
 
     SerializedTask(Callable<T> callable, CompletableFuture<T> future) {
         this.callable = callable;
@@ -10,6 +10,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.netnotes.engine.utils.LoggingHelpers.Log;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,43 +20,88 @@ import java.util.List;
  * 
  * Unlike traditional single-threaded executors, this uses virtual threads
  * for lightweight blocking operations while maintaining ordering guarantees.
+ *
+ * The dispatcher wakes on take() and then drains up to MAX_BURST queued tasks
+ * in one go, so a busy executor runs back to back without a queue handoff per
+ * task. runLater / executeFireAndForget enqueue a single task object with no
+ * CompletableFuture. Queue depth, wait and run times are kept in
+ * ExecutorMetrics (see VirtualExecutors.getExecutorMetrics()).
  */
 public final class SerializedVirtualExecutor {
 
-    
-
+    private static final int MAX_BURST = 64;
 
     private final BlockingQueue<SerializedTask<?>> queue = new LinkedBlockingQueue<>();
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
     private final AtomicBoolean terminated = new AtomicBoolean(false);
+    private final ExecutorMetrics metrics;
     private final Thread dispatcher;
 
     private final ThreadLocal<Boolean> onDispatcherThread = ThreadLocal.withInitial(() -> false);
     
 
     public SerializedVirtualExecutor() {
-        dispatcher = Thread.ofVirtual().name("SerialVT-Dispatcher").start(this::dispatchLoop);
+        this("SerialVT");
+    }
+
+    /**
+     * @param name reported by ExecutorMetrics and used for the dispatcher thread
+     */
+    public SerializedVirtualExecutor(String name) {
+        metrics = ExecutorMetrics.register(name, queue);
+        dispatcher = Thread.ofVirtual().name(name + "-Dispatcher").start(this::dispatchLoop);
     }
 
     public boolean isCurrentThread(){
         return onDispatcherThread.get();
     }
 
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Dispatch loop runs tasks serially - each task completes before the next starts.
+     * Blocks for the first task, then drains whatever else is queued into a
+     * burst; end of one task is the start of the next, one clock read each.
      */
     private void dispatchLoop() {
         onDispatcherThread.set(true);
+        List<SerializedTask<?>> burst = new ArrayList<>(MAX_BURST);
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                SerializedTask<?> task = queue.take();
-                runTask(task);
+                burst.add(queue.take());
+                queue.drainTo(burst, MAX_BURST - 1);
+                int size = burst.size();
+                metrics.onBurst(size);
+
+                long start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    SerializedTask<?> task = burst.get(i);
+                    if (Thread.currentThread().isInterrupted()) {
+                        // shutdownNow while this burst was out of the queue
+                        task.cancel();
+                        continue;
+                    }
+                    if (task.isStarted()) {
+                        continue;
+                    }
+                    boolean ok = runTask(task);
+                    long end = System.nanoTime();
+                    metrics.onRun(start - task.enqueuedNanos, end - start, ok);
+                    start = end;
+                }
+                burst.clear();
             }
         } catch (InterruptedException e) {
             // Expected during shutdown
         } finally {
+            for (SerializedTask<?> task : burst) {
+                if (task != null) task.cancel();
+            }
             onDispatcherThread.set(false);
             terminated.set(true);
+            metrics.unregister();
             synchronized (this) {
                 this.notifyAll();
             }
@@ -63,27 +109,37 @@ public final class SerializedVirtualExecutor {
     }
 
 
-    private <T> void runTask(SerializedTask<T> task) {
+    private <T> boolean runTask(SerializedTask<T> task) {
         CompletableFuture<T> f = task.getFuture();
         if(f != null && f.isCancelled()){
-            return;
+            return true;
         }
         if(f == null){
             try{
                 task.call();
+                return true;
             }catch(Exception e){
                 Log.logError("[SerializedVirtualExecutor]", "runTask", e);
+                return false;
             }
         }else{
             try {
                 T result = task.call();
                 f.complete(result);
+                return true;
             } catch (Throwable t) {
                 f.completeExceptionally(t);
+                return false;
             }
         }
     }
 
+    private void enqueue(SerializedTask<?> task) {
+        task.enqueuedNanos = System.nanoTime();
+        queue.add(task);
+        metrics.onEnqueued();
+    }
+
     /**
      * Submits a Runnable task for serial execution.
      * If already on dispatcher thread, executes immediately (reentrant).
@@ -110,6 +166,7 @@ public final class SerializedVirtualExecutor {
 
 
             CompletableFuture<Void> future = new CompletableFuture<>();
+            metrics.onInline();
             try {
                 runnable.run();
                 future.complete(null);
@@ -124,16 +181,26 @@ public final class SerializedVirtualExecutor {
         return submit(runnable, null);
     }
 
+    /**
+     * Always queue, even from the dispatcher thread. No future; errors are logged.
+     */
     public void runLater(Runnable runnable){
         if (shutdown.get()) {
+            metrics.onRejected();
             return; // Just drop it
         }
         
-        queue.add(new SimpleTask(runnable));
+        enqueue(new SimpleTask(runnable));
     }
-   
-    public void runRentrant(Runnable runnable) {
+
+    /**
+     * execute() without the CompletableFuture: runs inline on the dispatcher
+     * thread, otherwise queues one task object. Errors are logged; tasks
+     * submitted after shutdown are dropped.
+     */
+    public void executeFireAndForget(Runnable runnable) {
         if (onDispatcherThread.get()) {
+            metrics.onInline();
             try{
                 runnable.run();
             }catch(Exception e){
@@ -142,11 +209,11 @@ public final class SerializedVirtualExecutor {
             return;
         }
         
-        if (shutdown.get()) {
-            return; // Just drop it
-        }
-        
-        queue.add(new SimpleTask(runnable));
+        runLater(runnable);
+    }
+   
+    public void runRentrant(Runnable runnable) {
+        executeFireAndForget(runnable);
     }
 
     public <T> CompletableFuture<T> submit(Callable<T> callable) {
@@ -165,6 +232,7 @@ public final class SerializedVirtualExecutor {
                 return future;
             }*/
             CompletableFuture<T> future = new CompletableFuture<>();
+            metrics.onInline();
             try {
                 T result = callable.call();
                 future.complete(result);
@@ -178,12 +246,13 @@ public final class SerializedVirtualExecutor {
         CompletableFuture<T> future = new CompletableFuture<>();
 
         if (shutdown.get()) {
+            metrics.onRejected();
             future.completeExceptionally(
                 new CancellationException("Executor is shut down"));
             return future;
         }
 
-        queue.add(new SerializedTask<T>(callable, future));
+        enqueue(new SerializedTask<T>(callable, future));
         return future;
     }
 
@@ -191,6 +260,7 @@ public final class SerializedVirtualExecutor {
 
         if (onDispatcherThread.get()) {
             CompletableFuture<T> future = new CompletableFuture<>();
+            metrics.onInline();
             try {
                 runnable.run();
                 future.complete(result);
@@ -0,0 +1,147 @@
+package io.netnotes.engine.virtualExecutors;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TimeoutWheelBench - request timeouts: sleeping virtual thread vs HashedWheelTimer
+ *
+ * Models FlowProcess.request: REQUESTS concurrent requests are registered,
+ * REPLY_PERCENT of them get a reply (timeout cancelled) shortly after, the
+ * rest time out.
+ * - sleep: one virtual thread per request in Thread.sleep(timeout), reply
+ *          only removes the pending entry (the old FlowProcess path)
+ * - wheel: HashedWheelTimer.newTimeout, reply cancels the timeout
+ *
+ * Reports register cost, reply cost, heap held while all are outstanding,
+ * and how late timeouts fire (mean / max past the deadline).
+ *
+ * usage: java -cp .. io.netnotes.engine.virtualExecutors.TimeoutWheelBench [requests] [timeoutMs]
+ */
+public class TimeoutWheelBench {
+
+    private static final int REPLY_PERCENT = 90;
+
+    record Result(double registerNs, double replyNs, long heapBytes, double meanLateMs, double maxLateMs) {}
+
+    public static void main(String... args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long timeoutMs = args.length > 1 ? Long.parseLong(args[1]) : 500;
+
+        ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            // Warm up both paths once
+            runSleep(requests / 10, timeoutMs, exec);
+            runWheel(requests / 10, timeoutMs, exec);
+
+            System.out.format("requests=%d timeout=%dms replied=%d%%%n", requests, timeoutMs, REPLY_PERCENT);
+            System.out.format("mode  | register (ns) | reply (ns) | heap held (MB) | late mean (ms) | late max (ms)%n");
+            report("sleep", runSleep(requests, timeoutMs, exec));
+            report("wheel", runWheel(requests, timeoutMs, exec));
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    private static Result runSleep(int requests, long timeoutMs, ExecutorService exec) throws Exception {
+        ConcurrentHashMap<Integer, Long> pending = new ConcurrentHashMap<>();
+        int expiring = requests - requests * REPLY_PERCENT / 100;
+        CountDownLatch expired = new CountDownLatch(expiring);
+        AtomicLong lateSum = new AtomicLong();
+        AtomicLong lateMax = new AtomicLong();
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final Integer id = i;
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            pending.put(id, deadline);
+            exec.execute(() -> {
+                try {
+                    Thread.sleep(timeoutMs);
+                    Long d = pending.remove(id);
+                    if (d != null) {
+                        recordLate(d, lateSum, lateMax);
+                        expired.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        long registerNs = System.nanoTime() - start;
+        long heapBytes = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            if (i % 100 < REPLY_PERCENT) {
+                pending.remove(i);
+            }
+        }
+        long replyNs = System.nanoTime() - start;
+        int replied = requests - expiring;
+
+        expired.await();
+        return new Result(registerNs / (double) requests, replyNs / (double) replied, heapBytes,
+            lateSum.get() / 1e6 / expiring, lateMax.get() / 1e6);
+    }
+
+    private static Result runWheel(int requests, long timeoutMs, ExecutorService exec) throws Exception {
+        HashedWheelTimer wheel = new HashedWheelTimer("bench", 10, TimeUnit.MILLISECONDS, 512, exec);
+        HashedWheelTimer.Timeout[] timeouts = new HashedWheelTimer.Timeout[requests];
+        int expiring = requests - requests * REPLY_PERCENT / 100;
+        CountDownLatch expired = new CountDownLatch(expiring);
+        AtomicLong lateSum = new AtomicLong();
+        AtomicLong lateMax = new AtomicLong();
+
+        try {
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                timeouts[i] = wheel.newTimeout(() -> {
+                    recordLate(deadline, lateSum, lateMax);
+                    expired.countDown();
+                }, timeoutMs, TimeUnit.MILLISECONDS);
+            }
+            long registerNs = System.nanoTime() - start;
+            long heapBytes = usedHeap() - heapBefore;
+
+            start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                if (i % 100 < REPLY_PERCENT) {
+                    timeouts[i].cancel();
+                }
+            }
+            long replyNs = System.nanoTime() - start;
+            int replied = requests - expiring;
+
+            expired.await();
+            return new Result(registerNs / (double) requests, replyNs / (double) replied, heapBytes,
+                lateSum.get() / 1e6 / expiring, lateMax.get() / 1e6);
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    private static void recordLate(long deadline, AtomicLong sum, AtomicLong max) {
+        long late = Math.max(0, System.nanoTime() - deadline);
+        sum.addAndGet(late);
+        max.accumulateAndGet(late, Math::max);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static void report(String mode, Result r) {
+        System.out.format("%-5s | %13.0f | %10.0f | %14.1f | %14.2f | %13.2f%n",
+            mode, r.registerNs(), r.replyNs(), r.heapBytes() / (1024.0 * 1024.0),
+            r.meanLateMs(), r.maxLateMs());
+    }
+}
@@ -1,5 +1,6 @@
 package io.netnotes.engine.virtualExecutors;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -15,10 +16,13 @@ public class VirtualExecutors {
     private static final ScheduledExecutorService virtualScheduled = Executors.newScheduledThreadPool(0, Thread.ofVirtual().factory());
     
     // Serialized virtual executors (for ordered execution)
-    private static final SerializedVirtualExecutor serializedVirtual = new SerializedVirtualExecutor();
-    private static final SerializedVirtualExecutor serializedIo = new SerializedVirtualExecutor();
+    private static final SerializedVirtualExecutor serializedVirtual = new SerializedVirtualExecutor("UI");
+    private static final SerializedVirtualExecutor serializedIo = new SerializedVirtualExecutor("IO");
     private static final SerializedScheduledVirtualExecutor serializedScheduledVirtual = new SerializedScheduledVirtualExecutor();
 
+    // Shared timeout wheel (request/ack timeouts), 10ms resolution
+    private static final HashedWheelTimer timeoutWheel = new HashedWheelTimer("timeouts", 10, TimeUnit.MILLISECONDS, 512, virtualExecutor);
+
     /**
      * Get the shared virtual thread executor.
      * Use getSerializedVirtualExecutor() for ordered execution
@@ -65,6 +69,28 @@ public class VirtualExecutors {
         return serializedScheduledVirtual;
     }
 
+    /**
+     * Get the shared timeout wheel.
+     * For many short timeouts that are usually cancelled (request/reply
+     * correlation). Expired tasks run on the virtual executor; precision is
+     * one tick (10ms).
+     *
+     * @return the shared HashedWheelTimer
+     */
+    public static HashedWheelTimer getTimeoutWheel() {
+        return timeoutWheel;
+    }
+
+    /**
+     * Telemetry of every live SerializedVirtualExecutor (shared, per-container,
+     * per-channel, daemon).
+     *
+     * @return one ExecutorMetrics per executor that has not terminated
+     */
+    public static List<ExecutorMetrics> getExecutorMetrics() {
+        return ExecutorMetrics.live();
+    }
+
     /**
      *  Create a debounced executor with TRAILING strategy with specified delay.
      * Each instance maintains its own debounce state.
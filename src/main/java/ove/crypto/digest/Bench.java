@@ -19,9 +19,17 @@
 
 package ove.crypto.digest;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import io.netnotes.engine.crypto.Blake2bTreeHasher;
 import ove.alphazero.util.CmdLineArgs;
 
 
@@ -31,6 +39,7 @@ public class Bench implements Runnable {
 	interface Default {
 		int warmup = 3; // seconds
 		String digest = "blake2b-512";
+		int maxMb = 10240; // tree suite: largest input
 	}
 
 	static volatile boolean f_run = true;
@@ -46,6 +55,9 @@ public class Bench implements Runnable {
 			explain ("-d",  "digest algorithm to bench - one of " +
 					"{blake2-256, blake2-256, sha1, sha-256, sha-512, md5}. default: %s", Default.digest);
 			explain ("-w",  "warm-up delay in seconds. default: %d seconds", Default.warmup);
+			explain ("--tree", "file suite: sequential vs tree mode blake2b-256, 1 MB up to -m");
+			explain ("-m",  "tree suite largest input in MB. default: %d", Default.maxMb);
+			explain ("-f",  "tree suite scratch directory. default: java.io.tmpdir");
 
 			return -1;
 		}
@@ -60,6 +72,13 @@ public class Bench implements Runnable {
 			String algorithm = clargs.getOption("d", Default.digest);
 			int warmup = clargs.getIntOption("w", Default.warmup);
 
+			if (clargs.checkFlag("tree")) {
+				final int maxMb = clargs.getIntOption("m", Default.maxMb);
+				final String dir = clargs.getOption("f", System.getProperty("java.io.tmpdir"));
+				TreeSuite.run(maxMb, new File(dir), warmup);
+				return;
+			}
+
 			final Bench bench = new Bench (algorithm, warmup);
 			final Thread brth = new Thread(bench, "bench-runner");
 			brth.start();
@@ -198,4 +217,91 @@ public class Bench implements Runnable {
 			throw fault;
 		}
 	}
+
+	// ---------------------------------------------------------------------
+	// Tree suite
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Sequential blake2b-256 over a FileInputStream (as HashServices.
+	 * digestFileBlake2b) vs Blake2bTreeHasher on one thread and on all cores,
+	 * for files of 1 MB, 10 MB, .. up to maxMb. Inputs past RAM size measure
+	 * the disk as much as the digest.
+	 */
+	static final class TreeSuite {
+		private static final int MB = 1 << 20;
+		private static final int BUFFER_SIZE = 128 * 1024;
+
+		static void run (final int maxMb, final File dir, final int warmup) throws IOException {
+			final Blake2bTreeHasher hasher = new Blake2bTreeHasher();
+			final int cores = Runtime.getRuntime().availableProcessors();
+
+			puts (String.format("Bench - blake2b-256 sequential vs tree (leaf %d KB, %d cores)",
+					hasher.getLeafLength() / 1024, cores));
+			puts ("");
+			puts ("size (MB) | sequential (MB/sec) | tree 1 thread (MB/sec) | tree parallel (MB/sec) | speedup");
+
+			try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (long sizeMb = 1; sizeMb <= maxMb; sizeMb *= 10) {
+					final File file = new File(dir, "blake2b-tree-bench.bin");
+					try {
+						write (file, sizeMb);
+						final int runs = sizeMb <= 1024 ? 3 : 1;
+						final int rounds = sizeMb <= 100 ? Math.max(1, warmup) * 10 : 1;
+
+						final double seq = best (runs, rounds, sizeMb, () -> sequential (file));
+						final double single = best (runs, rounds, sizeMb, () -> hasher.digest (file, null));
+						final double parallel = best (runs, rounds, sizeMb, () -> hasher.digest (file, exec));
+
+						System.out.format("%9d | %19.1f | %22.1f | %22.1f | %6.2fx%n",
+								sizeMb, seq, single, parallel, parallel / seq);
+					} finally {
+						file.delete();
+					}
+				}
+			}
+		}
+
+		interface FileCall {
+			byte[] func () throws IOException;
+		}
+
+		/** best MB/sec of runs, each hashing the file rounds times */
+		private static double best (final int runs, final int rounds, final long sizeMb, final FileCall call) throws IOException {
+			call.func(); // page cache + JIT
+			double best = 0;
+			for (int run = 0; run < runs; run++) {
+				final long start = System.nanoTime();
+				for (int i = 0; i < rounds; i++) {
+					call.func();
+				}
+				final double seconds = (System.nanoTime() - start) / 1e9;
+				best = Math.max(best, sizeMb * rounds / seconds);
+			}
+			return best;
+		}
+
+		private static byte[] sequential (final File file) throws IOException {
+			final Blake2b digest = Blake2b.Digest.newInstance(32);
+			try (FileInputStream in = new FileInputStream(file)) {
+				final byte[] buffer = new byte[BUFFER_SIZE];
+				int n;
+				while ((n = in.read(buffer)) != -1) {
+					digest.update(buffer, 0, n);
+				}
+			}
+			return digest.digest();
+		}
+
+		private static void write (final File file, final long sizeMb) throws IOException {
+			final byte[] block = new byte[MB];
+			final Random random = new Random(sizeMb);
+			try (FileOutputStream out = new FileOutputStream(file)) {
+				for (long i = 0; i < sizeMb; i++) {
+					random.nextBytes(block);
+					out.write(block);
+				}
+			}
+		}
+	}
 }
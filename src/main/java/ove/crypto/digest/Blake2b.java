@@ -275,6 +275,17 @@ public interface Blake2b {
 			final Param nodeParam = treeParam().setNodeDepth(depth).setNodeOffset(offset).setDigestLength(inner_length);
 			return Digest.newInstance(nodeParam);
 		}
+		/**
+		 * returns the Digest for tree node @ (depth, offset), with the last_node
+		 * flag set explicitly -- needed with unlimited fanout (0), where the
+		 * last node of a level is only known from the input length
+		 */
+		public final Digest getNode (final int depth, final long offset, final boolean lastNode) {
+			final Param nodeParam = treeParam().setNodeDepth(depth).setNodeOffset(offset).setDigestLength(inner_length);
+			final Digest node = Digest.newInstance(nodeParam);
+			((Engine) node).state.last_node = lastNode;
+			return node;
+		}
 		/** returns the Digest for root node */
 		public final Digest getRoot () {
 			final int depth = this.depth - 1;
@@ -1990,8 +2001,10 @@ public interface Blake2b {
 			this.hasKey  = true;
 			return this;
 		}
+		/** 0 is unlimited fanout, per spec */
 		public final Param setFanout(int fanout) {
-			assert fanout > 0 : assertFail("fanout", fanout, exclusiveLowerBound, 0);
+			assert fanout >= 0 : assertFail("fanout", fanout, inclusiveLowerBound, 0);
+			assert fanout <= Spec.max_tree_fantout : assertFail("fanout", fanout, inclusiveUpperBound, Spec.max_tree_fantout);
 
 			lazyInitBytes();
 			bytes[ Xoff.fanout ] = (byte) fanout;